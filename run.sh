@@ -21,7 +21,7 @@ echo "Maven version: $(mvn -version 2>&1 | head -n 1)"
 
 echo ""
 echo "🔨 Building project..."
-mvn clean compile
+mvn clean process-classes
 
 if [ $? -eq 0 ]; then
     echo "✅ Build successful!"
@@ -31,7 +31,7 @@ if [ $? -eq 0 ]; then
     echo ""
     
     # Run the main application
-    mvn exec:java -Dexec.mainClass="main.java.CoachApp"
+    mvn exec:java -Dexec.mainClass="com.lolcoach.CoachApp"
 else
     echo "❌ Build failed. Please check the error messages above."
     exit 1
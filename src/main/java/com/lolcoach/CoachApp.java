@@ -1,23 +1,55 @@
 package com.lolcoach;
 
 import com.lolcoach.model.Scenario;
+import com.lolcoach.service.AdviceFragments;
+import com.lolcoach.service.BuildRecommender;
+import com.lolcoach.service.MatchStore;
+import com.lolcoach.service.PowerCurves;
 import com.lolcoach.service.TacticsService;
+import com.lolcoach.service.TeamAnalysisService;
+import com.lolcoach.model.TeamAdvice;
 import com.lolcoach.service.TtsService;
 import com.lolcoach.api.RiotApiService;
+import com.lolcoach.audio.AudioOutput;
+import com.lolcoach.audio.AudioSink;
+import com.lolcoach.audio.FileAudioSink;
+import com.lolcoach.audio.LineAudioSink;
+import com.lolcoach.profile.ProfileSession;
+import com.lolcoach.profile.ProfileStore;
+import com.lolcoach.jfr.CoachEvents;
+import com.lolcoach.push.PushServer;
+import com.lolcoach.ranking.AdviceRanker;
+import com.lolcoach.replay.SessionRecorder;
+import com.lolcoach.sketch.UsageSketches;
+import com.lolcoach.staticdata.StaticDataCache;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 import java.util.logging.LogManager;
+import javax.sound.sampled.LineUnavailableException;
 
 public class CoachApp {
     private static final Logger LOGGER = Logger.getLogger(CoachApp.class.getName());
+    private static final long SKETCH_SAVE_INTERVAL_SECONDS = 60;
     
-    // Core services
-    private VoiceInput voiceInput;
-    private Parser parser;
-    private TacticsService tacticsService;
-    private TtsService ttsService;
-    private RiotApiService riotApiService;
+    // Core services, built in parallel off the startup path
+    private LazyService<VoiceInput> voiceInput;
+    private LazyService<Parser> parser;
+    private LazyService<TacticsService> tacticsService;
+    private LazyService<TtsService> ttsService;
+    private LazyService<RiotApiService> riotApiService;
+    private LazyService<CoachPipeline> pipeline;
+    private LazyService<TeamAnalysisService> teamAnalysisService;
+    private ExecutorService startupExecutor;
     
     // Application state
     private boolean isRunning = false;
@@ -30,16 +62,198 @@ public class CoachApp {
     }
     
     /**
-     * Initialize all the core services
+     * Start initializing the core services in the background. Heavy assets
+     * (speech models, voices) warm up while the menu is shown; a service
+     * that is needed before it is ready is waited for on first use.
      */
     private void initializeServices() {
-        voiceInput = new VoiceInput();
-        parser = new Parser();
-        tacticsService = new TacticsService();
-        ttsService = new TtsService();
-        riotApiService = new RiotApiService();
+        startupExecutor = Executors.newFixedThreadPool(
+                Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())), runnable -> {
+            Thread thread = new Thread(runnable, "service-init");
+            thread.setDaemon(true);
+            return thread;
+        });
         
-        LOGGER.info("All services initialized");
+        // Count hot champions, matchups and questions when -Dlolcoach.sketches=<file> is set
+        String sketchFile = System.getProperty("lolcoach.sketches");
+        UsageSketches usageSketches = sketchFile != null ? loadUsageSketches(Paths.get(sketchFile)) : null;
+        if (usageSketches != null) {
+            Runnable save = () -> {
+                try {
+                    usageSketches.save(Paths.get(sketchFile));
+                } catch (Exception e) {
+                    LOGGER.log(Level.WARNING, "Could not save usage sketches", e);
+                }
+            };
+            // Save periodically too, so a crash or a killed process loses at most one interval
+            ScheduledExecutorService sketchSaver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "sketch-save");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sketchSaver.scheduleWithFixedDelay(save, SKETCH_SAVE_INTERVAL_SECONDS, SKETCH_SAVE_INTERVAL_SECONDS,
+                    TimeUnit.SECONDS);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                sketchSaver.shutdownNow();
+                save.run();
+            }, "sketch-save-exit"));
+        }
+        
+        // Register Flight Recorder events before the first request when -Dlolcoach.jfr=true is set
+        if (CoachEvents.ENABLED) {
+            startupExecutor.execute(CoachEvents::warmUp);
+        }
+        
+        parser = new LazyService<>("Parser", () -> {
+            Parser service = new Parser();
+            service.setUsageSketches(usageSketches);
+            return service;
+        }, startupExecutor);
+        riotApiService = new LazyService<>("RiotApiService", RiotApiService::new, startupExecutor);
+        tacticsService = new LazyService<>("TacticsService", () -> {
+            TacticsService service = new TacticsService();
+            service.setHistorySource(riotApiService.get());
+            service.setUsageSketches(usageSketches);
+            
+            // Use a local match corpus for history and item builds when -Dlolcoach.matchstore=<file> is set
+            String storeFile = System.getProperty("lolcoach.matchstore");
+            if (storeFile != null) {
+                MatchStore store = new MatchStore(Paths.get(storeFile));
+                service.setMatchStore(store);
+                service.setBuildRecommender(BuildRecommender.attach(store));
+                // Pick up matches added by MatchImporter while the app runs
+                store.watch(5);
+            }
+            
+            // Describe champions from imported Data Dragon patches when -Dlolcoach.staticdata=<dir> is set;
+            // the power curves fall back to built-in stats without them
+            PowerCurves powerCurves = new PowerCurves();
+            String staticDataDir = System.getProperty("lolcoach.staticdata");
+            if (staticDataDir != null) {
+                StaticDataCache staticData = StaticDataCache.open(Paths.get(staticDataDir));
+                service.setStaticData(staticData);
+                powerCurves.setStaticData(staticData);
+            }
+            service.setPowerCurves(powerCurves);
+            
+            // Order advice by a model trained with RankerTrainer when -Dlolcoach.ranker=<model.bin> is set
+            String rankerFile = System.getProperty("lolcoach.ranker");
+            if (rankerFile != null) {
+                try {
+                    service.setAdviceRanker(AdviceRanker.load(Paths.get(rankerFile)));
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Could not load advice ranker, using the fixed order", e);
+                }
+            }
+            
+            // Remember the player's games across runs when -Dlolcoach.profiles=<dir> is set;
+            // -Dlolcoach.player=<name> picks the profile, defaulting to the OS user
+            String profileDir = System.getProperty("lolcoach.profiles");
+            if (profileDir != null) {
+                try {
+                    service.setProfileStore(ProfileStore.open(Paths.get(profileDir)),
+                                            System.getProperty("lolcoach.player", System.getProperty("user.name")));
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Could not open player profiles", e);
+                }
+            }
+            return service;
+        }, startupExecutor);
+        pipeline = new LazyService<>("CoachPipeline", this::createPipeline, startupExecutor);
+        teamAnalysisService = new LazyService<>("TeamAnalysisService", () -> {
+            TeamAnalysisService service = new TeamAnalysisService(tacticsService.get());
+            service.setPowerCurves(tacticsService.get().getPowerCurves());
+            return service;
+        }, startupExecutor);
+        ttsService = new LazyService<>("TtsService", () -> {
+            TtsService service = new TtsService();
+            service.warmUp();
+            
+            // Play speech on the speakers (-Dlolcoach.audio.output=line) or into a WAV file (=<file.wav>)
+            String outputTarget = System.getProperty("lolcoach.audio.output");
+            if (outputTarget != null) {
+                service.setAudioOutput(openAudioOutput(outputTarget));
+            }
+            return service;
+        }, startupExecutor);
+        voiceInput = new LazyService<>("VoiceInput", () -> {
+            VoiceInput service = new VoiceInput();
+            service.warmUp();
+            return service;
+        }, startupExecutor);
+        
+        // Text advice path first, then the heavy audio assets. Dependencies are
+        // prefetched before their dependents, so a worker never waits on a queued task.
+        parser.prefetch();
+        riotApiService.prefetch();
+        tacticsService.prefetch();
+        pipeline.prefetch();
+        ttsService.prefetch();
+        voiceInput.prefetch();
+        startupExecutor.execute(() -> tacticsService.get().getPowerCurves().warmUp());
+        
+        LOGGER.info("Service initialization started");
+    }
+    
+    /**
+     * Loads the counts saved by earlier runs. An unreadable file disables counting rather than
+     * being overwritten by this run's counts.
+     */
+    private static UsageSketches loadUsageSketches(Path file) {
+        try {
+            return UsageSketches.loadOrCreate(file);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not read usage sketches from " + file + ", usage counting is off", e);
+            return null;
+        }
+    }
+    
+    private static AudioOutput openAudioOutput(String target) {
+        int latencyMillis = Integer.getInteger("lolcoach.audio.latency", AudioOutput.DEFAULT_LATENCY_MILLIS);
+        int bufferBytes = AudioOutput.bufferBytes(latencyMillis);
+        try {
+            AudioSink sink = target.equals("line")
+                    ? LineAudioSink.openDefault(bufferBytes)
+                    : new FileAudioSink(new File(target), bufferBytes, true);
+            AudioOutput output = new AudioOutput(sink, latencyMillis, AudioOutput.DEFAULT_MAX_CLIP_SECONDS);
+            output.start();
+            return output;
+        } catch (LineUnavailableException e) {
+            LOGGER.log(Level.WARNING, "No speaker line available, speech stays text-only", e);
+            return null;
+        }
+    }
+    
+    private CoachPipeline createPipeline() {
+        CoachPipeline coachPipeline = new CoachPipeline(parser.get(), riotApiService.get(), tacticsService.get());
+        coachPipeline.setSessionContext(new SessionContext());
+        if (tacticsService.get().getProfileStore() != null) {
+            coachPipeline.setProfileSession(new ProfileSession(tacticsService.get().getProfileStore(),
+                                                               tacticsService.get().getPlayer()));
+        }
+        
+        // Record the session for later replay when -Dlolcoach.record=<file> is set
+        String recordFile = System.getProperty("lolcoach.record");
+        if (recordFile != null && !recordFile.isEmpty()) {
+            try {
+                coachPipeline.setRecorder(new SessionRecorder(Paths.get(recordFile)));
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Could not start session recording", e);
+            }
+        }
+        
+        // Broadcast scenarios and advice to overlays when -Dlolcoach.push=<port> is set
+        String pushPort = System.getProperty("lolcoach.push");
+        if (pushPort != null) {
+            try {
+                PushServer pushServer = new PushServer(pushPort.isEmpty() ? PushServer.DEFAULT_PORT : Integer.parseInt(pushPort));
+                pushServer.start();
+                coachPipeline.setPushServer(pushServer);
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Could not start push server", e);
+            }
+        }
+        return coachPipeline;
     }
     
     /**
@@ -89,6 +303,9 @@ public class CoachApp {
                     case "5":
                         exit();
                         break;
+                    case "6":
+                        runHandsFree();
+                        break;
                     default:
                         System.out.println("Invalid choice. Please try again.");
                 }
@@ -110,12 +327,46 @@ public class CoachApp {
         System.out.println("\n🎤 Listening for voice input...");
         System.out.println("(In production, this would use Vosk for speech recognition)");
         
-        String recognizedText = voiceInput.listenToVoice();
+        String recognizedText = voiceInput.get().listenToVoice();
         System.out.println("Recognized: " + recognizedText);
         
         processScenario(recognizedText);
     }
     
+    /**
+     * Hands-free mode: a wake word (enrolled from -Dlolcoach.wakeword=<file.wav>)
+     * or Enter as push-to-talk triggers voice input, until the user types q
+     */
+    private void runHandsFree() {
+        HandsFreeMode handsFree = new HandsFreeMode(voiceInput.get(), this::deliverAdvice);
+        String wakeWord = System.getProperty("lolcoach.wakeword");
+        boolean wakeWordActive = handsFree.start(wakeWord != null ? new File(wakeWord) : null);
+        
+        System.out.println("\n🎧 Hands-free mode");
+        System.out.println(wakeWordActive ? "Say the wake word or press Enter to talk." : "Press Enter to talk.");
+        System.out.println("Type q and press Enter to leave hands-free mode.");
+        
+        while (true) {
+            String line = getUserInput();
+            if (line.equalsIgnoreCase("q")) {
+                break;
+            }
+            handsFree.getPushToTalk().press();
+            handsFree.getPushToTalk().release();
+        }
+        handsFree.stop();
+    }
+    
+    /**
+     * Prints and speaks advice without the interactive follow-up menu
+     */
+    private void deliverAdvice(String input) {
+        System.out.println("Recognized: " + input);
+        String advice = advise(input).getAdvice();
+        System.out.println("\n💡 " + advice);
+        ttsService.get().speakAdvice(advice);
+    }
+    
     /**
      * Process text input from the user
      */
@@ -134,19 +385,15 @@ public class CoachApp {
         try {
             System.out.println("\n🔄 Processing scenario...");
             
-            // Parse the input into structured data
-            Scenario scenario = parser.parseScenario(input);
-            System.out.println("Parsed scenario: " + scenario);
-            
-            // Optionally enrich with live data if API is available
-            if (riotApiService.isConnected()) {
+            // Parse, optionally enrich with live data, and generate tactical advice
+            if (riotApiService.get().isConnected()) {
                 System.out.println("📡 Enriching with live game data...");
-                scenario = riotApiService.enrichScenarioWithLiveData(scenario);
             }
-            
-            // Generate tactical advice
             System.out.println("🧠 Generating tactical advice...");
-            String advice = tacticsService.generateAdvice(scenario);
+            PipelineResult result = advise(input);
+            Scenario scenario = result.getScenario();
+            String advice = result.getAdvice();
+            System.out.println("Parsed scenario: " + scenario);
             
             // Display the advice
             System.out.println("\n💡 TACTICAL ADVICE:");
@@ -156,7 +403,7 @@ public class CoachApp {
             
             // Speak the advice
             System.out.println("\n🔊 Speaking advice...");
-            ttsService.speakAdvice(advice);
+            ttsService.get().speakAdvice(advice);
             
             // Show additional options
             showAdviceOptions(scenario);
@@ -167,6 +414,15 @@ public class CoachApp {
         }
     }
     
+    /**
+     * Runs an utterance through the coaching pipeline, waiting for the services if still starting
+     * @param input Recognized or typed text
+     * @return Scenario, advice and stage latencies
+     */
+    public PipelineResult advise(String input) {
+        return pipeline.get().process(input);
+    }
+    
     /**
      * Show options after advice is given
      */
@@ -174,25 +430,35 @@ public class CoachApp {
         System.out.println("\n📋 What would you like to do next?");
         System.out.println("1. Get more detailed advice");
         System.out.println("2. View similar pro matches");
-        System.out.println("3. Return to main menu");
+        System.out.println("3. Get team-wide calls");
+        System.out.println("4. Return to main menu");
         
         String choice = getUserInput();
         
         switch (choice) {
             case "1":
-                String detailedAdvice = tacticsService.generateAdvice(scenario);
-                System.out.println("\n📚 DETAILED ADVICE:");
-                System.out.println(detailedAdvice);
+                showDetailedAdvice();
                 break;
             case "2":
                 System.out.println("\n🏆 Fetching similar pro matches...");
-                var proMatches = tacticsService.fetchProMatchData(scenario);
+                var proMatches = tacticsService.get().fetchProMatchData(scenario);
                 System.out.println("Found " + proMatches.size() + " similar pro matches");
                 for (var match : proMatches) {
                     System.out.println("- " + match.getAdvice());
                 }
                 break;
             case "3":
+                System.out.println("\n👥 Analyzing all lanes...");
+                TeamAdvice teamAdvice = teamAnalysisService.get().analyzeTeam(scenario, riotApiService.get().fetchLiveGameData());
+                System.out.println("\n📣 TEAM CALLS:");
+                for (String call : teamAdvice.getCalls()) {
+                    System.out.println("- " + call);
+                }
+                if (teamAdvice.isPartial()) {
+                    System.out.println("(Some lanes could not be analyzed in time)");
+                }
+                break;
+            case "4":
                 System.out.println("Returning to main menu...");
                 break;
             default:
@@ -200,6 +466,27 @@ public class CoachApp {
         }
     }
     
+    /**
+     * Shows the merged conversation context and each part of the last advice,
+     * marking which parts the last utterance changed
+     */
+    private void showDetailedAdvice() {
+        SessionContext context = pipeline.get().getSessionContext();
+        System.out.println("\n📚 DETAILED ADVICE:");
+        System.out.println("What I know so far: " + context.getScenario());
+        System.out.println("Changed by your last update: " + context.getLastChanged());
+        
+        AdviceFragments fragments = context.getFragments();
+        Set<AdviceFragments.Fragment> regenerated = fragments.getRegenerated();
+        for (AdviceFragments.Fragment fragment : AdviceFragments.Fragment.values()) {
+            String text = fragments.getText(fragment);
+            if (text != null) {
+                System.out.println((regenerated.contains(fragment) ? "* " : "- ") + text.trim());
+            }
+        }
+        System.out.println("(* = updated for your last message; say \"new game\" to start over)");
+    }
+    
     /**
      * Configure the Riot API
      */
@@ -212,9 +499,9 @@ public class CoachApp {
             System.out.println("Enter your region (e.g., na1, euw1):");
             String region = getUserInput();
             
-            riotApiService.configure(apiKey, region);
+            riotApiService.get().configure(apiKey, region);
             
-            if (riotApiService.connect()) {
+            if (riotApiService.get().connect()) {
                 System.out.println("✅ Successfully connected to Riot API!");
             } else {
                 System.out.println("❌ Failed to connect to Riot API");
@@ -236,6 +523,7 @@ public class CoachApp {
         System.out.println("3. ⚙️  Configure API");
         System.out.println("4. ❓ Help");
         System.out.println("5. 🚪 Exit");
+        System.out.println("6. 🎧 Hands-free Mode");
         System.out.println("=".repeat(50));
         System.out.print("Choose an option: ");
     }
@@ -288,6 +576,33 @@ public class CoachApp {
         System.out.println("Good luck on the Rift! 🏆");
         isRunning = false;
         
+        if (teamAnalysisService.isReady()) {
+            teamAnalysisService.get().shutdown();
+        }
+        if (pipeline.isReady() && pipeline.get().getRecorder() != null) {
+            pipeline.get().getRecorder().close();
+        }
+        if (pipeline.isReady() && pipeline.get().getPushServer() != null) {
+            pipeline.get().getPushServer().close();
+        }
+        if (pipeline.isReady() && pipeline.get().getProfileSession() != null) {
+            pipeline.get().getProfileSession().finish();
+        }
+        if (tacticsService.isReady() && tacticsService.get().getProfileStore() != null) {
+            try {
+                tacticsService.get().getProfileStore().close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Could not close player profiles", e);
+            }
+        }
+        if (ttsService.isReady() && ttsService.get().getAudioOutput() != null) {
+            try {
+                ttsService.get().getAudioOutput().close();
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Could not close audio output", e);
+            }
+        }
+        
         if (scanner != null) {
             scanner.close();
         }
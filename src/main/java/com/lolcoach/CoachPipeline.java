@@ -0,0 +1,167 @@
+package com.lolcoach;
+
+import com.lolcoach.api.RiotApiService;
+import com.lolcoach.model.AdviceResult;
+import com.lolcoach.model.Scenario;
+import com.lolcoach.profile.ProfileSession;
+import com.lolcoach.push.PushServer;
+import com.lolcoach.replay.SessionRecorder;
+import com.lolcoach.service.Deadline;
+import com.lolcoach.service.TacticsService;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Runs recognized text through parsing, live-data enrichment and advice
+ * generation, optionally recording every stage for later replay. With a
+ * session context, each utterance refines the previous scenario.
+ */
+public class CoachPipeline {
+    private static final Logger LOGGER = Logger.getLogger(CoachPipeline.class.getName());
+    
+    // Advice older than this is no use mid-fight
+    private static final long DEFAULT_LATENCY_BUDGET_MILLIS = 300;
+    
+    private final Parser parser;
+    private final RiotApiService riotApiService;
+    private final TacticsService tacticsService;
+    
+    // Optional recorder capturing each stage's inputs and outputs
+    private SessionRecorder recorder;
+    
+    // Optional conversation context; follow-ups then only need to mention what changed
+    private SessionContext sessionContext;
+    
+    // Optional channel broadcasting scenarios and advice to overlays
+    private PushServer pushServer;
+    
+    // Optional tracker remembering each game in the player's profile
+    private ProfileSession profileSession;
+    
+    private long latencyBudgetMillis = DEFAULT_LATENCY_BUDGET_MILLIS;
+    
+    public CoachPipeline(Parser parser, RiotApiService riotApiService, TacticsService tacticsService) {
+        this.parser = parser;
+        this.riotApiService = riotApiService;
+        this.tacticsService = tacticsService;
+    }
+    
+    public void setRecorder(SessionRecorder recorder) {
+        this.recorder = recorder;
+    }
+    
+    public SessionRecorder getRecorder() {
+        return recorder;
+    }
+    
+    public void setSessionContext(SessionContext sessionContext) {
+        this.sessionContext = sessionContext;
+    }
+    
+    public SessionContext getSessionContext() {
+        return sessionContext;
+    }
+    
+    public void setPushServer(PushServer pushServer) {
+        this.pushServer = pushServer;
+    }
+    
+    public PushServer getPushServer() {
+        return pushServer;
+    }
+    
+    public void setProfileSession(ProfileSession profileSession) {
+        this.profileSession = profileSession;
+    }
+    
+    public ProfileSession getProfileSession() {
+        return profileSession;
+    }
+    
+    /**
+     * Sets the end-to-end time allowed per utterance; stages degrade to cheaper answers when it runs out
+     */
+    public void setLatencyBudgetMillis(long latencyBudgetMillis) {
+        this.latencyBudgetMillis = latencyBudgetMillis;
+    }
+    
+    public long getLatencyBudgetMillis() {
+        return latencyBudgetMillis;
+    }
+    
+    /**
+     * Processes an utterance, fetching live data if the API is connected
+     * @param input Recognized or typed text
+     * @return Scenario, advice and stage latencies
+     */
+    public PipelineResult process(String input) {
+        Deadline deadline = Deadline.after(latencyBudgetMillis);
+        Map<String, Object> liveData = riotApiService.isConnected() ? riotApiService.fetchLiveGameData(deadline) : null;
+        return process(input, liveData, deadline);
+    }
+    
+    /**
+     * Processes an utterance against a given live data snapshot
+     * @param input Recognized or typed text
+     * @param liveData Live game snapshot, or null to skip enrichment
+     * @return Scenario, advice and stage latencies
+     */
+    public PipelineResult process(String input, Map<String, Object> liveData) {
+        return process(input, liveData, Deadline.after(latencyBudgetMillis));
+    }
+    
+    private PipelineResult process(String input, Map<String, Object> liveData, Deadline deadline) {
+        if (recorder != null) {
+            recorder.recordInput(input);
+        }
+        
+        long start = System.nanoTime();
+        Scenario scenario = sessionContext != null
+                ? parser.parseScenario(input, sessionContext) : parser.parseScenario(input);
+        long parseNanos = System.nanoTime() - start;
+        if (recorder != null) {
+            recorder.recordParsed(scenario, parseNanos);
+        }
+        
+        long enrichNanos = 0;
+        if (liveData != null && !liveData.isEmpty() && !deadline.isExpired()) {
+            if (recorder != null) {
+                recorder.recordLiveData(liveData);
+            }
+            start = System.nanoTime();
+            scenario = riotApiService.enrichScenarioWithLiveData(scenario, liveData);
+            enrichNanos = System.nanoTime() - start;
+            if (recorder != null) {
+                recorder.recordEnriched(scenario, enrichNanos);
+            }
+        }
+        
+        if (pushServer != null) {
+            pushServer.publish(PushServer.EVENT_SCENARIO, scenario);
+        }
+        if (profileSession != null) {
+            profileSession.observe(input, scenario, sessionContext != null ? sessionContext.getGame() : 0);
+        }
+        
+        start = System.nanoTime();
+        AdviceResult advice = tacticsService.generateAdvice(scenario, deadline,
+                sessionContext != null ? sessionContext.getFragments() : null);
+        long adviceNanos = System.nanoTime() - start;
+        if (recorder != null) {
+            recorder.recordAdvice(advice.getAdvice(), adviceNanos);
+        }
+        
+        if (pushServer != null) {
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("advice", advice.getAdvice());
+            event.put("tier", advice.getTier());
+            event.put("latencyMicros", (parseNanos + enrichNanos + adviceNanos) / 1000);
+            pushServer.publish(PushServer.EVENT_ADVICE, event);
+        }
+        
+        LOGGER.fine("Pipeline completed in " + (parseNanos + enrichNanos + adviceNanos) / 1000 + " us"
+                    + " (tier " + advice.getTier() + ")");
+        return new PipelineResult(scenario, advice.getAdvice(), advice.getTier(), parseNanos, enrichNanos, adviceNanos);
+    }
+}
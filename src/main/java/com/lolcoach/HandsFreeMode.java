@@ -0,0 +1,93 @@
+package com.lolcoach;
+
+import com.lolcoach.audio.AudioCapture;
+import com.lolcoach.audio.KeywordSpotter;
+import com.lolcoach.audio.PushToTalk;
+import com.lolcoach.audio.TriggerListener;
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import java.util.logging.Level;
+
+/**
+ * Always-on trigger for voice input. A wake-word spotter runs on the capture
+ * thread and push-to-talk can be bound to any key; full recognition only
+ * starts when one of them fires, and never twice at once.
+ */
+public class HandsFreeMode implements TriggerListener {
+    private static final Logger LOGGER = Logger.getLogger(HandsFreeMode.class.getName());
+    
+    private final VoiceInput voiceInput;
+    private final Consumer<String> onRecognized;
+    private final PushToTalk pushToTalk = new PushToTalk();
+    private final AtomicBoolean recognizing = new AtomicBoolean();
+    private final ExecutorService recognitionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "recognition");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    /**
+     * @param voiceInput Recognizer started on each trigger
+     * @param onRecognized Receives the recognized text, on the recognition thread
+     */
+    public HandsFreeMode(VoiceInput voiceInput, Consumer<String> onRecognized) {
+        this.voiceInput = voiceInput;
+        this.onRecognized = onRecognized;
+        pushToTalk.setListener(this);
+    }
+    
+    /**
+     * Starts microphone capture with wake-word spotting
+     * @param wakeWordWav Recording of the wake word to enroll, or null for push-to-talk only
+     * @return true if the wake word is active; push-to-talk works either way
+     */
+    public boolean start(File wakeWordWav) {
+        if (wakeWordWav == null) {
+            LOGGER.info("No wake word enrolled, push-to-talk only");
+            return false;
+        }
+        try {
+            KeywordSpotter spotter = KeywordSpotter.fromWav(wakeWordWav, AudioCapture.DEFAULT_FRAME_SAMPLES);
+            spotter.setListener(this);
+            voiceInput.startCapture().setFrameProcessor(spotter);
+            LOGGER.info("Wake word spotting started");
+            return true;
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Wake word unavailable, push-to-talk only", e);
+            return false;
+        }
+    }
+    
+    public PushToTalk getPushToTalk() {
+        return pushToTalk;
+    }
+    
+    @Override
+    public void onTrigger(String source, long sampleIndex) {
+        if (!recognizing.compareAndSet(false, true)) {
+            return;
+        }
+        LOGGER.info("Triggered by " + source);
+        recognitionExecutor.execute(() -> {
+            try {
+                onRecognized.accept(voiceInput.listenToVoice());
+            } catch (Exception e) {
+                LOGGER.log(Level.SEVERE, "Error handling triggered input", e);
+            } finally {
+                recognizing.set(false);
+            }
+        });
+    }
+    
+    /**
+     * Stops capture and the recognition thread
+     */
+    public void stop() {
+        voiceInput.stopListening();
+        recognitionExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,87 @@
+package com.lolcoach;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Holder for a service that is built off the startup path. Initialization
+ * starts either in the background via {@link #prefetch()} or on first
+ * {@link #get()}, whichever comes first, and happens exactly once.
+ */
+public class LazyService<T> {
+    private static final Logger LOGGER = Logger.getLogger(LazyService.class.getName());
+    
+    private final String name;
+    private final Supplier<T> factory;
+    private final Executor executor;
+    private volatile CompletableFuture<T> future;
+    
+    /**
+     * @param name Service name for logging
+     * @param factory Builds and warms the service
+     * @param executor Executor used for background initialization
+     */
+    public LazyService(String name, Supplier<T> factory, Executor executor) {
+        this.name = name;
+        this.factory = factory;
+        this.executor = executor;
+    }
+    
+    /**
+     * Starts initialization in the background if it has not started yet
+     * @return this holder, for chaining
+     */
+    public LazyService<T> prefetch() {
+        start(true);
+        return this;
+    }
+    
+    /**
+     * Returns the service, blocking until it is initialized
+     */
+    public T get() {
+        try {
+            return start(false).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Returns true once the service has been built successfully
+     */
+    public boolean isReady() {
+        CompletableFuture<T> current = future;
+        return current != null && current.isDone() && !current.isCompletedExceptionally();
+    }
+    
+    private CompletableFuture<T> start(boolean background) {
+        CompletableFuture<T> current = future;
+        if (current == null) {
+            synchronized (this) {
+                current = future;
+                if (current == null) {
+                    current = background
+                            ? CompletableFuture.supplyAsync(this::create, executor)
+                            : CompletableFuture.completedFuture(create());
+                    future = current;
+                }
+            }
+        }
+        return current;
+    }
+    
+    private T create() {
+        long start = System.nanoTime();
+        T service = factory.get();
+        LOGGER.fine(name + " ready in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return service;
+    }
+}
@@ -1,8 +1,22 @@
 package com.lolcoach;
 
+import com.lolcoach.intent.IntentClassifier;
+import com.lolcoach.jfr.CoachEvents;
+import com.lolcoach.jfr.ParseEvent;
+import com.lolcoach.lexicon.Lexicon;
+import com.lolcoach.lexicon.LexiconParser;
+import com.lolcoach.model.Intent;
 import com.lolcoach.model.Scenario;
+import com.lolcoach.model.ScenarioDelta;
+import com.lolcoach.model.ScenarioField;
+import com.lolcoach.service.TacticsService;
+import com.lolcoach.sketch.UsageSketches;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
@@ -18,8 +32,28 @@ public class Parser {
     private static final Pattern ENEMY_CHAMPION_PATTERN = Pattern.compile("\\b(enemy|opponent|vs|against)\\s+([A-Za-z]+)\\b", Pattern.CASE_INSENSITIVE);
     private static final Pattern LEVEL_PATTERN = Pattern.compile("\\blevel\\s+(\\d+)\\b", Pattern.CASE_INSENSITIVE);
     private static final Pattern SITUATION_PATTERN = Pattern.compile("\\b(ahead|behind|winning|losing|struggling|dominating|even)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern NEW_GAME_PATTERN = Pattern.compile("\\b(new|next) game\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CLAUSE_SPLIT = Pattern.compile("[.,;]|\\band\\b");
+    private static final String ENGLISH = "en";
+    
+    // Words that follow "I'm" or "vs" but are not champion names
+    private static final Set<String> NOT_CHAMPIONS = new HashSet<>(Arrays.asList(
+        "level", "lvl", "top", "mid", "bot", "bottom", "jungle", "jg", "support", "lane",
+        "ahead", "behind", "winning", "losing", "struggling", "dominating", "even",
+        "now", "still", "at", "in", "on", "the", "a", "an", "not", "so", "getting", "going", "playing",
+        "low", "full", "back", "is", "was"));
+    
+    // Routes questions (build, objective, trade, recall) away from general lane advice
+    private final IntentClassifier intentClassifier;
+    
+    // Language of the player's speech; its lexicon is loaded on first parse
+    private volatile String locale;
+    private volatile LexiconParser lexiconParser;
+    private UsageSketches usageSketches;
     
     public Parser() {
+        this.intentClassifier = IntentClassifier.loadDefault();
+        this.locale = System.getProperty("lolcoach.locale", Locale.getDefault().getLanguage());
         LOGGER.info("Parser initialized - ready for scenario parsing");
     }
     
@@ -30,49 +64,167 @@ public class Parser {
      */
     public Scenario parseScenario(String text) {
         LOGGER.info("Parsing scenario from text: " + text);
+        ParseEvent event = CoachEvents.ENABLED ? new ParseEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
         
         try {
-            Scenario scenario = new Scenario();
-            
-            // Extract lane information
-            String lane = extractLane(text);
-            scenario.setLane(lane);
+            // Fields the text doesn't mention keep their defaults
+            Scenario scenario = Scenario.unknown();
+            parseDelta(text).applyTo(scenario);
             
-            // Extract time information
-            int time = extractTime(text);
-            scenario.setTime(time);
-            
-            // Extract player champion
-            String playerChampion = extractPlayerChampion(text);
-            scenario.setPlayerChampion(playerChampion);
-            
-            // Extract player level
-            int playerLevel = extractPlayerLevel(text);
-            scenario.setPlayerLevel(playerLevel);
-            
-            // Extract enemy champion
-            String enemyChampion = extractEnemyChampion(text);
-            scenario.setEnemyChampion(enemyChampion);
+            if (usageSketches != null) {
+                usageSketches.recordParse(text, scenario);
+            }
             
-            // Extract enemy level
-            int enemyLevel = extractEnemyLevel(text);
-            scenario.setEnemyLevel(enemyLevel);
+            LOGGER.info("Successfully parsed scenario: " + scenario);
+            commit(event, text, scenario, false);
+            return scenario;
             
-            // Extract situation description
-            String situation = extractSituation(text);
-            scenario.setSituation(situation);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error parsing scenario", e);
+            return createDefaultScenario();
+        }
+    }
+    
+    /**
+     * Parses a follow-up utterance on top of what was said before in the session
+     * @param text The recognized speech text
+     * @param context The session's conversation context, updated in place
+     * @return The merged scenario
+     */
+    public Scenario parseScenario(String text, SessionContext context) {
+        LOGGER.info("Parsing follow-up from text: " + text);
+        ParseEvent event = CoachEvents.ENABLED ? new ParseEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        
+        try {
+            if (NEW_GAME_PATTERN.matcher(text).find()) {
+                context.reset();
+            }
+            ScenarioDelta delta = parseDelta(text);
+            Set<ScenarioField> changed = context.update(delta);
+            Scenario scenario = context.getScenario();
             
-            // Add additional parsed data
-            Map<String, Object> additionalData = extractAdditionalData(text);
-            scenario.setAdditionalData(additionalData);
+            if (usageSketches != null) {
+                usageSketches.recordParse(text, scenario);
+            }
             
-            LOGGER.info("Successfully parsed scenario: " + scenario);
+            LOGGER.info("Merged " + delta + " into context, changed " + changed + ": " + scenario);
+            commit(event, text, scenario, true);
             return scenario;
             
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error parsing scenario", e);
-            return createDefaultScenario();
+            return context.getScenario();
+        }
+    }
+    
+    private void commit(ParseEvent event, String text, Scenario scenario, boolean followUp) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.locale = locale;
+            event.utteranceBytes = CoachEvents.bytes(text);
+            event.intent = String.valueOf(scenario.getIntent());
+            event.scenarioKey = TacticsService.scenarioKey(scenario);
+            event.followUp = followUp;
+            event.commit();
+        }
+    }
+    
+    /**
+     * Extracts only the fields the text mentions
+     * @param text The recognized speech text
+     * @return Mentioned fields; the intent is always set
+     */
+    public ScenarioDelta parseDelta(String text) {
+        // The locale's lexicon knows number words, champion aliases and other languages
+        LexiconParser lexicon = lexiconParser();
+        ScenarioDelta delta = lexicon != null ? lexicon.parse(text) : new ScenarioDelta();
+        
+        // The English patterns also catch champions missing from the lexicon
+        if (lexicon == null || lexicon.getLexicon().getLocale().equals(ENGLISH)) {
+            fillMissing(delta, parsePatterns(text));
         }
+        
+        // Classify what the player is asking for
+        delta.setIntent(classifyIntent(text));
+        
+        // Add additional parsed data
+        delta.setContext(extractAdditionalData(text));
+        return delta;
+    }
+    
+    private ScenarioDelta parsePatterns(String text) {
+        ScenarioDelta delta = new ScenarioDelta();
+        String enemyChampion = extractEnemyChampion(text);
+        
+        delta.setLane(extractLane(text));
+        delta.setTime(extractTime(text));
+        delta.setPlayerChampion(extractPlayerChampion(text));
+        delta.setPlayerLevel(extractPlayerLevel(text, enemyChampion));
+        delta.setEnemyChampion(enemyChampion);
+        delta.setEnemyLevel(extractEnemyLevel(text, enemyChampion));
+        delta.setSituation(extractSituation(text));
+        return delta;
+    }
+    
+    /**
+     * Sets the language of the player's speech
+     * @param locale ISO 639 language code, e.g. "en", "de", "ko"
+     */
+    public void setLocale(String locale) {
+        this.locale = locale;
+    }
+    
+    public String getLocale() {
+        return locale;
+    }
+    
+    private LexiconParser lexiconParser() {
+        String current = locale;
+        LexiconParser parser = lexiconParser;
+        if (parser == null || !parser.getLexicon().getLocale().equals(current)) {
+            Lexicon lexicon = Lexicon.forLocale(current);
+            if (lexicon == null) {
+                return null;
+            }
+            parser = new LexiconParser(lexicon);
+            lexiconParser = parser;
+        }
+        return parser;
+    }
+    
+    private static void fillMissing(ScenarioDelta delta, ScenarioDelta found) {
+        if (delta.getLane() == null) delta.setLane(found.getLane());
+        if (delta.getTime() == null) delta.setTime(found.getTime());
+        if (delta.getPlayerChampion() == null) delta.setPlayerChampion(found.getPlayerChampion());
+        if (delta.getPlayerLevel() == null) delta.setPlayerLevel(found.getPlayerLevel());
+        if (delta.getEnemyChampion() == null) delta.setEnemyChampion(found.getEnemyChampion());
+        if (delta.getEnemyLevel() == null) delta.setEnemyLevel(found.getEnemyLevel());
+        if (delta.getSituation() == null) delta.setSituation(found.getSituation());
+    }
+    
+    /**
+     * Sets the sketches that count parsed champions, matchups and questions
+     */
+    public void setUsageSketches(UsageSketches usageSketches) {
+        this.usageSketches = usageSketches;
+    }
+    
+    /**
+     * Classifies the kind of question asked
+     * @param text The recognized speech text
+     * @return The intent, LANE_STATE if no model is available
+     */
+    public Intent classifyIntent(String text) {
+        return intentClassifier != null ? intentClassifier.classify(text) : Intent.LANE_STATE;
     }
     
     private String extractLane(String text) {
@@ -84,55 +236,68 @@ public class Parser {
             if (lane.equals("jg")) lane = "jungle";
             return lane;
         }
-        return "unknown";
+        return null;
     }
     
-    private int extractTime(String text) {
+    private Integer extractTime(String text) {
         Matcher matcher = TIME_PATTERN.matcher(text);
         if (matcher.find()) {
             return Integer.parseInt(matcher.group(1));
         }
-        return 0;
+        return null;
     }
     
     private String extractPlayerChampion(String text) {
         Matcher matcher = CHAMPION_PATTERN.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(2);
+        while (matcher.find()) {
+            // "I'm level 9", "I am top" and "I'm behind" describe the player, not the champion
+            if (!NOT_CHAMPIONS.contains(matcher.group(2).toLowerCase())) {
+                return matcher.group(2);
+            }
         }
-        return "unknown";
+        return null;
     }
     
-    private int extractPlayerLevel(String text) {
-        Matcher matcher = LEVEL_PATTERN.matcher(text);
-        if (matcher.find()) {
-            return Integer.parseInt(matcher.group(1));
+    private Integer extractPlayerLevel(String text, String enemyChampion) {
+        // First level mentioned outside a clause about the enemy
+        for (String clause : CLAUSE_SPLIT.split(text)) {
+            if (!mentionsEnemy(clause, enemyChampion)) {
+                Matcher matcher = LEVEL_PATTERN.matcher(clause);
+                if (matcher.find()) {
+                    return Integer.parseInt(matcher.group(1));
+                }
+            }
         }
-        return 1; // Default level
+        return null;
     }
     
     private String extractEnemyChampion(String text) {
         Matcher matcher = ENEMY_CHAMPION_PATTERN.matcher(text);
-        if (matcher.find()) {
-            return matcher.group(2);
+        while (matcher.find()) {
+            if (!NOT_CHAMPIONS.contains(matcher.group(2).toLowerCase())) {
+                return matcher.group(2);
+            }
         }
-        return "unknown";
+        return null;
     }
     
-    private int extractEnemyLevel(String text) {
+    private Integer extractEnemyLevel(String text, String enemyChampion) {
         // Look for enemy level specifically
-        String[] sentences = text.split("\\.");
-        for (String sentence : sentences) {
-            if (sentence.toLowerCase().contains("enemy") || 
-                sentence.toLowerCase().contains("darius") ||
-                sentence.toLowerCase().contains("opponent")) {
-                Matcher matcher = LEVEL_PATTERN.matcher(sentence);
+        for (String clause : CLAUSE_SPLIT.split(text)) {
+            if (mentionsEnemy(clause, enemyChampion)) {
+                Matcher matcher = LEVEL_PATTERN.matcher(clause);
                 if (matcher.find()) {
                     return Integer.parseInt(matcher.group(1));
                 }
             }
         }
-        return 1; // Default level
+        return null;
+    }
+    
+    private static boolean mentionsEnemy(String clause, String enemyChampion) {
+        String lower = clause.toLowerCase();
+        return lower.contains("enemy") || lower.contains("opponent") || lower.contains("they") ||
+               (enemyChampion != null && lower.contains(enemyChampion.toLowerCase()));
     }
     
     private String extractSituation(String text) {
@@ -140,7 +305,7 @@ public class Parser {
         if (matcher.find()) {
             return matcher.group(1).toLowerCase();
         }
-        return "neutral";
+        return null;
     }
     
     private Map<String, Object> extractAdditionalData(String text) {
@@ -162,6 +327,6 @@ public class Parser {
     
     private Scenario createDefaultScenario() {
         LOGGER.warning("Creating default scenario due to parsing error");
-        return new Scenario("unknown", 0, "unknown", 1, "unknown", 1, "neutral");
+        return Scenario.unknown();
     }
 }
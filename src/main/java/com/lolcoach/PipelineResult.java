@@ -0,0 +1,42 @@
+package com.lolcoach;
+
+import com.lolcoach.model.AdviceTier;
+import com.lolcoach.model.Scenario;
+
+/**
+ * Output of one pass through the coaching pipeline, with per-stage latencies
+ */
+public class PipelineResult {
+    private final Scenario scenario;
+    private final String advice;
+    private final AdviceTier tier;
+    private final long parseNanos;
+    private final long enrichNanos;
+    private final long adviceNanos;
+    
+    public PipelineResult(Scenario scenario, String advice, AdviceTier tier, long parseNanos, long enrichNanos, long adviceNanos) {
+        this.scenario = scenario;
+        this.advice = advice;
+        this.tier = tier;
+        this.parseNanos = parseNanos;
+        this.enrichNanos = enrichNanos;
+        this.adviceNanos = adviceNanos;
+    }
+    
+    public Scenario getScenario() { return scenario; }
+    public String getAdvice() { return advice; }
+    public AdviceTier getTier() { return tier; }
+    public long getParseNanos() { return parseNanos; }
+    public long getEnrichNanos() { return enrichNanos; }
+    public long getAdviceNanos() { return adviceNanos; }
+    
+    public long getTotalNanos() {
+        return parseNanos + enrichNanos + adviceNanos;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("PipelineResult{scenario=%s, advice='%s', tier=%s, parseNanos=%d, enrichNanos=%d, adviceNanos=%d}",
+                           scenario, advice, tier, parseNanos, enrichNanos, adviceNanos);
+    }
+}
@@ -0,0 +1,166 @@
+package com.lolcoach;
+
+import com.lolcoach.model.Scenario;
+import com.lolcoach.model.ScenarioDelta;
+import com.lolcoach.model.ScenarioField;
+import com.lolcoach.service.AdviceFragments;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What the player has said so far this game. Each utterance is merged in field by field,
+ * the game clock keeps running between utterances, and fields that go unrepeated for
+ * too many game minutes fall back to their defaults.
+ */
+public class SessionContext {
+    // Game minutes after which an unrepeated field is stale; lane, champions and intent never expire
+    private static final Map<ScenarioField, Integer> FIELD_LIFETIME = new EnumMap<>(ScenarioField.class);
+    static {
+        FIELD_LIFETIME.put(ScenarioField.SITUATION, 3);
+        FIELD_LIFETIME.put(ScenarioField.PLAYER_LEVEL, 5);
+        FIELD_LIFETIME.put(ScenarioField.ENEMY_LEVEL, 5);
+        FIELD_LIFETIME.put(ScenarioField.CONTEXT, 2);
+    }
+    
+    private final int[] updatedAtMinute = new int[ScenarioField.values().length];
+    private final AdviceFragments fragments = new AdviceFragments();
+    private Scenario scenario;
+    private Set<ScenarioField> lastChanged;
+    private Clock clock = Clock.systemUTC();
+    private int game;
+    
+    // Last game time the player stated, and when they stated it
+    private Instant timeAnchor;
+    private int anchorMinute;
+    
+    public SessionContext() {
+        reset();
+    }
+    
+    /**
+     * Merges an utterance into the context
+     * @param delta Fields the utterance mentioned
+     * @return Fields whose value changed, including decayed fields and the advancing game time
+     */
+    public synchronized Set<ScenarioField> update(ScenarioDelta delta) {
+        Set<ScenarioField> changed = EnumSet.noneOf(ScenarioField.class);
+        
+        if (delta.has(ScenarioField.TIME)) {
+            timeAnchor = clock.instant();
+            anchorMinute = delta.getTime();
+        }
+        int minute = currentGameMinute();
+        if (minute != scenario.getTime()) {
+            scenario.setTime(minute);
+            changed.add(ScenarioField.TIME);
+        }
+        
+        // Forget what is too old to trust, unless this utterance repeats it
+        Scenario defaults = Scenario.unknown();
+        for (Map.Entry<ScenarioField, Integer> entry : FIELD_LIFETIME.entrySet()) {
+            ScenarioField field = entry.getKey();
+            int updatedAt = updatedAtMinute[field.ordinal()];
+            if (updatedAt >= 0 && minute - updatedAt >= entry.getValue() && !delta.has(field)) {
+                reset(field, defaults);
+                updatedAtMinute[field.ordinal()] = -1;
+                changed.add(field);
+            }
+        }
+        
+        for (ScenarioField field : delta.getFields()) {
+            if (field == ScenarioField.TIME) {
+                continue;
+            }
+            if (delta.applyTo(scenario, field)) {
+                changed.add(field);
+            }
+            updatedAtMinute[field.ordinal()] = minute;
+        }
+        
+        lastChanged = changed;
+        return changed;
+    }
+    
+    /**
+     * Returns a copy of the merged scenario, safe to enrich or hand to other threads
+     */
+    public synchronized Scenario getScenario() {
+        return new Scenario(scenario);
+    }
+    
+    /**
+     * Returns the fields changed by the last update
+     */
+    public synchronized Set<ScenarioField> getLastChanged() {
+        return EnumSet.copyOf(lastChanged);
+    }
+    
+    /**
+     * Returns the advice fragments generated for this session, reused while their inputs are unchanged
+     */
+    public AdviceFragments getFragments() {
+        return fragments;
+    }
+    
+    /**
+     * Estimated game minute: the last stated time plus the wall time since it was stated
+     */
+    public synchronized int currentGameMinute() {
+        if (timeAnchor == null) {
+            return scenario.getTime();
+        }
+        return anchorMinute + (int) Duration.between(timeAnchor, clock.instant()).toMinutes();
+    }
+    
+    /**
+     * Forgets everything, e.g. when a new game starts
+     */
+    public synchronized void reset() {
+        scenario = Scenario.unknown();
+        Arrays.fill(updatedAtMinute, -1);
+        lastChanged = EnumSet.allOf(ScenarioField.class);
+        timeAnchor = null;
+        anchorMinute = 0;
+        fragments.clear();
+        game++;
+    }
+    
+    /**
+     * Number of the game this context describes, counting from 1 and advanced by each reset
+     */
+    public synchronized int getGame() {
+        return game;
+    }
+    
+    /**
+     * Sets the clock driving the game time estimate, e.g. a replay clock
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+    
+    private void reset(ScenarioField field, Scenario defaults) {
+        switch (field) {
+            case SITUATION:
+                scenario.setSituation(defaults.getSituation());
+                break;
+            case PLAYER_LEVEL:
+                scenario.setPlayerLevel(defaults.getPlayerLevel());
+                break;
+            case ENEMY_LEVEL:
+                scenario.setEnemyLevel(defaults.getEnemyLevel());
+                break;
+            case CONTEXT:
+                scenario.setAdditionalData(defaults.getAdditionalData());
+                break;
+            default:
+                break;
+        }
+    }
+}
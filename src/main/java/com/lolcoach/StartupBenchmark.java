@@ -0,0 +1,41 @@
+package com.lolcoach;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures cold-start time to the first piece of advice: JVM launch to main,
+ * main to services started, and services started to first advice.
+ * Also used as the training run for the AppCDS archive (see the appcds profile).
+ *
+ * Usage:
+ * <pre>
+ * java -cp target/classes com.lolcoach.StartupBenchmark [--enforce]
+ * </pre>
+ * With --enforce, exits with status 1 when the total exceeds the target.
+ */
+public class StartupBenchmark {
+    private static final long TARGET_MILLIS = 300;
+    private static final String SAMPLE_INPUT =
+            "I am top lane, 10 minutes in, I'm Garen, enemy Darius is level 6 and ahead";
+    
+    public static void main(String[] args) {
+        long mainEntered = System.currentTimeMillis();
+        long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+        
+        CoachApp app = new CoachApp();
+        long servicesStarted = System.currentTimeMillis();
+        
+        PipelineResult result = app.advise(SAMPLE_INPUT);
+        long firstAdvice = System.currentTimeMillis();
+        
+        long total = firstAdvice - jvmStart;
+        System.out.println("Startup timings (ms)");
+        System.out.printf("  JVM launch -> main          %5d%n", mainEntered - jvmStart);
+        System.out.printf("  main -> services started    %5d%n", servicesStarted - mainEntered);
+        System.out.printf("  services -> first advice    %5d  (tier %s)%n", firstAdvice - servicesStarted, result.getTier());
+        System.out.printf("  total to first advice       %5d  (target %d)%n", total, TARGET_MILLIS);
+        
+        boolean enforce = args.length > 0 && args[0].equals("--enforce");
+        System.exit(enforce && total > TARGET_MILLIS ? 1 : 0);
+    }
+}
@@ -1,14 +1,22 @@
 package com.lolcoach;
 
+import com.lolcoach.audio.AudioCapture;
+import com.lolcoach.audio.AudioSource;
+import com.lolcoach.audio.LineAudioSource;
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.logging.Logger;
 import java.util.logging.Level;
+import javax.sound.sampled.LineUnavailableException;
 
 public class VoiceInput {
     private static final Logger LOGGER = Logger.getLogger(VoiceInput.class.getName());
     private boolean isListening = false;
     
+    // Microphone front-end feeding speech segments to the recognizer
+    private AudioCapture audioCapture;
+    
     // Note: In a real implementation, you would include Vosk dependencies
     // and implement actual speech recognition
     
@@ -56,6 +64,15 @@ public class VoiceInput {
         return "I am top lane, 10 minutes in, I'm Garen, enemy Darius is level 6 and ahead";
     }
     
+    /**
+     * Loads the speech recognition model ahead of first use.
+     * Called from a background thread during startup; a no-op until a real engine is integrated.
+     */
+    public void warmUp() {
+        // In production, this would load the speech recognition model from disk
+        LOGGER.info("VoiceInput warm-up complete");
+    }
+    
     /**
      * Checks if the system is currently listening for voice input
      */
@@ -63,11 +80,50 @@ public class VoiceInput {
         return isListening;
     }
     
+    /**
+     * Opens the microphone and starts the capture front-end. Only detected
+     * speech reaches the capture's speech buffer.
+     * @return The running capture
+     */
+    public synchronized AudioCapture startCapture() throws LineUnavailableException {
+        if (audioCapture == null || !audioCapture.isRunning()) {
+            if (audioCapture != null) {
+                // The previous capture stopped on its own, e.g. the line failed; release its source first
+                try {
+                    audioCapture.close();
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Error closing stopped audio capture", e);
+                }
+            }
+            audioCapture = new AudioCapture(openSource());
+            audioCapture.start();
+        }
+        return audioCapture;
+    }
+    
+    /**
+     * Opens the microphone the capture reads from
+     */
+    protected AudioSource openSource() throws LineUnavailableException {
+        int lineBufferBytes = AudioCapture.DEFAULT_FRAME_SAMPLES * 2 * 4;
+        return LineAudioSource.openDefault(lineBufferBytes);
+    }
+    
     /**
      * Stops listening for voice input
      */
     public void stopListening() {
         isListening = false;
+        synchronized (this) {
+            if (audioCapture != null) {
+                try {
+                    audioCapture.close();
+                } catch (Exception e) {
+                    LOGGER.log(Level.WARNING, "Error closing audio capture", e);
+                }
+                audioCapture = null;
+            }
+        }
         LOGGER.info("Voice recognition stopped");
     }
 }
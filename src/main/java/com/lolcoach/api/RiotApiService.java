@@ -1,6 +1,11 @@
 package com.lolcoach.api;
 
+import com.lolcoach.jfr.ApiCallEvent;
+import com.lolcoach.jfr.CoachEvents;
+import com.lolcoach.jfr.EnrichEvent;
 import com.lolcoach.model.Scenario;
+import com.lolcoach.service.Deadline;
+import com.lolcoach.service.TacticsService;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.logging.Logger;
@@ -59,15 +64,49 @@ public class RiotApiService {
      * @return Map containing live game data
      */
     public Map<String, Object> fetchLiveGameData() {
+        return fetchLiveGameData(Deadline.none());
+    }
+    
+    /**
+     * Fetches live game data, giving up once the deadline has passed
+     * @param deadline Time by which the data is needed
+     * @return Map containing live game data, empty if the deadline expired
+     */
+    public Map<String, Object> fetchLiveGameData(Deadline deadline) {
+        ApiCallEvent event = CoachEvents.ENABLED ? new ApiCallEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        Map<String, Object> data = queryLiveGameData(deadline);
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = CoachEvents.ENDPOINT_LIVE_GAME;
+                event.sample = !isConnected;
+                event.fields = data.size();
+                event.deadlineExpired = deadline.isExpired() && data.isEmpty();
+                event.commit();
+            }
+        }
+        return data;
+    }
+    
+    private Map<String, Object> queryLiveGameData(Deadline deadline) {
         LOGGER.info("Fetching live game data");
         
+        if (deadline.isExpired()) {
+            LOGGER.warning("Deadline expired, skipping live game data");
+            return new HashMap<>();
+        }
+        
         if (!isConnected) {
             LOGGER.warning("Not connected to API, returning sample data");
             return getSampleLiveData();
         }
         
         try {
-            // In production, this would query the LoL Client API
+            // In production, this would query the LoL Client API with
+            // deadline.remainingMillis() as the request timeout
             // For now, return sample data
             return getSampleLiveData();
             
@@ -83,15 +122,50 @@ public class RiotApiService {
      * @return List of match data
      */
     public Map<String, Object> fetchHistoricalData(Map<String, Object> criteria) {
+        return fetchHistoricalData(criteria, Deadline.none());
+    }
+    
+    /**
+     * Fetches historical match data, giving up once the deadline has passed
+     * @param criteria Search criteria for matches
+     * @param deadline Time by which the data is needed
+     * @return Historical data, empty if the deadline expired
+     */
+    public Map<String, Object> fetchHistoricalData(Map<String, Object> criteria, Deadline deadline) {
+        ApiCallEvent event = CoachEvents.ENABLED ? new ApiCallEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        Map<String, Object> data = queryHistoricalData(criteria, deadline);
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.endpoint = CoachEvents.ENDPOINT_HISTORY;
+                event.sample = !isConnected;
+                event.fields = data.size();
+                event.deadlineExpired = deadline.isExpired() && data.isEmpty();
+                event.commit();
+            }
+        }
+        return data;
+    }
+    
+    private Map<String, Object> queryHistoricalData(Map<String, Object> criteria, Deadline deadline) {
         LOGGER.info("Fetching historical data with criteria: " + criteria);
         
+        if (deadline.isExpired()) {
+            LOGGER.warning("Deadline expired, skipping historical data");
+            return new HashMap<>();
+        }
+        
         if (!isConnected) {
             LOGGER.warning("Not connected to API, returning sample data");
             return getSampleHistoricalData();
         }
         
         try {
-            // In production, this would query the Riot API
+            // In production, this would query the Riot API with
+            // deadline.remainingMillis() as the request timeout
             // For now, return sample data
             return getSampleHistoricalData();
             
@@ -110,12 +184,63 @@ public class RiotApiService {
         LOGGER.info("Enriching scenario with live data");
         
         try {
-            Map<String, Object> liveData = fetchLiveGameData();
+            return enrichScenarioWithLiveData(scenario, fetchLiveGameData());
             
-            // In production, this would merge live data with the scenario
-            // For now, just log the enrichment
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error enriching scenario", e);
+            return scenario;
+        }
+    }
+    
+    /**
+     * Enriches a scenario with an already fetched live data snapshot
+     * @param scenario The base scenario
+     * @param liveData Live game data, e.g. from fetchLiveGameData or a recorded session
+     * @return Enriched scenario with additional live data
+     */
+    public Scenario enrichScenarioWithLiveData(Scenario scenario, Map<String, Object> liveData) {
+        EnrichEvent event = CoachEvents.ENABLED ? new EnrichEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        Scenario enriched = enrich(scenario, liveData);
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.scenarioKey = TacticsService.scenarioKey(enriched);
+                event.liveDataFields = liveData.size();
+                event.commit();
+            }
+        }
+        return enriched;
+    }
+    
+    private Scenario enrich(Scenario scenario, Map<String, Object> liveData) {
+        try {
             LOGGER.info("Live data available: " + liveData.keySet());
             
+            // Live data only fills what the player didn't say; their words win
+            if ("unknown".equalsIgnoreCase(scenario.getPlayerChampion()) && liveData.get("playerChampion") != null) {
+                scenario.setPlayerChampion(liveData.get("playerChampion").toString());
+            }
+            if ("unknown".equalsIgnoreCase(scenario.getLane()) && liveData.get("lane") != null) {
+                scenario.setLane(liveData.get("lane").toString());
+            }
+            if (!scenario.hasPlayerLevel() && liveData.get("playerLevel") instanceof Number) {
+                scenario.setPlayerLevel(((Number) liveData.get("playerLevel")).intValue());
+            }
+            
+            // Inventory and gold feed the build recommender and the power curves
+            Map<String, Object> additional = scenario.getAdditionalData() != null
+                    ? new HashMap<>(scenario.getAdditionalData()) : new HashMap<>();
+            if (liveData.containsKey("items")) {
+                additional.put("items", liveData.get("items"));
+            }
+            if (liveData.containsKey("gold")) {
+                additional.put("gold", liveData.get("gold"));
+            }
+            scenario.setAdditionalData(additional);
+            
             return scenario;
             
         } catch (Exception e) {
@@ -0,0 +1,272 @@
+package com.lolcoach.audio;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.logging.Logger;
+import java.util.logging.Level;
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Capture front-end for speech recognition. Reads fixed-size frames from an
+ * {@link AudioSource}, runs voice activity detection and forwards only speech
+ * (plus a short pre-roll so onsets are not clipped) into a preallocated
+ * {@link PcmRingBuffer} for the recognizer. All buffers are allocated up
+ * front; the per-frame path does not allocate.
+ */
+public class AudioCapture implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(AudioCapture.class.getName());
+    
+    // 16 kHz, 16-bit, mono, signed little-endian: what speech recognizers expect
+    public static final AudioFormat FORMAT = new AudioFormat(16000f, 16, 1, true, false);
+    
+    public static final int DEFAULT_FRAME_SAMPLES = 320;          // 20 ms
+    public static final int DEFAULT_BUFFER_SAMPLES = 16000 * 10;  // 10 s of speech
+    public static final int DEFAULT_PRE_ROLL_FRAMES = 10;         // 200 ms
+    
+    private final AudioSource source;
+    private final VoiceActivityDetector detector;
+    private final PcmRingBuffer speechBuffer;
+    private final int frameSamples;
+    private final byte[] frameBytes;
+    private final short[] frame;
+    
+    // Recent silent frames, replayed into the speech buffer when a segment starts
+    private final short[][] preRoll;
+    private int preRollCount;
+    private int preRollNext;
+    
+    private volatile SpeechSegmentListener listener;
+    private volatile FrameProcessor frameProcessor;
+    private volatile boolean running;
+    private Thread captureThread;
+    
+    private long samplePosition;
+    private volatile long framesProcessed;
+    private volatile long speechFrames;
+    
+    public AudioCapture(AudioSource source) {
+        this(source, new VoiceActivityDetector(), DEFAULT_FRAME_SAMPLES, DEFAULT_BUFFER_SAMPLES, DEFAULT_PRE_ROLL_FRAMES);
+    }
+    
+    /**
+     * @param source PCM source in {@link #FORMAT}
+     * @param detector Voice activity detector
+     * @param frameSamples Samples per analysis frame
+     * @param bufferSamples Capacity of the speech buffer
+     * @param preRollFrames Silent frames kept to prepend to each segment
+     */
+    public AudioCapture(AudioSource source, VoiceActivityDetector detector, int frameSamples,
+                        int bufferSamples, int preRollFrames) {
+        this.source = source;
+        this.detector = detector;
+        this.frameSamples = frameSamples;
+        this.frameBytes = new byte[frameSamples * 2];
+        this.frame = new short[frameSamples];
+        this.speechBuffer = new PcmRingBuffer(bufferSamples);
+        this.preRoll = new short[preRollFrames][frameSamples];
+    }
+    
+    public void setListener(SpeechSegmentListener listener) {
+        this.listener = listener;
+    }
+    
+    /**
+     * Sets a hook run on every frame after detection, e.g. a wake-word spotter
+     */
+    public void setFrameProcessor(FrameProcessor frameProcessor) {
+        this.frameProcessor = frameProcessor;
+    }
+    
+    /**
+     * Buffer the recognizer consumes speech samples from
+     */
+    public PcmRingBuffer getSpeechBuffer() {
+        return speechBuffer;
+    }
+    
+    /**
+     * Starts capturing on a dedicated high-priority thread
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        captureThread = new Thread(this::captureLoop, "audio-capture");
+        captureThread.setDaemon(true);
+        captureThread.setPriority(Thread.MAX_PRIORITY);
+        captureThread.start();
+        LOGGER.info("Audio capture started");
+    }
+    
+    /**
+     * Stops the capture thread; buffered speech stays readable
+     */
+    public synchronized void stop() {
+        running = false;
+        if (captureThread != null) {
+            captureThread.interrupt();
+            captureThread = null;
+            LOGGER.info("Audio capture stopped");
+        }
+    }
+    
+    public boolean isRunning() {
+        return running;
+    }
+    
+    /**
+     * Processes the source on the calling thread until it ends, e.g. for a WAV file
+     */
+    public void runToEnd() throws IOException {
+        while (processFrame()) {
+            // keep going until end of stream
+        }
+        finishSegment();
+    }
+    
+    public long getFramesProcessed() { return framesProcessed; }
+    public long getSpeechFrames() { return speechFrames; }
+    
+    @Override
+    public void close() throws IOException {
+        stop();
+        source.close();
+    }
+    
+    private void captureLoop() {
+        try {
+            while (running && processFrame()) {
+                // processFrame blocks on the source
+            }
+            finishSegment();
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Audio capture failed", e);
+        } finally {
+            running = false;
+        }
+    }
+    
+    /**
+     * Reads and classifies one frame
+     * @return false at end of stream
+     */
+    private boolean processFrame() throws IOException {
+        int filled = 0;
+        while (filled < frameBytes.length) {
+            int read = source.read(frameBytes, filled, frameBytes.length - filled);
+            if (read < 0) {
+                return false;
+            }
+            filled += read;
+        }
+        for (int i = 0; i < frameSamples; i++) {
+            frame[i] = (short) ((frameBytes[2 * i] & 0xFF) | (frameBytes[2 * i + 1] << 8));
+        }
+        
+        int state = detector.process(frame, 0, frameSamples);
+        switch (state) {
+            case VoiceActivityDetector.SPEECH_START:
+                long segmentStart = samplePosition - (long) preRollCount * frameSamples;
+                flushPreRoll();
+                speechBuffer.write(frame, 0, frameSamples);
+                speechFrames++;
+                notifyStart(segmentStart);
+                break;
+            case VoiceActivityDetector.SPEECH:
+                speechBuffer.write(frame, 0, frameSamples);
+                speechFrames++;
+                break;
+            case VoiceActivityDetector.SPEECH_END:
+                notifyEnd(samplePosition);
+                break;
+            default:
+                keepPreRoll();
+        }
+        
+        FrameProcessor processor = frameProcessor;
+        if (processor != null) {
+            processor.processFrame(frame, frameSamples, state, samplePosition);
+        }
+        
+        samplePosition += frameSamples;
+        framesProcessed++;
+        return true;
+    }
+    
+    private void finishSegment() {
+        if (detector.isInSpeech()) {
+            notifyEnd(samplePosition);
+            detector.reset();
+        }
+    }
+    
+    private void keepPreRoll() {
+        if (preRoll.length == 0) {
+            return;
+        }
+        System.arraycopy(frame, 0, preRoll[preRollNext], 0, frameSamples);
+        preRollNext = (preRollNext + 1) % preRoll.length;
+        preRollCount = Math.min(preRollCount + 1, preRoll.length);
+    }
+    
+    private void flushPreRoll() {
+        int first = (preRollNext - preRollCount + preRoll.length) % Math.max(1, preRoll.length);
+        for (int i = 0; i < preRollCount; i++) {
+            speechBuffer.write(preRoll[(first + i) % preRoll.length], 0, frameSamples);
+        }
+        preRollCount = 0;
+    }
+    
+    private void notifyStart(long sampleIndex) {
+        SpeechSegmentListener current = listener;
+        if (current != null) {
+            current.onSpeechStart(sampleIndex);
+        }
+    }
+    
+    private void notifyEnd(long sampleIndex) {
+        SpeechSegmentListener current = listener;
+        if (current != null) {
+            current.onSpeechEnd(sampleIndex);
+        }
+    }
+    
+    /**
+     * Prints the speech segments detected in a WAV file.
+     * Usage: java com.lolcoach.audio.AudioCapture recording.wav
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: AudioCapture <file.wav>");
+            System.exit(2);
+        }
+        
+        try (AudioCapture capture = new AudioCapture(new WavAudioSource(new File(args[0])))) {
+            capture.setListener(new SpeechSegmentListener() {
+                private long start;
+                
+                @Override
+                public void onSpeechStart(long sampleIndex) {
+                    start = sampleIndex;
+                }
+                
+                @Override
+                public void onSpeechEnd(long sampleIndex) {
+                    System.out.printf("speech %8.2f s - %8.2f s%n", start / 16000.0, sampleIndex / 16000.0);
+                }
+            });
+            
+            long begin = System.nanoTime();
+            capture.runToEnd();
+            long elapsed = System.nanoTime() - begin;
+            
+            System.out.printf("%d frames, %d speech (%.1f%%), processed in %.1f ms (%.0fx real time)%n",
+                              capture.getFramesProcessed(), capture.getSpeechFrames(),
+                              100.0 * capture.getSpeechFrames() / Math.max(1, capture.getFramesProcessed()),
+                              elapsed / 1e6,
+                              capture.getFramesProcessed() * 0.02 / (elapsed / 1e9));
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.lolcoach.audio;
+
+import com.lolcoach.jfr.CoachEvents;
+import com.lolcoach.jfr.PlaybackEvent;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import java.util.logging.Level;
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Playback path for spoken advice. Each clip is converted to the output rate
+ * once, when it is handed to {@link #play}, into one of two preallocated clip
+ * buffers. A dedicated high-priority writer thread then copies it to the sink
+ * one period at a time; the sink buffer holds two periods, so one plays while
+ * the next is written. The per-period path does not allocate.
+ * <p>
+ * A new clip replaces the one playing, at the next period boundary, with a
+ * short fade so the cut doesn't click.
+ */
+public class AudioOutput implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(AudioOutput.class.getName());
+    
+    // 48 kHz, 16-bit, mono, signed little-endian: native for most output devices, so the mixer doesn't resample
+    public static final AudioFormat FORMAT = new AudioFormat(48000f, 16, 1, true, false);
+    
+    public static final int DEFAULT_LATENCY_MILLIS = 40;
+    public static final int DEFAULT_MAX_CLIP_SECONDS = 20;
+    private static final int FADE_MILLIS = 5;
+    private static final long IDLE_PARK_NANOS = 100_000_000L;
+    
+    private final AudioSink sink;
+    private final int sampleRate;
+    private final int periodSamples;
+    private final int fadeSamples;
+    private final byte[] period;
+    
+    // Converted clips: the writer owns the playing one, play() fills the other
+    private final short[][] clips;
+    private final int[] clipLengths = new int[2];
+    private final long[] clipRequestedAt = new long[2];
+    // Flight Recorder events per clip, only when enabled
+    private final PlaybackEvent[] clipEvents = CoachEvents.ENABLED ? new PlaybackEvent[2] : null;
+    private final ReentrantLock clipLock = new ReentrantLock();
+    private volatile int playingSlot = -1;
+    private volatile int pendingSlot = -1;
+    private volatile boolean stopRequested;
+    
+    // Writer thread only
+    private int position;
+    private boolean clipStarted;
+    
+    private volatile PlaybackListener listener;
+    private volatile boolean running;
+    private Thread writerThread;
+    
+    private volatile long clipsPlayed;
+    private volatile long periodsWritten;
+    private volatile long underruns;
+    private volatile long truncatedClips;
+    private volatile long lastStartLatencyNanos;
+    private volatile long maxStartLatencyNanos;
+    
+    public AudioOutput(AudioSink sink) {
+        this(sink, DEFAULT_LATENCY_MILLIS, DEFAULT_MAX_CLIP_SECONDS);
+    }
+    
+    /**
+     * @param sink Sink in {@link #FORMAT}, opened with {@link #bufferBytes(int)} for the same latency
+     * @param latencyMillis Target output latency; each period is half of it
+     * @param maxClipSeconds Longest clip kept; longer clips are truncated
+     */
+    public AudioOutput(AudioSink sink, int latencyMillis, int maxClipSeconds) {
+        this.sink = sink;
+        this.sampleRate = (int) FORMAT.getSampleRate();
+        this.periodSamples = periodSamples(latencyMillis);
+        this.fadeSamples = sampleRate * FADE_MILLIS / 1000;
+        this.period = new byte[periodSamples * 2];
+        this.clips = new short[2][sampleRate * maxClipSeconds];
+    }
+    
+    /**
+     * Sink buffer size that gives the target latency: two periods
+     */
+    public static int bufferBytes(int latencyMillis) {
+        return 2 * periodSamples(latencyMillis) * 2;
+    }
+    
+    private static int periodSamples(int latencyMillis) {
+        return Math.max(64, (int) FORMAT.getSampleRate() * latencyMillis / 2000);
+    }
+    
+    public void setListener(PlaybackListener listener) {
+        this.listener = listener;
+    }
+    
+    /**
+     * Starts the writer on a dedicated high-priority thread
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::writeLoop, "audio-output");
+        writerThread.setDaemon(true);
+        writerThread.setPriority(Thread.MAX_PRIORITY);
+        writerThread.start();
+        LOGGER.info("Audio output started with " + periodSamples * 1000 / sampleRate + " ms periods");
+    }
+    
+    /**
+     * Converts a mono 16-bit clip to the output rate and plays it, replacing any clip still playing
+     * @param samples PCM samples
+     * @param length Number of samples to play
+     * @param sourceRate Sample rate of the clip
+     */
+    public void play(short[] samples, int length, float sourceRate) {
+        long requestedAt = System.nanoTime();
+        // Created before taking the lock the writer thread waits on
+        PlaybackEvent event = null;
+        if (clipEvents != null) {
+            event = new PlaybackEvent();
+            event.begin();
+            event.sourceRate = sourceRate;
+        }
+        clipLock.lock();
+        try {
+            // Reuse an unplayed pending clip's buffer, otherwise take the one not playing
+            int slot = pendingSlot >= 0 ? pendingSlot : (playingSlot == 0 ? 1 : 0);
+            clipLengths[slot] = convert(samples, length, sourceRate, clips[slot]);
+            clipRequestedAt[slot] = requestedAt;
+            if (event != null) {
+                event.pcmBytes = clipLengths[slot] * 2;
+                clipEvents[slot] = event;
+            }
+            pendingSlot = slot;
+            stopRequested = false;
+        } finally {
+            clipLock.unlock();
+        }
+        LockSupport.unpark(writerThread);
+    }
+    
+    /**
+     * Stops the playing clip and drops any pending one
+     */
+    public void stop() {
+        clipLock.lock();
+        try {
+            pendingSlot = -1;
+            stopRequested = true;
+        } finally {
+            clipLock.unlock();
+        }
+        LockSupport.unpark(writerThread);
+    }
+    
+    public boolean isPlaying() {
+        return playingSlot >= 0 || pendingSlot >= 0;
+    }
+    
+    public long getClipsPlayed() { return clipsPlayed; }
+    public long getPeriodsWritten() { return periodsWritten; }
+    
+    /**
+     * Periods written after the sink had already run dry in the middle of a clip; each is an audible gap
+     */
+    public long getUnderruns() { return underruns; }
+    
+    public long getTruncatedClips() { return truncatedClips; }
+    public long getLastStartLatencyNanos() { return lastStartLatencyNanos; }
+    public long getMaxStartLatencyNanos() { return maxStartLatencyNanos; }
+    
+    /**
+     * Duration of one period in milliseconds
+     */
+    public double getPeriodMillis() {
+        return periodSamples * 1000.0 / sampleRate;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            running = false;
+            if (writerThread != null) {
+                LockSupport.unpark(writerThread);
+                try {
+                    writerThread.join(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                writerThread = null;
+            }
+        }
+        sink.close();
+        LOGGER.info("Audio output closed: " + clipsPlayed + " clips, " + underruns + " underruns");
+    }
+    
+    private void writeLoop() {
+        try {
+            while (running) {
+                if (stopRequested) {
+                    stopRequested = false;
+                    endClip(true);
+                }
+                if (pendingSlot >= 0) {
+                    takePending();
+                }
+                
+                int slot = playingSlot;
+                if (slot < 0) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    continue;
+                }
+                writePeriod(slot);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Audio output failed", e);
+        } finally {
+            running = false;
+        }
+    }
+    
+    private void takePending() throws IOException {
+        endClip(true);
+        clipLock.lock();
+        try {
+            if (pendingSlot >= 0) {
+                playingSlot = pendingSlot;
+                pendingSlot = -1;
+                position = 0;
+                clipStarted = false;
+            }
+        } finally {
+            clipLock.unlock();
+        }
+    }
+    
+    private void writePeriod(int slot) throws IOException {
+        short[] clip = clips[slot];
+        int count = Math.min(periodSamples, clipLengths[slot] - position);
+        for (int i = 0; i < count; i++) {
+            short sample = clip[position + i];
+            period[2 * i] = (byte) sample;
+            period[2 * i + 1] = (byte) (sample >> 8);
+        }
+        // The last period is padded with silence so every write is a whole period
+        for (int i = 2 * count; i < period.length; i++) {
+            period[i] = 0;
+        }
+        
+        if (clipStarted && sink.getQueuedBytes() == 0) {
+            underruns++;
+            if (clipEvents != null) {
+                clipEvents[slot].underruns++;
+            }
+        }
+        sink.write(period, 0, period.length);
+        periodsWritten++;
+        
+        if (!clipStarted) {
+            clipStarted = true;
+            long latency = System.nanoTime() - clipRequestedAt[slot];
+            lastStartLatencyNanos = latency;
+            maxStartLatencyNanos = Math.max(maxStartLatencyNanos, latency);
+            clipsPlayed++;
+            if (clipEvents != null) {
+                clipEvents[slot].startLatency = latency;
+            }
+            PlaybackListener current = listener;
+            if (current != null) {
+                current.onPlaybackStart(latency);
+            }
+        }
+        
+        position += count;
+        if (position >= clipLengths[slot]) {
+            playingSlot = -1;
+            notifyEnd(slot, false);
+        }
+    }
+    
+    /**
+     * Fades out and releases the playing clip, if any
+     */
+    private void endClip(boolean interrupted) throws IOException {
+        int slot = playingSlot;
+        if (slot < 0) {
+            return;
+        }
+        if (clipStarted) {
+            short[] clip = clips[slot];
+            int count = Math.min(fadeSamples, clipLengths[slot] - position);
+            for (int i = 0; i < count; i++) {
+                int sample = clip[position + i] * (count - i) / count;
+                period[2 * i] = (byte) sample;
+                period[2 * i + 1] = (byte) (sample >> 8);
+            }
+            sink.write(period, 0, 2 * count);
+        }
+        playingSlot = -1;
+        notifyEnd(slot, interrupted);
+    }
+    
+    private void notifyEnd(int slot, boolean interrupted) {
+        if (clipEvents != null) {
+            PlaybackEvent event = clipEvents[slot];
+            event.end();
+            if (clipStarted && event.shouldCommit()) {
+                event.interrupted = interrupted;
+                event.commit();
+            }
+        }
+        
+        PlaybackListener current = listener;
+        if (current != null && clipStarted) {
+            current.onPlaybackEnd(interrupted);
+        }
+    }
+    
+    /**
+     * Resamples by linear interpolation, which is enough for speech at or below the output rate,
+     * and fades the clip in and out
+     * @return Number of output samples
+     */
+    private int convert(short[] samples, int length, float sourceRate, short[] out) {
+        if (length <= 0) {
+            return 0;
+        }
+        double step = sourceRate / sampleRate;
+        long needed = (long) Math.floor((length - 1) / step) + 1;
+        if (needed > out.length) {
+            truncatedClips++;
+            LOGGER.warning("Clip of " + needed / sampleRate + " s truncated to " + out.length / sampleRate + " s");
+        }
+        int outLength = (int) Math.min(out.length, needed);
+        
+        if (step == 1.0) {
+            System.arraycopy(samples, 0, out, 0, outLength);
+        } else {
+            for (int i = 0; i < outLength; i++) {
+                double source = i * step;
+                int index = (int) source;
+                int a = samples[index];
+                int b = index + 1 < length ? samples[index + 1] : a;
+                out[i] = (short) Math.round(a + (b - a) * (source - index));
+            }
+        }
+        
+        int fade = Math.min(fadeSamples, outLength / 2);
+        for (int i = 0; i < fade; i++) {
+            out[i] = (short) (out[i] * i / fade);
+            out[outLength - 1 - i] = (short) (out[outLength - 1 - i] * i / fade);
+        }
+        return outLength;
+    }
+}
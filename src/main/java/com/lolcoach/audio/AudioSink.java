@@ -0,0 +1,29 @@
+package com.lolcoach.audio;
+
+import java.io.Closeable;
+import java.io.IOException;
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Destination for PCM bytes in {@link AudioOutput#FORMAT}: a speaker line in
+ * production, a WAV file in tests and tools.
+ */
+public interface AudioSink extends Closeable {
+    
+    /**
+     * Writes all bytes, blocking while the sink's playback buffer is full
+     */
+    void write(byte[] buffer, int offset, int length) throws IOException;
+    
+    /**
+     * Bytes written but not yet played, or -1 if the sink has no playback clock
+     */
+    int getQueuedBytes();
+    
+    /**
+     * Size of the playback buffer in bytes
+     */
+    int getBufferBytes();
+    
+    AudioFormat getFormat();
+}
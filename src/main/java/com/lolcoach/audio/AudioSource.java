@@ -0,0 +1,20 @@
+package com.lolcoach.audio;
+
+import java.io.Closeable;
+import java.io.IOException;
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Source of raw PCM bytes in {@link AudioCapture#FORMAT}: a microphone line in
+ * production, a WAV file in tests and tools.
+ */
+public interface AudioSource extends Closeable {
+    
+    /**
+     * Reads up to length bytes, blocking until at least some are available
+     * @return number of bytes read, or -1 at end of stream
+     */
+    int read(byte[] buffer, int offset, int length) throws IOException;
+    
+    AudioFormat getFormat();
+}
@@ -0,0 +1,91 @@
+package com.lolcoach.audio;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.locks.LockSupport;
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+/**
+ * Writes output to a WAV file, so playback can be exercised without speakers.
+ * In real-time mode it behaves like a line: a simulated playback clock drains
+ * its buffer at the sample rate, writes block while the buffer is full, and
+ * the queue runs empty if the writer falls behind.
+ */
+public class FileAudioSink implements AudioSink {
+    private final File file;
+    private final AudioFormat format;
+    private final int bufferBytes;
+    private final boolean realTime;
+    private final double bytesPerNano;
+    private final ByteArrayOutputStream data = new ByteArrayOutputStream(1 << 20);
+    
+    // Simulated time at which everything written so far has been played
+    private long queueEmptyAt;
+    
+    /**
+     * @param file WAV file written on close
+     * @param bufferBytes Simulated playback buffer size
+     * @param realTime Whether writes are paced by a simulated playback clock
+     */
+    public FileAudioSink(File file, int bufferBytes, boolean realTime) {
+        this.file = file;
+        this.format = AudioOutput.FORMAT;
+        this.bufferBytes = bufferBytes;
+        this.realTime = realTime;
+        this.bytesPerNano = format.getSampleRate() * format.getFrameSize() / 1e9;
+    }
+    
+    @Override
+    public synchronized void write(byte[] buffer, int offset, int length) {
+        if (realTime) {
+            long now = System.nanoTime();
+            while (queued(now) + length > bufferBytes) {
+                LockSupport.parkNanos((long) ((queued(now) + length - bufferBytes) / bytesPerNano));
+                now = System.nanoTime();
+            }
+            // A drained queue starts playing again from now
+            queueEmptyAt = Math.max(queueEmptyAt, now) + (long) (length / bytesPerNano);
+        }
+        data.write(buffer, offset, length);
+    }
+    
+    @Override
+    public synchronized int getQueuedBytes() {
+        return realTime ? queued(System.nanoTime()) : -1;
+    }
+    
+    @Override
+    public int getBufferBytes() {
+        return bufferBytes;
+    }
+    
+    @Override
+    public AudioFormat getFormat() {
+        return format;
+    }
+    
+    /**
+     * Bytes written so far
+     */
+    public synchronized int getWrittenBytes() {
+        return data.size();
+    }
+    
+    @Override
+    public synchronized void close() throws IOException {
+        byte[] bytes = data.toByteArray();
+        try (AudioInputStream stream = new AudioInputStream(new ByteArrayInputStream(bytes), format,
+                bytes.length / format.getFrameSize())) {
+            AudioSystem.write(stream, AudioFileFormat.Type.WAVE, file);
+        }
+    }
+    
+    private int queued(long now) {
+        return (int) Math.max(0, Math.round((queueEmptyAt - now) * bytesPerNano));
+    }
+}
@@ -0,0 +1,16 @@
+package com.lolcoach.audio;
+
+/**
+ * Per-frame hook run by {@link AudioCapture} on the capture thread after voice
+ * activity detection. Must not block or allocate.
+ */
+public interface FrameProcessor {
+    
+    /**
+     * @param frame Frame samples, valid only for the duration of the call
+     * @param length Number of samples in the frame
+     * @param vadState One of the {@link VoiceActivityDetector} states for this frame
+     * @param sampleIndex Stream index of the frame's first sample
+     */
+    void processFrame(short[] frame, int length, int vadState, long sampleIndex);
+}
@@ -0,0 +1,308 @@
+package com.lolcoach.audio;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Wake-word spotter matching the MFCC stream against an enrolled keyword
+ * template with streaming subsequence DTW. Each frame costs one MFCC plus
+ * O(template length) distance updates. Frames the voice activity detector
+ * marks as silence are only copied into a short pre-roll, which is matched
+ * when speech starts so a soft keyword onset the detector missed still
+ * counts; the spotter can run continuously on a single core. Cepstral mean
+ * normalization on both the template and the stream keeps microphone and
+ * level differences from moving the distance.
+ */
+public final class KeywordSpotter implements FrameProcessor {
+    // c0 tracks loudness, not phonetic content, so matching starts at c1
+    private static final int FIRST_COEFFICIENT = 1;
+    private static final double DEFAULT_SENSITIVITY = 0.7;
+    private static final int REFRACTORY_FRAMES = 50;
+    // Silence frames kept for the start of the next utterance: 200 ms at 20 ms frames
+    private static final int PRE_ROLL_FRAMES = 10;
+    // Frames the stream's cepstral mean is averaged over: 2 s at 20 ms frames
+    private static final int MEAN_FRAMES = 100;
+    
+    private final MfccExtractor extractor;
+    private final double[][] template;
+    private final double threshold;
+    private final int dimensions;
+    
+    // Streaming DTW state: cumulative cost and path length per template frame
+    private double[] cost;
+    private double[] previousCost;
+    private int[] pathLength;
+    private int[] previousPathLength;
+    private final double[] features;
+    
+    // Running cepstral mean of speech in the stream, subtracted from every frame; starts at the template's own
+    private final double[] mean;
+    
+    // Ring of the latest silence frames
+    private final short[][] preRoll;
+    private int preRollStart;
+    private int preRollCount;
+    
+    private volatile TriggerListener listener;
+    private int cooldown;
+    private double lastScore = Double.POSITIVE_INFINITY;
+    
+    /**
+     * @param extractor Feature extractor matching the capture frame size
+     * @param template Keyword MFCC frames, as produced by {@link #buildTemplate}
+     * @param threshold Maximum normalized DTW distance that fires the trigger
+     */
+    public KeywordSpotter(MfccExtractor extractor, double[][] template, double threshold) {
+        if (template.length == 0) {
+            throw new IllegalArgumentException("A keyword template needs at least one frame");
+        }
+        this.extractor = extractor;
+        this.template = normalize(template);
+        this.threshold = threshold;
+        this.dimensions = extractor.getCoefficients();
+        this.features = new double[dimensions];
+        this.mean = centroid(template);
+        this.preRoll = new short[PRE_ROLL_FRAMES][extractor.getFrameSamples()];
+        this.cost = new double[template.length];
+        this.previousCost = new double[template.length];
+        this.pathLength = new int[template.length];
+        this.previousPathLength = new int[template.length];
+        reset();
+    }
+    
+    /**
+     * Enrolls a keyword from a WAV recording of it, using a threshold derived
+     * from the template's own spread
+     */
+    public static KeywordSpotter fromWav(File keywordWav, int frameSamples) throws IOException {
+        List<short[]> frames = new ArrayList<>();
+        try (WavAudioSource source = new WavAudioSource(keywordWav)) {
+            byte[] bytes = new byte[frameSamples * 2];
+            while (readFully(source, bytes)) {
+                short[] frame = new short[frameSamples];
+                for (int i = 0; i < frameSamples; i++) {
+                    frame[i] = (short) ((bytes[2 * i] & 0xFF) | (bytes[2 * i + 1] << 8));
+                }
+                frames.add(frame);
+            }
+        }
+        if (frames.isEmpty()) {
+            throw new IllegalArgumentException("Keyword recording " + keywordWav + " is shorter than one frame");
+        }
+        MfccExtractor extractor = new MfccExtractor(frameSamples, AudioCapture.FORMAT.getSampleRate());
+        double[][] template = buildTemplate(extractor, frames);
+        return new KeywordSpotter(extractor, template, defaultThreshold(template));
+    }
+    
+    /**
+     * Extracts MFCC frames from a keyword recording, trimming leading and
+     * trailing frames that are much quieter than the loudest one
+     * @throws IllegalArgumentException if there are no frames
+     */
+    public static double[][] buildTemplate(MfccExtractor extractor, List<short[]> frames) {
+        if (frames.isEmpty()) {
+            throw new IllegalArgumentException("A keyword template needs at least one frame");
+        }
+        double[] energies = new double[frames.size()];
+        double maxEnergy = 0;
+        for (int f = 0; f < frames.size(); f++) {
+            double energy = 0;
+            for (short sample : frames.get(f)) {
+                energy += (double) sample * sample;
+            }
+            energies[f] = energy;
+            maxEnergy = Math.max(maxEnergy, energy);
+        }
+        int first = 0;
+        int last = frames.size() - 1;
+        while (first < last && energies[first] < maxEnergy * 0.01) {
+            first++;
+        }
+        while (last > first && energies[last] < maxEnergy * 0.01) {
+            last--;
+        }
+        
+        double[][] template = new double[last - first + 1][extractor.getCoefficients()];
+        for (int f = first; f <= last; f++) {
+            extractor.extract(frames.get(f), 0, template[f - first], 0);
+        }
+        return template;
+    }
+    
+    /**
+     * Threshold as a fraction of the average distance between template frames
+     * and the template centroid
+     */
+    public static double defaultThreshold(double[][] template) {
+        int dimensions = template[0].length;
+        double[] centroid = centroid(template);
+        double spread = 0;
+        for (double[] frame : template) {
+            spread += distance(frame, centroid, dimensions) / template.length;
+        }
+        return spread * DEFAULT_SENSITIVITY;
+    }
+    
+    public void setListener(TriggerListener listener) {
+        this.listener = listener;
+    }
+    
+    public double getThreshold() {
+        return threshold;
+    }
+    
+    /**
+     * Normalized DTW distance of the best match ending at the last processed frame
+     */
+    public double getLastScore() {
+        return lastScore;
+    }
+    
+    @Override
+    public void processFrame(short[] frame, int length, int vadState, long sampleIndex) {
+        if (vadState == VoiceActivityDetector.SILENCE) {
+            keep(frame, length);
+            return;
+        }
+        if (vadState == VoiceActivityDetector.SPEECH_START) {
+            // Never match across separate utterances, but do include the quiet frames just before this one
+            reset();
+            long preRollIndex = sampleIndex - (long) preRollCount * preRoll[0].length;
+            for (int i = 0; i < preRollCount; i++) {
+                short[] kept = preRoll[(preRollStart + i) % PRE_ROLL_FRAMES];
+                match(kept, kept.length, preRollIndex + (long) i * kept.length, false);
+            }
+            preRollCount = 0;
+        }
+        match(frame, length, sampleIndex, true);
+    }
+    
+    private void keep(short[] frame, int length) {
+        int slot = (preRollStart + preRollCount) % PRE_ROLL_FRAMES;
+        if (preRollCount < PRE_ROLL_FRAMES) {
+            preRollCount++;
+        } else {
+            preRollStart = (preRollStart + 1) % PRE_ROLL_FRAMES;
+        }
+        short[] kept = preRoll[slot];
+        int copied = Math.min(length, kept.length);
+        System.arraycopy(frame, 0, kept, 0, copied);
+        Arrays.fill(kept, copied, kept.length, (short) 0);
+    }
+    
+    private void match(short[] frame, int length, long sampleIndex, boolean speech) {
+        if (cooldown > 0) {
+            cooldown--;
+        }
+        
+        extractor.extract(frame, 0, features, 0);
+        for (int c = 0; c < dimensions; c++) {
+            if (speech) {
+                mean[c] += (features[c] - mean[c]) / MEAN_FRAMES;
+            }
+            features[c] -= mean[c];
+        }
+        
+        double[] swapCost = previousCost;
+        previousCost = cost;
+        cost = swapCost;
+        int[] swapLength = previousPathLength;
+        previousPathLength = pathLength;
+        pathLength = swapLength;
+        
+        // Open begin: a match may start at any frame
+        cost[0] = distance(features, template[0], dimensions);
+        pathLength[0] = 1;
+        // Every step consumes one stream frame and advances the template by up to two, so a match spans
+        // at least half the keyword's length rather than racing through the template on a single frame
+        for (int j = 1; j < template.length; j++) {
+            double best = previousCost[j - 1];
+            int bestLength = previousPathLength[j - 1];
+            if (previousCost[j] < best) {
+                best = previousCost[j];
+                bestLength = previousPathLength[j];
+            }
+            if (j >= 2 && previousCost[j - 2] < best) {
+                best = previousCost[j - 2];
+                bestLength = previousPathLength[j - 2];
+            }
+            cost[j] = best + distance(features, template[j], dimensions);
+            pathLength[j] = bestLength + 1;
+        }
+        
+        int last = template.length - 1;
+        lastScore = cost[last] / pathLength[last];
+        boolean plausibleLength = pathLength[last] <= 2 * template.length;
+        if (plausibleLength && lastScore <= threshold && cooldown == 0) {
+            cooldown = REFRACTORY_FRAMES;
+            reset();
+            TriggerListener current = listener;
+            if (current != null) {
+                current.onTrigger(TriggerListener.WAKE_WORD, sampleIndex + length);
+            }
+        }
+    }
+    
+    /**
+     * Clears the partial matches
+     */
+    public void reset() {
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+        Arrays.fill(previousCost, Double.POSITIVE_INFINITY);
+        Arrays.fill(pathLength, 0);
+        Arrays.fill(previousPathLength, 0);
+    }
+    
+    /**
+     * Template with its cepstral mean subtracted from every frame
+     */
+    private static double[][] normalize(double[][] template) {
+        double[] centroid = centroid(template);
+        double[][] normalized = new double[template.length][];
+        for (int f = 0; f < template.length; f++) {
+            normalized[f] = template[f].clone();
+            for (int c = 0; c < centroid.length; c++) {
+                normalized[f][c] -= centroid[c];
+            }
+        }
+        return normalized;
+    }
+    
+    private static double[] centroid(double[][] template) {
+        int dimensions = template[0].length;
+        double[] centroid = new double[dimensions];
+        for (double[] frame : template) {
+            for (int c = 0; c < dimensions; c++) {
+                centroid[c] += frame[c] / template.length;
+            }
+        }
+        return centroid;
+    }
+    
+    /**
+     * Root mean square difference per coefficient, so the threshold doesn't depend on how many are compared
+     */
+    private static double distance(double[] a, double[] b, int dimensions) {
+        double sum = 0;
+        for (int c = FIRST_COEFFICIENT; c < dimensions; c++) {
+            double d = a[c] - b[c];
+            sum += d * d;
+        }
+        return Math.sqrt(sum / (dimensions - FIRST_COEFFICIENT));
+    }
+    
+    private static boolean readFully(AudioSource source, byte[] bytes) throws IOException {
+        int filled = 0;
+        while (filled < bytes.length) {
+            int read = source.read(bytes, filled, bytes.length - filled);
+            if (read < 0) {
+                return false;
+            }
+            filled += read;
+        }
+        return true;
+    }
+}
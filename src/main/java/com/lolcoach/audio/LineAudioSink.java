@@ -0,0 +1,65 @@
+package com.lolcoach.audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.util.logging.Logger;
+
+/**
+ * Speaker output through a {@link SourceDataLine}
+ */
+public class LineAudioSink implements AudioSink {
+    private static final Logger LOGGER = Logger.getLogger(LineAudioSink.class.getName());
+    
+    private final SourceDataLine line;
+    
+    private LineAudioSink(SourceDataLine line) {
+        this.line = line;
+    }
+    
+    /**
+     * Opens and starts the default playback line
+     * @param bufferBytes Line buffer size; it bounds output latency
+     */
+    public static LineAudioSink openDefault(int bufferBytes) throws LineUnavailableException {
+        DataLine.Info info = new DataLine.Info(SourceDataLine.class, AudioOutput.FORMAT);
+        SourceDataLine line = (SourceDataLine) AudioSystem.getLine(info);
+        line.open(AudioOutput.FORMAT, bufferBytes);
+        line.start();
+        LOGGER.info("Speaker line opened with " + line.getBufferSize() + " byte buffer");
+        return new LineAudioSink(line);
+    }
+    
+    @Override
+    public void write(byte[] buffer, int offset, int length) {
+        while (length > 0 && line.isOpen()) {
+            int written = line.write(buffer, offset, length);
+            offset += written;
+            length -= written;
+        }
+    }
+    
+    @Override
+    public int getQueuedBytes() {
+        return line.getBufferSize() - line.available();
+    }
+    
+    @Override
+    public int getBufferBytes() {
+        return line.getBufferSize();
+    }
+    
+    @Override
+    public AudioFormat getFormat() {
+        return line.getFormat();
+    }
+    
+    @Override
+    public void close() {
+        line.drain();
+        line.stop();
+        line.close();
+    }
+}
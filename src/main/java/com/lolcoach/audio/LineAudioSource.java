@@ -0,0 +1,53 @@
+package com.lolcoach.audio;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.TargetDataLine;
+import java.util.logging.Logger;
+
+/**
+ * Microphone input through a {@link TargetDataLine}
+ */
+public class LineAudioSource implements AudioSource {
+    private static final Logger LOGGER = Logger.getLogger(LineAudioSource.class.getName());
+    
+    private final TargetDataLine line;
+    
+    private LineAudioSource(TargetDataLine line) {
+        this.line = line;
+    }
+    
+    /**
+     * Opens and starts the default capture line
+     * @param bufferBytes Line buffer size; a few frames keeps capture latency low
+     */
+    public static LineAudioSource openDefault(int bufferBytes) throws LineUnavailableException {
+        DataLine.Info info = new DataLine.Info(TargetDataLine.class, AudioCapture.FORMAT);
+        TargetDataLine line = (TargetDataLine) AudioSystem.getLine(info);
+        line.open(AudioCapture.FORMAT, bufferBytes);
+        line.start();
+        LOGGER.info("Microphone line opened with " + line.getBufferSize() + " byte buffer");
+        return new LineAudioSource(line);
+    }
+    
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        if (!line.isOpen()) {
+            return -1;
+        }
+        return line.read(buffer, offset, length);
+    }
+    
+    @Override
+    public AudioFormat getFormat() {
+        return line.getFormat();
+    }
+    
+    @Override
+    public void close() {
+        line.stop();
+        line.close();
+    }
+}
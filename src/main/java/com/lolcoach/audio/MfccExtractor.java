@@ -0,0 +1,183 @@
+package com.lolcoach.audio;
+
+import java.util.Arrays;
+
+/**
+ * Mel-frequency cepstral coefficients for one frame of 16 kHz audio.
+ * Window, FFT twiddles, mel filterbank and DCT basis are computed once;
+ * {@link #extract} works entirely in preallocated arrays.
+ * Not thread-safe: use one extractor per audio stream.
+ */
+public final class MfccExtractor {
+    public static final int DEFAULT_COEFFICIENTS = 13;
+    private static final int MEL_FILTERS = 26;
+    private static final double PRE_EMPHASIS = 0.97;
+    private static final double LOW_HZ = 60;
+    private static final double HIGH_HZ = 7600;
+    private static final double BAND_FLOOR = 0.01;
+    
+    private final int frameSamples;
+    private final int fftSize;
+    private final int coefficients;
+    private final double[] window;
+    private final double[] cos;
+    private final double[] sin;
+    private final int[] bitReverse;
+    private final int[] filterStart;
+    private final double[][] filterWeights;
+    private final double[][] dct;
+    
+    // Scratch buffers reused for every frame
+    private final double[] real;
+    private final double[] imag;
+    private final double[] melEnergies;
+    
+    public MfccExtractor(int frameSamples, float sampleRate) {
+        this(frameSamples, sampleRate, DEFAULT_COEFFICIENTS);
+    }
+    
+    public MfccExtractor(int frameSamples, float sampleRate, int coefficients) {
+        this.frameSamples = frameSamples;
+        this.coefficients = coefficients;
+        this.fftSize = Integer.highestOneBit(frameSamples - 1) << 1;
+        
+        window = new double[frameSamples];
+        for (int i = 0; i < frameSamples; i++) {
+            window[i] = 0.54 - 0.46 * Math.cos(2 * Math.PI * i / (frameSamples - 1));
+        }
+        
+        cos = new double[fftSize / 2];
+        sin = new double[fftSize / 2];
+        for (int i = 0; i < fftSize / 2; i++) {
+            cos[i] = Math.cos(-2 * Math.PI * i / fftSize);
+            sin[i] = Math.sin(-2 * Math.PI * i / fftSize);
+        }
+        bitReverse = new int[fftSize];
+        int bits = Integer.numberOfTrailingZeros(fftSize);
+        for (int i = 0; i < fftSize; i++) {
+            bitReverse[i] = Integer.reverse(i) >>> (32 - bits);
+        }
+        
+        // Triangular filters evenly spaced on the mel scale, stored sparsely
+        int bins = fftSize / 2 + 1;
+        double lowMel = hzToMel(LOW_HZ);
+        double highMel = hzToMel(Math.min(HIGH_HZ, sampleRate / 2));
+        double[] edges = new double[MEL_FILTERS + 2];
+        for (int i = 0; i < edges.length; i++) {
+            double hz = melToHz(lowMel + (highMel - lowMel) * i / (MEL_FILTERS + 1));
+            edges[i] = hz * fftSize / sampleRate;
+        }
+        filterStart = new int[MEL_FILTERS];
+        filterWeights = new double[MEL_FILTERS][];
+        for (int m = 0; m < MEL_FILTERS; m++) {
+            int start = (int) Math.ceil(edges[m]);
+            int end = Math.min(bins - 1, (int) Math.floor(edges[m + 2]));
+            filterStart[m] = start;
+            filterWeights[m] = new double[Math.max(0, end - start + 1)];
+            for (int k = start; k <= end; k++) {
+                double weight = k <= edges[m + 1]
+                        ? (k - edges[m]) / (edges[m + 1] - edges[m])
+                        : (edges[m + 2] - k) / (edges[m + 2] - edges[m + 1]);
+                filterWeights[m][k - start] = Math.max(0, weight);
+            }
+        }
+        
+        dct = new double[coefficients][MEL_FILTERS];
+        for (int c = 0; c < coefficients; c++) {
+            for (int m = 0; m < MEL_FILTERS; m++) {
+                dct[c][m] = Math.cos(Math.PI * c * (m + 0.5) / MEL_FILTERS);
+            }
+        }
+        
+        real = new double[fftSize];
+        imag = new double[fftSize];
+        melEnergies = new double[MEL_FILTERS];
+    }
+    
+    public int getCoefficients() {
+        return coefficients;
+    }
+    
+    public int getFrameSamples() {
+        return frameSamples;
+    }
+    
+    /**
+     * Computes the coefficients of one frame
+     * @param frame Samples; frameSamples of them are read starting at offset
+     * @param out Receives the coefficients at outOffset
+     */
+    public void extract(short[] frame, int offset, double[] out, int outOffset) {
+        double previous = frame[offset];
+        for (int i = 0; i < frameSamples; i++) {
+            double sample = frame[offset + i];
+            real[bitReverse[i]] = (sample - PRE_EMPHASIS * previous) * window[i];
+            previous = sample;
+        }
+        for (int i = frameSamples; i < fftSize; i++) {
+            real[bitReverse[i]] = 0;
+        }
+        Arrays.fill(imag, 0);
+        fft();
+        
+        double peak = 0;
+        for (int m = 0; m < MEL_FILTERS; m++) {
+            double energy = 0;
+            double[] weights = filterWeights[m];
+            int start = filterStart[m];
+            for (int k = 0; k < weights.length; k++) {
+                int bin = start + k;
+                energy += weights[k] * (real[bin] * real[bin] + imag[bin] * imag[bin]);
+            }
+            melEnergies[m] = energy;
+            peak = Math.max(peak, energy);
+        }
+        // Bands more than 20 dB below the loudest hold mostly background noise; flooring them keeps
+        // the noise level from moving every coefficient
+        double floor = peak * BAND_FLOOR + 1e-10;
+        for (int m = 0; m < MEL_FILTERS; m++) {
+            melEnergies[m] = Math.log(Math.max(melEnergies[m], floor));
+        }
+        
+        for (int c = 0; c < coefficients; c++) {
+            double sum = 0;
+            double[] basis = dct[c];
+            for (int m = 0; m < MEL_FILTERS; m++) {
+                sum += basis[m] * melEnergies[m];
+            }
+            out[outOffset + c] = sum;
+        }
+    }
+    
+    /**
+     * In-place iterative radix-2 FFT over real/imag; input is already bit-reversed
+     */
+    private void fft() {
+        for (int size = 2; size <= fftSize; size <<= 1) {
+            int half = size >> 1;
+            int step = fftSize / size;
+            for (int start = 0; start < fftSize; start += size) {
+                for (int k = 0; k < half; k++) {
+                    double wr = cos[k * step];
+                    double wi = sin[k * step];
+                    int even = start + k;
+                    int odd = even + half;
+                    double tr = real[odd] * wr - imag[odd] * wi;
+                    double ti = real[odd] * wi + imag[odd] * wr;
+                    real[odd] = real[even] - tr;
+                    imag[odd] = imag[even] - ti;
+                    real[even] += tr;
+                    imag[even] += ti;
+                }
+            }
+        }
+    }
+    
+    private static double hzToMel(double hz) {
+        return 2595 * Math.log10(1 + hz / 700);
+    }
+    
+    private static double melToHz(double mel) {
+        return 700 * (Math.pow(10, mel / 2595) - 1);
+    }
+}
@@ -0,0 +1,128 @@
+package com.lolcoach.audio;
+
+import java.io.File;
+
+/**
+ * Plays synthetic speech-like clips through {@link AudioOutput} and reports
+ * start latency, conversion cost and underruns. Uses a real-time WAV file sink
+ * by default, so it runs on machines without speakers.
+ *
+ * Usage:
+ * <pre>
+ * java com.lolcoach.audio.OutputBenchmark [--latency ms] [--clips n] [--load threads] [--out file.wav | --line] [--enforce]
+ * </pre>
+ * Without {@code --out} the audio goes to a temporary file that is deleted on exit.
+ * {@code --load} keeps that many threads spinning to check the writer keeps up on a busy machine.
+ * {@code --enforce} exits non-zero on any underrun or a start latency above the target.
+ */
+public class OutputBenchmark {
+    private static final float[] SOURCE_RATES = {16000f, 22050f, 24000f, 48000f};
+    private static final double CLIP_SECONDS = 1.5;
+
+    public static void main(String[] args) throws Exception {
+        int latencyMillis = AudioOutput.DEFAULT_LATENCY_MILLIS;
+        int clipCount = 8;
+        int loadThreads = 0;
+        String out = null;
+        boolean line = false;
+        boolean enforce = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--latency": latencyMillis = Integer.parseInt(args[++i]); break;
+                case "--clips": clipCount = Integer.parseInt(args[++i]); break;
+                case "--load": loadThreads = Integer.parseInt(args[++i]); break;
+                case "--out": out = args[++i]; break;
+                case "--line": line = true; break;
+                case "--enforce": enforce = true; break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        // Background load competing with the writer thread
+        for (int i = 0; i < loadThreads; i++) {
+            Thread spinner = new Thread(() -> {
+                long x = 0;
+                while (true) {
+                    x += System.nanoTime() % 7;
+                    if (x == Long.MIN_VALUE) {
+                        System.out.print("");
+                    }
+                }
+            }, "load-" + i);
+            spinner.setDaemon(true);
+            spinner.start();
+        }
+
+        File file = null;
+        if (!line) {
+            if (out != null) {
+                file = new File(out);
+            } else {
+                file = File.createTempFile("output-benchmark", ".wav");
+                file.deleteOnExit();
+            }
+        }
+        int bufferBytes = AudioOutput.bufferBytes(latencyMillis);
+        AudioSink sink = line ? LineAudioSink.openDefault(bufferBytes) : new FileAudioSink(file, bufferBytes, true);
+        long totalLatency = 0;
+        long totalConvert = 0;
+        long maxConvert = 0;
+        try (AudioOutput output = new AudioOutput(sink, latencyMillis, AudioOutput.DEFAULT_MAX_CLIP_SECONDS)) {
+            output.start();
+            for (int i = 0; i < clipCount; i++) {
+                float rate = SOURCE_RATES[i % SOURCE_RATES.length];
+                short[] clip = speechLike(rate, CLIP_SECONDS, i);
+
+                long start = System.nanoTime();
+                output.play(clip, clip.length, rate);
+                long convert = System.nanoTime() - start;
+                totalConvert += convert;
+                maxConvert = Math.max(maxConvert, convert);
+
+                // Every fourth clip is interrupted half way by the next one
+                long waitMillis = i % 4 == 3 ? (long) (CLIP_SECONDS * 500) : (long) (CLIP_SECONDS * 1000) + 100;
+                Thread.sleep(waitMillis);
+                totalLatency += output.getLastStartLatencyNanos();
+            }
+            while (output.isPlaying()) {
+                Thread.sleep(10);
+            }
+
+            System.out.printf("Target latency %d ms (%.1f ms periods, %d byte sink buffer)%n",
+                              latencyMillis, output.getPeriodMillis(), sink.getBufferBytes());
+            System.out.printf("Clips %d, periods %d, underruns %d, truncated %d%n", output.getClipsPlayed(),
+                              output.getPeriodsWritten(), output.getUnderruns(), output.getTruncatedClips());
+            System.out.printf("Start latency avg %.2f ms, max %.2f ms%n",
+                              totalLatency / 1e6 / clipCount, output.getMaxStartLatencyNanos() / 1e6);
+            System.out.printf("Conversion per %.1f s clip avg %.2f ms, max %.2f ms%n",
+                              CLIP_SECONDS, totalConvert / 1e6 / clipCount, maxConvert / 1e6);
+            if (out != null && !line) {
+                System.out.println("Wrote " + out);
+            }
+
+            if (enforce && (output.getUnderruns() > 0 || output.getMaxStartLatencyNanos() > latencyMillis * 1_000_000L)) {
+                System.out.println("FAILED: underruns or start latency above target");
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * A voiced, syllable-like signal: harmonics of a gliding pitch under a 4 Hz envelope
+     */
+    private static short[] speechLike(float rate, double seconds, int seed) {
+        short[] samples = new short[(int) (rate * seconds)];
+        double phase = 0;
+        for (int i = 0; i < samples.length; i++) {
+            double t = i / rate;
+            double pitch = 120 + 20 * seed % 60 + 30 * Math.sin(2 * Math.PI * 0.7 * t);
+            phase += 2 * Math.PI * pitch / rate;
+            double envelope = 0.5 - 0.5 * Math.cos(2 * Math.PI * 4 * t);
+            double value = Math.sin(phase) + 0.5 * Math.sin(2 * phase) + 0.25 * Math.sin(3 * phase);
+            samples[i] = (short) (8000 * envelope * value);
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,73 @@
+package com.lolcoach.audio;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Preallocated single-producer/single-consumer ring of 16-bit samples.
+ * Positions only ever grow; the producer publishes with a release store, so
+ * neither side takes a lock or allocates. When the consumer falls behind,
+ * new samples are dropped and counted rather than overwriting unread ones.
+ */
+public final class PcmRingBuffer {
+    private final short[] samples;
+    private final int mask;
+    private final AtomicLong writePosition = new AtomicLong();
+    private final AtomicLong readPosition = new AtomicLong();
+    private final AtomicLong droppedSamples = new AtomicLong();
+    
+    /**
+     * @param capacity Number of samples; rounded up to a power of two
+     */
+    public PcmRingBuffer(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.samples = new short[size];
+        this.mask = size - 1;
+    }
+    
+    /**
+     * Appends samples. Producer thread only.
+     * @return number of samples written; the rest were dropped
+     */
+    public int write(short[] source, int offset, int length) {
+        long write = writePosition.get();
+        int free = samples.length - (int) (write - readPosition.get());
+        int count = Math.min(length, free);
+        for (int i = 0; i < count; i++) {
+            samples[(int) (write + i) & mask] = source[offset + i];
+        }
+        writePosition.lazySet(write + count);
+        if (count < length) {
+            droppedSamples.addAndGet(length - count);
+        }
+        return count;
+    }
+    
+    /**
+     * Removes up to length samples. Consumer thread only.
+     * @return number of samples read
+     */
+    public int read(short[] destination, int offset, int length) {
+        long read = readPosition.get();
+        int count = Math.min(length, (int) (writePosition.get() - read));
+        for (int i = 0; i < count; i++) {
+            destination[offset + i] = samples[(int) (read + i) & mask];
+        }
+        readPosition.lazySet(read + count);
+        return count;
+    }
+    
+    /**
+     * Samples waiting to be read
+     */
+    public int available() {
+        return (int) (writePosition.get() - readPosition.get());
+    }
+    
+    public int capacity() {
+        return samples.length;
+    }
+    
+    public long getDroppedSamples() {
+        return droppedSamples.get();
+    }
+}
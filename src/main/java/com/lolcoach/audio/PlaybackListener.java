@@ -0,0 +1,19 @@
+package com.lolcoach.audio;
+
+/**
+ * Notified by {@link AudioOutput} on the writer thread when a clip starts and
+ * stops playing, e.g. to duck game audio through the OS mixer or to pause
+ * wake-word detection while the coach speaks. Implementations must return quickly.
+ */
+public interface PlaybackListener {
+    
+    /**
+     * @param startLatencyNanos Time from {@link AudioOutput#play} to the first period reaching the sink
+     */
+    void onPlaybackStart(long startLatencyNanos);
+    
+    /**
+     * @param interrupted Whether the clip was cut short by a newer clip or a stop
+     */
+    void onPlaybackEnd(boolean interrupted);
+}
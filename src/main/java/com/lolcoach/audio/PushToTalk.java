@@ -0,0 +1,34 @@
+package com.lolcoach.audio;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Push-to-talk trigger. Any key binding can drive it through press/release;
+ * repeated presses while held are ignored.
+ */
+public class PushToTalk {
+    private final AtomicBoolean pressed = new AtomicBoolean();
+    private volatile TriggerListener listener;
+    
+    public void setListener(TriggerListener listener) {
+        this.listener = listener;
+    }
+    
+    public void press() {
+        TriggerListener current = listener;
+        if (pressed.compareAndSet(false, true) && current != null) {
+            current.onTrigger(TriggerListener.PUSH_TO_TALK, -1);
+        }
+    }
+    
+    public void release() {
+        TriggerListener current = listener;
+        if (pressed.compareAndSet(true, false) && current != null) {
+            current.onRelease(TriggerListener.PUSH_TO_TALK);
+        }
+    }
+    
+    public boolean isPressed() {
+        return pressed.get();
+    }
+}
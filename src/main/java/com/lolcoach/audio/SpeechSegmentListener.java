@@ -0,0 +1,19 @@
+package com.lolcoach.audio;
+
+/**
+ * Notified by {@link AudioCapture} on the capture thread when speech starts and ends.
+ * Implementations must return quickly; heavy work belongs on the consumer side
+ * of the speech buffer.
+ */
+public interface SpeechSegmentListener {
+    
+    /**
+     * @param sampleIndex Index of the first buffered sample of the segment, including pre-roll
+     */
+    void onSpeechStart(long sampleIndex);
+    
+    /**
+     * @param sampleIndex Index one past the last sample of the segment
+     */
+    void onSpeechEnd(long sampleIndex);
+}
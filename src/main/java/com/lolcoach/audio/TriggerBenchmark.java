@@ -0,0 +1,93 @@
+package com.lolcoach.audio;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures CPU cost and trigger latency of the always-on wake-word path
+ * (capture, VAD and keyword spotting) over a recorded session.
+ *
+ * Usage:
+ * <pre>
+ * java com.lolcoach.audio.TriggerBenchmark session.wav keyword.wav [keywordEndSeconds...]
+ * </pre>
+ * When the end times of the spoken keywords are given, each is matched to the
+ * first trigger within 1.5 s after it to report detections, misses, false
+ * triggers and latency. The exit status is 1 if the path goes over its CPU
+ * budget or misses a keyword.
+ */
+public class TriggerBenchmark {
+    private static final double CPU_BUDGET_PERCENT = 2.0;
+    private static final double MATCH_WINDOW_SECONDS = 1.5;
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: TriggerBenchmark <session.wav> <keyword.wav> [keywordEndSeconds...]");
+            System.exit(2);
+        }
+        
+        int frameSamples = AudioCapture.DEFAULT_FRAME_SAMPLES;
+        float sampleRate = AudioCapture.FORMAT.getSampleRate();
+        KeywordSpotter spotter = KeywordSpotter.fromWav(new File(args[1]), frameSamples);
+        List<Double> triggers = new ArrayList<>();
+        spotter.setListener((source, sampleIndex) -> triggers.add(sampleIndex / (double) sampleRate));
+        
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        long wallStart = System.nanoTime();
+        long frames;
+        try (AudioCapture capture = new AudioCapture(new WavAudioSource(new File(args[0])))) {
+            capture.setFrameProcessor(spotter);
+            capture.runToEnd();
+            frames = capture.getFramesProcessed();
+        }
+        long cpuNanos = threads.getCurrentThreadCpuTime() - cpuStart;
+        long wallNanos = System.nanoTime() - wallStart;
+        
+        double audioSeconds = frames * frameSamples / (double) sampleRate;
+        double cpuPercent = 100.0 * cpuNanos / (audioSeconds * 1e9);
+        System.out.printf("Audio %.1f s, %d frames, template %.2f threshold%n", audioSeconds, frames, spotter.getThreshold());
+        System.out.printf("CPU %.1f ms (%.3f%% of one core in real time, budget %.1f%%), wall %.1f ms%n",
+                          cpuNanos / 1e6, cpuPercent, CPU_BUDGET_PERCENT, wallNanos / 1e6);
+        System.out.printf("Per-frame cost %.1f us%n", cpuNanos / 1e3 / Math.max(1, frames));
+        System.out.println("Triggers at (s): " + triggers);
+        
+        boolean passed = cpuPercent <= CPU_BUDGET_PERCENT;
+        if (args.length > 2) {
+            int detected = 0;
+            double totalLatency = 0;
+            double maxLatency = 0;
+            List<Double> unmatched = new ArrayList<>(triggers);
+            for (int i = 2; i < args.length; i++) {
+                double keywordEnd = Double.parseDouble(args[i]);
+                Double match = null;
+                for (Double trigger : unmatched) {
+                    if (trigger >= keywordEnd - 0.2 && trigger <= keywordEnd + MATCH_WINDOW_SECONDS) {
+                        match = trigger;
+                        break;
+                    }
+                }
+                if (match != null) {
+                    unmatched.remove(match);
+                    double latency = Math.max(0, match - keywordEnd);
+                    detected++;
+                    totalLatency += latency;
+                    maxLatency = Math.max(maxLatency, latency);
+                }
+            }
+            int expected = args.length - 2;
+            System.out.printf("Detected %d/%d, false triggers %d, latency avg %.0f ms, max %.0f ms%n",
+                              detected, expected, unmatched.size(),
+                              detected > 0 ? totalLatency / detected * 1000 : 0, maxLatency * 1000);
+            if (detected < expected) {
+                System.out.println("Missed " + (expected - detected) + " of " + expected + " keywords");
+                passed = false;
+            }
+        }
+        
+        System.exit(passed ? 0 : 1);
+    }
+}
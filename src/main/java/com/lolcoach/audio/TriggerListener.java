@@ -0,0 +1,20 @@
+package com.lolcoach.audio;
+
+/**
+ * Receives hands-free trigger events from a wake-word spotter or push-to-talk
+ */
+public interface TriggerListener {
+    String WAKE_WORD = "wake-word";
+    String PUSH_TO_TALK = "push-to-talk";
+    
+    /**
+     * @param source WAKE_WORD or PUSH_TO_TALK
+     * @param sampleIndex Stream position of the trigger, or -1 when not tied to audio
+     */
+    void onTrigger(String source, long sampleIndex);
+    
+    /**
+     * Called when a push-to-talk key is released
+     */
+    default void onRelease(String source) {}
+}
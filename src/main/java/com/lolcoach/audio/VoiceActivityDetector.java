@@ -0,0 +1,138 @@
+package com.lolcoach.audio;
+
+/**
+ * Frame-level voice activity detection from short-term energy and zero-crossing rate.
+ *
+ * A frame counts as speech when its energy is well above the adaptive noise
+ * floor and its zero-crossing rate is low enough to rule out broadband noise
+ * (very loud frames pass regardless, to keep fricatives). A segment starts
+ * after a few consecutive speech frames and ends after a hangover of silence.
+ */
+public final class VoiceActivityDetector {
+    // Frame states returned by process
+    public static final int SILENCE = 0;
+    public static final int SPEECH_START = 1;
+    public static final int SPEECH = 2;
+    public static final int SPEECH_END = 3;
+    
+    private static final double NOISE_ADAPTATION = 0.05;
+    private static final double LOUD_FACTOR = 3.0;
+    
+    private final double thresholdFactor;
+    private final double minEnergy;
+    private final double maxZeroCrossingRate;
+    private final int onsetFrames;
+    private final int hangoverFrames;
+    
+    private double noiseFloor = -1;
+    private boolean inSpeech;
+    private int speechRun;
+    private int silenceRun;
+    private double lastEnergy;
+    private double lastZeroCrossingRate;
+    
+    /**
+     * Defaults tuned for 20 ms frames of 16 kHz speech: 40 ms onset, 300 ms hangover
+     */
+    public VoiceActivityDetector() {
+        this(4.0, 1.0e4, 0.35, 2, 15);
+    }
+    
+    /**
+     * @param thresholdFactor How far above the noise floor a frame's energy must be
+     * @param minEnergy Absolute mean-square energy below which a frame is always silence
+     * @param maxZeroCrossingRate Crossings per sample above which a quiet frame is treated as noise
+     * @param onsetFrames Consecutive speech frames needed to start a segment
+     * @param hangoverFrames Consecutive silent frames needed to end a segment
+     */
+    public VoiceActivityDetector(double thresholdFactor, double minEnergy, double maxZeroCrossingRate,
+                                 int onsetFrames, int hangoverFrames) {
+        this.thresholdFactor = thresholdFactor;
+        this.minEnergy = minEnergy;
+        this.maxZeroCrossingRate = maxZeroCrossingRate;
+        this.onsetFrames = onsetFrames;
+        this.hangoverFrames = hangoverFrames;
+    }
+    
+    /**
+     * Classifies one frame and advances the segment state
+     * @return SILENCE, SPEECH_START, SPEECH or SPEECH_END
+     */
+    public int process(short[] frame, int offset, int length) {
+        double energy = 0;
+        int crossings = 0;
+        int previous = frame[offset];
+        for (int i = offset; i < offset + length; i++) {
+            int sample = frame[i];
+            energy += (double) sample * sample;
+            if ((sample >= 0) != (previous >= 0)) {
+                crossings++;
+            }
+            previous = sample;
+        }
+        energy /= length;
+        double zeroCrossingRate = (double) crossings / length;
+        lastEnergy = energy;
+        lastZeroCrossingRate = zeroCrossingRate;
+        
+        if (noiseFloor < 0) {
+            noiseFloor = energy;
+        }
+        double threshold = Math.max(minEnergy, noiseFloor * thresholdFactor);
+        boolean speechFrame = energy > threshold
+                && (zeroCrossingRate <= maxZeroCrossingRate || energy > threshold * LOUD_FACTOR);
+        
+        if (!speechFrame) {
+            // Only learn the noise floor from non-speech frames
+            noiseFloor += (energy - noiseFloor) * NOISE_ADAPTATION;
+        }
+        
+        if (inSpeech) {
+            if (speechFrame) {
+                silenceRun = 0;
+                return SPEECH;
+            }
+            if (++silenceRun >= hangoverFrames) {
+                inSpeech = false;
+                speechRun = 0;
+                silenceRun = 0;
+                return SPEECH_END;
+            }
+            return SPEECH;
+        }
+        
+        speechRun = speechFrame ? speechRun + 1 : 0;
+        if (speechRun >= onsetFrames) {
+            inSpeech = true;
+            silenceRun = 0;
+            return SPEECH_START;
+        }
+        return SILENCE;
+    }
+    
+    public boolean isInSpeech() {
+        return inSpeech;
+    }
+    
+    public double getNoiseFloor() {
+        return noiseFloor;
+    }
+    
+    public double getLastEnergy() {
+        return lastEnergy;
+    }
+    
+    public double getLastZeroCrossingRate() {
+        return lastZeroCrossingRate;
+    }
+    
+    /**
+     * Forgets the current segment and noise estimate
+     */
+    public void reset() {
+        noiseFloor = -1;
+        inSpeech = false;
+        speechRun = 0;
+        silenceRun = 0;
+    }
+}
@@ -0,0 +1,46 @@
+package com.lolcoach.audio;
+
+import java.io.File;
+import java.io.IOException;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * Reads PCM from a WAV file, so capture and detection can be exercised without a microphone
+ */
+public class WavAudioSource implements AudioSource {
+    private final AudioInputStream stream;
+    
+    public WavAudioSource(File file) throws IOException {
+        try {
+            AudioInputStream source = AudioSystem.getAudioInputStream(file);
+            if (source.getFormat().matches(AudioCapture.FORMAT)) {
+                stream = source;
+            } else if (AudioSystem.isConversionSupported(AudioCapture.FORMAT, source.getFormat())) {
+                stream = AudioSystem.getAudioInputStream(AudioCapture.FORMAT, source);
+            } else {
+                source.close();
+                throw new IOException("Cannot convert " + source.getFormat() + " to " + AudioCapture.FORMAT);
+            }
+        } catch (UnsupportedAudioFileException e) {
+            throw new IOException("Unsupported audio file: " + file, e);
+        }
+    }
+    
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        return stream.read(buffer, offset, length);
+    }
+    
+    @Override
+    public AudioFormat getFormat() {
+        return stream.getFormat();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        stream.close();
+    }
+}
@@ -0,0 +1,137 @@
+package com.lolcoach.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.lolcoach.model.MatchData;
+import com.lolcoach.model.Scenario;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares the binary codecs against Jackson JSON for encoded size and
+ * encode/decode throughput. Run with:
+ * <pre>
+ * mvn -q compile exec:java -Dexec.mainClass=com.lolcoach.codec.CodecBenchmark
+ * </pre>
+ */
+public class CodecBenchmark {
+    private static final int WARMUP_ITERATIONS = 200_000;
+    private static final int MEASURED_ITERATIONS = 1_000_000;
+    
+    // Prevents the JIT from discarding benchmark results
+    private static long sink;
+    
+    public static void main(String[] args) throws Exception {
+        ObjectMapper mapper = createMapper();
+        Scenario scenario = sampleScenario();
+        MatchData match = sampleMatch();
+        
+        byte[] scenarioBinary = ScenarioCodec.encode(scenario);
+        byte[] scenarioJson = mapper.writeValueAsBytes(scenario);
+        byte[] matchBinary = MatchDataCodec.encode(match);
+        byte[] matchJson = mapper.writeValueAsBytes(match);
+        
+        System.out.println("Encoded size (bytes)      binary    json");
+        System.out.printf("  Scenario              %8d %7d%n", scenarioBinary.length, scenarioJson.length);
+        System.out.printf("  MatchData             %8d %7d%n", matchBinary.length, matchJson.length);
+        System.out.println();
+        System.out.println("Throughput (ns/op)        binary    json");
+        
+        ByteBuffer scenarioBuffer = ByteBuffer.allocate(scenarioBinary.length);
+        ByteBuffer scenarioInput = ByteBuffer.wrap(scenarioBinary);
+        ScenarioView scenarioView = new ScenarioView();
+        report("  Scenario encode",
+                () -> { scenarioBuffer.clear(); return ScenarioCodec.encode(scenario, scenarioBuffer); },
+                () -> mapper.writeValueAsBytes(scenario).length);
+        report("  Scenario decode",
+                () -> { scenarioInput.rewind(); return ScenarioCodec.decode(scenarioInput).getTime(); },
+                () -> mapper.readValue(scenarioJson, Scenario.class).getTime());
+        report("  Scenario view read",
+                () -> scenarioView.wrap(scenarioInput, 0).getPlayerLevel()
+                        + (scenarioView.laneEquals("top") ? 1 : 0),
+                () -> mapper.readTree(scenarioJson).get("playerLevel").asInt());
+        
+        ByteBuffer matchBuffer = ByteBuffer.allocate(matchBinary.length);
+        ByteBuffer matchInput = ByteBuffer.wrap(matchBinary);
+        MatchDataView matchView = new MatchDataView();
+        report("  MatchData encode",
+                () -> { matchBuffer.clear(); return MatchDataCodec.encode(match, matchBuffer); },
+                () -> mapper.writeValueAsBytes(match).length);
+        report("  MatchData decode",
+                () -> { matchInput.rewind(); return MatchDataCodec.decode(matchInput).getAdvice().length(); },
+                () -> mapper.readValue(matchJson, MatchData.class).getAdvice().length());
+        report("  MatchData view read",
+                () -> matchView.wrap(matchInput, 0).outcomeEquals("victory") ? 1 : 0,
+                () -> mapper.readTree(matchJson).get("outcome").asText().equals("victory") ? 1 : 0);
+        
+        System.out.println("(sink " + sink + ")");
+    }
+    
+    private interface Op {
+        long run() throws Exception;
+    }
+    
+    private static void report(String label, Op binary, Op json) throws Exception {
+        System.out.printf("%-25s %7.0f %7.0f%n", label, measure(binary), measure(json));
+    }
+    
+    private static double measure(Op op) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += op.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink += op.run();
+        }
+        return (System.nanoTime() - start) / (double) MEASURED_ITERATIONS;
+    }
+    
+    private static ObjectMapper createMapper() {
+        // Jackson needs the JSR-310 module for LocalDateTime; an ISO string is equivalent here
+        SimpleModule timeModule = new SimpleModule();
+        timeModule.addSerializer(LocalDateTime.class, new JsonSerializer<LocalDateTime>() {
+            @Override
+            public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider provider)
+                    throws IOException {
+                gen.writeString(value.toString());
+            }
+        });
+        timeModule.addDeserializer(LocalDateTime.class, new JsonDeserializer<LocalDateTime>() {
+            @Override
+            public LocalDateTime deserialize(JsonParser parser, DeserializationContext context)
+                    throws IOException {
+                return LocalDateTime.parse(parser.getValueAsString());
+            }
+        });
+        return new ObjectMapper().registerModule(timeModule);
+    }
+    
+    private static Scenario sampleScenario() {
+        Scenario scenario = new Scenario("top", 10, "Garen", 6, "Darius", 6, "ahead");
+        Map<String, Object> additionalData = new HashMap<>();
+        additionalData.put("nearTurret", true);
+        additionalData.put("minionWave", true);
+        scenario.setAdditionalData(additionalData);
+        return scenario;
+    }
+    
+    private static MatchData sampleMatch() {
+        MatchData match = new MatchData("PRO001", LocalDateTime.of(2024, 5, 12, 18, 30, 15),
+                "top", "Garen", "Darius", "behind", "victory",
+                "Play defensively and scale into late game");
+        Map<String, Object> additionalData = new HashMap<>();
+        additionalData.put("gold", 3200);
+        additionalData.put("items", new String[]{"Doran's Shield", "Boots of Speed"});
+        match.setAdditionalData(additionalData);
+        return match;
+    }
+}
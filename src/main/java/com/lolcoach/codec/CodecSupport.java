@@ -0,0 +1,324 @@
+package com.lolcoach.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared primitives for the binary codecs: length-prefixed UTF-8 strings and
+ * tagged values for the untyped additionalData maps.
+ */
+final class CodecSupport {
+    // Marker written in place of a string length when the value is null
+    static final int NULL_LENGTH = 0xFFFF;
+    static final int MAX_STRING_BYTES = 0xFFFE;
+    // Array, list and map sizes share the two-byte field, so they stop short of NULL_LENGTH too
+    static final int MAX_COUNT = 0xFFFE;
+    
+    // Value tags for additionalData entries
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_TRUE = 1;
+    private static final byte TAG_FALSE = 2;
+    private static final byte TAG_INT = 3;
+    private static final byte TAG_LONG = 4;
+    private static final byte TAG_DOUBLE = 5;
+    private static final byte TAG_STRING = 6;
+    private static final byte TAG_STRING_ARRAY = 7;
+    private static final byte TAG_MAP = 8;
+    private static final byte TAG_LIST = 9;
+    
+    private CodecSupport() {}
+    
+    /**
+     * Number of bytes the UTF-8 form of a string occupies, computed without encoding it
+     */
+    static int utf8Length(String s) {
+        int length = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+    
+    static int stringSize(String s) {
+        return s == null ? 2 : 2 + utf8Length(s);
+    }
+    
+    static void putString(ByteBuffer buffer, String s) {
+        if (s == null) {
+            buffer.putShort((short) NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_BYTES) {
+            throw new IllegalArgumentException("String too long for binary codec: " + bytes.length + " bytes");
+        }
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+    
+    /**
+     * Writes the element count of an array, list or map
+     */
+    static void putCount(ByteBuffer buffer, int count, String kind) {
+        if (count > MAX_COUNT) {
+            throw new IllegalArgumentException(kind + " too large for binary codec: " + count + " entries");
+        }
+        buffer.putShort((short) count);
+    }
+    
+    /**
+     * Reads a string at an absolute position without moving the buffer position
+     */
+    static String getString(ByteBuffer buffer, int position) {
+        int length = buffer.getShort(position) & 0xFFFF;
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(position + 2 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    static String getString(ByteBuffer buffer) {
+        String s = getString(buffer, buffer.position());
+        int length = buffer.getShort() & 0xFFFF;
+        if (length != NULL_LENGTH) {
+            buffer.position(buffer.position() + length);
+        }
+        return s;
+    }
+    
+    /**
+     * Compares an encoded string against a candidate, ignoring case as
+     * {@link String#equalsIgnoreCase} does, by decoding one char at a time rather than
+     * building the string.
+     */
+    static boolean stringEqualsIgnoreCase(ByteBuffer buffer, int position, String candidate) {
+        int length = buffer.getShort(position) & 0xFFFF;
+        if (length == NULL_LENGTH || candidate == null) {
+            return length == NULL_LENGTH && candidate == null;
+        }
+        // Every char takes one to three bytes of UTF-8, so most mismatches are decided here
+        if (length < candidate.length() || length > 3 * candidate.length()) {
+            return false;
+        }
+        
+        int p = position + 2;
+        int end = p + length;
+        int j = 0;
+        while (p < end) {
+            int b = buffer.get(p++) & 0xFF;
+            int codePoint;
+            if (b < 0x80) {
+                codePoint = b;
+            } else {
+                int extra = b >= 0xF0 ? 3 : b >= 0xE0 ? 2 : b >= 0xC0 ? 1 : 0;
+                codePoint = extra == 0 || p + extra > end ? 0xFFFD : b & (0x3F >> extra);
+                for (int k = 0; k < extra && codePoint != 0xFFFD; k++) {
+                    int next = buffer.get(p + k) & 0xFF;
+                    codePoint = (next & 0xC0) == 0x80 ? codePoint << 6 | next & 0x3F : 0xFFFD;
+                }
+                if (codePoint != 0xFFFD) {
+                    p += extra;
+                }
+            }
+            
+            if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                if (j >= candidate.length() || !charEqualsIgnoreCase((char) codePoint, candidate.charAt(j))) {
+                    return false;
+                }
+                j++;
+            } else {
+                if (j + 1 >= candidate.length()
+                        || !charEqualsIgnoreCase(Character.highSurrogate(codePoint), candidate.charAt(j))
+                        || !charEqualsIgnoreCase(Character.lowSurrogate(codePoint), candidate.charAt(j + 1))) {
+                    return false;
+                }
+                j += 2;
+            }
+        }
+        return j == candidate.length();
+    }
+    
+    private static boolean charEqualsIgnoreCase(char a, char b) {
+        if (a == b) {
+            return true;
+        }
+        char upperA = Character.toUpperCase(a);
+        char upperB = Character.toUpperCase(b);
+        return upperA == upperB || Character.toLowerCase(upperA) == Character.toLowerCase(upperB);
+    }
+    
+    static int valueSize(Object value) {
+        if (value == null || value instanceof Boolean) {
+            return 1;
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return 5;
+        } else if (value instanceof Long) {
+            return 9;
+        } else if (value instanceof Double || value instanceof Float) {
+            return 9;
+        } else if (value instanceof String[]) {
+            int size = 1 + 2;
+            for (String s : (String[]) value) {
+                size += stringSize(s);
+            }
+            return size;
+        } else if (value instanceof Map) {
+            return 1 + mapSize((Map<?, ?>) value);
+        } else if (value instanceof List) {
+            int size = 1 + 2;
+            for (Object element : (List<?>) value) {
+                size += valueSize(element);
+            }
+            return size;
+        }
+        return 1 + stringSize(String.valueOf(value));
+    }
+    
+    static int mapSize(Map<?, ?> map) {
+        if (map == null) {
+            return 2;
+        }
+        int size = 2;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            size += stringSize(String.valueOf(entry.getKey()));
+            size += valueSize(entry.getValue());
+        }
+        return size;
+    }
+    
+    /**
+     * Writes a value with a one-byte type tag. Types outside the supported set are
+     * stored as their string form, so they come back as strings.
+     */
+    static void putValue(ByteBuffer buffer, Object value) {
+        if (value == null) {
+            buffer.put(TAG_NULL);
+        } else if (value instanceof Boolean) {
+            buffer.put((Boolean) value ? TAG_TRUE : TAG_FALSE);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            buffer.put(TAG_INT).putInt(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            buffer.put(TAG_LONG).putLong((Long) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            buffer.put(TAG_DOUBLE).putDouble(((Number) value).doubleValue());
+        } else if (value instanceof String[]) {
+            String[] array = (String[]) value;
+            buffer.put(TAG_STRING_ARRAY);
+            putCount(buffer, array.length, "String array");
+            for (String s : array) {
+                putString(buffer, s);
+            }
+        } else if (value instanceof Map) {
+            buffer.put(TAG_MAP);
+            putMap(buffer, (Map<?, ?>) value);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            buffer.put(TAG_LIST);
+            putCount(buffer, list.size(), "List");
+            for (Object element : list) {
+                putValue(buffer, element);
+            }
+        } else {
+            buffer.put(TAG_STRING);
+            putString(buffer, String.valueOf(value));
+        }
+    }
+    
+    static Object getValue(ByteBuffer buffer) {
+        byte tag = buffer.get();
+        switch (tag) {
+            case TAG_NULL:
+                return null;
+            case TAG_TRUE:
+                return Boolean.TRUE;
+            case TAG_FALSE:
+                return Boolean.FALSE;
+            case TAG_INT:
+                return buffer.getInt();
+            case TAG_LONG:
+                return buffer.getLong();
+            case TAG_DOUBLE:
+                return buffer.getDouble();
+            case TAG_STRING:
+                return getString(buffer);
+            case TAG_STRING_ARRAY: {
+                String[] array = new String[buffer.getShort() & 0xFFFF];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = getString(buffer);
+                }
+                return array;
+            }
+            case TAG_MAP:
+                return getMap(buffer);
+            case TAG_LIST: {
+                int size = buffer.getShort() & 0xFFFF;
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(getValue(buffer));
+                }
+                return list;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown value tag: " + tag);
+        }
+    }
+    
+    /**
+     * Writes a map as an entry count followed by key/value pairs. A null map is
+     * written as NULL_LENGTH so it decodes back to null.
+     */
+    static void putMap(ByteBuffer buffer, Map<?, ?> map) {
+        if (map == null) {
+            buffer.putShort((short) NULL_LENGTH);
+            return;
+        }
+        putCount(buffer, map.size(), "Map");
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            putString(buffer, String.valueOf(entry.getKey()));
+            putValue(buffer, entry.getValue());
+        }
+    }
+    
+    static Map<String, Object> getMap(ByteBuffer buffer) {
+        int size = buffer.getShort() & 0xFFFF;
+        if (size == NULL_LENGTH) {
+            return null;
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            String key = getString(buffer);
+            map.put(key, getValue(buffer));
+        }
+        return map;
+    }
+    
+    static void checkHeader(ByteBuffer buffer, int offset, byte expectedType, int maxVersion) {
+        byte type = buffer.get(offset);
+        int version = buffer.get(offset + 1) & 0xFF;
+        if (type != expectedType) {
+            throw new IllegalArgumentException("Unexpected record type: " + (char) type);
+        }
+        if (version == 0 || version > maxVersion) {
+            throw new IllegalArgumentException("Unsupported record version: " + version);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.lolcoach.codec;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Standalone binary form of an untyped {@code Map<String, Object>}, using the
+ * same tagged value encoding as the additionalData sections of the record codecs.
+ */
+public final class MapCodec {
+    private MapCodec() {}
+    
+    public static int encodedSize(Map<String, Object> map) {
+        return CodecSupport.mapSize(map);
+    }
+    
+    /**
+     * Encodes a map at the buffer's current position and advances it
+     */
+    public static void encode(Map<String, Object> map, ByteBuffer buffer) {
+        CodecSupport.putMap(buffer, map);
+    }
+    
+    public static byte[] encode(Map<String, Object> map) {
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize(map));
+        encode(map, buffer);
+        return buffer.array();
+    }
+    
+    /**
+     * Decodes a map at the buffer's current position and advances past it
+     */
+    public static Map<String, Object> decode(ByteBuffer buffer) {
+        return CodecSupport.getMap(buffer);
+    }
+    
+    public static Map<String, Object> decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+}
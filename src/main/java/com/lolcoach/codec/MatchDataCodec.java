@@ -0,0 +1,122 @@
+package com.lolcoach.codec;
+
+import com.lolcoach.model.MatchData;
+import java.nio.ByteBuffer;
+import java.time.ZoneOffset;
+
+/**
+ * Compact, versioned binary form of a {@link MatchData}.
+ *
+ * Layout (big-endian, offsets relative to the start of the record):
+ * <pre>
+ *  0  byte   type 'M'
+ *  1  byte   version
+ *  2  short  flags (bit 0: timestamp present)
+ *  4  int    total record length
+ *  8  long   timestamp epoch seconds (UTC)
+ * 16  int    timestamp nanos
+ * 20  int[8] offsets of matchId, lane, playerChampion, enemyChampion,
+ *            situation, outcome, advice, additionalData
+ * 52  ...    variable section
+ * </pre>
+ */
+public final class MatchDataCodec {
+    public static final byte TYPE = 'M';
+    public static final int VERSION = 1;
+    // Fixed part of every record; no valid record is shorter
+    public static final int HEADER_SIZE = 52;
+    
+    static final int FLAG_HAS_TIMESTAMP = 1;
+    
+    static final int FLAGS_OFFSET = 2;
+    static final int LENGTH_OFFSET = 4;
+    static final int EPOCH_SECOND_OFFSET = 8;
+    static final int NANO_OFFSET = 16;
+    static final int MATCH_ID_SLOT = 20;
+    static final int LANE_SLOT = 24;
+    static final int PLAYER_CHAMPION_SLOT = 28;
+    static final int ENEMY_CHAMPION_SLOT = 32;
+    static final int SITUATION_SLOT = 36;
+    static final int OUTCOME_SLOT = 40;
+    static final int ADVICE_SLOT = 44;
+    static final int ADDITIONAL_DATA_SLOT = 48;
+    
+    private MatchDataCodec() {}
+    
+    /**
+     * Exact number of bytes {@link #encode(MatchData, ByteBuffer)} will write
+     */
+    public static int encodedSize(MatchData match) {
+        return HEADER_SIZE
+                + CodecSupport.stringSize(match.getMatchId())
+                + CodecSupport.stringSize(match.getLane())
+                + CodecSupport.stringSize(match.getPlayerChampion())
+                + CodecSupport.stringSize(match.getEnemyChampion())
+                + CodecSupport.stringSize(match.getSituation())
+                + CodecSupport.stringSize(match.getOutcome())
+                + CodecSupport.stringSize(match.getAdvice())
+                + CodecSupport.mapSize(match.getAdditionalData());
+    }
+    
+    /**
+     * Encodes a match at the buffer's current position and advances it
+     * @return number of bytes written
+     */
+    public static int encode(MatchData match, ByteBuffer buffer) {
+        int start = buffer.position();
+        int length = encodedSize(match);
+        
+        buffer.put(TYPE);
+        buffer.put((byte) VERSION);
+        if (match.getTimestamp() != null) {
+            buffer.putShort((short) FLAG_HAS_TIMESTAMP);
+            buffer.putInt(length);
+            buffer.putLong(match.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+            buffer.putInt(match.getTimestamp().getNano());
+        } else {
+            buffer.putShort((short) 0);
+            buffer.putInt(length);
+            buffer.putLong(0L);
+            buffer.putInt(0);
+        }
+        
+        buffer.position(start + HEADER_SIZE);
+        putString(buffer, start, MATCH_ID_SLOT, match.getMatchId());
+        putString(buffer, start, LANE_SLOT, match.getLane());
+        putString(buffer, start, PLAYER_CHAMPION_SLOT, match.getPlayerChampion());
+        putString(buffer, start, ENEMY_CHAMPION_SLOT, match.getEnemyChampion());
+        putString(buffer, start, SITUATION_SLOT, match.getSituation());
+        putString(buffer, start, OUTCOME_SLOT, match.getOutcome());
+        putString(buffer, start, ADVICE_SLOT, match.getAdvice());
+        buffer.putInt(start + ADDITIONAL_DATA_SLOT, buffer.position() - start);
+        CodecSupport.putMap(buffer, match.getAdditionalData());
+        
+        return buffer.position() - start;
+    }
+    
+    public static byte[] encode(MatchData match) {
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize(match));
+        encode(match, buffer);
+        return buffer.array();
+    }
+    
+    /**
+     * Decodes a match at the buffer's current position and advances past it
+     */
+    public static MatchData decode(ByteBuffer buffer) {
+        int start = buffer.position();
+        MatchDataView view = new MatchDataView().wrap(buffer, start);
+        MatchData match = view.toMatchData();
+        buffer.position(start + view.length());
+        return match;
+    }
+    
+    public static MatchData decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+    
+    private static void putString(ByteBuffer buffer, int start, int slot, String value) {
+        buffer.putInt(start + slot, buffer.position() - start);
+        CodecSupport.putString(buffer, value);
+    }
+}
@@ -0,0 +1,100 @@
+package com.lolcoach.codec;
+
+import com.lolcoach.model.MatchData;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+/**
+ * Flyweight reader over an encoded {@link MatchData}. Intended for scanning
+ * a match store: filter on fields in place and only materialize the matches
+ * that are actually needed.
+ */
+public final class MatchDataView {
+    private ByteBuffer buffer;
+    private int offset;
+    
+    /**
+     * Points this view at the record starting at the given absolute offset
+     * @return this view, for chaining
+     */
+    public MatchDataView wrap(ByteBuffer buffer, int offset) {
+        CodecSupport.checkHeader(buffer, offset, MatchDataCodec.TYPE, MatchDataCodec.VERSION);
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+    
+    public int version() { return buffer.get(offset + 1) & 0xFF; }
+    public int length() { return buffer.getInt(offset + MatchDataCodec.LENGTH_OFFSET); }
+    
+    public boolean hasTimestamp() {
+        return (buffer.getShort(offset + MatchDataCodec.FLAGS_OFFSET) & MatchDataCodec.FLAG_HAS_TIMESTAMP) != 0;
+    }
+    
+    /**
+     * Timestamp as UTC epoch seconds, or 0 when absent
+     */
+    public long getEpochSecond() { return buffer.getLong(offset + MatchDataCodec.EPOCH_SECOND_OFFSET); }
+    
+    public LocalDateTime getTimestamp() {
+        if (!hasTimestamp()) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(getEpochSecond(),
+                buffer.getInt(offset + MatchDataCodec.NANO_OFFSET), ZoneOffset.UTC);
+    }
+    
+    public String getMatchId() { return string(MatchDataCodec.MATCH_ID_SLOT); }
+    public String getLane() { return string(MatchDataCodec.LANE_SLOT); }
+    public String getPlayerChampion() { return string(MatchDataCodec.PLAYER_CHAMPION_SLOT); }
+    public String getEnemyChampion() { return string(MatchDataCodec.ENEMY_CHAMPION_SLOT); }
+    public String getSituation() { return string(MatchDataCodec.SITUATION_SLOT); }
+    public String getOutcome() { return string(MatchDataCodec.OUTCOME_SLOT); }
+    public String getAdvice() { return string(MatchDataCodec.ADVICE_SLOT); }
+    
+    public Map<String, Object> getAdditionalData() {
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(offset + buffer.getInt(offset + MatchDataCodec.ADDITIONAL_DATA_SLOT));
+        return CodecSupport.getMap(slice);
+    }
+    
+    public boolean laneEquals(String lane) {
+        return stringEquals(MatchDataCodec.LANE_SLOT, lane);
+    }
+    
+    public boolean playerChampionEquals(String champion) {
+        return stringEquals(MatchDataCodec.PLAYER_CHAMPION_SLOT, champion);
+    }
+    
+    public boolean enemyChampionEquals(String champion) {
+        return stringEquals(MatchDataCodec.ENEMY_CHAMPION_SLOT, champion);
+    }
+    
+    public boolean situationEquals(String situation) {
+        return stringEquals(MatchDataCodec.SITUATION_SLOT, situation);
+    }
+    
+    public boolean outcomeEquals(String outcome) {
+        return stringEquals(MatchDataCodec.OUTCOME_SLOT, outcome);
+    }
+    
+    /**
+     * Materializes the full match
+     */
+    public MatchData toMatchData() {
+        MatchData match = new MatchData(getMatchId(), getTimestamp(), getLane(), getPlayerChampion(),
+                                        getEnemyChampion(), getSituation(), getOutcome(), getAdvice());
+        match.setAdditionalData(getAdditionalData());
+        return match;
+    }
+    
+    private String string(int slot) {
+        return CodecSupport.getString(buffer, offset + buffer.getInt(offset + slot));
+    }
+    
+    private boolean stringEquals(int slot, String candidate) {
+        return CodecSupport.stringEqualsIgnoreCase(buffer, offset + buffer.getInt(offset + slot), candidate);
+    }
+}
@@ -0,0 +1,105 @@
+package com.lolcoach.codec;
+
+import com.lolcoach.model.Scenario;
+import java.nio.ByteBuffer;
+
+/**
+ * Compact, versioned binary form of a {@link Scenario}.
+ *
+ * Layout (big-endian, offsets relative to the start of the record):
+ * <pre>
+ *  0  byte   type 'S'
+ *  1  byte   version
+ *  2  short  intent ordinal (version 2+, 0 in version 1)
+ *  4  int    total record length
+ *  8  int    time
+ * 12  int    playerLevel
+ * 16  int    enemyLevel
+ * 20  int[5] offsets of lane, playerChampion, enemyChampion, situation, additionalData
+ * 40  ...    variable section
+ * </pre>
+ * The fixed header lets {@link ScenarioView} read any field in place.
+ */
+public final class ScenarioCodec {
+    public static final byte TYPE = 'S';
+    public static final int VERSION = 2;
+    
+    static final int INTENT_OFFSET = 2;
+    static final int LENGTH_OFFSET = 4;
+    static final int TIME_OFFSET = 8;
+    static final int PLAYER_LEVEL_OFFSET = 12;
+    static final int ENEMY_LEVEL_OFFSET = 16;
+    static final int LANE_SLOT = 20;
+    static final int PLAYER_CHAMPION_SLOT = 24;
+    static final int ENEMY_CHAMPION_SLOT = 28;
+    static final int SITUATION_SLOT = 32;
+    static final int ADDITIONAL_DATA_SLOT = 36;
+    static final int HEADER_SIZE = 40;
+    
+    private ScenarioCodec() {}
+    
+    /**
+     * Exact number of bytes {@link #encode(Scenario, ByteBuffer)} will write
+     */
+    public static int encodedSize(Scenario scenario) {
+        return HEADER_SIZE
+                + CodecSupport.stringSize(scenario.getLane())
+                + CodecSupport.stringSize(scenario.getPlayerChampion())
+                + CodecSupport.stringSize(scenario.getEnemyChampion())
+                + CodecSupport.stringSize(scenario.getSituation())
+                + CodecSupport.mapSize(scenario.getAdditionalData());
+    }
+    
+    /**
+     * Encodes a scenario at the buffer's current position and advances it
+     * @return number of bytes written
+     */
+    public static int encode(Scenario scenario, ByteBuffer buffer) {
+        int start = buffer.position();
+        int length = encodedSize(scenario);
+        
+        buffer.put(TYPE);
+        buffer.put((byte) VERSION);
+        buffer.putShort((short) (scenario.getIntent() != null ? scenario.getIntent().ordinal() : 0));
+        buffer.putInt(length);
+        buffer.putInt(scenario.getTime());
+        buffer.putInt(scenario.getPlayerLevel());
+        buffer.putInt(scenario.getEnemyLevel());
+        
+        // Offsets are filled in as the variable section is written
+        buffer.position(start + HEADER_SIZE);
+        buffer.putInt(start + LANE_SLOT, buffer.position() - start);
+        CodecSupport.putString(buffer, scenario.getLane());
+        buffer.putInt(start + PLAYER_CHAMPION_SLOT, buffer.position() - start);
+        CodecSupport.putString(buffer, scenario.getPlayerChampion());
+        buffer.putInt(start + ENEMY_CHAMPION_SLOT, buffer.position() - start);
+        CodecSupport.putString(buffer, scenario.getEnemyChampion());
+        buffer.putInt(start + SITUATION_SLOT, buffer.position() - start);
+        CodecSupport.putString(buffer, scenario.getSituation());
+        buffer.putInt(start + ADDITIONAL_DATA_SLOT, buffer.position() - start);
+        CodecSupport.putMap(buffer, scenario.getAdditionalData());
+        
+        return buffer.position() - start;
+    }
+    
+    public static byte[] encode(Scenario scenario) {
+        ByteBuffer buffer = ByteBuffer.allocate(encodedSize(scenario));
+        encode(scenario, buffer);
+        return buffer.array();
+    }
+    
+    /**
+     * Decodes a scenario at the buffer's current position and advances past it
+     */
+    public static Scenario decode(ByteBuffer buffer) {
+        int start = buffer.position();
+        ScenarioView view = new ScenarioView().wrap(buffer, start);
+        Scenario scenario = view.toScenario();
+        buffer.position(start + view.length());
+        return scenario;
+    }
+    
+    public static Scenario decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+}
@@ -0,0 +1,89 @@
+package com.lolcoach.codec;
+
+import com.lolcoach.model.Intent;
+import com.lolcoach.model.Scenario;
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Flyweight reader over an encoded {@link Scenario}. Numeric fields are read
+ * straight from the buffer and string fields can be compared without being
+ * decoded, so one view can be re-wrapped over many records without allocating.
+ */
+public final class ScenarioView {
+    private ByteBuffer buffer;
+    private int offset;
+    
+    /**
+     * Points this view at the record starting at the given absolute offset
+     * @return this view, for chaining
+     */
+    public ScenarioView wrap(ByteBuffer buffer, int offset) {
+        CodecSupport.checkHeader(buffer, offset, ScenarioCodec.TYPE, ScenarioCodec.VERSION);
+        this.buffer = buffer;
+        this.offset = offset;
+        return this;
+    }
+    
+    public int version() { return buffer.get(offset + 1) & 0xFF; }
+    public int length() { return buffer.getInt(offset + ScenarioCodec.LENGTH_OFFSET); }
+    
+    /**
+     * Intent of the utterance; version 1 records predate intents and read as LANE_STATE
+     */
+    public Intent getIntent() {
+        int ordinal = buffer.getShort(offset + ScenarioCodec.INTENT_OFFSET);
+        Intent[] intents = Intent.values();
+        return ordinal >= 0 && ordinal < intents.length ? intents[ordinal] : Intent.LANE_STATE;
+    }
+    
+    public int getTime() { return buffer.getInt(offset + ScenarioCodec.TIME_OFFSET); }
+    public int getPlayerLevel() { return buffer.getInt(offset + ScenarioCodec.PLAYER_LEVEL_OFFSET); }
+    public int getEnemyLevel() { return buffer.getInt(offset + ScenarioCodec.ENEMY_LEVEL_OFFSET); }
+    
+    public String getLane() { return string(ScenarioCodec.LANE_SLOT); }
+    public String getPlayerChampion() { return string(ScenarioCodec.PLAYER_CHAMPION_SLOT); }
+    public String getEnemyChampion() { return string(ScenarioCodec.ENEMY_CHAMPION_SLOT); }
+    public String getSituation() { return string(ScenarioCodec.SITUATION_SLOT); }
+    
+    public Map<String, Object> getAdditionalData() {
+        ByteBuffer slice = buffer.duplicate();
+        slice.position(offset + buffer.getInt(offset + ScenarioCodec.ADDITIONAL_DATA_SLOT));
+        return CodecSupport.getMap(slice);
+    }
+    
+    public boolean laneEquals(String lane) {
+        return stringEquals(ScenarioCodec.LANE_SLOT, lane);
+    }
+    
+    public boolean playerChampionEquals(String champion) {
+        return stringEquals(ScenarioCodec.PLAYER_CHAMPION_SLOT, champion);
+    }
+    
+    public boolean enemyChampionEquals(String champion) {
+        return stringEquals(ScenarioCodec.ENEMY_CHAMPION_SLOT, champion);
+    }
+    
+    public boolean situationEquals(String situation) {
+        return stringEquals(ScenarioCodec.SITUATION_SLOT, situation);
+    }
+    
+    /**
+     * Materializes the full scenario
+     */
+    public Scenario toScenario() {
+        Scenario scenario = new Scenario(getLane(), getTime(), getPlayerChampion(), getPlayerLevel(),
+                                         getEnemyChampion(), getEnemyLevel(), getSituation());
+        scenario.setIntent(getIntent());
+        scenario.setAdditionalData(getAdditionalData());
+        return scenario;
+    }
+    
+    private String string(int slot) {
+        return CodecSupport.getString(buffer, offset + buffer.getInt(offset + slot));
+    }
+    
+    private boolean stringEquals(int slot, String candidate) {
+        return CodecSupport.stringEqualsIgnoreCase(buffer, offset + buffer.getInt(offset + slot), candidate);
+    }
+}
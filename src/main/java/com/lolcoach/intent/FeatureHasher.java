@@ -0,0 +1,99 @@
+package com.lolcoach.intent;
+
+/**
+ * Hashes an utterance into feature buckets: word unigrams, word bigrams and
+ * character trigrams within words (which tolerate recognizer misspellings).
+ * Works character by character over the input without building substrings.
+ */
+public final class FeatureHasher {
+    private static final int FNV_OFFSET = 0x811C9DC5;
+    private static final int FNV_PRIME = 0x01000193;
+    
+    // Distinct seeds keep the feature kinds from colliding systematically
+    private static final int UNIGRAM_SEED = 0x9E3779B9;
+    private static final int BIGRAM_SEED = 0x85EBCA6B;
+    private static final int TRIGRAM_SEED = 0xC2B2AE35;
+    private static final char WORD_BOUNDARY = '^';
+    
+    private final int mask;
+    
+    /**
+     * @param buckets Number of feature buckets; must be a power of two
+     */
+    public FeatureHasher(int buckets) {
+        if (Integer.bitCount(buckets) != 1) {
+            throw new IllegalArgumentException("Bucket count must be a power of two: " + buckets);
+        }
+        this.mask = buckets - 1;
+    }
+    
+    public int getBuckets() {
+        return mask + 1;
+    }
+    
+    /**
+     * Writes the bucket of every feature in the text into out
+     * @return number of features written; extraction stops when out is full
+     */
+    public int extract(CharSequence text, int[] out) {
+        int count = 0;
+        int wordHash = FNV_OFFSET;
+        int previousWordHash = 0;
+        boolean inWord = false;
+        char c1 = WORD_BOUNDARY;
+        char c2 = WORD_BOUNDARY;
+        
+        for (int i = 0; i <= text.length() && count < out.length; i++) {
+            char c = i < text.length() ? Character.toLowerCase(text.charAt(i)) : ' ';
+            boolean wordChar = Character.isLetterOrDigit(c) || c == '\'';
+            
+            if (wordChar) {
+                if (!inWord) {
+                    inWord = true;
+                    wordHash = FNV_OFFSET;
+                    c1 = WORD_BOUNDARY;
+                    c2 = WORD_BOUNDARY;
+                }
+                wordHash = (wordHash ^ c) * FNV_PRIME;
+                count = add(out, count, trigram(c1, c2, c));
+                c1 = c2;
+                c2 = c;
+            } else if (inWord) {
+                inWord = false;
+                if (count < out.length) {
+                    count = add(out, count, trigram(c1, c2, WORD_BOUNDARY));
+                }
+                if (count < out.length) {
+                    count = add(out, count, mix(wordHash, UNIGRAM_SEED));
+                }
+                if (previousWordHash != 0 && count < out.length) {
+                    count = add(out, count, mix(previousWordHash * 31 + wordHash, BIGRAM_SEED));
+                }
+                previousWordHash = wordHash;
+            }
+        }
+        return count;
+    }
+    
+    private int add(int[] out, int count, int hash) {
+        out[count] = hash & mask;
+        return count + 1;
+    }
+    
+    private static int trigram(char a, char b, char c) {
+        return mix((a << 16 | b) * 31 + c, TRIGRAM_SEED);
+    }
+    
+    /**
+     * Murmur3 finalizer, spreading similar inputs across buckets
+     */
+    private static int mix(int value, int seed) {
+        int h = value ^ seed;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
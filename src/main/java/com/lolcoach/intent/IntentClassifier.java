@@ -0,0 +1,172 @@
+package com.lolcoach.intent;
+
+import com.lolcoach.model.Intent;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Logger;
+import java.util.logging.Level;
+
+/**
+ * Linear intent model over hashed n-gram features. Weights live in one flat
+ * float array laid out feature-major, so scoring an utterance touches one
+ * contiguous run of class weights per feature.
+ */
+public final class IntentClassifier {
+    private static final Logger LOGGER = Logger.getLogger(IntentClassifier.class.getName());
+    
+    public static final String MODEL_RESOURCE = "/intent/intent-model.bin";
+    public static final String CORPUS_RESOURCE = "/intent/intent-corpus.tsv";
+    
+    static final int MAGIC = 0x4C43494D; // "LCIM"
+    static final int VERSION = 1;
+    static final int MAX_FEATURES = 512;
+    
+    private final FeatureHasher hasher;
+    private final Intent[] classes;
+    private final float[] weights;
+    private final float[] bias;
+    
+    // Per-thread scratch so classification does not allocate
+    private final ThreadLocal<int[]> featureBuffer = ThreadLocal.withInitial(() -> new int[MAX_FEATURES]);
+    private final ThreadLocal<float[]> scoreBuffer;
+    
+    /**
+     * @param buckets Feature buckets, a power of two
+     * @param classes Intents in model order
+     * @param weights buckets * classes weights, indexed bucket * classes + class
+     * @param bias One bias per class
+     */
+    IntentClassifier(int buckets, Intent[] classes, float[] weights, float[] bias) {
+        this.hasher = new FeatureHasher(buckets);
+        this.classes = classes;
+        this.weights = weights;
+        this.bias = bias;
+        this.scoreBuffer = ThreadLocal.withInitial(() -> new float[classes.length]);
+    }
+    
+    /**
+     * Returns the most likely intent of an utterance
+     */
+    public Intent classify(CharSequence text) {
+        float[] scores = scoreBuffer.get();
+        score(text, scores);
+        int best = 0;
+        for (int c = 1; c < scores.length; c++) {
+            if (scores[c] > scores[best]) {
+                best = c;
+            }
+        }
+        return classes[best];
+    }
+    
+    /**
+     * Writes the raw linear score of every class, in {@link #getClasses()} order
+     */
+    public void score(CharSequence text, float[] scores) {
+        int[] features = featureBuffer.get();
+        int count = hasher.extract(text, features);
+        int classCount = classes.length;
+        System.arraycopy(bias, 0, scores, 0, classCount);
+        for (int f = 0; f < count; f++) {
+            int base = features[f] * classCount;
+            for (int c = 0; c < classCount; c++) {
+                scores[c] += weights[base + c];
+            }
+        }
+    }
+    
+    public Intent[] getClasses() {
+        return classes.clone();
+    }
+    
+    FeatureHasher getHasher() {
+        return hasher;
+    }
+    
+    /**
+     * Loads the bundled model, training one from the bundled corpus if the model is missing
+     * @return The classifier, or null if neither resource is available
+     */
+    public static IntentClassifier loadDefault() {
+        try (InputStream in = IntentClassifier.class.getResourceAsStream(MODEL_RESOURCE)) {
+            if (in != null) {
+                return load(new BufferedInputStream(in));
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not load intent model, retraining", e);
+        }
+        try (InputStream in = IntentClassifier.class.getResourceAsStream(CORPUS_RESOURCE)) {
+            if (in != null) {
+                return IntentTrainer.train(IntentTrainer.readCorpus(new InputStreamReader(in, StandardCharsets.UTF_8)));
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not read intent corpus", e);
+        }
+        LOGGER.warning("No intent model available");
+        return null;
+    }
+    
+    /**
+     * Reads a model written by {@link #save}. Only non-zero weights are stored.
+     */
+    public static IntentClassifier load(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an intent model");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported intent model version: " + version);
+        }
+        int buckets = in.readInt();
+        Intent[] classes = new Intent[in.readUnsignedByte()];
+        for (int c = 0; c < classes.length; c++) {
+            classes[c] = Intent.valueOf(in.readUTF());
+        }
+        float[] bias = new float[classes.length];
+        for (int c = 0; c < classes.length; c++) {
+            bias[c] = in.readFloat();
+        }
+        float[] weights = new float[buckets * classes.length];
+        int nonZero = in.readInt();
+        for (int i = 0; i < nonZero; i++) {
+            int index = in.readInt();
+            weights[index] = in.readFloat();
+        }
+        return new IntentClassifier(buckets, classes, weights, bias);
+    }
+    
+    public void save(OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(hasher.getBuckets());
+        out.writeByte(classes.length);
+        for (Intent intent : classes) {
+            out.writeUTF(intent.name());
+        }
+        for (float b : bias) {
+            out.writeFloat(b);
+        }
+        int nonZero = 0;
+        for (float w : weights) {
+            if (w != 0) {
+                nonZero++;
+            }
+        }
+        out.writeInt(nonZero);
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] != 0) {
+                out.writeInt(i);
+                out.writeFloat(weights[i]);
+            }
+        }
+        out.flush();
+    }
+}
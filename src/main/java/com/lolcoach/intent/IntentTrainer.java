@@ -0,0 +1,210 @@
+package com.lolcoach.intent;
+
+import com.lolcoach.model.Intent;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Trains and evaluates the intent classifier from a labeled corpus of
+ * tab-separated "INTENT&lt;TAB&gt;utterance" lines ('#' starts a comment).
+ *
+ * Usage:
+ * <pre>
+ * java com.lolcoach.intent.IntentTrainer train src/main/resources/intent/intent-corpus.tsv src/main/resources/intent/intent-model.bin
+ * java com.lolcoach.intent.IntentTrainer eval src/main/resources/intent/intent-corpus.tsv [folds]
+ * </pre>
+ */
+public class IntentTrainer {
+    static final int DEFAULT_BUCKETS = 1 << 14;
+    private static final int EPOCHS = 30;
+    private static final float LEARNING_RATE = 0.2f;
+    private static final long SEED = 42;
+    
+    /**
+     * One labeled utterance
+     */
+    public static class Example {
+        private final Intent intent;
+        private final String text;
+        
+        public Example(Intent intent, String text) {
+            this.intent = intent;
+            this.text = text;
+        }
+        
+        public Intent getIntent() { return intent; }
+        public String getText() { return text; }
+    }
+    
+    public static List<Example> readCorpus(Reader reader) throws IOException {
+        List<Example> examples = new ArrayList<>();
+        BufferedReader in = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int tab = line.indexOf('\t');
+            if (tab < 0) {
+                throw new IOException("Line " + lineNumber + " has no tab separator");
+            }
+            examples.add(new Example(Intent.valueOf(line.substring(0, tab).trim()), line.substring(tab + 1).trim()));
+        }
+        return examples;
+    }
+    
+    public static IntentClassifier train(List<Example> examples) {
+        return train(examples, DEFAULT_BUCKETS, EPOCHS, SEED);
+    }
+    
+    /**
+     * Fits a multinomial logistic regression with plain SGD
+     */
+    public static IntentClassifier train(List<Example> examples, int buckets, int epochs, long seed) {
+        Intent[] classes = Intent.values();
+        int classCount = classes.length;
+        float[] weights = new float[buckets * classCount];
+        float[] bias = new float[classCount];
+        FeatureHasher hasher = new FeatureHasher(buckets);
+        
+        int[][] features = new int[examples.size()][];
+        int[] buffer = new int[IntentClassifier.MAX_FEATURES];
+        for (int i = 0; i < examples.size(); i++) {
+            int count = hasher.extract(examples.get(i).getText(), buffer);
+            features[i] = Arrays.copyOf(buffer, count);
+        }
+        
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < examples.size(); i++) {
+            order.add(i);
+        }
+        Random random = new Random(seed);
+        float[] scores = new float[classCount];
+        
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            Collections.shuffle(order, random);
+            float rate = LEARNING_RATE / (1 + epoch * 0.1f);
+            for (int i : order) {
+                int[] x = features[i];
+                int label = examples.get(i).getIntent().ordinal();
+                
+                // Softmax over the linear scores
+                System.arraycopy(bias, 0, scores, 0, classCount);
+                for (int f : x) {
+                    for (int c = 0; c < classCount; c++) {
+                        scores[c] += weights[f * classCount + c];
+                    }
+                }
+                float max = scores[0];
+                for (int c = 1; c < classCount; c++) {
+                    max = Math.max(max, scores[c]);
+                }
+                float sum = 0;
+                for (int c = 0; c < classCount; c++) {
+                    scores[c] = (float) Math.exp(scores[c] - max);
+                    sum += scores[c];
+                }
+                
+                for (int c = 0; c < classCount; c++) {
+                    float gradient = scores[c] / sum - (c == label ? 1 : 0);
+                    bias[c] -= rate * gradient;
+                    for (int f : x) {
+                        weights[f * classCount + c] -= rate * gradient;
+                    }
+                }
+            }
+        }
+        return new IntentClassifier(buckets, classes, weights, bias);
+    }
+    
+    /**
+     * k-fold cross-validation; prints accuracy, a confusion matrix and classification speed
+     */
+    public static void evaluate(List<Example> examples, int folds) {
+        Intent[] classes = Intent.values();
+        int[][] confusion = new int[classes.length][classes.length];
+        List<Example> shuffled = new ArrayList<>(examples);
+        Collections.shuffle(shuffled, new Random(SEED));
+        
+        int correct = 0;
+        for (int fold = 0; fold < folds; fold++) {
+            List<Example> train = new ArrayList<>();
+            List<Example> test = new ArrayList<>();
+            for (int i = 0; i < shuffled.size(); i++) {
+                (i % folds == fold ? test : train).add(shuffled.get(i));
+            }
+            IntentClassifier classifier = train(train);
+            for (Example example : test) {
+                Intent predicted = classifier.classify(example.getText());
+                confusion[example.getIntent().ordinal()][predicted.ordinal()]++;
+                if (predicted == example.getIntent()) {
+                    correct++;
+                }
+            }
+        }
+        
+        System.out.printf("%d-fold accuracy: %.1f%% (%d/%d)%n", folds, 100.0 * correct / shuffled.size(),
+                          correct, shuffled.size());
+        System.out.printf("%-12s", "actual\\pred");
+        for (Intent intent : classes) {
+            System.out.printf("%11s", intent);
+        }
+        System.out.println();
+        for (int a = 0; a < classes.length; a++) {
+            System.out.printf("%-12s", classes[a]);
+            for (int p = 0; p < classes.length; p++) {
+                System.out.printf("%11d", confusion[a][p]);
+            }
+            System.out.println();
+        }
+        
+        IntentClassifier classifier = train(examples);
+        int iterations = 200_000;
+        long sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            sink += classifier.classify(examples.get(i % examples.size()).getText()).ordinal();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += classifier.classify(examples.get(i % examples.size()).getText()).ordinal();
+        }
+        System.out.printf("Classification: %.2f us per utterance (sink %d)%n",
+                          (System.nanoTime() - start) / 1e3 / iterations, sink);
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: IntentTrainer train <corpus.tsv> <model.bin> | eval <corpus.tsv> [folds]");
+            System.exit(2);
+        }
+        List<Example> examples = readCorpus(Files.newBufferedReader(Paths.get(args[1]), StandardCharsets.UTF_8));
+        
+        if (args[0].equals("train") && args.length >= 3) {
+            IntentClassifier classifier = train(examples);
+            Path modelFile = Paths.get(args[2]);
+            try (OutputStream out = Files.newOutputStream(modelFile)) {
+                classifier.save(out);
+            }
+            System.out.println("Trained on " + examples.size() + " examples, model written to " + modelFile);
+        } else if (args[0].equals("eval")) {
+            evaluate(examples, args.length >= 3 ? Integer.parseInt(args[2]) : 5);
+        } else {
+            System.err.println("Unknown command: " + args[0]);
+            System.exit(2);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.lolcoach.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Advice generated for a scenario.
+ */
+@Name(CoachEvents.PREFIX + "Advice")
+@Label("Advice")
+@Category(CoachEvents.CATEGORY)
+@Description("Advice generated for a scenario")
+@StackTrace(false)
+public class AdviceEvent extends Event {
+    @Label("Scenario Key")
+    @Description("Lane, champions, situation and time bucket")
+    public String scenarioKey;
+    
+    @Label("Tier")
+    @Description("Advice tier that served the request")
+    public String tier;
+    
+    @Label("Intent")
+    @Description("Question type the advice answers")
+    public String intent;
+    
+    @DataAmount
+    @Label("Advice Bytes")
+    @Description("UTF-8 size of the advice text")
+    public int adviceBytes;
+}
@@ -0,0 +1,34 @@
+package com.lolcoach.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Call to the LoL Client or Riot API.
+ */
+@Name(CoachEvents.PREFIX + "ApiCall")
+@Label("API Call")
+@Category(CoachEvents.CATEGORY)
+@Description("Call to the LoL Client or Riot API")
+@StackTrace(false)
+public class ApiCallEvent extends Event {
+    @Label("Endpoint")
+    @Description("liveGame or history")
+    public String endpoint;
+    
+    @Label("Sample Data")
+    @Description("Served from sample data because the API is not connected")
+    public boolean sample;
+    
+    @Label("Fields")
+    @Description("Top-level fields in the response")
+    public int fields;
+    
+    @Label("Deadline Expired")
+    @Description("Skipped because the latency budget had run out")
+    public boolean deadlineExpired;
+}
@@ -0,0 +1,30 @@
+package com.lolcoach.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Lookup in one of the coach's caches.
+ */
+@Name(CoachEvents.PREFIX + "CacheLookup")
+@Label("Cache Lookup")
+@Category(CoachEvents.CATEGORY)
+@Description("Lookup in one of the coach's caches")
+@StackTrace(false)
+public class CacheLookupEvent extends Event {
+    @Label("Cache")
+    @Description("advice, fragment or champion")
+    public String cache;
+    
+    @Label("Key")
+    @Description("Looked-up key")
+    public String key;
+    
+    @Label("Hit")
+    @Description("Whether the cache had the entry")
+    public boolean hit;
+}
@@ -0,0 +1,71 @@
+package com.lolcoach.jfr;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Names shared by the coach's Flight Recorder events. Events are only created
+ * when the app was started with {@code -Dlolcoach.jfr=true}; otherwise no JFR
+ * class is loaded at all, since initializing Flight Recorder on the first
+ * request would eat most of its latency budget. Fields are only computed when
+ * {@code shouldCommit()} is true.
+ * <p>
+ * Record with {@code -Dlolcoach.jfr=true -XX:StartFlightRecording=settings=src/main/jfr/lolcoach.jfc,filename=coach.jfr}
+ * and summarize with {@link RecordingAnalyzer}.
+ */
+public final class CoachEvents {
+    public static final String PREFIX = "com.lolcoach.";
+    public static final String CATEGORY = "LoL Coach";
+    
+    // Cache names carried by CacheLookupEvent
+    public static final String CACHE_ADVICE = "advice";
+    public static final String CACHE_FRAGMENT = "fragment";
+    public static final String CACHE_CHAMPION = "champion";
+    
+    // Endpoints carried by ApiCallEvent
+    public static final String ENDPOINT_LIVE_GAME = "liveGame";
+    public static final String ENDPOINT_HISTORY = "history";
+    
+    // Read once; recordings started later with jcmd only see coach events if this was set at launch
+    public static final boolean ENABLED = Boolean.getBoolean("lolcoach.jfr");
+    
+    private CoachEvents() {}
+    
+    /**
+     * Loads and registers the event classes, off the request path, when events are enabled
+     */
+    public static void warmUp() {
+        if (!ENABLED) {
+            return;
+        }
+        new ParseEvent();
+        new EnrichEvent();
+        new AdviceEvent();
+        new ApiCallEvent();
+        new TtsEvent();
+        new PlaybackEvent();
+        new CacheLookupEvent();
+    }
+    
+    /**
+     * UTF-8 size of a string, 0 for null
+     */
+    public static int bytes(String text) {
+        return text != null ? text.getBytes(StandardCharsets.UTF_8).length : 0;
+    }
+    
+    /**
+     * Records one cache lookup; a lookup is too short to time, so only the outcome is kept
+     */
+    public static void cacheLookup(String cache, Object key, boolean hit) {
+        if (!ENABLED) {
+            return;
+        }
+        CacheLookupEvent event = new CacheLookupEvent();
+        if (event.shouldCommit()) {
+            event.cache = cache;
+            event.key = String.valueOf(key);
+            event.hit = hit;
+            event.commit();
+        }
+    }
+}
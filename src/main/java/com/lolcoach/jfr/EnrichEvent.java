@@ -0,0 +1,26 @@
+package com.lolcoach.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Scenario filled in from live game data.
+ */
+@Name(CoachEvents.PREFIX + "Enrich")
+@Label("Enrich")
+@Category(CoachEvents.CATEGORY)
+@Description("Scenario filled in from live game data")
+@StackTrace(false)
+public class EnrichEvent extends Event {
+    @Label("Scenario Key")
+    @Description("Lane, champions, situation and time bucket after enrichment")
+    public String scenarioKey;
+    
+    @Label("Live Data Fields")
+    @Description("Fields in the live data snapshot")
+    public int liveDataFields;
+}
@@ -0,0 +1,40 @@
+package com.lolcoach.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Speech or typed text parsed into a scenario.
+ */
+@Name(CoachEvents.PREFIX + "Parse")
+@Label("Parse")
+@Category(CoachEvents.CATEGORY)
+@Description("Speech or typed text parsed into a scenario")
+@StackTrace(false)
+public class ParseEvent extends Event {
+    @Label("Locale")
+    @Description("Lexicon language used")
+    public String locale;
+    
+    @DataAmount
+    @Label("Utterance Bytes")
+    @Description("UTF-8 size of the input text")
+    public int utteranceBytes;
+    
+    @Label("Intent")
+    @Description("Classified question type")
+    public String intent;
+    
+    @Label("Scenario Key")
+    @Description("Lane, champions, situation and time bucket of the result")
+    public String scenarioKey;
+    
+    @Label("Follow-up")
+    @Description("Merged into a session context")
+    public boolean followUp;
+}
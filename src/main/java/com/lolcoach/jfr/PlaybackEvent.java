@@ -0,0 +1,42 @@
+package com.lolcoach.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One clip played by the audio output, from play() to its last period.
+ */
+@Name(CoachEvents.PREFIX + "Playback")
+@Label("Playback")
+@Category(CoachEvents.CATEGORY)
+@Description("One clip played by the audio output, from play() to its last period")
+@StackTrace(false)
+public class PlaybackEvent extends Event {
+    @Label("Source Rate")
+    @Description("Sample rate of the clip before conversion")
+    public float sourceRate;
+    
+    @DataAmount
+    @Label("PCM Bytes")
+    @Description("Size of the converted clip")
+    public int pcmBytes;
+    
+    @Timespan
+    @Label("Start Latency")
+    @Description("Time from play() to the first period reaching the sink")
+    public long startLatency;
+    
+    @Label("Underruns")
+    @Description("Underruns while the clip played")
+    public long underruns;
+    
+    @Label("Interrupted")
+    @Description("Cut short by a newer clip or a stop")
+    public boolean interrupted;
+}
@@ -0,0 +1,173 @@
+package com.lolcoach.jfr;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Summarizes a Flight Recorder recording of the coach into per-stage latency
+ * tables, cache hit rates, byte counts and the slowest scenarios.
+ *
+ * Usage:
+ * <pre>
+ * java com.lolcoach.jfr.RecordingAnalyzer coach.jfr [--top n]
+ * </pre>
+ */
+public class RecordingAnalyzer {
+    private static final String ROW_FORMAT = "%-26s %7s %9s %9s %9s %9s%n";
+    
+    // Stage label -> durations in nanoseconds
+    private final Map<String, List<Long>> stageNanos = new TreeMap<>();
+    // Cache name -> {lookups, hits}
+    private final Map<String, long[]> cacheLookups = new TreeMap<>();
+    // Byte field label -> {events, total bytes}
+    private final Map<String, long[]> byteCounts = new TreeMap<>();
+    // Scenario key -> slowest advice in nanoseconds
+    private final Map<String, Long> slowestAdvice = new TreeMap<>();
+    private final List<Long> playbackStartNanos = new ArrayList<>();
+    private long playbackUnderruns;
+    private long events;
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: RecordingAnalyzer <recording.jfr> [--top n]");
+            System.exit(2);
+        }
+        int top = args.length > 2 && args[1].equals("--top") ? Integer.parseInt(args[2]) : 5;
+        
+        RecordingAnalyzer analyzer = new RecordingAnalyzer();
+        analyzer.read(Paths.get(args[0]));
+        analyzer.print(top);
+    }
+    
+    /**
+     * Reads every coach event in a recording
+     */
+    public void read(Path recording) throws IOException {
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String name = event.getEventType().getName();
+                if (name.startsWith(CoachEvents.PREFIX)) {
+                    add(name.substring(CoachEvents.PREFIX.length()), event);
+                }
+            }
+        }
+    }
+    
+    private void add(String type, RecordedEvent event) {
+        events++;
+        long nanos = event.getDuration().toNanos();
+        switch (type) {
+            case "Parse":
+                stage("Parse", nanos);
+                stage("Parse " + (event.getBoolean("followUp") ? "follow-up" : "standalone"), nanos);
+                countBytes("Parse utterance", event.getInt("utteranceBytes"));
+                break;
+            case "Enrich":
+                stage("Enrich", nanos);
+                break;
+            case "Advice":
+                stage("Advice", nanos);
+                stage("Advice " + event.getString("tier"), nanos);
+                countBytes("Advice text", event.getInt("adviceBytes"));
+                slowestAdvice.merge(event.getString("scenarioKey"), nanos, Math::max);
+                break;
+            case "ApiCall":
+                stage("API " + event.getString("endpoint") + (event.getBoolean("sample") ? " (sample)" : ""), nanos);
+                break;
+            case "Tts":
+                stage("TTS", nanos);
+                countBytes("TTS text", event.getInt("textBytes"));
+                break;
+            case "Playback":
+                stage("Playback" + (event.getBoolean("interrupted") ? " interrupted" : ""), nanos);
+                countBytes("Playback PCM", event.getInt("pcmBytes"));
+                playbackStartNanos.add(event.getLong("startLatency"));
+                playbackUnderruns += event.getLong("underruns");
+                break;
+            case "CacheLookup":
+                long[] lookups = cacheLookups.computeIfAbsent(event.getString("cache"), k -> new long[2]);
+                lookups[0]++;
+                if (event.getBoolean("hit")) {
+                    lookups[1]++;
+                }
+                break;
+            default:
+                // Event types from newer builds are skipped
+        }
+    }
+    
+    private void stage(String label, long nanos) {
+        stageNanos.computeIfAbsent(label, k -> new ArrayList<>()).add(nanos);
+    }
+    
+    private void countBytes(String label, long bytes) {
+        long[] counts = byteCounts.computeIfAbsent(label, k -> new long[2]);
+        counts[0]++;
+        counts[1] += bytes;
+    }
+    
+    /**
+     * Prints the summary tables
+     * @param top Number of slowest scenario keys to list
+     */
+    public void print(int top) {
+        System.out.println(events + " coach events");
+        System.out.println();
+        System.out.printf(ROW_FORMAT, "Stage", "count", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (Map.Entry<String, List<Long>> stage : stageNanos.entrySet()) {
+            printRow(stage.getKey(), stage.getValue());
+        }
+        if (!playbackStartNanos.isEmpty()) {
+            printRow("Playback start latency", playbackStartNanos);
+            System.out.println("Playback underruns: " + playbackUnderruns);
+        }
+        
+        if (!cacheLookups.isEmpty()) {
+            System.out.println();
+            System.out.printf("%-26s %9s %9s%n", "Cache", "lookups", "hit rate");
+            for (Map.Entry<String, long[]> cache : cacheLookups.entrySet()) {
+                long[] counts = cache.getValue();
+                System.out.printf("%-26s %9d %8.1f%%%n", cache.getKey(), counts[0], 100.0 * counts[1] / counts[0]);
+            }
+        }
+        
+        if (!byteCounts.isEmpty()) {
+            System.out.println();
+            System.out.printf("%-26s %9s %12s%n", "Bytes", "avg", "total");
+            for (Map.Entry<String, long[]> bytes : byteCounts.entrySet()) {
+                long[] counts = bytes.getValue();
+                System.out.printf("%-26s %9d %12d%n", bytes.getKey(), counts[1] / counts[0], counts[1]);
+            }
+        }
+        
+        if (!slowestAdvice.isEmpty() && top > 0) {
+            System.out.println();
+            System.out.println("Slowest scenarios (max advice ms):");
+            slowestAdvice.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                    .limit(top)
+                    .forEach(entry -> System.out.printf("  %9.3f  %s%n", entry.getValue() / 1e6, entry.getKey()));
+        }
+    }
+    
+    private static void printRow(String label, List<Long> nanos) {
+        List<Long> sorted = new ArrayList<>(nanos);
+        Collections.sort(sorted);
+        System.out.printf(ROW_FORMAT, label, sorted.size(), millis(sorted, 0.50), millis(sorted, 0.90),
+                          millis(sorted, 0.99), millis(sorted, 1.0));
+    }
+    
+    private static String millis(List<Long> sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.size()) - 1;
+        return String.format("%.3f", sorted.get(Math.max(0, index)) / 1e6);
+    }
+}
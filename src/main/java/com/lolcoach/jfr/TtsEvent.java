@@ -0,0 +1,24 @@
+package com.lolcoach.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Advice spoken by the text-to-speech service.
+ */
+@Name(CoachEvents.PREFIX + "Tts")
+@Label("Text to Speech")
+@Category(CoachEvents.CATEGORY)
+@Description("Advice spoken by the text-to-speech service")
+@StackTrace(false)
+public class TtsEvent extends Event {
+    @DataAmount
+    @Label("Text Bytes")
+    @Description("UTF-8 size of the spoken text")
+    public int textBytes;
+}
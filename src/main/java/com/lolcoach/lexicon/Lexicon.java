@@ -0,0 +1,223 @@
+package com.lolcoach.lexicon;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * One locale's phrases (lanes, situations, champion aliases, number words and markers)
+ * compiled into a trie stored in flat arrays. Node n's outgoing edges are
+ * edgeChars/edgeTargets[firstEdge[n] .. firstEdge[n + 1]), sorted by character.
+ * Lexicons are compiled at build time by {@link LexiconCompiler} and loaded on first
+ * use of their locale, so unused languages cost neither startup time nor heap.
+ */
+public final class Lexicon {
+    private static final Logger LOGGER = Logger.getLogger(Lexicon.class.getName());
+    
+    static final int MAGIC = 0x4C434C58; // "LCLX"
+    static final int VERSION = 1;
+    static final String RESOURCE_DIR = "/lexicon/";
+    
+    // Phrase categories
+    public static final byte NONE = 0;
+    public static final byte LANE = 1;
+    public static final byte SITUATION = 2;
+    public static final byte CHAMPION = 3;
+    public static final byte NUMBER = 4;
+    public static final byte ENEMY = 5;
+    public static final byte LEVEL = 6;
+    public static final byte MINUTES = 7;
+    public static final byte CLAUSE = 8;
+    
+    private static final Map<String, Optional<Lexicon>> LOADED = new ConcurrentHashMap<>();
+    
+    private final String locale;
+    private final boolean boundaryFree;
+    private final int[] firstEdge;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    private final byte[] nodeCategory;
+    private final int[] nodePayload;
+    private final String[] strings;
+    
+    Lexicon(String locale, boolean boundaryFree, int[] firstEdge, char[] edgeChars, int[] edgeTargets,
+            byte[] nodeCategory, int[] nodePayload, String[] strings) {
+        this.locale = locale;
+        this.boundaryFree = boundaryFree;
+        this.firstEdge = firstEdge;
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.nodeCategory = nodeCategory;
+        this.nodePayload = nodePayload;
+        this.strings = strings;
+    }
+    
+    /**
+     * Returns the lexicon of a language, loading it on first request
+     * @param language ISO 639 language code, e.g. "de"
+     * @return The lexicon, or null if none is bundled for the language
+     */
+    public static Lexicon forLocale(String language) {
+        return LOADED.computeIfAbsent(language, Lexicon::loadResource).orElse(null);
+    }
+    
+    private static Optional<Lexicon> loadResource(String language) {
+        long start = System.nanoTime();
+        try (InputStream in = Lexicon.class.getResourceAsStream(RESOURCE_DIR + language + ".lex")) {
+            if (in == null) {
+                LOGGER.warning("No lexicon for locale '" + language + "', using English patterns only");
+                return Optional.empty();
+            }
+            Lexicon lexicon = load(new BufferedInputStream(in));
+            LOGGER.info("Loaded " + language + " lexicon (" + lexicon.nodeCount() + " nodes) in " +
+                       (System.nanoTime() - start) / 1_000_000 + " ms");
+            return Optional.of(lexicon);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not load lexicon for locale '" + language + "'", e);
+            return Optional.empty();
+        }
+    }
+    
+    /**
+     * Finds the longest phrase starting at a position
+     * @param text Lower-cased text
+     * @param start Position to match from
+     * @param result Receives the category at [0] and the payload at [1]
+     * @return End of the match (exclusive), or -1 if no phrase starts here
+     */
+    public int match(CharSequence text, int start, int[] result) {
+        int node = 0;
+        int matchEnd = -1;
+        for (int i = start; i < text.length(); i++) {
+            node = next(node, text.charAt(i));
+            if (node < 0) {
+                break;
+            }
+            if (nodeCategory[node] != NONE && (boundaryFree || isBoundary(text, i + 1))) {
+                matchEnd = i + 1;
+                result[0] = nodeCategory[node];
+                result[1] = nodePayload[node];
+            }
+        }
+        return matchEnd;
+    }
+    
+    /**
+     * Returns a string payload, e.g. a canonical lane or champion name
+     */
+    public String string(int index) {
+        return strings[index];
+    }
+    
+    public String getLocale() {
+        return locale;
+    }
+    
+    /**
+     * Whether phrases may end inside a word, for languages that attach particles to words
+     */
+    public boolean isBoundaryFree() {
+        return boundaryFree;
+    }
+    
+    public int nodeCount() {
+        return nodeCategory.length;
+    }
+    
+    private int next(int node, char c) {
+        int low = firstEdge[node];
+        int high = firstEdge[node + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char edge = edgeChars[mid];
+            if (edge < c) {
+                low = mid + 1;
+            } else if (edge > c) {
+                high = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return -1;
+    }
+    
+    static boolean isBoundary(CharSequence text, int position) {
+        return position >= text.length() || !Character.isLetterOrDigit(text.charAt(position));
+    }
+    
+    public static Lexicon load(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a lexicon");
+        }
+        int version = in.readUnsignedByte();
+        if (version > VERSION) {
+            throw new IOException("Unsupported lexicon version: " + version);
+        }
+        String locale = in.readUTF();
+        boolean boundaryFree = in.readBoolean();
+        
+        int nodes = in.readInt();
+        int[] firstEdge = new int[nodes + 1];
+        byte[] nodeCategory = new byte[nodes];
+        int[] nodePayload = new int[nodes];
+        for (int i = 0; i <= nodes; i++) {
+            firstEdge[i] = in.readInt();
+        }
+        in.readFully(nodeCategory);
+        for (int i = 0; i < nodes; i++) {
+            nodePayload[i] = in.readInt();
+        }
+        
+        int edges = in.readInt();
+        char[] edgeChars = new char[edges];
+        int[] edgeTargets = new int[edges];
+        for (int i = 0; i < edges; i++) {
+            edgeChars[i] = in.readChar();
+            edgeTargets[i] = in.readInt();
+        }
+        
+        String[] strings = new String[in.readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = in.readUTF();
+        }
+        return new Lexicon(locale, boundaryFree, firstEdge, edgeChars, edgeTargets, nodeCategory, nodePayload, strings);
+    }
+    
+    public void save(OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeUTF(locale);
+        out.writeBoolean(boundaryFree);
+        
+        out.writeInt(nodeCategory.length);
+        for (int offset : firstEdge) {
+            out.writeInt(offset);
+        }
+        out.write(nodeCategory);
+        for (int payload : nodePayload) {
+            out.writeInt(payload);
+        }
+        
+        out.writeInt(edgeChars.length);
+        for (int i = 0; i < edgeChars.length; i++) {
+            out.writeChar(edgeChars[i]);
+            out.writeInt(edgeTargets[i]);
+        }
+        
+        out.writeInt(strings.length);
+        for (String string : strings) {
+            out.writeUTF(string);
+        }
+        out.flush();
+    }
+}
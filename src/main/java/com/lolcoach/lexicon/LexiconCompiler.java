@@ -0,0 +1,177 @@
+package com.lolcoach.lexicon;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Compiles lexicon sources (src/main/lexicon/&lt;language&gt;.tsv) into binary tries.
+ * Runs during the build's process-classes phase.
+ * Usage: LexiconCompiler &lt;sourceDir&gt; &lt;outputDir&gt;
+ * <p>
+ * Source lines are category, phrase and value separated by tabs. "@include file" pulls in
+ * shared entries and "@option boundary-free" lets phrases end inside a word.
+ */
+public class LexiconCompiler {
+    private static final Map<String, Byte> CATEGORIES = new HashMap<>();
+    static {
+        CATEGORIES.put("lane", Lexicon.LANE);
+        CATEGORIES.put("situation", Lexicon.SITUATION);
+        CATEGORIES.put("champion", Lexicon.CHAMPION);
+        CATEGORIES.put("number", Lexicon.NUMBER);
+        CATEGORIES.put("enemy", Lexicon.ENEMY);
+        CATEGORIES.put("level", Lexicon.LEVEL);
+        CATEGORIES.put("minutes", Lexicon.MINUTES);
+        CATEGORIES.put("clause", Lexicon.CLAUSE);
+    }
+    
+    // Shared files pulled in by @include rather than compiled on their own
+    private static final String SHARED_FILE = "common.tsv";
+    
+    private final Node root = new Node();
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIndex = new HashMap<>();
+    private boolean boundaryFree;
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: LexiconCompiler <sourceDir> <outputDir>");
+            System.exit(2);
+        }
+        Path sourceDir = Paths.get(args[0]);
+        Path outputDir = Paths.get(args[1]);
+        Files.createDirectories(outputDir);
+        
+        try (DirectoryStream<Path> sources = Files.newDirectoryStream(sourceDir, "*.tsv")) {
+            for (Path source : sources) {
+                String fileName = source.getFileName().toString();
+                if (fileName.equals(SHARED_FILE)) {
+                    continue;
+                }
+                String language = fileName.substring(0, fileName.length() - 4);
+                Lexicon lexicon = compile(language, source);
+                Path output = outputDir.resolve(language + ".lex");
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output))) {
+                    lexicon.save(out);
+                }
+                System.out.println("Compiled " + language + " lexicon: " + lexicon.nodeCount() + " nodes, " +
+                                   Files.size(output) + " bytes");
+            }
+        }
+    }
+    
+    /**
+     * Compiles one locale's source file, including the files it references
+     */
+    public static Lexicon compile(String language, Path source) throws IOException {
+        LexiconCompiler compiler = new LexiconCompiler();
+        compiler.read(source);
+        return compiler.build(language);
+    }
+    
+    private void read(Path source) throws IOException {
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(source, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\t");
+            if (parts[0].equals("@include")) {
+                read(source.resolveSibling(parts[1].trim()));
+                continue;
+            }
+            if (parts[0].equals("@option")) {
+                boundaryFree |= parts[1].trim().equals("boundary-free");
+                continue;
+            }
+            
+            Byte category = CATEGORIES.get(parts[0]);
+            if (category == null || parts.length < 2) {
+                throw new IOException(source + ":" + lineNumber + ": bad entry: " + line);
+            }
+            int payload = 0;
+            if (category == Lexicon.NUMBER) {
+                payload = Integer.parseInt(parts[2].trim());
+            } else if (category == Lexicon.LANE || category == Lexicon.SITUATION || category == Lexicon.CHAMPION) {
+                payload = intern(parts[2].trim());
+            }
+            insert(parts[1].trim().toLowerCase(Locale.ROOT), category, payload);
+        }
+    }
+    
+    private int intern(String value) {
+        return stringIndex.computeIfAbsent(value, key -> {
+            strings.add(key);
+            return strings.size() - 1;
+        });
+    }
+    
+    private void insert(String phrase, byte category, int payload) {
+        Node node = root;
+        for (int i = 0; i < phrase.length(); i++) {
+            node = node.children.computeIfAbsent(phrase.charAt(i), c -> new Node());
+        }
+        // Later entries win, so a locale can override a shared alias
+        node.category = category;
+        node.payload = payload;
+    }
+    
+    /**
+     * Numbers nodes breadth-first and lays out each node's sorted edges contiguously
+     */
+    private Lexicon build(String language) {
+        List<Node> order = new ArrayList<>();
+        Queue<Node> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            node.id = order.size();
+            order.add(node);
+            queue.addAll(node.children.values());
+        }
+        
+        int edgeCount = order.size() - 1;
+        int[] firstEdge = new int[order.size() + 1];
+        char[] edgeChars = new char[edgeCount];
+        int[] edgeTargets = new int[edgeCount];
+        byte[] nodeCategory = new byte[order.size()];
+        int[] nodePayload = new int[order.size()];
+        int edge = 0;
+        for (Node node : order) {
+            firstEdge[node.id] = edge;
+            nodeCategory[node.id] = node.category;
+            nodePayload[node.id] = node.payload;
+            for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+                edgeChars[edge] = child.getKey();
+                edgeTargets[edge] = child.getValue().id;
+                edge++;
+            }
+        }
+        firstEdge[order.size()] = edge;
+        
+        return new Lexicon(language, boundaryFree, firstEdge, edgeChars, edgeTargets,
+                           nodeCategory, nodePayload, strings.toArray(new String[0]));
+    }
+    
+    private static class Node {
+        // Sorted so edges can be binary searched
+        final TreeMap<Character, Node> children = new TreeMap<>();
+        byte category = Lexicon.NONE;
+        int payload;
+        int id;
+    }
+}
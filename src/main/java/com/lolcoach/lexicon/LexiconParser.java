@@ -0,0 +1,191 @@
+package com.lolcoach.lexicon;
+
+import com.lolcoach.model.ScenarioDelta;
+import java.util.Locale;
+
+/**
+ * Extracts scenario fields from text using a locale's lexicon. The text is split into
+ * tokens by longest phrase match, then simple adjacency rules read the tokens:
+ * a number before a minutes word is the game time, a number after a level word is a
+ * level, and champions or levels in a clause after an enemy marker belong to the enemy.
+ */
+public class LexiconParser {
+    private final Lexicon lexicon;
+    
+    public LexiconParser(Lexicon lexicon) {
+        this.lexicon = lexicon;
+    }
+    
+    public Lexicon getLexicon() {
+        return lexicon;
+    }
+    
+    /**
+     * @param text The recognized speech text
+     * @return The fields found; unmentioned fields are null and the intent is never set
+     */
+    public ScenarioDelta parse(String text) {
+        String lower = normalize(text);
+        int length = lower.length();
+        byte[] categories = new byte[length];
+        int[] payloads = new int[length];
+        int[] clauses = new int[length];
+        int[] match = new int[2];
+        int count = 0;
+        int clause = 0;
+        
+        int i = 0;
+        int previousEnd = -1;
+        boolean afterNumber = false;
+        while (i < length) {
+            char c = lower.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (isClauseMark(c)) {
+                clause++;
+                i++;
+                continue;
+            }
+            if (Character.isDigit(c)) {
+                int value = 0;
+                while (i < length && Character.isDigit(lower.charAt(i)) && value < 10_000) {
+                    value = value * 10 + (lower.charAt(i) - '0');
+                    i++;
+                }
+                categories[count] = Lexicon.NUMBER;
+                payloads[count] = value;
+                clauses[count++] = clause;
+                previousEnd = i;
+                afterNumber = true;
+                continue;
+            }
+            
+            // Phrases start at a word start, or right after a number as in "10min" or "십분"
+            boolean wordStart = i == 0 || !Character.isLetterOrDigit(lower.charAt(i - 1));
+            int end = wordStart || (afterNumber && previousEnd == i) ? lexicon.match(lower, i, match) : -1;
+            afterNumber = false;
+            if (end > 0) {
+                if (match[0] == Lexicon.CLAUSE) {
+                    clause++;
+                } else {
+                    categories[count] = (byte) match[0];
+                    payloads[count] = match[1];
+                    clauses[count++] = clause;
+                    afterNumber = match[0] == Lexicon.NUMBER;
+                }
+                previousEnd = end;
+                i = end;
+                continue;
+            }
+            
+            // Skip the rest of an unknown word
+            while (i < length && Character.isLetterOrDigit(lower.charAt(i))) {
+                i++;
+            }
+            if (i < length && !Character.isWhitespace(lower.charAt(i)) && !isClauseMark(lower.charAt(i))) {
+                i++;
+            }
+        }
+        
+        return read(categories, payloads, clauses, count);
+    }
+    
+    private ScenarioDelta read(byte[] categories, int[] payloads, int[] clauses, int count) {
+        ScenarioDelta delta = new ScenarioDelta();
+        int enemyClause = -1;
+        
+        for (int k = 0; k < count; k++) {
+            switch (categories[k]) {
+                case Lexicon.ENEMY:
+                    enemyClause = clauses[k];
+                    break;
+                case Lexicon.LANE:
+                    if (delta.getLane() == null) {
+                        delta.setLane(lexicon.string(payloads[k]));
+                    }
+                    break;
+                case Lexicon.SITUATION:
+                    if (delta.getSituation() == null) {
+                        delta.setSituation(lexicon.string(payloads[k]));
+                    }
+                    break;
+                case Lexicon.CHAMPION:
+                    String champion = lexicon.string(payloads[k]);
+                    boolean enemy = enemyClause == clauses[k] || delta.getPlayerChampion() != null;
+                    if (enemy && delta.getEnemyChampion() == null) {
+                        delta.setEnemyChampion(champion);
+                        enemyClause = clauses[k];
+                    } else if (!enemy && delta.getPlayerChampion() == null) {
+                        delta.setPlayerChampion(champion);
+                    }
+                    break;
+                case Lexicon.MINUTES:
+                    if (k > 0 && categories[k - 1] == Lexicon.NUMBER && delta.getTime() == null) {
+                        delta.setTime(payloads[k - 1]);
+                    }
+                    break;
+                case Lexicon.LEVEL:
+                    int level = levelAt(categories, payloads, clauses, count, k);
+                    if (level < 0) {
+                        break;
+                    }
+                    boolean playerNamed = delta.getPlayerChampion() != null;
+                    if (enemyClause == clauses[k] || enemyAhead(categories, clauses, count, k, playerNamed)) {
+                        if (delta.getEnemyLevel() == null) {
+                            delta.setEnemyLevel(level);
+                        }
+                    } else if (delta.getPlayerLevel() == null) {
+                        delta.setPlayerLevel(level);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return delta;
+    }
+    
+    /**
+     * Reads "level 6", or "6 level" when no number follows, within the level word's clause
+     */
+    private static int levelAt(byte[] categories, int[] payloads, int[] clauses, int count, int k) {
+        if (k + 1 < count && categories[k + 1] == Lexicon.NUMBER && clauses[k + 1] == clauses[k]) {
+            return payloads[k + 1];
+        }
+        if (k > 0 && categories[k - 1] == Lexicon.NUMBER && clauses[k - 1] == clauses[k]) {
+            return payloads[k - 1];
+        }
+        return -1;
+    }
+    
+    /**
+     * Whether the level at k is the enemy's because an enemy marker follows it, as in
+     * "level 6 enemy Darius". A champion that would be the player's between the two, or a
+     * level word after the marker, means the marker starts the enemy's part instead, as in
+     * "level 3 Darius vs level 2 Garen" or "level 6 vs level 4".
+     */
+    private static boolean enemyAhead(byte[] categories, int[] clauses, int count, int k, boolean playerNamed) {
+        boolean marker = false;
+        for (int j = k + 1; j < count && clauses[j] == clauses[k]; j++) {
+            if (categories[j] == Lexicon.LEVEL) {
+                return false;
+            }
+            if (categories[j] == Lexicon.ENEMY) {
+                marker = true;
+            } else if (categories[j] == Lexicon.CHAMPION && !playerNamed && !marker) {
+                return false;
+            }
+        }
+        return marker;
+    }
+    
+    private static boolean isClauseMark(char c) {
+        return c == '.' || c == ',' || c == ';' || c == '!' || c == '?';
+    }
+    
+    private static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT).replace('-', ' ').replace('’', '\'');
+    }
+}
@@ -0,0 +1,128 @@
+package com.lolcoach.lexicon;
+
+import com.lolcoach.Parser;
+import com.lolcoach.model.ScenarioDelta;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Per-locale parser accuracy and throughput on labeled utterances.
+ * Usage: ParserEvaluator [evalDir] [--min-accuracy 0.9]
+ * <p>
+ * Each eval file is named after its locale and holds one utterance per line followed by
+ * the expected lane, time, player champion, player level, enemy champion, enemy level and
+ * situation, tab separated, with "-" for fields the utterance doesn't mention.
+ * Exits non-zero if any locale's field accuracy is below the minimum.
+ */
+public class ParserEvaluator {
+    private static final String[] FIELDS = {
+        "lane", "time", "playerChampion", "playerLevel", "enemyChampion", "enemyLevel", "situation"
+    };
+    private static final int THROUGHPUT_ROUNDS = 2000;
+    
+    public static void main(String[] args) throws IOException {
+        Path evalDir = Paths.get("src/main/lexicon/eval");
+        double minAccuracy = 0;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--min-accuracy") && i + 1 < args.length) {
+                minAccuracy = Double.parseDouble(args[++i]);
+            } else {
+                evalDir = Paths.get(args[i]);
+            }
+        }
+        
+        // Utterances may be in any script; don't let the platform charset mangle them
+        PrintStream out = new PrintStream(new FileOutputStream(FileDescriptor.out), true, "UTF-8");
+        boolean passed = true;
+        out.printf("%-6s %6s %8s %8s %12s%n", "locale", "lines", "fields", "exact", "utt/sec");
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(evalDir, "*.tsv")) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                String locale = fileName.substring(0, fileName.length() - 4);
+                passed &= evaluate(locale, file, minAccuracy, out);
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+    
+    private static boolean evaluate(String locale, Path file, double minAccuracy, PrintStream out) throws IOException {
+        List<String[]> examples = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (!line.isBlank() && !line.startsWith("#")) {
+                examples.add(line.split("\t"));
+            }
+        }
+        
+        Parser parser = new Parser();
+        parser.setLocale(locale);
+        
+        int correctFields = 0;
+        int exact = 0;
+        List<String> misses = new ArrayList<>();
+        for (String[] example : examples) {
+            String[] actual = fields(parser.parseDelta(example[0]));
+            boolean allCorrect = true;
+            for (int f = 0; f < FIELDS.length; f++) {
+                String expected = f + 1 < example.length ? example[f + 1].trim() : "-";
+                if (matches(expected, actual[f])) {
+                    correctFields++;
+                } else {
+                    allCorrect = false;
+                    misses.add("  " + FIELDS[f] + ": expected " + expected + ", got " +
+                               (actual[f] != null ? actual[f] : "-") + " in \"" + example[0] + "\"");
+                }
+            }
+            if (allCorrect) {
+                exact++;
+            }
+        }
+        
+        // Throughput over the same utterances, after a warm-up round
+        for (String[] example : examples) {
+            parser.parseDelta(example[0]);
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < THROUGHPUT_ROUNDS; round++) {
+            for (String[] example : examples) {
+                parser.parseDelta(example[0]);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        
+        double fieldAccuracy = (double) correctFields / (examples.size() * FIELDS.length);
+        out.printf("%-6s %6d %7.1f%% %7.1f%% %12.0f%n", locale, examples.size(), fieldAccuracy * 100,
+                          100.0 * exact / examples.size(), THROUGHPUT_ROUNDS * examples.size() / seconds);
+        for (String miss : misses) {
+            out.println(miss);
+        }
+        return fieldAccuracy >= minAccuracy;
+    }
+    
+    private static String[] fields(ScenarioDelta delta) {
+        return new String[] {
+            delta.getLane(), string(delta.getTime()), delta.getPlayerChampion(), string(delta.getPlayerLevel()),
+            delta.getEnemyChampion(), string(delta.getEnemyLevel()), delta.getSituation()
+        };
+    }
+    
+    private static String string(Integer value) {
+        return value != null ? value.toString() : null;
+    }
+    
+    private static boolean matches(String expected, String actual) {
+        if (expected.equals("-")) {
+            return actual == null;
+        }
+        return actual != null && expected.equalsIgnoreCase(actual.trim()) || Objects.equals(expected, actual);
+    }
+}
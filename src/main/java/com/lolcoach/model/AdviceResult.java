@@ -0,0 +1,25 @@
+package com.lolcoach.model;
+
+/**
+ * Generated advice together with the tier that produced it
+ */
+public class AdviceResult {
+    private final String advice;
+    private final AdviceTier tier;
+    private final long elapsedNanos;
+    
+    public AdviceResult(String advice, AdviceTier tier, long elapsedNanos) {
+        this.advice = advice;
+        this.tier = tier;
+        this.elapsedNanos = elapsedNanos;
+    }
+    
+    public String getAdvice() { return advice; }
+    public AdviceTier getTier() { return tier; }
+    public long getElapsedNanos() { return elapsedNanos; }
+    
+    @Override
+    public String toString() {
+        return String.format("AdviceResult{tier=%s, elapsedNanos=%d, advice='%s'}", tier, elapsedNanos, advice);
+    }
+}
@@ -0,0 +1,15 @@
+package com.lolcoach.model;
+
+/**
+ * How much of the advice pipeline served a request, from most to least complete
+ */
+public enum AdviceTier {
+    /** Rules plus pro match and history lookups, all within the deadline */
+    FULL,
+    /** A previously computed full answer for the same scenario */
+    CACHED,
+    /** Rule-based advice only; lookups did not fit in the budget */
+    RULE_ONLY,
+    /** Static tip; nothing else could be produced in time */
+    GENERIC
+}
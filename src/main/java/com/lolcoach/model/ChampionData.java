@@ -0,0 +1,96 @@
+package com.lolcoach.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Static champion data from a Data Dragon patch: base stats, passive and abilities.
+ */
+public class ChampionData {
+    // Ability slots in Data Dragon order
+    public static final int Q = 0;
+    public static final int W = 1;
+    public static final int E = 2;
+    public static final int R = 3;
+    
+    private final String id;
+    private final String name;
+    private final String title;
+    private final List<String> tags;
+    private final Map<String, Double> stats;
+    private final String passiveName;
+    private final List<Spell> spells;
+    
+    public ChampionData(String id, String name, String title, List<String> tags,
+                        Map<String, Double> stats, String passiveName, List<Spell> spells) {
+        this.id = id;
+        this.name = name;
+        this.title = title;
+        this.tags = tags;
+        this.stats = stats;
+        this.passiveName = passiveName;
+        this.spells = spells;
+    }
+    
+    public String getId() { return id; }
+    public String getName() { return name; }
+    public String getTitle() { return title; }
+    public List<String> getTags() { return tags; }
+    public Map<String, Double> getStats() { return stats; }
+    public String getPassiveName() { return passiveName; }
+    public List<Spell> getSpells() { return spells; }
+    
+    /**
+     * Returns a base stat such as "attackrange" or "movespeed", or 0 if absent
+     */
+    public double getStat(String stat) {
+        Double value = stats.get(stat);
+        return value != null ? value : 0;
+    }
+    
+    /**
+     * Returns the ability in a slot (Q, W, E or R), or null if the patch data has none
+     */
+    public Spell getSpell(int slot) {
+        return slot < spells.size() ? spells.get(slot) : null;
+    }
+    
+    @Override
+    public String toString() {
+        return "ChampionData{" +
+                "id='" + id + '\'' +
+                ", name='" + name + '\'' +
+                ", tags=" + tags +
+                ", spells=" + spells.size() +
+                '}';
+    }
+    
+    /**
+     * One ability with its cooldown per rank
+     */
+    public static class Spell {
+        private final String id;
+        private final String name;
+        private final double[] cooldowns;
+        
+        public Spell(String id, String name, double[] cooldowns) {
+            this.id = id;
+            this.name = name;
+            this.cooldowns = cooldowns;
+        }
+        
+        public String getId() { return id; }
+        public String getName() { return name; }
+        public int getMaxRank() { return cooldowns.length; }
+        
+        /**
+         * Cooldown in seconds at a rank from 1, clamped to the available ranks
+         */
+        public double getCooldown(int rank) {
+            if (cooldowns.length == 0) {
+                return 0;
+            }
+            return cooldowns[Math.max(0, Math.min(cooldowns.length, rank) - 1)];
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.lolcoach.model;
+
+/**
+ * What kind of question an utterance asks. Ordinals are part of the binary
+ * scenario format, so new intents must only be appended.
+ */
+public enum Intent {
+    /** Describes the lane state and asks for general advice */
+    LANE_STATE,
+    /** What to buy next */
+    BUILD,
+    /** Dragon, herald, baron and tower timings */
+    OBJECTIVE,
+    /** Whether to fight or trade now */
+    TRADE,
+    /** When to go back to base */
+    RECALL
+}
@@ -0,0 +1,43 @@
+package com.lolcoach.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Static item data from a Data Dragon patch: total cost and stats.
+ */
+public class ItemData {
+    private final String id;
+    private final String name;
+    private final int totalGold;
+    private final boolean purchasable;
+    private final Map<String, Double> stats;
+    private final List<String> tags;
+    
+    public ItemData(String id, String name, int totalGold, boolean purchasable,
+                    Map<String, Double> stats, List<String> tags) {
+        this.id = id;
+        this.name = name;
+        this.totalGold = totalGold;
+        this.purchasable = purchasable;
+        this.stats = stats;
+        this.tags = tags;
+    }
+    
+    public String getId() { return id; }
+    public String getName() { return name; }
+    public int getTotalGold() { return totalGold; }
+    public boolean isPurchasable() { return purchasable; }
+    public Map<String, Double> getStats() { return stats; }
+    public List<String> getTags() { return tags; }
+    
+    @Override
+    public String toString() {
+        return "ItemData{" +
+                "id='" + id + '\'' +
+                ", name='" + name + '\'' +
+                ", totalGold=" + totalGold +
+                ", stats=" + stats +
+                '}';
+    }
+}
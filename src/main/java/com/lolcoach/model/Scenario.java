@@ -1,9 +1,13 @@
 package com.lolcoach.model;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 public class Scenario {
+    /** Level of a side nobody has stated and live data didn't provide */
+    public static final int UNKNOWN_LEVEL = 0;
+    
     private String lane;
     private int time;
     private String playerChampion;
@@ -11,10 +15,30 @@ public class Scenario {
     private String enemyChampion;
     private int enemyLevel;
     private String situation;
+    private Intent intent = Intent.LANE_STATE;
     private Map<String, Object> additionalData;
     
     public Scenario() {}
     
+    /**
+     * Copies a scenario; additionalData is copied one level deep
+     */
+    public Scenario(Scenario other) {
+        this(other.lane, other.time, other.playerChampion, other.playerLevel,
+             other.enemyChampion, other.enemyLevel, other.situation);
+        this.intent = other.intent;
+        this.additionalData = other.additionalData != null ? new HashMap<>(other.additionalData) : null;
+    }
+    
+    /**
+     * Returns the scenario assumed when nothing has been said yet
+     */
+    public static Scenario unknown() {
+        Scenario scenario = new Scenario("unknown", 0, "unknown", UNKNOWN_LEVEL, "unknown", UNKNOWN_LEVEL, "neutral");
+        scenario.setAdditionalData(new HashMap<>());
+        return scenario;
+    }
+    
     public Scenario(String lane, int time, String playerChampion, int playerLevel, 
                    String enemyChampion, int enemyLevel, String situation) {
         this.lane = lane;
@@ -45,16 +69,26 @@ public class Scenario {
     public int getEnemyLevel() { return enemyLevel; }
     public void setEnemyLevel(int enemyLevel) { this.enemyLevel = enemyLevel; }
     
+    /**
+     * True if both levels are known, so they can be compared
+     */
+    public boolean hasLevels() { return hasPlayerLevel() && hasEnemyLevel(); }
+    public boolean hasPlayerLevel() { return playerLevel != UNKNOWN_LEVEL; }
+    public boolean hasEnemyLevel() { return enemyLevel != UNKNOWN_LEVEL; }
+    
     public String getSituation() { return situation; }
     public void setSituation(String situation) { this.situation = situation; }
     
+    public Intent getIntent() { return intent; }
+    public void setIntent(Intent intent) { this.intent = intent; }
+    
     public Map<String, Object> getAdditionalData() { return additionalData; }
     public void setAdditionalData(Map<String, Object> additionalData) { this.additionalData = additionalData; }
     
     @Override
     public String toString() {
         return String.format("Scenario{lane='%s', time=%d, playerChampion='%s', playerLevel=%d, " +
-                           "enemyChampion='%s', enemyLevel=%d, situation='%s'}", 
-                           lane, time, playerChampion, playerLevel, enemyChampion, enemyLevel, situation);
+                           "enemyChampion='%s', enemyLevel=%d, situation='%s', intent=%s}", 
+                           lane, time, playerChampion, playerLevel, enemyChampion, enemyLevel, situation, intent);
     }
 }
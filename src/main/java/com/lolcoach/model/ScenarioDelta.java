@@ -0,0 +1,145 @@
+package com.lolcoach.model;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The fields one utterance actually mentioned. Unmentioned fields are null,
+ * so a follow-up like "now I'm level 9" only touches the player level.
+ */
+public class ScenarioDelta {
+    private String lane;
+    private Integer time;
+    private String playerChampion;
+    private Integer playerLevel;
+    private String enemyChampion;
+    private Integer enemyLevel;
+    private String situation;
+    private Intent intent;
+    private Map<String, Object> context;
+    
+    public String getLane() { return lane; }
+    public void setLane(String lane) { this.lane = lane; }
+    
+    public Integer getTime() { return time; }
+    public void setTime(Integer time) { this.time = time; }
+    
+    public String getPlayerChampion() { return playerChampion; }
+    public void setPlayerChampion(String playerChampion) { this.playerChampion = playerChampion; }
+    
+    public Integer getPlayerLevel() { return playerLevel; }
+    public void setPlayerLevel(Integer playerLevel) { this.playerLevel = playerLevel; }
+    
+    public String getEnemyChampion() { return enemyChampion; }
+    public void setEnemyChampion(String enemyChampion) { this.enemyChampion = enemyChampion; }
+    
+    public Integer getEnemyLevel() { return enemyLevel; }
+    public void setEnemyLevel(Integer enemyLevel) { this.enemyLevel = enemyLevel; }
+    
+    public String getSituation() { return situation; }
+    public void setSituation(String situation) { this.situation = situation; }
+    
+    public Intent getIntent() { return intent; }
+    public void setIntent(Intent intent) { this.intent = intent; }
+    
+    public Map<String, Object> getContext() { return context; }
+    public void setContext(Map<String, Object> context) { this.context = context; }
+    
+    /**
+     * Returns the fields this delta sets
+     */
+    public Set<ScenarioField> getFields() {
+        Set<ScenarioField> fields = EnumSet.noneOf(ScenarioField.class);
+        for (ScenarioField field : ScenarioField.values()) {
+            if (has(field)) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+    
+    public boolean has(ScenarioField field) {
+        switch (field) {
+            case LANE: return lane != null;
+            case TIME: return time != null;
+            case PLAYER_CHAMPION: return playerChampion != null;
+            case PLAYER_LEVEL: return playerLevel != null;
+            case ENEMY_CHAMPION: return enemyChampion != null;
+            case ENEMY_LEVEL: return enemyLevel != null;
+            case SITUATION: return situation != null;
+            case INTENT: return intent != null;
+            case CONTEXT: return context != null && !context.isEmpty();
+            default: return false;
+        }
+    }
+    
+    /**
+     * Writes one field of this delta into a scenario. Context flags are added to the existing ones.
+     * @return true if the scenario's value changed
+     */
+    public boolean applyTo(Scenario scenario, ScenarioField field) {
+        if (!has(field)) {
+            return false;
+        }
+        boolean changed;
+        switch (field) {
+            case LANE:
+                changed = !lane.equals(scenario.getLane());
+                scenario.setLane(lane);
+                return changed;
+            case TIME:
+                changed = time != scenario.getTime();
+                scenario.setTime(time);
+                return changed;
+            case PLAYER_CHAMPION:
+                changed = !playerChampion.equalsIgnoreCase(scenario.getPlayerChampion());
+                scenario.setPlayerChampion(playerChampion);
+                return changed;
+            case PLAYER_LEVEL:
+                changed = playerLevel != scenario.getPlayerLevel();
+                scenario.setPlayerLevel(playerLevel);
+                return changed;
+            case ENEMY_CHAMPION:
+                changed = !enemyChampion.equalsIgnoreCase(scenario.getEnemyChampion());
+                scenario.setEnemyChampion(enemyChampion);
+                return changed;
+            case ENEMY_LEVEL:
+                changed = enemyLevel != scenario.getEnemyLevel();
+                scenario.setEnemyLevel(enemyLevel);
+                return changed;
+            case SITUATION:
+                changed = !situation.equals(scenario.getSituation());
+                scenario.setSituation(situation);
+                return changed;
+            case INTENT:
+                changed = intent != scenario.getIntent();
+                scenario.setIntent(intent);
+                return changed;
+            case CONTEXT:
+                Map<String, Object> merged = scenario.getAdditionalData() != null
+                        ? new HashMap<>(scenario.getAdditionalData()) : new HashMap<>();
+                changed = !merged.entrySet().containsAll(context.entrySet());
+                merged.putAll(context);
+                scenario.setAdditionalData(merged);
+                return changed;
+            default:
+                return false;
+        }
+    }
+    
+    /**
+     * Writes every field this delta sets into a scenario
+     */
+    public void applyTo(Scenario scenario) {
+        for (ScenarioField field : ScenarioField.values()) {
+            applyTo(scenario, field);
+        }
+    }
+    
+    @Override
+    public String toString() {
+        return "ScenarioDelta" + getFields();
+    }
+}
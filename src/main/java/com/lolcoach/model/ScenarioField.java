@@ -0,0 +1,17 @@
+package com.lolcoach.model;
+
+/**
+ * The individually mergeable fields of a {@link Scenario}
+ */
+public enum ScenarioField {
+    LANE,
+    TIME,
+    PLAYER_CHAMPION,
+    PLAYER_LEVEL,
+    ENEMY_CHAMPION,
+    ENEMY_LEVEL,
+    SITUATION,
+    INTENT,
+    // Free-form flags in additionalData, e.g. nearTurret
+    CONTEXT
+}
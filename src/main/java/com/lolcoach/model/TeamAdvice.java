@@ -0,0 +1,69 @@
+package com.lolcoach.model;
+
+import java.util.List;
+
+/**
+ * Prioritized team-wide calls merged from per-lane assessments
+ */
+public class TeamAdvice {
+    private final List<LaneAssessment> lanes;
+    private final List<String> calls;
+    private final boolean partial;
+    private final long elapsedNanos;
+    
+    public TeamAdvice(List<LaneAssessment> lanes, List<String> calls, boolean partial, long elapsedNanos) {
+        this.lanes = lanes;
+        this.calls = calls;
+        this.partial = partial;
+        this.elapsedNanos = elapsedNanos;
+    }
+    
+    /**
+     * Lanes that finished within the latency budget, highest priority first
+     */
+    public List<LaneAssessment> getLanes() { return lanes; }
+    
+    /**
+     * Team-wide calls, most important first
+     */
+    public List<String> getCalls() { return calls; }
+    
+    /**
+     * True when the deadline hit before every lane was evaluated
+     */
+    public boolean isPartial() { return partial; }
+    
+    public long getElapsedNanos() { return elapsedNanos; }
+    
+    @Override
+    public String toString() {
+        return String.format("TeamAdvice{calls=%s, lanes=%d, partial=%s, elapsedNanos=%d}",
+                           calls, lanes.size(), partial, elapsedNanos);
+    }
+    
+    /**
+     * Evaluation of a single lane
+     */
+    public static class LaneAssessment {
+        private final Scenario scenario;
+        private final int score;
+        private final String advice;
+        
+        public LaneAssessment(Scenario scenario, int score, String advice) {
+            this.scenario = scenario;
+            this.score = score;
+            this.advice = advice;
+        }
+        
+        public Scenario getScenario() { return scenario; }
+        public String getLane() { return scenario.getLane(); }
+        public String getSituation() { return scenario.getSituation(); }
+        
+        /**
+         * Positive when the lane is ahead, negative when behind
+         */
+        public int getScore() { return score; }
+        
+        public String getAdvice() { return advice; }
+    }
+}
@@ -0,0 +1,703 @@
+package com.lolcoach.profile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+/**
+ * Embedded key-value store kept as a log of append-only segment files, with
+ * an in-memory hash index from each key to where its latest value sits on
+ * disk. A read is one index lookup and one positional read.
+ *
+ * Each record is laid out as:
+ * <pre>
+ * int    CRC32C of everything after it
+ * short  key length
+ * int    value length (-1 for a deletion)
+ * ...    key (UTF-8), value
+ * </pre>
+ * Writes return once they are on disk. Writers arriving while another
+ * thread's fsync is in flight are covered by the next one, so concurrent
+ * writers share syncs instead of paying one each. On open, every segment is
+ * replayed in order to rebuild the index; a torn record at the end of the
+ * newest segment, left by a crash mid-write, is cut off. Older segments are
+ * never cut: a damaged record in one is skipped, and one that can't be read
+ * past stops the store from opening. Once enough segments fill up, a
+ * background thread copies their live records into one segment and deletes
+ * the rest. Deletions are kept as small tombstones, so a crash partway
+ * through that cleanup can't bring a deleted key back.
+ */
+public class LogStore implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(LogStore.class.getName());
+    
+    public static final long DEFAULT_SEGMENT_BYTES = 4L << 20;
+    public static final int DEFAULT_COMPACTION_SEGMENTS = 4;
+    
+    static final int RECORD_HEADER_SIZE = 4 + 2 + 4;
+    static final int MAX_KEY_BYTES = 0xFFFF;
+    private static final int TOMBSTONE = -1;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String COMPACTING_SUFFIX = ".compacting";
+    private static final boolean WINDOWS = System.getProperty("os.name", "").startsWith("Windows");
+    
+    private final Path directory;
+    private final long segmentBytes;
+    private final int compactionSegments;
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    
+    // Full segments, oldest first, and the one being appended to; guarded by this
+    private final List<Segment> sealed = new ArrayList<>();
+    private Segment active;
+    // Sealed segments not yet fsynced, and whether a new file's directory entry still needs syncing;
+    // the next sync takes care of both, outside the lock
+    private final List<Segment> unsynced = new ArrayList<>();
+    private boolean directoryDirty;
+    private long nextSegmentId;
+    private boolean closed;
+    
+    // Bytes appended since open, and how many of them are known to be on disk
+    private long appendedBytes;
+    private final Object syncLock = new Object();
+    private long syncedBytes;
+    private boolean syncing;
+    private final AtomicLong syncCount = new AtomicLong();
+    
+    private final AtomicBoolean compactionPending = new AtomicBoolean();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "log-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private LogStore(Path directory, long segmentBytes, int compactionSegments) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.compactionSegments = compactionSegments;
+    }
+    
+    public static LogStore open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_COMPACTION_SEGMENTS);
+    }
+    
+    /**
+     * Opens a store, creating the directory if needed, and rebuilds the index from its segments
+     * @param segmentBytes Size at which the segment being written is sealed and a new one started
+     * @param compactionSegments Number of sealed segments that triggers a background compaction
+     */
+    public static LogStore open(Path directory, long segmentBytes, int compactionSegments) throws IOException {
+        Files.createDirectories(directory);
+        LogStore store = new LogStore(directory, segmentBytes, Math.max(2, compactionSegments));
+        store.recover();
+        return store;
+    }
+    
+    /**
+     * Returns the latest value of a key, or null if it has none
+     */
+    public byte[] get(String key) throws IOException {
+        while (true) {
+            Location location = index.get(key);
+            if (location == null) {
+                return null;
+            }
+            ByteBuffer value = ByteBuffer.allocate(location.valueLength);
+            try {
+                location.segment.read(value, location.offset + RECORD_HEADER_SIZE + location.keyLength);
+                return value.array();
+            } catch (ClosedChannelException e) {
+                // The segment was compacted away or the store closed; look the key up again
+                if (isClosed()) {
+                    throw e;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Writes a value and returns once it is on disk
+     */
+    public void put(String key, byte[] value) throws IOException {
+        sync(append(key, value));
+    }
+    
+    /**
+     * Deletes a key and returns once the deletion is on disk
+     */
+    public void delete(String key) throws IOException {
+        if (index.containsKey(key)) {
+            sync(append(key, null));
+        }
+    }
+    
+    public boolean contains(String key) {
+        return index.containsKey(key);
+    }
+    
+    public int getKeyCount() {
+        return index.size();
+    }
+    
+    public synchronized int getSegmentCount() {
+        return sealed.size() + 1;
+    }
+    
+    /**
+     * Number of fsyncs issued since open; fewer than writes when writers shared them
+     */
+    public long getSyncCount() {
+        return syncCount.get();
+    }
+    
+    public Path getDirectory() {
+        return directory;
+    }
+    
+    /**
+     * Appends a record to the active segment and updates the index
+     * @return Position in the store's byte stream after the record, to wait for with {@link #sync}
+     */
+    private synchronized long append(String key, byte[] value) throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        ByteBuffer record = encode(key, value);
+        if (active.size > 0 && active.size + record.remaining() > segmentBytes) {
+            roll();
+        }
+        
+        long offset = active.size;
+        active.write(record, offset);
+        Location location = new Location(active, offset, record.limit() - RECORD_HEADER_SIZE
+                                          - (value != null ? value.length : 0), value != null ? value.length : TOMBSTONE);
+        if (value != null) {
+            index.put(key, location);
+        } else {
+            index.remove(key);
+        }
+        appendedBytes += record.limit();
+        return appendedBytes;
+    }
+    
+    /**
+     * Waits until everything up to a position is on disk, issuing the fsync itself if no other
+     * thread is. Whoever syncs covers every record appended before it started.
+     */
+    private void sync(long position) throws IOException {
+        synchronized (syncLock) {
+            while (syncedBytes < position && syncing) {
+                try {
+                    syncLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted waiting for sync");
+                }
+            }
+            if (syncedBytes >= position) {
+                return;
+            }
+            syncing = true;
+        }
+        
+        long target;
+        Segment segment;
+        List<Segment> rolled;
+        boolean directory;
+        synchronized (this) {
+            target = appendedBytes;
+            segment = active;
+            rolled = new ArrayList<>(unsynced);
+            unsynced.clear();
+            directory = directoryDirty;
+            directoryDirty = false;
+        }
+        boolean synced = false;
+        try {
+            // Segments sealed since the last sync hold records up to the target too
+            for (Segment full : rolled) {
+                try {
+                    full.force();
+                } catch (ClosedChannelException e) {
+                    // Compacted away meanwhile; the compaction output was synced instead
+                    if (!full.retired) {
+                        throw e;
+                    }
+                }
+            }
+            if (directory) {
+                syncDirectory();
+            }
+            segment.force();
+            syncCount.incrementAndGet();
+            synced = true;
+        } catch (ClosedChannelException e) {
+            // Rolled and compacted away meanwhile
+            synced = segment.retired;
+            if (!synced) {
+                throw e;
+            }
+        } finally {
+            if (!synced) {
+                synchronized (this) {
+                    unsynced.addAll(0, rolled);
+                    directoryDirty |= directory;
+                }
+            }
+            synchronized (syncLock) {
+                if (synced) {
+                    syncedBytes = Math.max(syncedBytes, target);
+                }
+                syncing = false;
+                syncLock.notifyAll();
+            }
+        }
+    }
+    
+    /**
+     * Seals the active segment and starts a new one; caller holds the lock. The fsyncs of the
+     * sealed segment and of the directory are left to the next sync, so writers aren't blocked on them.
+     */
+    private void roll() throws IOException {
+        active.sealed = true;
+        sealed.add(active);
+        unsynced.add(active);
+        active = Segment.open(segmentFile(nextSegmentId), nextSegmentId);
+        directoryDirty = true;
+        nextSegmentId++;
+        
+        if (sealed.size() >= compactionSegments && compactionPending.compareAndSet(false, true)) {
+            compactor.execute(() -> {
+                try {
+                    compact();
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Log compaction failed in " + directory, e);
+                } finally {
+                    compactionPending.set(false);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Makes created, renamed and deleted segment files durable. Windows can't open a
+     * directory for syncing, and NTFS journals those changes itself.
+     */
+    private void syncDirectory() throws IOException {
+        if (WINDOWS) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+    
+    /**
+     * Rewrites the sealed segments into one holding only their live records and deletions.
+     * Runs alongside reads and writes; keys written meanwhile keep their newer location.
+     */
+    public void compact() throws IOException {
+        List<Segment> inputs;
+        synchronized (this) {
+            if (closed || sealed.size() < 2) {
+                return;
+            }
+            inputs = new ArrayList<>(sealed);
+        }
+        long start = System.nanoTime();
+        Segment newest = inputs.get(inputs.size() - 1);
+        
+        // Latest record per key across the inputs, in first-seen order
+        Map<String, Location> latest = new LinkedHashMap<>();
+        for (Segment segment : inputs) {
+            segment.scan((key, location) -> latest.put(key, location));
+        }
+        
+        // Segments only ever replay in id order, so the output takes the newest input's id:
+        // it must override the older inputs and be overridden by everything written since
+        Path temporary = directory.resolve(SEGMENT_PREFIX + newest.id + COMPACTING_SUFFIX);
+        Segment output = new Segment(segmentFile(newest.id), newest.id, FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                StandardOpenOption.WRITE));
+        Map<Location, Location> moved = new LinkedHashMap<>();
+        Map<String, Location> movedKeys = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, Location> entry : latest.entrySet()) {
+                Location location = entry.getValue();
+                Location current = index.get(entry.getKey());
+                boolean live = current != null && current.segment == location.segment && current.offset == location.offset;
+                if (!live && !location.isDeletion()) {
+                    continue;
+                }
+                ByteBuffer record = ByteBuffer.allocate(location.recordLength());
+                location.segment.read(record, location.offset);
+                record.flip();
+                long offset = output.size;
+                output.write(record, offset);
+                if (live) {
+                    moved.put(current, new Location(output, offset, location.keyLength, location.valueLength));
+                    movedKeys.put(entry.getKey(), current);
+                }
+            }
+            output.force();
+            output.sealed = true;
+            Files.move(temporary, output.file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            syncDirectory();
+        } catch (IOException | RuntimeException e) {
+            output.close();
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        
+        // Point keys at the copies unless they were rewritten meanwhile
+        for (Map.Entry<String, Location> entry : movedKeys.entrySet()) {
+            index.replace(entry.getKey(), entry.getValue(), moved.get(entry.getValue()));
+        }
+        synchronized (this) {
+            sealed.removeAll(inputs);
+            sealed.add(0, output);
+        }
+        synchronized (this) {
+            unsynced.removeAll(inputs);
+        }
+        for (Segment segment : inputs) {
+            segment.close();
+            if (segment != newest) {
+                Files.deleteIfExists(segment.file);
+            }
+        }
+        syncDirectory();
+        LOGGER.info(String.format("Compacted %d segments into %d keys (%d bytes) in %d ms", inputs.size(),
+                                  moved.size(), output.size, (System.nanoTime() - start) / 1_000_000));
+    }
+    
+    /**
+     * Rebuilds the index by replaying every segment in order
+     */
+    private void recover() throws IOException {
+        long start = System.nanoTime();
+        List<Long> ids = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(COMPACTING_SUFFIX)) {
+                    // A compaction that never finished; its inputs are all still there
+                    Files.delete(file);
+                } else if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    try {
+                        ids.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                    } catch (NumberFormatException e) {
+                        LOGGER.warning("Ignoring unexpected file in log store: " + file);
+                    }
+                }
+            }
+        }
+        Collections.sort(ids);
+        
+        long records = 0;
+        try {
+            for (int i = 0; i < ids.size(); i++) {
+                boolean newest = i == ids.size() - 1;
+                Segment segment = Segment.open(segmentFile(ids.get(i)), ids.get(i));
+                if (newest) {
+                    active = segment;
+                } else {
+                    segment.sealed = true;
+                    sealed.add(segment);
+                }
+                long valid = segment.scan((key, location) -> {
+                    if (location.isDeletion()) {
+                        index.remove(key);
+                    } else {
+                        index.put(key, location);
+                    }
+                });
+                records += segment.records;
+                if (segment.damaged > 0) {
+                    LOGGER.warning("Skipped " + segment.damaged + " damaged records in " + segment.file);
+                }
+                if (valid < segment.size) {
+                    if (!newest) {
+                        // Only the newest segment can end in a torn write; anything else is damage to keep for repair
+                        throw new IOException("Log segment " + segment.file + " is unreadable from byte " + valid +
+                                              "; restore it from a backup or move it aside to open the store");
+                    }
+                    LOGGER.warning("Dropping " + (segment.size - valid) + " bytes of a torn write at the end of " + segment.file);
+                    segment.truncate(valid);
+                    segment.force();
+                }
+            }
+            nextSegmentId = ids.isEmpty() ? 1 : ids.get(ids.size() - 1) + 1;
+            if (active == null) {
+                active = Segment.open(segmentFile(nextSegmentId), nextSegmentId);
+                nextSegmentId++;
+                syncDirectory();
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Segment segment : sealed) {
+                segment.close();
+            }
+            if (active != null) {
+                active.close();
+            }
+            compactor.shutdown();
+            throw e;
+        }
+        LOGGER.info(String.format("Log store %s: %d keys from %d records in %d segments, recovered in %d ms",
+                                  directory, index.size(), records, ids.size(), (System.nanoTime() - start) / 1_000_000));
+    }
+    
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+    
+    /**
+     * Waits for a running compaction, syncs and closes every segment
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            for (Segment segment : unsynced) {
+                segment.force();
+            }
+            unsynced.clear();
+            if (directoryDirty) {
+                syncDirectory();
+                directoryDirty = false;
+            }
+            active.force();
+            for (Segment segment : sealed) {
+                segment.close();
+            }
+            active.close();
+        }
+    }
+    
+    private Path segmentFile(long id) {
+        return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    }
+    
+    private static ByteBuffer encode(String key, byte[] value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > MAX_KEY_BYTES) {
+            throw new IllegalArgumentException("Key too long for log store: " + keyBytes.length + " bytes");
+        }
+        int valueLength = value != null ? value.length : 0;
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + keyBytes.length + valueLength);
+        record.putInt(0);
+        record.putShort((short) keyBytes.length);
+        record.putInt(value != null ? value.length : TOMBSTONE);
+        record.put(keyBytes);
+        if (value != null) {
+            record.put(value);
+        }
+        record.putInt(0, checksum(record, 4, record.limit()));
+        record.flip();
+        return record;
+    }
+    
+    private static int checksum(ByteBuffer buffer, int from, int to) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer range = buffer.duplicate();
+        range.limit(to).position(from);
+        crc.update(range);
+        return (int) crc.getValue();
+    }
+    
+    /**
+     * Where a key's latest record sits
+     */
+    private static final class Location {
+        final Segment segment;
+        final long offset;
+        final int keyLength;
+        final int valueLength;
+        
+        Location(Segment segment, long offset, int keyLength, int valueLength) {
+            this.segment = segment;
+            this.offset = offset;
+            this.keyLength = keyLength;
+            this.valueLength = valueLength;
+        }
+        
+        boolean isDeletion() {
+            return valueLength == TOMBSTONE;
+        }
+        
+        int recordLength() {
+            return RECORD_HEADER_SIZE + keyLength + (isDeletion() ? 0 : valueLength);
+        }
+    }
+    
+    private interface RecordVisitor {
+        void visit(String key, Location location);
+    }
+    
+    /**
+     * One segment file. Writes go to the end at the size tracked here, so a
+     * failed write can be cut off again before the next one.
+     */
+    private static final class Segment {
+        final Path file;
+        final long id;
+        volatile FileChannel channel;
+        volatile long size;
+        volatile boolean sealed;
+        volatile boolean retired;
+        long records;
+        long damaged;
+        
+        Segment(Path file, long id, FileChannel channel) throws IOException {
+            this.file = file;
+            this.id = id;
+            this.channel = channel;
+            this.size = channel.size();
+        }
+        
+        static Segment open(Path file, long id) throws IOException {
+            return new Segment(file, id, FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE));
+        }
+        
+        void write(ByteBuffer record, long position) throws IOException {
+            try {
+                while (record.hasRemaining()) {
+                    position += channel().write(record, position);
+                }
+            } catch (IOException e) {
+                // Drop whatever part of the record made it, so later records stay readable
+                truncate(size);
+                throw e;
+            }
+            size = position;
+        }
+        
+        void read(ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                int read = channel().read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("Unexpected end of " + file);
+                }
+                position += read;
+            }
+        }
+        
+        void force() throws IOException {
+            channel().force(false);
+        }
+        
+        void truncate(long length) throws IOException {
+            channel().truncate(length);
+            size = length;
+        }
+        
+        /**
+         * Returns the channel, reopening it if an interrupted thread closed it mid-operation
+         */
+        private FileChannel channel() throws IOException {
+            FileChannel current = channel;
+            if (current.isOpen() || retired) {
+                return current;
+            }
+            synchronized (this) {
+                if (!channel.isOpen() && !retired) {
+                    channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                }
+                return channel;
+            }
+        }
+        
+        /**
+         * Visits every intact record in order, skipping damaged ones whose lengths still lead to the next
+         * @return Length of the readable prefix; anything after it is torn or corrupt
+         */
+        long scan(RecordVisitor visitor) throws IOException {
+            long length = size;
+            ByteBuffer data = ByteBuffer.allocate((int) length);
+            read(data, 0);
+            data.flip();
+            records = 0;
+            damaged = 0;
+            int position = 0;
+            while (length - position >= RECORD_HEADER_SIZE) {
+                int keyLength = data.getShort(position + 4) & 0xFFFF;
+                int valueLength = data.getInt(position + 6);
+                if (valueLength < TOMBSTONE) {
+                    break;
+                }
+                long end = (long) position + RECORD_HEADER_SIZE + keyLength + Math.max(0, valueLength);
+                if (end > length) {
+                    break;
+                }
+                if (checksum(data, position + 4, (int) end) != data.getInt(position)) {
+                    if (end == length) {
+                        // The last record is torn
+                        break;
+                    }
+                    // Damaged in place, but its lengths still lead to an intact record; skip just this one
+                    int next = (int) end;
+                    if (length - next < RECORD_HEADER_SIZE || !isIntactRecord(data, next, length)) {
+                        break;
+                    }
+                    damaged++;
+                    position = next;
+                    continue;
+                }
+                byte[] key = new byte[keyLength];
+                ByteBuffer keyBytes = data.duplicate();
+                keyBytes.position(position + RECORD_HEADER_SIZE);
+                keyBytes.get(key);
+                visitor.visit(new String(key, StandardCharsets.UTF_8), new Location(this, position, keyLength, valueLength));
+                records++;
+                position = (int) end;
+            }
+            return position;
+        }
+        
+        private static boolean isIntactRecord(ByteBuffer data, int position, long length) {
+            int keyLength = data.getShort(position + 4) & 0xFFFF;
+            int valueLength = data.getInt(position + 6);
+            long end = (long) position + RECORD_HEADER_SIZE + keyLength + Math.max(0, valueLength);
+            return valueLength >= TOMBSTONE && end <= length && checksum(data, position + 4, (int) end) == data.getInt(position);
+        }
+        
+        synchronized void close() throws IOException {
+            retired = true;
+            channel.close();
+        }
+    }
+}
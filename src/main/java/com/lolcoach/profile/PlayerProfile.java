@@ -0,0 +1,230 @@
+package com.lolcoach.profile;
+
+import com.lolcoach.model.Scenario;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A player's record across games: overall, per champion played, per enemy
+ * laned against and per lane. Profiles handed out by {@link ProfileStore}
+ * are shared and must not be modified; {@link #copy()} one to update it.
+ */
+public class PlayerProfile {
+    static final byte VERSION = 1;
+    
+    // Games behind before it counts as a habit rather than a bad game
+    private static final int REPEATED = 2;
+    // Games with a known result before a win rate is worth mentioning
+    private static final int MIN_DECIDED = 3;
+    
+    /**
+     * Counts for one champion, enemy or lane
+     */
+    public static final class Record {
+        private int games;
+        private int behind;
+        private int decided;
+        private int wins;
+        
+        void add(SessionOutcome outcome) {
+            games++;
+            if (outcome.isBehind()) {
+                behind++;
+            }
+            if (outcome.getWon() != null) {
+                decided++;
+                if (outcome.getWon()) {
+                    wins++;
+                }
+            }
+        }
+        
+        Record copy() {
+            Record copy = new Record();
+            copy.games = games;
+            copy.behind = behind;
+            copy.decided = decided;
+            copy.wins = wins;
+            return copy;
+        }
+        
+        /**
+         * True if the player fell behind in at least two games and in at least half of them
+         */
+        public boolean isOftenBehind() {
+            return behind >= REPEATED && behind * 2 >= games;
+        }
+        
+        public int getGames() { return games; }
+        public int getBehind() { return behind; }
+        public int getDecided() { return decided; }
+        public int getWins() { return wins; }
+    }
+    
+    private final Record total = new Record();
+    private final Map<String, Record> champions = new HashMap<>();
+    private final Map<String, Record> enemies = new HashMap<>();
+    private final Map<String, Record> lanes = new HashMap<>();
+    
+    /**
+     * Adds one game
+     */
+    public void record(SessionOutcome outcome) {
+        total.add(outcome);
+        add(champions, outcome.getChampion(), outcome);
+        add(enemies, outcome.getEnemy(), outcome);
+        add(lanes, outcome.getLane(), outcome);
+    }
+    
+    public PlayerProfile copy() {
+        PlayerProfile copy = new PlayerProfile();
+        copy.total.games = total.games;
+        copy.total.behind = total.behind;
+        copy.total.decided = total.decided;
+        copy.total.wins = total.wins;
+        copyInto(champions, copy.champions);
+        copyInto(enemies, copy.enemies);
+        copyInto(lanes, copy.lanes);
+        return copy;
+    }
+    
+    public Record getTotal() { return total; }
+    public Record getChampion(String champion) { return champion != null ? champions.get(key(champion)) : null; }
+    public Record getEnemy(String enemy) { return enemy != null ? enemies.get(key(enemy)) : null; }
+    public Record getLane(String lane) { return lane != null ? lanes.get(key(lane)) : null; }
+    
+    /**
+     * The champion the player has played most, or null before their first game
+     */
+    public String getMainChampion() {
+        String main = null;
+        int games = 0;
+        for (Map.Entry<String, Record> entry : champions.entrySet()) {
+            if (entry.getValue().games > games) {
+                main = entry.getKey();
+                games = entry.getValue().games;
+            }
+        }
+        return main;
+    }
+    
+    /**
+     * A personal note for the scenario, most specific first: a matchup the player keeps
+     * falling behind in, then a lane, then how they fare on their champion
+     * @return The note, or null if the record shows nothing worth saying
+     */
+    public String describe(Scenario scenario) {
+        Record enemy = getEnemy(scenario.getEnemyChampion());
+        if (enemy != null && enemy.isOftenBehind()) {
+            return String.format("You've fallen behind against %s in %d of %d games, so farm safely until your " +
+                                 "first item and trade only when their key ability is down.",
+                                 scenario.getEnemyChampion(), enemy.behind, enemy.games);
+        }
+        Record lane = getLane(scenario.getLane());
+        if (lane != null && lane.isOftenBehind()) {
+            return String.format("Your %s lane went behind in %d of %d games; ward early and don't fight " +
+                                 "without your jungler nearby.", key(scenario.getLane()), lane.behind, lane.games);
+        }
+        Record champion = getChampion(scenario.getPlayerChampion());
+        if (champion != null && champion.decided >= MIN_DECIDED) {
+            if (champion.wins * 10 >= champion.decided * 6) {
+                return String.format("You've won %d of %d games on %s, so trust your usual game plan.",
+                                     champion.wins, champion.decided, scenario.getPlayerChampion());
+            }
+            if (champion.wins * 10 < champion.decided * 4) {
+                return String.format("You've won %d of %d games on %s; stick with your team rather than " +
+                                     "looking for solo plays.", champion.wins, champion.decided, scenario.getPlayerChampion());
+            }
+        }
+        return null;
+    }
+    
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            writeRecord(out, total);
+            writeRecords(out, champions);
+            writeRecords(out, enemies);
+            writeRecords(out, lanes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    public static PlayerProfile decode(byte[] data) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported player profile version: " + version);
+        }
+        PlayerProfile profile = new PlayerProfile();
+        readRecord(in, profile.total);
+        readRecords(in, profile.champions);
+        readRecords(in, profile.enemies);
+        readRecords(in, profile.lanes);
+        return profile;
+    }
+    
+    private static void add(Map<String, Record> records, String name, SessionOutcome outcome) {
+        if (name != null) {
+            records.computeIfAbsent(key(name), k -> new Record()).add(outcome);
+        }
+    }
+    
+    private static void copyInto(Map<String, Record> from, Map<String, Record> to) {
+        for (Map.Entry<String, Record> entry : from.entrySet()) {
+            to.put(entry.getKey(), entry.getValue().copy());
+        }
+    }
+    
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    private static void writeRecords(DataOutputStream out, Map<String, Record> records) throws IOException {
+        out.writeShort(records.size());
+        for (Map.Entry<String, Record> entry : records.entrySet()) {
+            out.writeUTF(entry.getKey());
+            writeRecord(out, entry.getValue());
+        }
+    }
+    
+    private static void writeRecord(DataOutputStream out, Record record) throws IOException {
+        out.writeInt(record.games);
+        out.writeInt(record.behind);
+        out.writeInt(record.decided);
+        out.writeInt(record.wins);
+    }
+    
+    private static void readRecords(DataInputStream in, Map<String, Record> records) throws IOException {
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            String name = in.readUTF();
+            Record record = new Record();
+            readRecord(in, record);
+            records.put(name, record);
+        }
+    }
+    
+    private static void readRecord(DataInputStream in, Record record) throws IOException {
+        record.games = in.readInt();
+        record.behind = in.readInt();
+        record.decided = in.readInt();
+        record.wins = in.readInt();
+    }
+    
+    @Override
+    public String toString() {
+        return "PlayerProfile{games=" + total.games + ", wins=" + total.wins + "/" + total.decided +
+               ", champions=" + champions.keySet() + ", main=" + getMainChampion() + "}";
+    }
+}
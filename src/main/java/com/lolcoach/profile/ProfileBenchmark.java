@@ -0,0 +1,204 @@
+package com.lolcoach.profile;
+
+import com.lolcoach.model.Scenario;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures profile store write throughput with fsync per write at several
+ * writer counts, recovery time before and after compaction, and profile
+ * read latency.
+ *
+ * Usage:
+ * <pre>
+ * java com.lolcoach.profile.ProfileBenchmark [directory] [--writes N]
+ * </pre>
+ * Without a directory the benchmark uses a temporary one and deletes it
+ * afterwards. Point it at the disk the profiles will live on: fsync cost
+ * depends on the device.
+ */
+public class ProfileBenchmark {
+    private static final int[] WRITER_COUNTS = {1, 4, 16};
+    private static final int DEFAULT_WRITES = 5_000;
+    private static final int PLAYERS = 2_000;
+    private static final long SEGMENT_BYTES = 1L << 20;
+    private static final int READ_ITERATIONS = 1_000_000;
+    private static final String[] CHAMPIONS = {"Garen", "Darius", "Ahri", "Zed", "Jinx", "Thresh", "Lee Sin", "Teemo"};
+    private static final String[] LANES = {"top", "jungle", "mid", "bottom", "support"};
+    
+    // Prevents the JIT from discarding benchmark results
+    private static long sink;
+    
+    public static void main(String[] args) throws Exception {
+        Path directory = null;
+        int writes = DEFAULT_WRITES;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--writes") && i + 1 < args.length) {
+                writes = Integer.parseInt(args[++i]);
+            } else {
+                directory = Paths.get(args[i]);
+            }
+        }
+        boolean temporary = directory == null;
+        if (temporary) {
+            directory = Files.createTempDirectory("profile-benchmark");
+        }
+        
+        try {
+            byte[][] values = profiles(new Random(42));
+            LogStore log = LogStore.open(directory, SEGMENT_BYTES, Integer.MAX_VALUE);
+            System.out.println("Directory: " + directory);
+            System.out.printf("%-8s %12s %12s %14s%n", "Writers", "Writes/s", "Syncs", "Writes/sync");
+            for (int writers : WRITER_COUNTS) {
+                long syncsBefore = log.getSyncCount();
+                double seconds = write(log, values, writers, writes);
+                long syncs = log.getSyncCount() - syncsBefore;
+                System.out.printf("%-8d %12.0f %12d %14.1f%n", writers, writes / seconds, syncs,
+                                  writes / (double) Math.max(1, syncs));
+            }
+            long size = directorySize(directory);
+            log.close();
+            
+            System.out.printf("%nRecovery of %d writes to %d players (%.1f MB in segments)%n",
+                              writes * WRITER_COUNTS.length, PLAYERS, size / 1e6);
+            long start = System.nanoTime();
+            log = LogStore.open(directory, SEGMENT_BYTES, Integer.MAX_VALUE);
+            System.out.printf("Before compaction  %8.1f ms, %d segments%n", (System.nanoTime() - start) / 1e6,
+                              log.getSegmentCount());
+            start = System.nanoTime();
+            log.compact();
+            double compactMillis = (System.nanoTime() - start) / 1e6;
+            log.close();
+            start = System.nanoTime();
+            log = LogStore.open(directory, SEGMENT_BYTES, Integer.MAX_VALUE);
+            System.out.printf("After compaction   %8.1f ms, %d segments (compaction took %.1f ms, %.1f MB left)%n",
+                              (System.nanoTime() - start) / 1e6, log.getSegmentCount(), compactMillis,
+                              directorySize(directory) / 1e6);
+            
+            LogStore reopened = log;
+            ProfileStore profiles = new ProfileStore(reopened);
+            Scenario scenario = new Scenario("top", 10, "Garen", 6, "Darius", 6, "behind");
+            double cachedNanos = measure(i -> {
+                PlayerProfile profile = profiles.get(player(i & 63));
+                return profile.getTotal().getGames();
+            });
+            double uncachedNanos = measure(i -> reopened.get(player(i % PLAYERS)).length);
+            double describeNanos = measure(i -> {
+                String note = profiles.get(player(i & 63)).describe(scenario);
+                return note != null ? note.length() : 0;
+            });
+            System.out.printf("%nProfile read (cached)    %8.1f ns/op%n", cachedNanos);
+            System.out.printf("Log store read           %8.1f ns/op%n", uncachedNanos);
+            System.out.printf("Profile advice note      %8.1f ns/op%n", describeNanos);
+            System.out.println("(sink " + sink + ")");
+            profiles.close();
+        } finally {
+            if (temporary) {
+                deleteDirectory(directory);
+            }
+        }
+    }
+    
+    /**
+     * Writes profiles from several threads at once
+     * @return Elapsed seconds
+     */
+    private static double write(LogStore log, byte[][] values, int writers, int writes) throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        List<Exception> failures = new ArrayList<>();
+        for (int t = 0; t < writers; t++) {
+            threads.add(new Thread(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < writes) {
+                    try {
+                        log.put(player(i % PLAYERS), values[i % values.length]);
+                    } catch (IOException e) {
+                        synchronized (failures) {
+                            failures.add(e);
+                        }
+                        return;
+                    }
+                }
+            }, "benchmark-writer-" + t));
+        }
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Write failed", failures.get(0));
+        }
+        return (System.nanoTime() - start) / 1e9;
+    }
+    
+    private interface Op {
+        long run(int i) throws IOException;
+    }
+    
+    private static double measure(Op op) throws IOException {
+        for (int i = 0; i < READ_ITERATIONS / 4; i++) {
+            sink += op.run(i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < READ_ITERATIONS; i++) {
+            sink += op.run(i);
+        }
+        return (System.nanoTime() - start) / (double) READ_ITERATIONS;
+    }
+    
+    private static String player(int i) {
+        return "player-" + i;
+    }
+    
+    /**
+     * Encoded profiles of a few dozen games each, the size real ones grow to
+     */
+    private static byte[][] profiles(Random random) {
+        byte[][] values = new byte[64][];
+        for (int v = 0; v < values.length; v++) {
+            PlayerProfile profile = new PlayerProfile();
+            int games = 10 + random.nextInt(50);
+            for (int g = 0; g < games; g++) {
+                SessionOutcome outcome = new SessionOutcome();
+                outcome.setLane(LANES[random.nextInt(LANES.length)]);
+                outcome.setChampion(CHAMPIONS[random.nextInt(CHAMPIONS.length)]);
+                outcome.setEnemy(CHAMPIONS[random.nextInt(CHAMPIONS.length)]);
+                outcome.setBehind(random.nextInt(3) == 0);
+                outcome.setWon(random.nextInt(4) == 0 ? null : random.nextBoolean());
+                profile.record(outcome);
+            }
+            values[v] = profile.encode();
+        }
+        return values;
+    }
+    
+    private static long directorySize(Path directory) throws IOException {
+        long size = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                size += Files.size(file);
+            }
+        }
+        return size;
+    }
+    
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+}
@@ -0,0 +1,61 @@
+package com.lolcoach.profile;
+
+import com.lolcoach.model.Scenario;
+
+/**
+ * Follows the game a player is currently in and hands it to the profile
+ * store when it ends: when they state the result, when a new game starts,
+ * or when the app exits.
+ */
+public class ProfileSession {
+    private final ProfileStore store;
+    private final String player;
+    
+    private SessionOutcome current = new SessionOutcome();
+    private int game = -1;
+    // The result was stated; ignore the rest of this game, e.g. questions about what went wrong
+    private boolean recorded;
+    
+    public ProfileSession(ProfileStore store, String player) {
+        this.store = store;
+        this.player = player;
+    }
+    
+    /**
+     * Folds in an utterance
+     * @param game Number of the session's current game; a change ends the previous one
+     */
+    public synchronized void observe(String input, Scenario scenario, int game) {
+        if (game != this.game) {
+            finish();
+            this.game = game;
+            recorded = false;
+        }
+        if (recorded) {
+            return;
+        }
+        current.observe(input, scenario);
+        if (current.getWon() != null) {
+            finish();
+            recorded = true;
+        }
+    }
+    
+    /**
+     * Ends the current game, saving it if anything identifying was said
+     */
+    public synchronized void finish() {
+        if (!current.isEmpty()) {
+            store.ingest(player, current);
+        }
+        current = new SessionOutcome();
+    }
+    
+    public String getPlayer() {
+        return player;
+    }
+    
+    public ProfileStore getStore() {
+        return store;
+    }
+}
@@ -0,0 +1,119 @@
+package com.lolcoach.profile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Player profiles kept in a {@link LogStore}, one key per player. Decoded
+ * profiles stay in memory after first use, so advice reads one without
+ * touching the disk; games are folded in on a background thread.
+ */
+public class ProfileStore implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(ProfileStore.class.getName());
+    
+    private final LogStore log;
+    
+    // Decoded profiles by key; one entry per player seen, so a handful on a coaching machine
+    private final Map<String, PlayerProfile> profiles = new ConcurrentHashMap<>();
+    
+    private final ExecutorService ingester = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "profile-ingest");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    public ProfileStore(LogStore log) {
+        this.log = log;
+    }
+    
+    public static ProfileStore open(Path directory) throws IOException {
+        return new ProfileStore(LogStore.open(directory));
+    }
+    
+    /**
+     * Returns a player's profile, empty if they have no games yet. The profile is shared; don't modify it.
+     */
+    public PlayerProfile get(String player) {
+        String key = key(player);
+        PlayerProfile profile = profiles.get(key);
+        if (profile != null) {
+            return profile;
+        }
+        
+        profile = new PlayerProfile();
+        try {
+            byte[] data = log.get(key);
+            if (data != null) {
+                profile = PlayerProfile.decode(data);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not read profile of " + player + ", starting empty", e);
+        }
+        PlayerProfile raced = profiles.putIfAbsent(key, profile);
+        return raced != null ? raced : profile;
+    }
+    
+    /**
+     * Folds a game into a player's profile in the background
+     */
+    public void ingest(String player, SessionOutcome outcome) {
+        ingester.execute(() -> {
+            try {
+                record(player, outcome);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Could not save game to profile of " + player, e);
+            }
+        });
+    }
+    
+    /**
+     * Folds a game into a player's profile and returns once it is on disk
+     */
+    public synchronized PlayerProfile record(String player, SessionOutcome outcome) throws IOException {
+        PlayerProfile updated = get(player).copy();
+        updated.record(outcome);
+        log.put(key(player), updated.encode());
+        profiles.put(key(player), updated);
+        LOGGER.info("Recorded game for " + player + ": " + outcome);
+        return updated;
+    }
+    
+    /**
+     * Deletes everything remembered about a player
+     */
+    public synchronized void forget(String player) throws IOException {
+        log.delete(key(player));
+        profiles.remove(key(player));
+    }
+    
+    public LogStore getLog() {
+        return log;
+    }
+    
+    /**
+     * Saves games still being ingested and closes the log
+     */
+    @Override
+    public void close() throws IOException {
+        ingester.shutdown();
+        try {
+            ingester.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+    }
+    
+    private static String key(String player) {
+        return player.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,101 @@
+package com.lolcoach.profile;
+
+import com.lolcoach.model.Scenario;
+import java.util.regex.Pattern;
+
+/**
+ * What one game taught us about the player: who they played, against whom,
+ * whether they reported falling behind and, if they said so, the result.
+ */
+public class SessionOutcome {
+    // Whole-game results only: "we won the game", or "victory" / "gg we won" said on its own.
+    // "we won baron", "I lost my tower" or "how do I defeat Darius" are about something else
+    private static final Pattern WIN_PATTERN = Pattern.compile(
+            "^\\s*(gg\\W*)?(victory|(we|i) won)\\W*$|\\b(we|i) (just )?won (the|that|this) game\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern LOSS_PATTERN = Pattern.compile(
+            "^\\s*(gg\\W*)?(defeat|(we|i) lost)\\W*$|\\b(we|i) (just )?lost (the|that|this) game\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final String UNKNOWN = "unknown";
+    
+    private String lane;
+    private String champion;
+    private String enemy;
+    private int utterances;
+    private boolean behind;
+    private Boolean won;
+    
+    /**
+     * Folds in one utterance and the scenario it left the session in
+     */
+    public void observe(String input, Scenario scenario) {
+        utterances++;
+        lane = known(scenario.getLane(), lane);
+        champion = known(scenario.getPlayerChampion(), champion);
+        enemy = known(scenario.getEnemyChampion(), enemy);
+        if (isBehind(scenario.getSituation())) {
+            behind = true;
+        }
+        Boolean result = resultOf(input);
+        if (result != null) {
+            won = result;
+        }
+    }
+    
+    /**
+     * Game result stated in an utterance: true for a win, false for a loss, null if none
+     */
+    public static Boolean resultOf(String text) {
+        if (text == null) {
+            return null;
+        }
+        if (LOSS_PATTERN.matcher(text).find()) {
+            return Boolean.FALSE;
+        }
+        return WIN_PATTERN.matcher(text).find() ? Boolean.TRUE : null;
+    }
+    
+    static boolean isBehind(String situation) {
+        if (situation == null) {
+            return false;
+        }
+        switch (situation.toLowerCase()) {
+            case "behind":
+            case "losing":
+            case "struggling":
+                return true;
+            default:
+                return false;
+        }
+    }
+    
+    private static String known(String value, String previous) {
+        return value != null && !value.isEmpty() && !value.equalsIgnoreCase(UNKNOWN) ? value : previous;
+    }
+    
+    /**
+     * True if nothing identifying was said, so there is nothing worth remembering
+     */
+    public boolean isEmpty() {
+        return utterances == 0 || (lane == null && champion == null && enemy == null);
+    }
+    
+    public String getLane() { return lane; }
+    public String getChampion() { return champion; }
+    public String getEnemy() { return enemy; }
+    public int getUtterances() { return utterances; }
+    public boolean isBehind() { return behind; }
+    public Boolean getWon() { return won; }
+    
+    public void setLane(String lane) { this.lane = lane; }
+    public void setChampion(String champion) { this.champion = champion; }
+    public void setEnemy(String enemy) { this.enemy = enemy; }
+    public void setBehind(boolean behind) { this.behind = behind; }
+    public void setWon(Boolean won) { this.won = won; }
+    
+    @Override
+    public String toString() {
+        return "SessionOutcome{lane='" + lane + "', champion='" + champion + "', enemy='" + enemy +
+               "', utterances=" + utterances + ", behind=" + behind + ", won=" + won + "}";
+    }
+}
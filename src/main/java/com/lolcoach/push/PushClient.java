@@ -0,0 +1,90 @@
+package com.lolcoach.push;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One subscriber connection. Publishers enqueue shared frames from any thread;
+ * only the selector thread writes them out. Queued bytes are capped so a slow
+ * reader is dropped instead of holding memory or slowing the pipeline.
+ */
+final class PushClient {
+    static final int HANDSHAKE = 0;
+    static final int SSE = 1;
+    static final int WEBSOCKET = 2;
+    
+    final SocketChannel channel;
+    final SelectionKey key;
+    final ByteBuffer request;
+    
+    private final Queue<ByteBuffer> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedBytes = new AtomicInteger();
+    private final int maxQueuedBytes;
+    private ByteBuffer current;
+    private volatile int protocol = HANDSHAKE;
+    private volatile boolean overflowed;
+    
+    PushClient(SocketChannel channel, SelectionKey key, int requestBytes, int maxQueuedBytes) {
+        this.channel = channel;
+        this.key = key;
+        this.request = ByteBuffer.allocate(requestBytes);
+        this.maxQueuedBytes = maxQueuedBytes;
+    }
+    
+    int getProtocol() {
+        return protocol;
+    }
+    
+    void setProtocol(int protocol) {
+        this.protocol = protocol;
+    }
+    
+    boolean isOverflowed() {
+        return overflowed;
+    }
+    
+    /**
+     * Queues a shared frame without copying its bytes
+     * @return false if the client is over its buffer budget and must be dropped
+     */
+    boolean enqueue(ByteBuffer frame) {
+        int size = frame.remaining();
+        if (queuedBytes.addAndGet(size) > maxQueuedBytes) {
+            queuedBytes.addAndGet(-size);
+            overflowed = true;
+            return false;
+        }
+        queue.add(frame.duplicate());
+        return true;
+    }
+    
+    boolean hasPending() {
+        return current != null || !queue.isEmpty();
+    }
+    
+    /**
+     * Writes queued frames until the socket would block
+     * @return true if everything queued has been written
+     */
+    boolean flush() throws IOException {
+        while (true) {
+            if (current == null) {
+                current = queue.poll();
+                if (current == null) {
+                    return true;
+                }
+            }
+            channel.write(current);
+            if (current.hasRemaining()) {
+                return false;
+            }
+            queuedBytes.addAndGet(-current.limit());
+            current = null;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.lolcoach.push;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An event serialized once to JSON. The protocol frames wrapping it are built
+ * on first use and shared read-only by every subscriber of that protocol.
+ */
+public final class PushEvent {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    
+    private final String type;
+    private final long sequence;
+    private final byte[] json;
+    private volatile ByteBuffer sseFrame;
+    private volatile ByteBuffer webSocketFrame;
+    
+    PushEvent(String type, long sequence, Object payload) throws JsonProcessingException {
+        this.type = type;
+        this.sequence = sequence;
+        
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("type", type);
+        envelope.put("sequence", sequence);
+        envelope.put("timestamp", System.currentTimeMillis());
+        envelope.put("data", payload);
+        this.json = MAPPER.writeValueAsBytes(envelope);
+    }
+    
+    public String getType() {
+        return type;
+    }
+    
+    public long getSequence() {
+        return sequence;
+    }
+    
+    public byte[] getJson() {
+        return json;
+    }
+    
+    /**
+     * Server-sent events frame; compact JSON has no newlines, so it fits one data line
+     */
+    ByteBuffer sseFrame() {
+        ByteBuffer frame = sseFrame;
+        if (frame == null) {
+            byte[] head = ("id: " + sequence + "\nevent: " + type + "\ndata: ").getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.allocate(head.length + json.length + 2);
+            buffer.put(head).put(json).put((byte) '\n').put((byte) '\n').flip();
+            frame = buffer.asReadOnlyBuffer();
+            sseFrame = frame;
+        }
+        return frame;
+    }
+    
+    /**
+     * Unmasked WebSocket text frame, as sent from server to client
+     */
+    ByteBuffer webSocketFrame() {
+        ByteBuffer frame = webSocketFrame;
+        if (frame == null) {
+            frame = PushServer.webSocketFrame(PushServer.OPCODE_TEXT, json).asReadOnlyBuffer();
+            webSocketFrame = frame;
+        }
+        return frame;
+    }
+}
@@ -0,0 +1,364 @@
+package com.lolcoach.push;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Local push channel for overlays and second-screen apps. One selector thread serves
+ * every connection; clients subscribe with a plain GET for server-sent events or with
+ * a WebSocket upgrade. Each published event is serialized once and the same bytes are
+ * queued to every subscriber. A client whose queue exceeds its byte budget is
+ * disconnected so publishing never waits on a slow reader.
+ */
+public class PushServer implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(PushServer.class.getName());
+    
+    public static final int DEFAULT_PORT = 7373;
+    public static final int DEFAULT_CLIENT_BUFFER_BYTES = 256 * 1024;
+    public static final String EVENT_SCENARIO = "scenario";
+    public static final String EVENT_ADVICE = "advice";
+    
+    static final int OPCODE_TEXT = 0x1;
+    static final int OPCODE_PING = 0x9;
+    
+    private static final int MAX_REQUEST_BYTES = 8192;
+    // Keeps idle connections open through proxies and lets clients notice a dead server
+    private static final long HEARTBEAT_MILLIS = 15_000;
+    private static final String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final ByteBuffer SSE_HEARTBEAT =
+            ByteBuffer.wrap(": ping\n\n".getBytes(StandardCharsets.US_ASCII)).asReadOnlyBuffer();
+    private static final ByteBuffer WEBSOCKET_HEARTBEAT = webSocketFrame(OPCODE_PING, new byte[0]).asReadOnlyBuffer();
+    
+    private final int port;
+    private final int clientBufferBytes;
+    private final List<PushClient> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final ByteBuffer discard = ByteBuffer.allocate(1024);
+    
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    private volatile boolean running;
+    
+    public PushServer(int port) {
+        this(port, DEFAULT_CLIENT_BUFFER_BYTES);
+    }
+    
+    /**
+     * @param port Local port to listen on, 0 for any free port
+     * @param clientBufferBytes Bytes a client may fall behind before it is dropped
+     */
+    public PushServer(int port, int clientBufferBytes) {
+        this.port = port;
+        this.clientBufferBytes = clientBufferBytes;
+    }
+    
+    /**
+     * Binds to localhost and starts the selector thread
+     */
+    public void start() throws IOException {
+        // The first JSON serialization loads Jackson, which takes hundreds of ms; pay it here, not on first advice
+        new PushEvent("warmup", 0, Collections.singletonMap("advice", ""));
+        
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.bind(new InetSocketAddress("localhost", port));
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        
+        running = true;
+        selectorThread = new Thread(this::run, "push-server");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        LOGGER.info("Push server listening on http://localhost:" + getPort() + "/events");
+    }
+    
+    /**
+     * Serializes an event once and queues it to every subscriber. Never blocks on the network.
+     * @param type Event type, e.g. EVENT_ADVICE
+     * @param payload Object serialized as the event's JSON data
+     */
+    public void publish(String type, Object payload) {
+        if (!running || subscribers.isEmpty()) {
+            return;
+        }
+        PushEvent event;
+        try {
+            event = new PushEvent(type, sequence.incrementAndGet(), payload);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not serialize " + type + " event", e);
+            return;
+        }
+        
+        for (PushClient client : subscribers) {
+            client.enqueue(client.getProtocol() == PushClient.WEBSOCKET ? event.webSocketFrame() : event.sseFrame());
+        }
+        published.incrementAndGet();
+        selector.wakeup();
+    }
+    
+    public int getPort() {
+        try {
+            return serverChannel != null
+                    ? ((InetSocketAddress) serverChannel.getLocalAddress()).getPort() : port;
+        } catch (IOException e) {
+            return port;
+        }
+    }
+    
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+    
+    public long getPublishedCount() {
+        return published.get();
+    }
+    
+    /**
+     * Returns how many clients were disconnected for falling behind
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+    
+    @Override
+    public void close() {
+        running = false;
+        if (selector != null) {
+            selector.wakeup();
+        }
+        if (selectorThread != null) {
+            try {
+                selectorThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    private void run() {
+        long nextHeartbeat = System.currentTimeMillis() + HEARTBEAT_MILLIS;
+        try {
+            while (running) {
+                selector.select(HEARTBEAT_MILLIS);
+                
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            PushClient client = (PushClient) key.attachment();
+                            if (key.isReadable()) {
+                                read(client);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                write(client);
+                            }
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        LOGGER.fine("Push client error: " + e.getMessage());
+                        disconnect((PushClient) key.attachment());
+                    }
+                }
+                
+                long now = System.currentTimeMillis();
+                if (now >= nextHeartbeat) {
+                    for (PushClient client : subscribers) {
+                        client.enqueue(client.getProtocol() == PushClient.WEBSOCKET ? WEBSOCKET_HEARTBEAT : SSE_HEARTBEAT);
+                    }
+                    nextHeartbeat = now + HEARTBEAT_MILLIS;
+                }
+                
+                // Publishers only queue; interest in writes is changed here on the selector thread
+                for (PushClient client : subscribers) {
+                    if (client.isOverflowed()) {
+                        dropped.incrementAndGet();
+                        LOGGER.warning("Dropping slow push client " + client.channel.getRemoteAddress());
+                        disconnect(client);
+                    } else if (client.hasPending() && client.key.isValid()
+                            && (client.key.interestOps() & SelectionKey.OP_WRITE) == 0) {
+                        try {
+                            write(client);
+                        } catch (IOException e) {
+                            LOGGER.fine("Push client error: " + e.getMessage());
+                            disconnect(client);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Push server stopped", e);
+        } finally {
+            for (PushClient client : subscribers) {
+                disconnect(client);
+            }
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Error closing push server", e);
+            }
+        }
+    }
+    
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        key.attach(new PushClient(channel, key, MAX_REQUEST_BYTES, clientBufferBytes));
+    }
+    
+    private void read(PushClient client) throws IOException {
+        if (client.getProtocol() != PushClient.HANDSHAKE) {
+            // Subscribers have nothing to say; drain and watch for the close
+            discard.clear();
+            if (client.channel.read(discard) < 0) {
+                disconnect(client);
+            }
+            return;
+        }
+        
+        if (client.channel.read(client.request) < 0) {
+            disconnect(client);
+            return;
+        }
+        String request = new String(client.request.array(), 0, client.request.position(), StandardCharsets.ISO_8859_1);
+        if (!request.contains("\r\n\r\n")) {
+            if (!client.request.hasRemaining()) {
+                respondAndClose(client, "431 Request Header Fields Too Large");
+            }
+            return;
+        }
+        handshake(client, request);
+    }
+    
+    private void handshake(PushClient client, String request) throws IOException {
+        String[] lines = request.split("\r\n");
+        String[] requestLine = lines[0].split(" ");
+        if (requestLine.length < 2 || !"GET".equals(requestLine[0]) || !requestLine[1].startsWith("/events")) {
+            respondAndClose(client, "404 Not Found");
+            return;
+        }
+        
+        String webSocketKey = null;
+        boolean upgrade = false;
+        for (int i = 1; i < lines.length; i++) {
+            int colon = lines[i].indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String name = lines[i].substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = lines[i].substring(colon + 1).trim();
+            if (name.equals("upgrade") && value.equalsIgnoreCase("websocket")) {
+                upgrade = true;
+            } else if (name.equals("sec-websocket-key")) {
+                webSocketKey = value;
+            }
+        }
+        
+        String response;
+        if (upgrade && webSocketKey != null) {
+            response = "HTTP/1.1 101 Switching Protocols\r\n" +
+                       "Upgrade: websocket\r\n" +
+                       "Connection: Upgrade\r\n" +
+                       "Sec-WebSocket-Accept: " + acceptKey(webSocketKey) + "\r\n\r\n";
+            client.setProtocol(PushClient.WEBSOCKET);
+        } else {
+            response = "HTTP/1.1 200 OK\r\n" +
+                       "Content-Type: text/event-stream\r\n" +
+                       "Cache-Control: no-cache\r\n" +
+                       "Connection: keep-alive\r\n" +
+                       "Access-Control-Allow-Origin: *\r\n\r\n";
+            client.setProtocol(PushClient.SSE);
+        }
+        client.enqueue(ByteBuffer.wrap(response.getBytes(StandardCharsets.US_ASCII)));
+        subscribers.add(client);
+        write(client);
+        LOGGER.info("Push subscriber connected (" + (upgrade ? "WebSocket" : "SSE") + "), " +
+                   subscribers.size() + " total");
+    }
+    
+    private void respondAndClose(PushClient client, String status) throws IOException {
+        String response = "HTTP/1.1 " + status + "\r\nContent-Length: 0\r\nConnection: close\r\n\r\n";
+        client.channel.write(ByteBuffer.wrap(response.getBytes(StandardCharsets.US_ASCII)));
+        disconnect(client);
+    }
+    
+    private void write(PushClient client) throws IOException {
+        boolean drained = client.flush();
+        client.key.interestOps(drained ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }
+    
+    private void disconnect(PushClient client) {
+        if (client == null) {
+            return;
+        }
+        if (subscribers.remove(client)) {
+            LOGGER.info("Push subscriber disconnected, " + subscribers.size() + " remaining");
+        }
+        client.key.cancel();
+        try {
+            client.channel.close();
+        } catch (IOException e) {
+            LOGGER.fine("Error closing push client: " + e.getMessage());
+        }
+    }
+    
+    private static String acceptKey(String key) {
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            byte[] digest = sha1.digest((key + WEBSOCKET_GUID).getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+    
+    /**
+     * Builds an unmasked, unfragmented WebSocket frame
+     */
+    static ByteBuffer webSocketFrame(int opcode, byte[] payload) {
+        int headerBytes = payload.length < 126 ? 2 : payload.length <= 0xFFFF ? 4 : 10;
+        ByteBuffer frame = ByteBuffer.allocate(headerBytes + payload.length);
+        frame.put((byte) (0x80 | opcode));
+        if (payload.length < 126) {
+            frame.put((byte) payload.length);
+        } else if (payload.length <= 0xFFFF) {
+            frame.put((byte) 126).putShort((short) payload.length);
+        } else {
+            frame.put((byte) 127).putLong(payload.length);
+        }
+        frame.put(payload).flip();
+        return frame;
+    }
+}
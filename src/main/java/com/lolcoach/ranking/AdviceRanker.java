@@ -0,0 +1,179 @@
+package com.lolcoach.ranking;
+
+import com.lolcoach.model.Scenario;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Scores the parts of lane advice for a scenario with one logistic model per
+ * fragment, trained on match outcomes: a fragment's score is the log-odds of
+ * winning when the player followed it in a similar scenario. Weights live in
+ * one flat float array laid out fragment-major, so each score is a dot product
+ * over a contiguous run. Scoring and ranking use per-thread scratch buffers and
+ * don't allocate.
+ */
+public final class AdviceRanker {
+    static final int MAGIC = 0x4C43524D; // "LCRM"
+    static final int VERSION = 1;
+    
+    // Fragments always kept, best first
+    public static final int MIN_KEPT = 2;
+    // Fragments scoring this far below the best are left out
+    public static final float KEEP_MARGIN = 0.5f;
+    
+    private final String[] fragments;
+    private final float[] weights;
+    private final float[] bias;
+    
+    private final ThreadLocal<float[]> featureBuffer = ThreadLocal.withInitial(() -> new float[ScenarioFeatures.COUNT]);
+    private final ThreadLocal<float[]> scoreBuffer;
+    
+    /**
+     * @param fragments Fragment names in model order
+     * @param weights fragments * {@link ScenarioFeatures#COUNT} weights, indexed fragment * COUNT + feature
+     * @param bias One bias per fragment
+     */
+    AdviceRanker(String[] fragments, float[] weights, float[] bias) {
+        this.fragments = fragments;
+        this.weights = weights;
+        this.bias = bias;
+        this.scoreBuffer = ThreadLocal.withInitial(() -> new float[fragments.length]);
+    }
+    
+    /**
+     * Writes the score of every fragment, in {@link #getFragments()} order
+     */
+    public void score(Scenario scenario, float[] scores) {
+        float[] features = featureBuffer.get();
+        ScenarioFeatures.extract(scenario, features);
+        score(features, scores);
+    }
+    
+    /**
+     * Writes the score of every fragment for already extracted features
+     */
+    public void score(float[] features, float[] scores) {
+        int count = ScenarioFeatures.COUNT;
+        for (int f = 0; f < fragments.length; f++) {
+            int base = f * count;
+            float sum = bias[f];
+            for (int i = 0; i < count; i++) {
+                sum += weights[base + i] * features[i];
+            }
+            scores[f] = sum;
+        }
+    }
+    
+    /**
+     * Orders the fragments by score and decides how many are worth saying
+     * @param order Receives fragment indices, best first; at least {@link #getFragmentCount()} long
+     * @return Number of leading entries of {@code order} to keep
+     */
+    public int rank(Scenario scenario, int[] order) {
+        float[] scores = scoreBuffer.get();
+        score(scenario, scores);
+        
+        // Insertion sort: there are only a handful of fragments
+        for (int f = 0; f < fragments.length; f++) {
+            int slot = f;
+            while (slot > 0 && scores[order[slot - 1]] < scores[f]) {
+                order[slot] = order[slot - 1];
+                slot--;
+            }
+            order[slot] = f;
+        }
+        
+        int kept = Math.min(MIN_KEPT, fragments.length);
+        float threshold = fragments.length > 0 ? scores[order[0]] - KEEP_MARGIN : 0f;
+        while (kept < fragments.length && scores[order[kept]] >= threshold) {
+            kept++;
+        }
+        return kept;
+    }
+    
+    /**
+     * Index of a fragment in model order, or -1 if the model wasn't trained on it
+     */
+    public int indexOf(String fragment) {
+        for (int f = 0; f < fragments.length; f++) {
+            if (fragments[f].equals(fragment)) {
+                return f;
+            }
+        }
+        return -1;
+    }
+    
+    public String[] getFragments() {
+        return fragments.clone();
+    }
+    
+    public int getFragmentCount() {
+        return fragments.length;
+    }
+    
+    float[] getWeights() {
+        return weights;
+    }
+    
+    float[] getBias() {
+        return bias;
+    }
+    
+    public static AdviceRanker load(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return load(in);
+        }
+    }
+    
+    /**
+     * Reads a model written by {@link #save}
+     */
+    public static AdviceRanker load(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an advice ranking model");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported advice ranking model version: " + version);
+        }
+        int featureCount = in.readUnsignedShort();
+        if (featureCount != ScenarioFeatures.COUNT) {
+            throw new IOException("Model has " + featureCount + " features, this build extracts " +
+                                  ScenarioFeatures.COUNT + "; retrain it");
+        }
+        String[] fragments = new String[in.readUnsignedByte()];
+        float[] bias = new float[fragments.length];
+        float[] weights = new float[fragments.length * featureCount];
+        for (int f = 0; f < fragments.length; f++) {
+            fragments[f] = in.readUTF();
+            bias[f] = in.readFloat();
+            for (int i = 0; i < featureCount; i++) {
+                weights[f * featureCount + i] = in.readFloat();
+            }
+        }
+        return new AdviceRanker(fragments, weights, bias);
+    }
+    
+    public void save(OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeShort(ScenarioFeatures.COUNT);
+        out.writeByte(fragments.length);
+        for (int f = 0; f < fragments.length; f++) {
+            out.writeUTF(fragments[f]);
+            out.writeFloat(bias[f]);
+            for (int i = 0; i < ScenarioFeatures.COUNT; i++) {
+                out.writeFloat(weights[f * ScenarioFeatures.COUNT + i]);
+            }
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,130 @@
+package com.lolcoach.ranking;
+
+import com.lolcoach.model.Intent;
+import com.lolcoach.model.Scenario;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Measures advice ranking latency and allocation over a spread of scenarios.
+ * Without a model file it uses a random model of the same shape, which costs
+ * the same to evaluate.
+ *
+ * Usage:
+ * <pre>
+ * java com.lolcoach.ranking.RankerBenchmark [ranker.bin] [--enforce]
+ * </pre>
+ * {@code --enforce} exits non-zero if a ranking takes 20 us or more on average, or allocates.
+ */
+public class RankerBenchmark {
+    private static final String[] FRAGMENTS = {"LANE", "MATCHUP", "POWER", "SITUATION", "TIMING"};
+    private static final String[] LANES = {"top", "jungle", "mid", "bottom", "support", "unknown"};
+    private static final String[] SITUATIONS = {"ahead", "behind", "even", "winning", "losing", "dominating", "struggling"};
+    private static final int SCENARIOS = 256;
+    private static final int WARMUP_ITERATIONS = 500_000;
+    private static final int MEASURED_ITERATIONS = 2_000_000;
+    private static final long BUDGET_NANOS = 20_000;
+    
+    // Prevents the JIT from discarding benchmark results
+    private static long sink;
+    
+    public static void main(String[] args) throws Exception {
+        String modelFile = null;
+        boolean enforce = false;
+        for (String arg : args) {
+            if (arg.equals("--enforce")) {
+                enforce = true;
+            } else {
+                modelFile = arg;
+            }
+        }
+        AdviceRanker ranker = modelFile != null ? AdviceRanker.load(Paths.get(modelFile)) : randomModel();
+        Scenario[] scenarios = scenarios();
+        int[] order = new int[ranker.getFragmentCount()];
+        float[] scores = new float[ranker.getFragmentCount()];
+        
+        double scoreNanos = measure(() -> {
+            ranker.score(scenarios[(int) (sink & (SCENARIOS - 1))], scores);
+            return (long) scores[0];
+        });
+        long before = allocatedBytes();
+        double rankNanos = measure(() -> ranker.rank(scenarios[(int) (sink & (SCENARIOS - 1))], order) + order[0]);
+        long allocated = allocatedBytes() - before;
+        double bytesPerRank = allocated < 0 ? -1 : allocated / (double) (WARMUP_ITERATIONS + MEASURED_ITERATIONS);
+        
+        System.out.printf("Model: %s, %d fragments x %d features%n", modelFile != null ? modelFile : "random",
+                          ranker.getFragmentCount(), ScenarioFeatures.COUNT);
+        System.out.printf("Score all fragments  %8.1f ns/op%n", scoreNanos);
+        System.out.printf("Score and rank       %8.1f ns/op%n", rankNanos);
+        System.out.printf("Allocation per rank  %8s%n", bytesPerRank < 0 ? "n/a" : String.format("%.3f B", bytesPerRank));
+        System.out.println("(sink " + sink + ")");
+        
+        // Thread allocation counters are sampled, so allow a stray TLAB refill
+        if (enforce && (rankNanos >= BUDGET_NANOS || bytesPerRank > 0.01)) {
+            System.out.println("FAILED: ranking over budget or allocating");
+            System.exit(1);
+        }
+    }
+    
+    private interface Op {
+        long run();
+    }
+    
+    private static double measure(Op op) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += op.run() + 1;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink += op.run() + 1;
+        }
+        return (System.nanoTime() - start) / (double) MEASURED_ITERATIONS;
+    }
+    
+    /**
+     * Bytes allocated by this thread so far, or -1 if the JVM doesn't report it
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+    
+    private static AdviceRanker randomModel() {
+        Random random = new Random(42);
+        float[] weights = new float[FRAGMENTS.length * ScenarioFeatures.COUNT];
+        float[] bias = new float[FRAGMENTS.length];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = (float) random.nextGaussian() * 0.3f;
+        }
+        for (int f = 0; f < bias.length; f++) {
+            bias[f] = (float) random.nextGaussian() * 0.1f;
+        }
+        return new AdviceRanker(FRAGMENTS.clone(), weights, bias);
+    }
+    
+    private static Scenario[] scenarios() {
+        Random random = new Random(7);
+        Intent[] intents = Intent.values();
+        Scenario[] scenarios = new Scenario[SCENARIOS];
+        for (int i = 0; i < SCENARIOS; i++) {
+            Scenario scenario = new Scenario(LANES[random.nextInt(LANES.length)], random.nextInt(40), "Garen",
+                                             1 + random.nextInt(18), "Darius", 1 + random.nextInt(18),
+                                             SITUATIONS[random.nextInt(SITUATIONS.length)]);
+            scenario.setIntent(intents[random.nextInt(intents.length)]);
+            Map<String, Object> data = new HashMap<>();
+            if (random.nextBoolean()) {
+                data.put("items", new String[] {"Doran's Shield", "Boots of Speed"});
+                data.put("gold", random.nextInt(4000));
+            }
+            scenario.setAdditionalData(data);
+            scenarios[i] = scenario;
+        }
+        return scenarios;
+    }
+}
@@ -0,0 +1,350 @@
+package com.lolcoach.ranking;
+
+import com.lolcoach.model.Intent;
+import com.lolcoach.model.MatchData;
+import com.lolcoach.model.Scenario;
+import com.lolcoach.service.MatchStore;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Trains and evaluates the advice ranker from outcome-labeled matches in a
+ * match store. A match is used when its additionalData lists the advice
+ * fragments the player followed under "fragments" (e.g. {"MATCHUP", "POWER"});
+ * "time", "playerLevel", "enemyLevel", "intent", "items" and "gold" fill in
+ * the rest of the scenario. Each followed fragment is one example, labeled
+ * with the match outcome.
+ *
+ * Usage:
+ * <pre>
+ * java com.lolcoach.ranking.RankerTrainer train matches.bin ranker.bin
+ * java com.lolcoach.ranking.RankerTrainer eval matches.bin [folds]
+ * </pre>
+ */
+public class RankerTrainer {
+    private static final int EPOCHS = 20;
+    private static final float LEARNING_RATE = 0.05f;
+    private static final float L2 = 1e-4f;
+    private static final long SEED = 42;
+    
+    /**
+     * One followed fragment with the scenario it was followed in and whether the game was won
+     */
+    public static class Example {
+        private final float[] features;
+        private final int fragment;
+        private final boolean win;
+        
+        public Example(float[] features, int fragment, boolean win) {
+            this.features = features;
+            this.fragment = fragment;
+            this.win = win;
+        }
+        
+        public float[] getFeatures() { return features; }
+        public int getFragment() { return fragment; }
+        public boolean isWin() { return win; }
+    }
+    
+    /**
+     * Turns labeled matches into examples
+     * @param fragments Fragment names in model order; names not in it yet are appended
+     */
+    public static List<Example> examples(List<MatchData> matches, List<String> fragments) {
+        List<Example> examples = new ArrayList<>();
+        for (MatchData match : matches) {
+            String[] followed = followedFragments(match);
+            if (followed == null || match.getOutcome() == null) {
+                continue;
+            }
+            float[] features = new float[ScenarioFeatures.COUNT];
+            ScenarioFeatures.extract(toScenario(match), features);
+            boolean win = isWin(match.getOutcome());
+            for (String name : followed) {
+                int fragment = fragments.indexOf(name);
+                if (fragment < 0) {
+                    fragment = fragments.size();
+                    fragments.add(name);
+                }
+                examples.add(new Example(features, fragment, win));
+            }
+        }
+        return examples;
+    }
+    
+    /**
+     * Rebuilds the scenario a recorded match was advised in
+     */
+    public static Scenario toScenario(MatchData match) {
+        Map<String, Object> data = match.getAdditionalData();
+        Scenario scenario = new Scenario(match.getLane(), intValue(data, "time", 0), match.getPlayerChampion(),
+                                         intValue(data, "playerLevel", Scenario.UNKNOWN_LEVEL), match.getEnemyChampion(),
+                                         intValue(data, "enemyLevel", Scenario.UNKNOWN_LEVEL), match.getSituation());
+        Object intent = data != null ? data.get("intent") : null;
+        if (intent != null) {
+            try {
+                scenario.setIntent(Intent.valueOf(intent.toString()));
+            } catch (IllegalArgumentException e) {
+                // Intents from newer builds count as lane state
+            }
+        }
+        scenario.setAdditionalData(data);
+        return scenario;
+    }
+    
+    public static AdviceRanker train(List<MatchData> matches) {
+        List<String> fragments = new ArrayList<>();
+        List<Example> examples = examples(matches, fragments);
+        return train(examples, fragments.toArray(new String[0]), EPOCHS, SEED);
+    }
+    
+    /**
+     * Fits one L2-regularized logistic regression per fragment with plain SGD
+     */
+    public static AdviceRanker train(List<Example> examples, String[] fragments, int epochs, long seed) {
+        int count = ScenarioFeatures.COUNT;
+        float[] weights = new float[fragments.length * count];
+        float[] bias = new float[fragments.length];
+        
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < examples.size(); i++) {
+            order.add(i);
+        }
+        Random random = new Random(seed);
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            Collections.shuffle(order, random);
+            float rate = LEARNING_RATE / (1 + epoch * 0.1f);
+            for (int i : order) {
+                Example example = examples.get(i);
+                float[] x = example.getFeatures();
+                int base = example.getFragment() * count;
+                float z = bias[example.getFragment()];
+                for (int f = 0; f < count; f++) {
+                    z += weights[base + f] * x[f];
+                }
+                float gradient = sigmoid(z) - (example.isWin() ? 1 : 0);
+                bias[example.getFragment()] -= rate * gradient;
+                for (int f = 0; f < count; f++) {
+                    weights[base + f] -= rate * (gradient * x[f] + L2 * weights[base + f]);
+                }
+            }
+        }
+        return new AdviceRanker(fragments, weights, bias);
+    }
+    
+    /**
+     * k-fold cross-validation by match; prints log loss and AUC of the model against
+     * per-fragment base rates, and ranking speed
+     */
+    public static void evaluate(List<MatchData> matches, int folds) {
+        List<MatchData> shuffled = new ArrayList<>();
+        for (MatchData match : matches) {
+            if (followedFragments(match) != null && match.getOutcome() != null) {
+                shuffled.add(match);
+            }
+        }
+        if (shuffled.size() < folds) {
+            System.out.println("Only " + shuffled.size() + " labeled matches, need at least " + folds);
+            return;
+        }
+        Collections.shuffle(shuffled, new Random(SEED));
+        
+        // Fix the fragment order up front so every fold agrees on it
+        List<String> fragmentList = new ArrayList<>();
+        examples(shuffled, fragmentList);
+        String[] fragments = fragmentList.toArray(new String[0]);
+        
+        List<float[]> predictions = new ArrayList<>();
+        double modelLoss = 0;
+        double baselineLoss = 0;
+        int tested = 0;
+        for (int fold = 0; fold < folds; fold++) {
+            List<MatchData> trainMatches = new ArrayList<>();
+            List<MatchData> testMatches = new ArrayList<>();
+            for (int i = 0; i < shuffled.size(); i++) {
+                (i % folds == fold ? testMatches : trainMatches).add(shuffled.get(i));
+            }
+            List<Example> train = examples(trainMatches, fragmentList);
+            List<Example> test = examples(testMatches, fragmentList);
+            AdviceRanker ranker = train(train, fragments, EPOCHS, SEED);
+            double[] baseRates = baseRates(train, fragments.length);
+            
+            float[] scores = new float[fragments.length];
+            for (Example example : test) {
+                ranker.score(example.getFeatures(), scores);
+                double p = sigmoid(scores[example.getFragment()]);
+                double base = baseRates[example.getFragment()];
+                modelLoss += logLoss(p, example.isWin());
+                baselineLoss += logLoss(base, example.isWin());
+                predictions.add(new float[] {(float) p, (float) base, example.isWin() ? 1 : 0});
+                tested++;
+            }
+        }
+        
+        System.out.printf("%d labeled matches, %d examples, fragments %s%n", shuffled.size(), tested,
+                          Arrays.toString(fragments));
+        System.out.printf("%d-fold log loss: model %.4f, base rates %.4f%n", folds, modelLoss / tested,
+                          baselineLoss / tested);
+        System.out.printf("%d-fold AUC:      model %.3f, base rates %.3f%n", folds, auc(predictions, 0),
+                          auc(predictions, 1));
+        
+        AdviceRanker ranker = train(shuffled);
+        List<Scenario> scenarios = new ArrayList<>();
+        for (MatchData match : shuffled) {
+            scenarios.add(toScenario(match));
+        }
+        int[] order = new int[fragments.length];
+        int iterations = 1_000_000;
+        long sink = 0;
+        for (int i = 0; i < iterations; i++) {
+            sink += ranker.rank(scenarios.get(i % scenarios.size()), order) + order[0];
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += ranker.rank(scenarios.get(i % scenarios.size()), order) + order[0];
+        }
+        System.out.printf("Ranking: %.3f us per request (sink %d)%n",
+                          (System.nanoTime() - start) / 1e3 / iterations, sink);
+    }
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: RankerTrainer train <matches.bin> <ranker.bin> | eval <matches.bin> [folds]");
+            System.exit(2);
+        }
+        List<MatchData> matches = new MatchStore(Paths.get(args[1])).readAll();
+        
+        if (args[0].equals("train") && args.length >= 3) {
+            AdviceRanker ranker = train(matches);
+            Path modelFile = Paths.get(args[2]);
+            try (OutputStream out = Files.newOutputStream(modelFile)) {
+                ranker.save(out);
+            }
+            System.out.println("Trained on " + matches.size() + " matches, fragments " +
+                               Arrays.toString(ranker.getFragments()) + ", model written to " + modelFile);
+            printWeights(ranker);
+        } else if (args[0].equals("eval")) {
+            evaluate(matches, args.length >= 3 ? Integer.parseInt(args[2]) : 5);
+        } else {
+            System.err.println("Unknown command: " + args[0]);
+            System.exit(2);
+        }
+    }
+    
+    /**
+     * Prints each fragment's bias and its strongest features
+     */
+    private static void printWeights(AdviceRanker ranker) {
+        String[] names = ScenarioFeatures.names();
+        String[] fragments = ranker.getFragments();
+        int count = ScenarioFeatures.COUNT;
+        for (int f = 0; f < fragments.length; f++) {
+            Integer[] features = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                features[i] = i;
+            }
+            int base = f * count;
+            Arrays.sort(features, (a, b) -> Float.compare(Math.abs(ranker.getWeights()[base + b]),
+                                                          Math.abs(ranker.getWeights()[base + a])));
+            StringBuilder line = new StringBuilder(String.format("  %-10s bias %+.2f", fragments[f], ranker.getBias()[f]));
+            for (int i = 0; i < Math.min(4, count); i++) {
+                line.append(String.format(", %s %+.2f", names[features[i]], ranker.getWeights()[base + features[i]]));
+            }
+            System.out.println(line);
+        }
+    }
+    
+    private static double[] baseRates(List<Example> examples, int fragments) {
+        double[] wins = new double[fragments];
+        double[] games = new double[fragments];
+        for (Example example : examples) {
+            games[example.getFragment()]++;
+            wins[example.getFragment()] += example.isWin() ? 1 : 0;
+        }
+        double[] rates = new double[fragments];
+        for (int f = 0; f < fragments; f++) {
+            rates[f] = (wins[f] + 1) / (games[f] + 2);
+        }
+        return rates;
+    }
+    
+    /**
+     * Area under the ROC curve of one prediction column against the label in column 2
+     */
+    private static double auc(List<float[]> predictions, int column) {
+        List<float[]> sorted = new ArrayList<>(predictions);
+        sorted.sort((a, b) -> Float.compare(a[column], b[column]));
+        double positives = 0;
+        double rankSum = 0;
+        int i = 0;
+        while (i < sorted.size()) {
+            // Tied predictions share their average rank
+            int j = i;
+            while (j < sorted.size() && sorted.get(j)[column] == sorted.get(i)[column]) {
+                j++;
+            }
+            double rank = (i + 1 + j) / 2.0;
+            for (int k = i; k < j; k++) {
+                if (sorted.get(k)[2] > 0) {
+                    positives++;
+                    rankSum += rank;
+                }
+            }
+            i = j;
+        }
+        double negatives = sorted.size() - positives;
+        if (positives == 0 || negatives == 0) {
+            return 0.5;
+        }
+        return (rankSum - positives * (positives + 1) / 2) / (positives * negatives);
+    }
+    
+    private static double logLoss(double p, boolean win) {
+        double clamped = Math.max(1e-6, Math.min(1 - 1e-6, p));
+        return -Math.log(win ? clamped : 1 - clamped);
+    }
+    
+    private static float sigmoid(float z) {
+        return (float) (1 / (1 + Math.exp(-z)));
+    }
+    
+    private static String[] followedFragments(MatchData match) {
+        Object value = match.getAdditionalData() != null ? match.getAdditionalData().get("fragments") : null;
+        String[] names = null;
+        if (value instanceof String[]) {
+            names = ((String[]) value).clone();
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            names = new String[list.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = String.valueOf(list.get(i));
+            }
+        }
+        if (names == null || names.length == 0) {
+            return null;
+        }
+        for (int i = 0; i < names.length; i++) {
+            names[i] = names[i].trim().toUpperCase();
+        }
+        return names;
+    }
+    
+    private static int intValue(Map<String, Object> data, String key, int fallback) {
+        Object value = data != null ? data.get(key) : null;
+        return value instanceof Number ? ((Number) value).intValue() : fallback;
+    }
+    
+    private static boolean isWin(String outcome) {
+        String value = outcome.toLowerCase();
+        return value.equals("victory") || value.equals("win") || value.equals("won");
+    }
+}
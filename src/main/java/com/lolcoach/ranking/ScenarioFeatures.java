@@ -0,0 +1,107 @@
+package com.lolcoach.ranking;
+
+import com.lolcoach.model.Intent;
+import com.lolcoach.model.Scenario;
+import java.util.Map;
+
+/**
+ * Dense numeric features of a scenario for the advice ranker. Extraction
+ * compares against constant tables instead of lower-casing or splitting
+ * strings, so it doesn't allocate.
+ */
+public final class ScenarioFeatures {
+    private static final String[] LANES = {"top", "jungle", "mid", "bottom", "support"};
+    private static final String[] SITUATIONS = {"dominating", "ahead", "winning", "even", "losing", "behind", "struggling"};
+    // Game phases end at these minutes, as in the timing advice
+    private static final int[] PHASE_ENDS = {5, 15, 25};
+    // Gold for at least one component on the next back
+    private static final int SPENDABLE_GOLD = 1300;
+    
+    private static final int LANE_OFFSET = 0;
+    private static final int SITUATION_OFFSET = LANE_OFFSET + LANES.length;
+    private static final int PHASE_OFFSET = SITUATION_OFFSET + SITUATIONS.length;
+    private static final int LEVEL_DIFFERENCE_OFFSET = PHASE_OFFSET + PHASE_ENDS.length + 1;
+    private static final int PLAYER_LEVEL = LEVEL_DIFFERENCE_OFFSET + 5;
+    private static final int ULTIMATE_LEAD = PLAYER_LEVEL + 1;
+    private static final int INTENT_OFFSET = ULTIMATE_LEAD + 1;
+    private static final int HAS_ITEMS = INTENT_OFFSET + Intent.values().length;
+    private static final int HAS_GOLD = HAS_ITEMS + 1;
+    
+    public static final int COUNT = HAS_GOLD + 1;
+    
+    private ScenarioFeatures() {}
+    
+    /**
+     * Writes the features of a scenario
+     * @param out At least {@link #COUNT} values; every one is overwritten
+     */
+    public static void extract(Scenario scenario, float[] out) {
+        for (int i = 0; i < COUNT; i++) {
+            out[i] = 0f;
+        }
+        oneHot(scenario.getLane(), LANES, out, LANE_OFFSET);
+        oneHot(scenario.getSituation(), SITUATIONS, out, SITUATION_OFFSET);
+        
+        int phase = 0;
+        while (phase < PHASE_ENDS.length && scenario.getTime() >= PHASE_ENDS[phase]) {
+            phase++;
+        }
+        out[PHASE_OFFSET + phase] = 1f;
+        
+        // Level difference in five buckets: two or more behind ... two or more ahead; even unless both were stated
+        boolean levels = scenario.hasLevels();
+        int difference = levels ? Math.max(-2, Math.min(2, scenario.getPlayerLevel() - scenario.getEnemyLevel())) : 0;
+        out[LEVEL_DIFFERENCE_OFFSET + difference + 2] = 1f;
+        out[PLAYER_LEVEL] = Math.min(18, Math.max(1, scenario.getPlayerLevel())) / 18f;
+        out[ULTIMATE_LEAD] = levels ? (scenario.getPlayerLevel() >= 6 ? 1f : 0f) - (scenario.getEnemyLevel() >= 6 ? 1f : 0f) : 0f;
+        
+        if (scenario.getIntent() != null) {
+            out[INTENT_OFFSET + scenario.getIntent().ordinal()] = 1f;
+        }
+        Map<String, Object> data = scenario.getAdditionalData();
+        if (data != null) {
+            out[HAS_ITEMS] = data.get("items") != null ? 1f : 0f;
+            Object gold = data.get("gold");
+            out[HAS_GOLD] = gold instanceof Number && ((Number) gold).intValue() >= SPENDABLE_GOLD ? 1f : 0f;
+        }
+    }
+    
+    /**
+     * Human-readable name of each feature, for model inspection
+     */
+    public static String[] names() {
+        String[] names = new String[COUNT];
+        for (int i = 0; i < LANES.length; i++) {
+            names[LANE_OFFSET + i] = "lane=" + LANES[i];
+        }
+        for (int i = 0; i < SITUATIONS.length; i++) {
+            names[SITUATION_OFFSET + i] = "situation=" + SITUATIONS[i];
+        }
+        for (int i = 0; i <= PHASE_ENDS.length; i++) {
+            names[PHASE_OFFSET + i] = "phase=" + i;
+        }
+        for (int i = 0; i < 5; i++) {
+            names[LEVEL_DIFFERENCE_OFFSET + i] = "levelDifference=" + (i - 2);
+        }
+        names[PLAYER_LEVEL] = "playerLevel";
+        names[ULTIMATE_LEAD] = "ultimateLead";
+        for (Intent intent : Intent.values()) {
+            names[INTENT_OFFSET + intent.ordinal()] = "intent=" + intent;
+        }
+        names[HAS_ITEMS] = "hasItems";
+        names[HAS_GOLD] = "hasGold";
+        return names;
+    }
+    
+    private static void oneHot(String value, String[] values, float[] out, int offset) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].equalsIgnoreCase(value)) {
+                out[offset + i] = 1f;
+                return;
+            }
+        }
+    }
+}
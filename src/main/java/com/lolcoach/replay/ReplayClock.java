@@ -0,0 +1,38 @@
+package com.lolcoach.replay;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * Clock that only moves when the replayer advances it to a recorded timestamp,
+ * so time-dependent services see the same instants on every replay.
+ */
+public class ReplayClock extends Clock {
+    private final ZoneId zone;
+    private volatile Instant instant;
+    
+    public ReplayClock(Instant start, ZoneId zone) {
+        this.instant = start;
+        this.zone = zone;
+    }
+    
+    public void set(Instant instant) {
+        this.instant = instant;
+    }
+    
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+    
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new ReplayClock(instant, zone);
+    }
+    
+    @Override
+    public Instant instant() {
+        return instant;
+    }
+}
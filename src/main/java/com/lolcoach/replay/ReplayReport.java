@@ -0,0 +1,142 @@
+package com.lolcoach.replay;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Advice differences and latency comparison between a recorded session and its replay
+ */
+public class ReplayReport {
+    private final double regressionFactor;
+    private final long regressionFloorNanos;
+    private final List<Turn> turns = new ArrayList<>();
+    
+    /**
+     * @param regressionFactor A turn regresses when replayed latency exceeds recorded latency by this factor
+     * @param regressionFloorNanos Minimum absolute slowdown counted as a regression, to ignore timer noise
+     */
+    public ReplayReport(double regressionFactor, long regressionFloorNanos) {
+        this.regressionFactor = regressionFactor;
+        this.regressionFloorNanos = regressionFloorNanos;
+    }
+    
+    void addTurn(Turn turn) {
+        turns.add(turn);
+    }
+    
+    public List<Turn> getTurns() {
+        return turns;
+    }
+    
+    public int getAdviceMismatches() {
+        int count = 0;
+        for (Turn turn : turns) {
+            if (!turn.adviceMatches()) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    public int getLatencyRegressions() {
+        int count = 0;
+        for (Turn turn : turns) {
+            if (isRegression(turn)) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    public boolean isRegression(Turn turn) {
+        long slowdown = turn.getReplayedNanos() - turn.getRecordedNanos();
+        return slowdown > regressionFloorNanos
+                && turn.getReplayedNanos() > turn.getRecordedNanos() * regressionFactor;
+    }
+    
+    public boolean passed() {
+        return getAdviceMismatches() == 0 && getLatencyRegressions() == 0;
+    }
+    
+    /**
+     * Human-readable summary with per-turn details for mismatches and regressions
+     */
+    public String format() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("Replayed %d turns: %d advice mismatches, %d latency regressions%n",
+                                    turns.size(), getAdviceMismatches(), getLatencyRegressions()));
+        
+        long[] recorded = new long[turns.size()];
+        long[] replayed = new long[turns.size()];
+        for (int i = 0; i < turns.size(); i++) {
+            recorded[i] = turns.get(i).getRecordedNanos();
+            replayed[i] = turns.get(i).getReplayedNanos();
+        }
+        report.append(String.format("Latency (us)     p50      p95      max%n"));
+        report.append(formatPercentiles("  recorded", recorded));
+        report.append(formatPercentiles("  replayed", replayed));
+        
+        for (Turn turn : turns) {
+            if (!turn.adviceMatches()) {
+                report.append(String.format("%nTurn %d advice differs for input: %s%n", turn.getIndex(), turn.getInput()));
+                report.append("  - recorded: ").append(turn.getRecordedAdvice()).append(System.lineSeparator());
+                report.append("  + replayed: ").append(turn.getReplayedAdvice()).append(System.lineSeparator());
+            }
+            if (isRegression(turn)) {
+                report.append(String.format("%nTurn %d latency regressed: %d us -> %d us%n", turn.getIndex(),
+                                            turn.getRecordedNanos() / 1000, turn.getReplayedNanos() / 1000));
+            }
+        }
+        return report.toString();
+    }
+    
+    private static String formatPercentiles(String label, long[] values) {
+        if (values.length == 0) {
+            return String.format("%-12s %8s %8s %8s%n", label, "-", "-", "-");
+        }
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return String.format("%-12s %8d %8d %8d%n", label,
+                             percentile(sorted, 0.50) / 1000, percentile(sorted, 0.95) / 1000,
+                             sorted[sorted.length - 1] / 1000);
+    }
+    
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+    
+    /**
+     * Comparison of one recorded turn with its replay
+     */
+    public static class Turn {
+        private final int index;
+        private final String input;
+        private final String recordedAdvice;
+        private final String replayedAdvice;
+        private final long recordedNanos;
+        private final long replayedNanos;
+        
+        public Turn(int index, String input, String recordedAdvice, String replayedAdvice,
+                    long recordedNanos, long replayedNanos) {
+            this.index = index;
+            this.input = input;
+            this.recordedAdvice = recordedAdvice;
+            this.replayedAdvice = replayedAdvice;
+            this.recordedNanos = recordedNanos;
+            this.replayedNanos = replayedNanos;
+        }
+        
+        public int getIndex() { return index; }
+        public String getInput() { return input; }
+        public String getRecordedAdvice() { return recordedAdvice; }
+        public String getReplayedAdvice() { return replayedAdvice; }
+        public long getRecordedNanos() { return recordedNanos; }
+        public long getReplayedNanos() { return replayedNanos; }
+        
+        public boolean adviceMatches() {
+            return recordedAdvice == null ? replayedAdvice == null : recordedAdvice.equals(replayedAdvice);
+        }
+    }
+}
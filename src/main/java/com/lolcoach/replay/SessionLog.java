@@ -0,0 +1,117 @@
+package com.lolcoach.replay;
+
+import com.lolcoach.codec.MapCodec;
+import com.lolcoach.codec.ScenarioCodec;
+import com.lolcoach.model.Scenario;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * On-disk format of a recorded coaching session.
+ *
+ * A log starts with a header (magic, version, session start in epoch millis)
+ * followed by entries of the form:
+ * <pre>
+ * byte  kind
+ * long  offset from session start (nanos)
+ * long  stage latency (nanos, 0 for inputs)
+ * int   payload length
+ * ...   payload
+ * </pre>
+ * Scenarios are stored with {@link ScenarioCodec}, live data with {@link MapCodec}
+ * and text as UTF-8.
+ */
+public final class SessionLog {
+    static final int MAGIC = 0x4C43524C; // "LCRL"
+    static final byte VERSION = 1;
+    static final int HEADER_SIZE = 4 + 1 + 8;
+    static final int ENTRY_HEADER_SIZE = 1 + 8 + 8 + 4;
+    
+    // Entry kinds, one per pipeline stage input or output
+    public static final byte INPUT = 1;
+    public static final byte PARSED = 2;
+    public static final byte LIVE_DATA = 3;
+    public static final byte ENRICHED = 4;
+    public static final byte ADVICE = 5;
+    
+    private final long startEpochMillis;
+    private final List<Entry> entries;
+    
+    private SessionLog(long startEpochMillis, List<Entry> entries) {
+        this.startEpochMillis = startEpochMillis;
+        this.entries = entries;
+    }
+    
+    public long getStartEpochMillis() { return startEpochMillis; }
+    public List<Entry> getEntries() { return entries; }
+    
+    /**
+     * Reads a complete session log. A truncated trailing entry, e.g. from a
+     * crash mid-write, is ignored.
+     */
+    public static SessionLog read(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a session log: " + file);
+        }
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported session log version: " + version);
+        }
+        long startEpochMillis = buffer.getLong();
+        
+        List<Entry> entries = new ArrayList<>();
+        while (buffer.remaining() >= ENTRY_HEADER_SIZE) {
+            byte kind = buffer.get();
+            long offsetNanos = buffer.getLong();
+            long latencyNanos = buffer.getLong();
+            int length = buffer.getInt();
+            if (length > buffer.remaining()) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            entries.add(new Entry(kind, offsetNanos, latencyNanos, payload));
+        }
+        return new SessionLog(startEpochMillis, entries);
+    }
+    
+    /**
+     * One recorded stage input or output
+     */
+    public static final class Entry {
+        private final byte kind;
+        private final long offsetNanos;
+        private final long latencyNanos;
+        private final byte[] payload;
+        
+        Entry(byte kind, long offsetNanos, long latencyNanos, byte[] payload) {
+            this.kind = kind;
+            this.offsetNanos = offsetNanos;
+            this.latencyNanos = latencyNanos;
+            this.payload = payload;
+        }
+        
+        public byte getKind() { return kind; }
+        public long getOffsetNanos() { return offsetNanos; }
+        public long getLatencyNanos() { return latencyNanos; }
+        
+        public String getText() {
+            return new String(payload, StandardCharsets.UTF_8);
+        }
+        
+        public Scenario getScenario() {
+            return ScenarioCodec.decode(payload);
+        }
+        
+        public Map<String, Object> getLiveData() {
+            return MapCodec.decode(payload);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.lolcoach.replay;
+
+import com.lolcoach.codec.MapCodec;
+import com.lolcoach.codec.ScenarioCodec;
+import com.lolcoach.model.Scenario;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.logging.Level;
+
+/**
+ * Writes each pipeline stage's inputs and outputs to an append-only session log.
+ * Recording failures are logged and disable the recorder; they never interrupt coaching.
+ */
+public class SessionRecorder implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(SessionRecorder.class.getName());
+    
+    private final Path file;
+    private final long startNanos;
+    private DataOutputStream out;
+    
+    public SessionRecorder(Path file) throws IOException {
+        this.file = file;
+        this.startNanos = System.nanoTime();
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file.toFile())));
+        out.writeInt(SessionLog.MAGIC);
+        out.writeByte(SessionLog.VERSION);
+        out.writeLong(System.currentTimeMillis());
+        out.flush();
+        LOGGER.info("Recording session to: " + file);
+    }
+    
+    public Path getFile() {
+        return file;
+    }
+    
+    public void recordInput(String text) {
+        write(SessionLog.INPUT, 0, text.getBytes(StandardCharsets.UTF_8), false);
+    }
+    
+    public void recordParsed(Scenario scenario, long latencyNanos) {
+        write(SessionLog.PARSED, latencyNanos, ScenarioCodec.encode(scenario), false);
+    }
+    
+    public void recordLiveData(Map<String, Object> liveData) {
+        write(SessionLog.LIVE_DATA, 0, MapCodec.encode(liveData), false);
+    }
+    
+    public void recordEnriched(Scenario scenario, long latencyNanos) {
+        write(SessionLog.ENRICHED, latencyNanos, ScenarioCodec.encode(scenario), false);
+    }
+    
+    /**
+     * Records the advice and flushes, so a crash loses at most the current turn
+     */
+    public void recordAdvice(String advice, long latencyNanos) {
+        write(SessionLog.ADVICE, latencyNanos, advice.getBytes(StandardCharsets.UTF_8), true);
+    }
+    
+    private synchronized void write(byte kind, long latencyNanos, byte[] payload, boolean flush) {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.writeByte(kind);
+            out.writeLong(System.nanoTime() - startNanos);
+            out.writeLong(latencyNanos);
+            out.writeInt(payload.length);
+            out.write(payload);
+            if (flush) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error writing session log, recording disabled", e);
+            closeQuietly();
+        }
+    }
+    
+    @Override
+    public synchronized void close() {
+        if (out != null) {
+            closeQuietly();
+            LOGGER.info("Session recording closed: " + file);
+        }
+    }
+    
+    private void closeQuietly() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Error closing session log", e);
+        } finally {
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.lolcoach.replay;
+
+import com.lolcoach.CoachPipeline;
+import com.lolcoach.SessionContext;
+import com.lolcoach.Parser;
+import com.lolcoach.PipelineResult;
+import com.lolcoach.api.RiotApiService;
+import com.lolcoach.service.TacticsService;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Drives the coaching pipeline from a recorded session log, at real-time,
+ * accelerated or maximum speed, and compares the output with the recording.
+ *
+ * Usage:
+ * <pre>
+ * java com.lolcoach.replay.SessionReplayer session.log [1x|Nx|max] [--record out.log] [--threshold 1.5] [--stateless]
+ * </pre>
+ * Exits with status 1 when advice differs or latency regressed, so it can gate a build.
+ */
+public class SessionReplayer {
+    private static final Logger LOGGER = Logger.getLogger(SessionReplayer.class.getName());
+    
+    // Slowdowns below this are treated as timer noise
+    private static final long REGRESSION_FLOOR_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+    
+    private final CoachPipeline pipeline;
+    private final ReplayClock clock;
+    
+    /**
+     * @param pipeline Pipeline under test
+     * @param clock Clock used by the pipeline's services; advanced to each turn's recorded time
+     */
+    public SessionReplayer(CoachPipeline pipeline, ReplayClock clock) {
+        this.pipeline = pipeline;
+        this.clock = clock;
+    }
+    
+    /**
+     * Replays every complete turn of a session
+     * @param log The recorded session
+     * @param speed Playback speed multiplier, or 0 to run as fast as possible
+     * @param report Report receiving the per-turn comparison
+     */
+    public void replay(SessionLog log, double speed, ReplayReport report) {
+        List<RecordedTurn> turns = collectTurns(log);
+        LOGGER.info("Replaying " + turns.size() + " turns at " + (speed > 0 ? speed + "x" : "max") + " speed");
+        
+        Instant sessionStart = Instant.ofEpochMilli(log.getStartEpochMillis());
+        long replayStart = System.nanoTime();
+        long firstOffset = turns.isEmpty() ? 0 : turns.get(0).offsetNanos;
+        
+        for (int i = 0; i < turns.size(); i++) {
+            RecordedTurn turn = turns.get(i);
+            if (speed > 0) {
+                long due = replayStart + (long) ((turn.offsetNanos - firstOffset) / speed);
+                sleepUntil(due);
+            }
+            clock.set(sessionStart.plusNanos(turn.offsetNanos));
+            
+            PipelineResult result = pipeline.process(turn.input, turn.liveData);
+            report.addTurn(new ReplayReport.Turn(i, turn.input, turn.advice, result.getAdvice(),
+                                                 turn.latencyNanos, result.getTotalNanos()));
+        }
+    }
+    
+    private List<RecordedTurn> collectTurns(SessionLog log) {
+        List<RecordedTurn> turns = new ArrayList<>();
+        RecordedTurn current = null;
+        for (SessionLog.Entry entry : log.getEntries()) {
+            switch (entry.getKind()) {
+                case SessionLog.INPUT:
+                    current = new RecordedTurn(entry.getText(), entry.getOffsetNanos());
+                    break;
+                case SessionLog.LIVE_DATA:
+                    if (current != null) {
+                        current.liveData = entry.getLiveData();
+                    }
+                    break;
+                case SessionLog.PARSED:
+                case SessionLog.ENRICHED:
+                    if (current != null) {
+                        current.latencyNanos += entry.getLatencyNanos();
+                    }
+                    break;
+                case SessionLog.ADVICE:
+                    if (current != null) {
+                        current.latencyNanos += entry.getLatencyNanos();
+                        current.advice = entry.getText();
+                        turns.add(current);
+                        current = null;
+                    }
+                    break;
+                default:
+                    LOGGER.warning("Skipping unknown session log entry kind: " + entry.getKind());
+            }
+        }
+        if (current != null) {
+            LOGGER.warning("Ignoring incomplete final turn: " + current.input);
+        }
+        return turns;
+    }
+    
+    private static void sleepUntil(long dueNanos) {
+        long remaining = dueNanos - System.nanoTime();
+        if (remaining > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    private static double parseSpeed(String value) {
+        if (value.equalsIgnoreCase("max")) {
+            return 0;
+        }
+        if (value.toLowerCase().endsWith("x")) {
+            value = value.substring(0, value.length() - 1);
+        }
+        return Double.parseDouble(value);
+    }
+    
+    /**
+     * A recorded input together with the outputs it produced
+     */
+    private static class RecordedTurn {
+        private final String input;
+        private final long offsetNanos;
+        private Map<String, Object> liveData;
+        private String advice;
+        private long latencyNanos;
+        
+        RecordedTurn(String input, long offsetNanos) {
+            this.input = input;
+            this.offsetNanos = offsetNanos;
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: SessionReplayer <session.log> [1x|Nx|max] [--record out.log] [--threshold 1.5] [--stateless]");
+            System.exit(2);
+        }
+        
+        Path logFile = Paths.get(args[0]);
+        double speed = 0;
+        Path recordFile = null;
+        double threshold = 1.5;
+        boolean stateless = false;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--record") && i + 1 < args.length) {
+                recordFile = Paths.get(args[++i]);
+            } else if (args[i].equals("--threshold") && i + 1 < args.length) {
+                threshold = Double.parseDouble(args[++i]);
+            } else if (args[i].equals("--stateless")) {
+                // Sessions recorded before conversation context was added parse each turn on its own
+                stateless = true;
+            } else {
+                speed = parseSpeed(args[i]);
+            }
+        }
+        
+        SessionLog log = SessionLog.read(logFile);
+        ReplayClock clock = new ReplayClock(Instant.ofEpochMilli(log.getStartEpochMillis()), ZoneId.systemDefault());
+        TacticsService tacticsService = new TacticsService();
+        CoachPipeline pipeline = new CoachPipeline(new Parser(), new RiotApiService(), tacticsService);
+        if (!stateless) {
+            SessionContext context = new SessionContext();
+            context.setClock(clock);
+            pipeline.setSessionContext(context);
+        }
+        
+        SessionRecorder recorder = recordFile != null ? new SessionRecorder(recordFile) : null;
+        pipeline.setRecorder(recorder);
+        
+        ReplayReport report = new ReplayReport(threshold, REGRESSION_FLOOR_NANOS);
+        try {
+            new SessionReplayer(pipeline, clock).replay(log, speed, report);
+        } finally {
+            if (recorder != null) {
+                recorder.close();
+            }
+        }
+        
+        System.out.println(report.format());
+        System.exit(report.passed() ? 0 : 1);
+    }
+}
@@ -0,0 +1,79 @@
+package com.lolcoach.service;
+
+import com.lolcoach.jfr.CoachEvents;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The parts of general lane advice generated for one session, each kept with the
+ * inputs it was generated from. A fragment is regenerated only when its inputs change.
+ */
+public class AdviceFragments {
+    
+    /**
+     * The independently generated parts of lane advice, in output order
+     */
+    public enum Fragment {
+        LANE,
+        MATCHUP,
+        POWER,
+        SITUATION,
+        TIMING,
+        PROFILE
+    }
+    
+    private final String[] texts = new String[Fragment.values().length];
+    private final Object[] firstInputs = new Object[Fragment.values().length];
+    private final Object[] secondInputs = new Object[Fragment.values().length];
+    private final Set<Fragment> regenerated = EnumSet.noneOf(Fragment.class);
+    
+    /**
+     * Returns a fragment's text if it was generated from the same inputs, otherwise null
+     */
+    public synchronized String get(Fragment fragment, Object firstInput, Object secondInput) {
+        int index = fragment.ordinal();
+        boolean hit = texts[index] != null && Objects.equals(firstInputs[index], firstInput)
+                && Objects.equals(secondInputs[index], secondInput);
+        CoachEvents.cacheLookup(CoachEvents.CACHE_FRAGMENT, fragment, hit);
+        return hit ? texts[index] : null;
+    }
+    
+    public synchronized void put(Fragment fragment, Object firstInput, Object secondInput, String text) {
+        int index = fragment.ordinal();
+        texts[index] = text;
+        firstInputs[index] = firstInput;
+        secondInputs[index] = secondInput;
+        regenerated.add(fragment);
+    }
+    
+    /**
+     * Returns a fragment's last generated text, or null
+     */
+    public synchronized String getText(Fragment fragment) {
+        return texts[fragment.ordinal()];
+    }
+    
+    /**
+     * Starts a new round of advice; fragments put after this count as regenerated
+     */
+    public synchronized void beginRound() {
+        regenerated.clear();
+    }
+    
+    /**
+     * Returns the fragments regenerated in the current round
+     */
+    public synchronized Set<Fragment> getRegenerated() {
+        return regenerated.isEmpty() ? EnumSet.noneOf(Fragment.class) : EnumSet.copyOf(regenerated);
+    }
+    
+    public synchronized void clear() {
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = null;
+            firstInputs[i] = null;
+            secondInputs[i] = null;
+        }
+        regenerated.clear();
+    }
+}
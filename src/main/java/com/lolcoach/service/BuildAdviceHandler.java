@@ -0,0 +1,76 @@
+package com.lolcoach.service;
+
+import com.lolcoach.model.Scenario;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Answers "what should I build" from the enemy's damage profile and the lane state,
+ * led by a concrete next item when a build recommender is available
+ */
+public class BuildAdviceHandler implements IntentHandler {
+    // Dominant threat of known enemy champions
+    private final Map<String, String> enemyThreats = new HashMap<>();
+    private final BuildRecommender recommender;
+    
+    public BuildAdviceHandler() {
+        this(null);
+    }
+    
+    public BuildAdviceHandler(BuildRecommender recommender) {
+        this.recommender = recommender;
+        enemyThreats.put("darius", "healing");
+        enemyThreats.put("fiora", "healing");
+        enemyThreats.put("garen", "physical");
+        enemyThreats.put("zed", "physical");
+        enemyThreats.put("yasuo", "physical");
+        enemyThreats.put("jinx", "physical");
+        enemyThreats.put("teemo", "magic");
+        enemyThreats.put("ahri", "magic");
+        enemyThreats.put("syndra", "magic");
+        enemyThreats.put("annie", "magic");
+    }
+    
+    @Override
+    public String handle(Scenario scenario) {
+        StringBuilder advice = new StringBuilder();
+        
+        if (recommender != null) {
+            BuildRecommender.Recommendation next =
+                    recommender.recommendNext(scenario.getAdditionalData(), scenario.getEnemyChampion());
+            if (next != null) {
+                advice.append("Buy ").append(next.getItem()).append(" next, it wins ")
+                      .append(Math.round(next.getWinRate() * 100)).append("% of ")
+                      .append(next.getGames()).append(" similar games. ");
+            }
+        }
+        
+        String threat = enemyThreats.get(scenario.getEnemyChampion().toLowerCase());
+        if ("healing".equals(threat)) {
+            advice.append("Pick up an anti-heal component early to cut ").append(scenario.getEnemyChampion())
+                  .append("'s sustain. ");
+        } else if ("physical".equals(threat)) {
+            advice.append("Add armor, starting with Plated Steelcaps or a cheap armor component. ");
+        } else if ("magic".equals(threat)) {
+            advice.append("Add magic resist, starting with Mercury's Treads or a Null-Magic Mantle. ");
+        } else {
+            advice.append("Check the enemy's main damage type and build resistances against it. ");
+        }
+        
+        switch (scenario.getSituation().toLowerCase()) {
+            case "ahead":
+            case "winning":
+            case "dominating":
+                advice.append("You're ahead, finish your core damage item to snowball the lead.");
+                break;
+            case "behind":
+            case "losing":
+            case "struggling":
+                advice.append("You're behind, buy cheap defensive components instead of saving for a big item.");
+                break;
+            default:
+                advice.append("Complete your core item before extra components.");
+        }
+        return advice.toString();
+    }
+}
@@ -0,0 +1,368 @@
+package com.lolcoach.service;
+
+import com.lolcoach.model.MatchData;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Recommends the next item from item co-occurrence and win rates in the local match corpus.
+ * Counts live in flat int matrices indexed by item id. For every owned item (and for every
+ * enemy champion) the best follow-up items are kept pre-ranked, so a query only merges a
+ * handful of short rows. Ingesting a match re-ranks just the rows it touched.
+ */
+public class BuildRecommender {
+    private static final Logger LOGGER = Logger.getLogger(BuildRecommender.class.getName());
+    
+    public static final int MAX_ITEMS = 256;
+    public static final int MAX_CHAMPIONS = 256;
+    public static final int MAX_INVENTORY = 6;
+    // Follow-up items kept per row
+    public static final int TOP_K = 8;
+    // Games needed before a pair is trusted as a recommendation
+    public static final int MIN_GAMES = 2;
+    // Pseudo-games pulling sparse win rates towards 50%
+    private static final double PRIOR_GAMES = 4.0;
+    
+    private final ItemCatalog catalog;
+    private final Map<String, Integer> championIds = new HashMap<>();
+    
+    // Row 0 of the item matrices is the empty inventory, item id i lives in row i + 1
+    private final int[] pairGames = new int[(MAX_ITEMS + 1) * MAX_ITEMS];
+    private final int[] pairWins = new int[(MAX_ITEMS + 1) * MAX_ITEMS];
+    private final int[] enemyGames = new int[MAX_CHAMPIONS * MAX_ITEMS];
+    private final int[] enemyWins = new int[MAX_CHAMPIONS * MAX_ITEMS];
+    
+    // Pre-ranked follow-ups per row: item ids, with their smoothed win rate
+    private final int[] pairTop = new int[(MAX_ITEMS + 1) * TOP_K];
+    private final float[] pairTopScore = new float[(MAX_ITEMS + 1) * TOP_K];
+    private final int[] enemyTop = new int[MAX_CHAMPIONS * TOP_K];
+    private final float[] enemyTopScore = new float[MAX_CHAMPIONS * TOP_K];
+    
+    private final int[] matchItems = new int[MAX_INVENTORY];
+    private final int[] queryItems = new int[MAX_INVENTORY];
+    private final float[] candidateScore = new float[MAX_ITEMS];
+    private final int[] candidateVotes = new int[MAX_ITEMS];
+    private int matchCount;
+    
+    public BuildRecommender() {
+        this(new ItemCatalog(MAX_ITEMS));
+    }
+    
+    public BuildRecommender(ItemCatalog catalog) {
+        this.catalog = catalog;
+        Arrays.fill(pairTop, -1);
+        Arrays.fill(enemyTop, -1);
+    }
+    
+    /**
+     * Builds a recommender from every match in the store and keeps it updated as matches are
+     * appended, by this process or, if the store is watched, by another one
+     */
+    public static BuildRecommender attach(MatchStore store) {
+        BuildRecommender recommender = new BuildRecommender();
+        long start = System.nanoTime();
+        store.addListener(recommender::ingest);
+        store.poll();
+        LOGGER.info("Build recommender loaded " + recommender.getMatchCount() + " matches in " +
+                   (System.nanoTime() - start) / 1_000_000 + " ms");
+        return recommender;
+    }
+    
+    /**
+     * Adds a finished match to the counts and re-ranks the rows it touched.
+     * Matches without an item list or a known outcome are ignored.
+     */
+    public synchronized void ingest(MatchData match) {
+        int count = extractItems(match.getAdditionalData(), matchItems);
+        if (count == 0 || match.getOutcome() == null) {
+            return;
+        }
+        int win = isWin(match.getOutcome()) ? 1 : 0;
+        
+        for (int i = 0; i < count; i++) {
+            int item = matchItems[i];
+            add(pairGames, pairWins, 0, item, win);
+            for (int j = 0; j < count; j++) {
+                if (i != j) {
+                    add(pairGames, pairWins, item + 1, matchItems[j], win);
+                }
+            }
+        }
+        rerank(pairGames, pairWins, pairTop, pairTopScore, 0);
+        for (int i = 0; i < count; i++) {
+            rerank(pairGames, pairWins, pairTop, pairTopScore, matchItems[i] + 1);
+        }
+        
+        int enemy = championId(match.getEnemyChampion(), true);
+        if (enemy >= 0) {
+            for (int i = 0; i < count; i++) {
+                add(enemyGames, enemyWins, enemy, matchItems[i], win);
+            }
+            rerank(enemyGames, enemyWins, enemyTop, enemyTopScore, enemy);
+        }
+        matchCount++;
+    }
+    
+    /**
+     * Recommends the next item to buy
+     * @param inventory Items already owned, at most six are considered
+     * @param gold Current gold; items costing more are skipped, negative means unknown
+     * @param enemyChampion Lane opponent, may be null
+     * @return The best affordable item, or null if the corpus has nothing to offer
+     */
+    public synchronized Recommendation recommendNext(String[] inventory, int gold, String enemyChampion) {
+        int owned = 0;
+        if (inventory != null) {
+            for (int i = 0; i < inventory.length && owned < MAX_INVENTORY; i++) {
+                int id = inventory[i] != null ? catalog.find(inventory[i]) : -1;
+                if (id >= 0 && !contains(queryItems, owned, id)) {
+                    queryItems[owned++] = id;
+                }
+            }
+        }
+        
+        int startRow = owned == 0 ? 0 : -1;
+        int enemy = championId(enemyChampion, false);
+        visit(pairTop, pairTopScore, startRow, true);
+        for (int i = 0; i < owned; i++) {
+            visit(pairTop, pairTopScore, queryItems[i] + 1, true);
+        }
+        visit(enemyTop, enemyTopScore, enemy, true);
+        
+        // Candidates are scored by their average rank score across every row that proposed them
+        int best = better(pairTop, startRow, owned, gold, -1);
+        for (int i = 0; i < owned; i++) {
+            best = better(pairTop, queryItems[i] + 1, owned, gold, best);
+        }
+        best = better(enemyTop, enemy, owned, gold, best);
+        
+        Recommendation result = best >= 0
+                ? new Recommendation(catalog.nameOf(best), average(best), games(best, owned, enemy))
+                : null;
+        
+        visit(pairTop, pairTopScore, startRow, false);
+        for (int i = 0; i < owned; i++) {
+            visit(pairTop, pairTopScore, queryItems[i] + 1, false);
+        }
+        visit(enemyTop, enemyTopScore, enemy, false);
+        return result;
+    }
+    
+    /**
+     * Recommends the next item for a scenario enriched with live "items" and "gold"
+     */
+    public Recommendation recommendNext(Map<String, Object> liveData, String enemyChampion) {
+        if (liveData == null) {
+            return recommendNext(null, -1, enemyChampion);
+        }
+        String[] inventory = toNames(liveData.get("items"));
+        Object gold = liveData.get("gold");
+        return recommendNext(inventory, gold instanceof Number ? ((Number) gold).intValue() : -1, enemyChampion);
+    }
+    
+    public synchronized int getMatchCount() {
+        return matchCount;
+    }
+    
+    public ItemCatalog getCatalog() {
+        return catalog;
+    }
+    
+    private void add(int[] games, int[] wins, int row, int item, int win) {
+        int index = row * MAX_ITEMS + item;
+        games[index]++;
+        wins[index] += win;
+    }
+    
+    /**
+     * Keeps the TOP_K best follow-ups of one row, ranked by smoothed win rate
+     */
+    private void rerank(int[] games, int[] wins, int[] top, float[] topScore, int row) {
+        int base = row * TOP_K;
+        Arrays.fill(top, base, base + TOP_K, -1);
+        Arrays.fill(topScore, base, base + TOP_K, 0f);
+        int size = catalog.size();
+        int rowBase = row * MAX_ITEMS;
+        for (int item = 0; item < size; item++) {
+            int played = games[rowBase + item];
+            if (played < MIN_GAMES) {
+                continue;
+            }
+            float score = (float) smoothed(wins[rowBase + item], played);
+            int slot = TOP_K - 1;
+            if (top[base + slot] >= 0 && topScore[base + slot] >= score) {
+                continue;
+            }
+            while (slot > 0 && (top[base + slot - 1] < 0 || topScore[base + slot - 1] < score)) {
+                top[base + slot] = top[base + slot - 1];
+                topScore[base + slot] = topScore[base + slot - 1];
+                slot--;
+            }
+            top[base + slot] = item;
+            topScore[base + slot] = score;
+        }
+    }
+    
+    /**
+     * Adds a pre-ranked row to the candidate scores, or resets the scores it added
+     */
+    private void visit(int[] top, float[] topScore, int row, boolean add) {
+        if (row < 0) {
+            return;
+        }
+        int base = row * TOP_K;
+        for (int k = 0; k < TOP_K && top[base + k] >= 0; k++) {
+            int item = top[base + k];
+            if (add) {
+                candidateScore[item] += topScore[base + k];
+                candidateVotes[item]++;
+            } else {
+                candidateScore[item] = 0f;
+                candidateVotes[item] = 0;
+            }
+        }
+    }
+    
+    private int better(int[] top, int row, int owned, int gold, int best) {
+        if (row < 0) {
+            return best;
+        }
+        int base = row * TOP_K;
+        for (int k = 0; k < TOP_K && top[base + k] >= 0; k++) {
+            int item = top[base + k];
+            if (isOwned(item, owned) || !affordable(item, gold)) {
+                continue;
+            }
+            if (best < 0 || average(item) > average(best)) {
+                best = item;
+            }
+        }
+        return best;
+    }
+    
+    private double average(int item) {
+        return candidateVotes[item] > 0 ? candidateScore[item] / candidateVotes[item] : 0;
+    }
+    
+    private boolean isOwned(int item, int owned) {
+        for (int i = 0; i < owned; i++) {
+            if (queryItems[i] == item) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private boolean affordable(int item, int gold) {
+        int cost = catalog.costOf(item);
+        return gold < 0 || cost == ItemCatalog.UNKNOWN_COST || cost <= gold;
+    }
+    
+    private int games(int item, int owned, int enemy) {
+        int total = 0;
+        if (owned == 0) {
+            total += pairGames[item];
+        }
+        for (int i = 0; i < owned; i++) {
+            total += pairGames[(queryItems[i] + 1) * MAX_ITEMS + item];
+        }
+        if (enemy >= 0) {
+            total += enemyGames[enemy * MAX_ITEMS + item];
+        }
+        return total;
+    }
+    
+    private int championId(String champion, boolean register) {
+        if (champion == null || champion.isEmpty() || "unknown".equalsIgnoreCase(champion)) {
+            return -1;
+        }
+        String key = champion.toLowerCase();
+        Integer id = championIds.get(key);
+        if (id == null) {
+            if (!register || championIds.size() >= MAX_CHAMPIONS) {
+                return -1;
+            }
+            id = championIds.size();
+            championIds.put(key, id);
+        }
+        return id;
+    }
+    
+    private int extractItems(Map<String, Object> data, int[] out) {
+        String[] names = data != null ? toNames(data.get("items")) : null;
+        if (names == null) {
+            return 0;
+        }
+        int count = 0;
+        for (int i = 0; i < names.length && count < out.length; i++) {
+            if (names[i] == null) {
+                continue;
+            }
+            int id = catalog.idOf(names[i]);
+            if (id >= 0 && !contains(out, count, id)) {
+                out[count++] = id;
+            }
+        }
+        return count;
+    }
+    
+    private static boolean contains(int[] values, int count, int value) {
+        for (int i = 0; i < count; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static String[] toNames(Object items) {
+        if (items instanceof String[]) {
+            return (String[]) items;
+        }
+        if (items instanceof List) {
+            List<?> list = (List<?>) items;
+            String[] names = new String[list.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = list.get(i) != null ? list.get(i).toString() : null;
+            }
+            return names;
+        }
+        return null;
+    }
+    
+    private static boolean isWin(String outcome) {
+        String value = outcome.toLowerCase();
+        return value.equals("victory") || value.equals("win") || value.equals("won");
+    }
+    
+    private static double smoothed(int wins, int games) {
+        return (wins + PRIOR_GAMES * 0.5) / (games + PRIOR_GAMES);
+    }
+    
+    /**
+     * A recommended item with the win rate and sample size behind it
+     */
+    public static class Recommendation {
+        private final String item;
+        private final double winRate;
+        private final int games;
+        
+        public Recommendation(String item, double winRate, int games) {
+            this.item = item;
+            this.winRate = winRate;
+            this.games = games;
+        }
+        
+        public String getItem() { return item; }
+        public double getWinRate() { return winRate; }
+        public int getGames() { return games; }
+        
+        @Override
+        public String toString() {
+            return String.format("%s (%.0f%% win rate over %d games)", item, winRate * 100, games);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.lolcoach.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point in time by which a request must be answered. Passed down through
+ * every stage so each one can bound its own work by what is left.
+ */
+public final class Deadline {
+    private static final Deadline NONE = new Deadline(Long.MAX_VALUE);
+    
+    private final long deadlineNanos;
+    
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+    
+    /**
+     * A deadline the given number of milliseconds from now
+     */
+    public static Deadline after(long millis) {
+        return new Deadline(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+    
+    /**
+     * A deadline that never expires
+     */
+    public static Deadline none() {
+        return NONE;
+    }
+    
+    public boolean isExpired() {
+        return this != NONE && System.nanoTime() - deadlineNanos >= 0;
+    }
+    
+    /**
+     * Nanoseconds left, never negative; Long.MAX_VALUE for an unbounded deadline
+     */
+    public long remainingNanos() {
+        if (this == NONE) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, deadlineNanos - System.nanoTime());
+    }
+    
+    public long remainingMillis() {
+        return this == NONE ? Long.MAX_VALUE : TimeUnit.NANOSECONDS.toMillis(remainingNanos());
+    }
+    
+    @Override
+    public String toString() {
+        return this == NONE ? "Deadline{none}" : "Deadline{remainingMillis=" + remainingMillis() + "}";
+    }
+}
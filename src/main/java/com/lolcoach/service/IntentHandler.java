@@ -0,0 +1,15 @@
+package com.lolcoach.service;
+
+import com.lolcoach.model.Scenario;
+
+/**
+ * Answers one kind of question (see {@link com.lolcoach.model.Intent}) for a scenario
+ */
+public interface IntentHandler {
+    
+    /**
+     * @param scenario The parsed game scenario
+     * @return Advice answering the question
+     */
+    String handle(Scenario scenario);
+}
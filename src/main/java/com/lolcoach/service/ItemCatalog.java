@@ -0,0 +1,99 @@
+package com.lolcoach.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense integer ids for item names, with gold costs for known items.
+ * Items first seen in match data are registered on the fly with unknown cost.
+ */
+public class ItemCatalog {
+    public static final int UNKNOWN_COST = -1;
+    
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+    private final List<Integer> costs = new ArrayList<>();
+    private final int capacity;
+    
+    public ItemCatalog(int capacity) {
+        this.capacity = capacity;
+        register("Doran's Blade", 450);
+        register("Doran's Shield", 450);
+        register("Doran's Ring", 400);
+        register("Boots of Speed", 300);
+        register("Plated Steelcaps", 1100);
+        register("Mercury's Treads", 1100);
+        register("Berserker's Greaves", 1100);
+        register("Sorcerer's Shoes", 1100);
+        register("Phage", 1100);
+        register("Sheen", 700);
+        register("Kindlegem", 800);
+        register("Executioner's Calling", 800);
+        register("Null-Magic Mantle", 450);
+        register("Cloth Armor", 300);
+        register("Bramble Vest", 800);
+        register("Trinity Force", 3333);
+        register("Black Cleaver", 3000);
+        register("Dead Man's Plate", 2900);
+        register("Spirit Visage", 2900);
+        register("Sterak's Gage", 3100);
+        register("Thornmail", 2700);
+        register("Force of Nature", 2800);
+        register("Infinity Edge", 3400);
+        register("Zhonya's Hourglass", 3250);
+        register("Rabadon's Deathcap", 3600);
+        register("Luden's Tempest", 3200);
+        register("Guardian Angel", 3000);
+        register("Control Ward", 75);
+    }
+    
+    /**
+     * Returns the id of an item, registering it if new
+     * @return The id, or -1 if the catalog is full
+     */
+    public synchronized int idOf(String name) {
+        String key = name.toLowerCase();
+        Integer id = ids.get(key);
+        if (id != null) {
+            return id;
+        }
+        if (names.size() >= capacity) {
+            return -1;
+        }
+        return register(name, UNKNOWN_COST);
+    }
+    
+    /**
+     * Returns the id of an item without registering it, or -1 if unknown
+     */
+    public synchronized int find(String name) {
+        Integer id = ids.get(name.toLowerCase());
+        return id != null ? id : -1;
+    }
+    
+    public synchronized String nameOf(int id) {
+        return names.get(id);
+    }
+    
+    public synchronized int costOf(int id) {
+        return costs.get(id);
+    }
+    
+    public synchronized int size() {
+        return names.size();
+    }
+    
+    public int capacity() {
+        return capacity;
+    }
+    
+    private int register(String name, int cost) {
+        int id = names.size();
+        ids.put(name.toLowerCase(), id);
+        names.add(name);
+        costs.add(cost);
+        return id;
+    }
+}
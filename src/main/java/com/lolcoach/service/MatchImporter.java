@@ -0,0 +1,101 @@
+package com.lolcoach.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lolcoach.model.MatchData;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Appends matches from a JSON lines file to a {@link MatchStore}. Each line is one match:
+ * {@code {"matchId": "...", "timestamp": "2024-05-01T20:00:00", "lane": "top", "playerChampion": "Garen",
+ * "enemyChampion": "Darius", "situation": "even", "outcome": "victory", "additionalData": {"items": [...]}}}.
+ * Matches whose id is already in the store are skipped, so a file can be imported again after it grows.
+ * A running app watching the store picks the new matches up within a few seconds.
+ * <p>
+ * Usage: {@code MatchImporter <matches.jsonl> <matches.bin>}
+ */
+public class MatchImporter {
+    private static final Logger LOGGER = Logger.getLogger(MatchImporter.class.getName());
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: MatchImporter <matches.jsonl> <matches.bin>");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        int imported = new MatchImporter().importFile(Paths.get(args[0]), new MatchStore(Paths.get(args[1])));
+        System.out.printf("Imported %d matches into %s in %d ms%n",
+                imported, args[1], (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    /**
+     * Appends every new match in a JSON lines file
+     * @return Number of matches appended
+     */
+    public int importFile(Path source, MatchStore store) throws IOException {
+        Set<String> known = new HashSet<>();
+        store.find(view -> {
+            known.add(view.getMatchId());
+            return false;
+        });
+        
+        int imported = 0;
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                MatchData match;
+                try {
+                    match = parseMatch(objectMapper.readTree(line));
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.warning("Skipping line " + lineNumber + " of " + source + ": " + e.getMessage());
+                    continue;
+                }
+                if (match.getMatchId() != null && !known.add(match.getMatchId())) {
+                    continue;
+                }
+                store.append(match);
+                imported++;
+            }
+        }
+        LOGGER.info("Imported " + imported + " matches from " + source);
+        return imported;
+    }
+    
+    @SuppressWarnings("unchecked")
+    MatchData parseMatch(JsonNode node) {
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("not a JSON object");
+        }
+        String timestamp = text(node, "timestamp");
+        MatchData match = new MatchData(text(node, "matchId"), timestamp != null ? LocalDateTime.parse(timestamp) : null,
+                text(node, "lane"), text(node, "playerChampion"), text(node, "enemyChampion"),
+                text(node, "situation"), text(node, "outcome"), text(node, "advice"));
+        JsonNode data = node.path("additionalData");
+        if (data.isObject()) {
+            match.setAdditionalData(objectMapper.convertValue(data, Map.class));
+        }
+        return match;
+    }
+    
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value != null && !value.isNull() ? value.asText() : null;
+    }
+}
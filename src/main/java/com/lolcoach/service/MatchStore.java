@@ -0,0 +1,199 @@
+package com.lolcoach.service;
+
+import com.lolcoach.codec.MatchDataCodec;
+import com.lolcoach.codec.MatchDataView;
+import com.lolcoach.model.MatchData;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+import java.util.logging.Level;
+
+/**
+ * Append-only file of binary-encoded {@link MatchData} records.
+ * Each record carries its own length, so the file is a plain concatenation.
+ * A scan stops at the first record whose header or length doesn't fit, such
+ * as one torn by a crash during an append.
+ * <p>
+ * Listeners are handed every match past the point they have already seen,
+ * whether this process or another one (such as {@link MatchImporter}) appended it.
+ */
+public class MatchStore implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(MatchStore.class.getName());
+    
+    private final Path file;
+    private final List<Consumer<MatchData>> listeners = new CopyOnWriteArrayList<>();
+    // End of the last record handed to listeners
+    private long delivered;
+    private ScheduledExecutorService watcher;
+    
+    public MatchStore(Path file) {
+        this.file = file;
+        LOGGER.info("MatchStore opened at: " + file);
+    }
+    
+    public Path getFile() {
+        return file;
+    }
+    
+    /**
+     * Registers a listener for appended matches, e.g. to keep derived indexes current. Nothing is
+     * delivered until the first listener is registered, so listeners registered before the first
+     * {@link #poll()} see every match the store holds; later ones only see new matches.
+     */
+    public void addListener(Consumer<MatchData> listener) {
+        listeners.add(listener);
+    }
+    
+    /**
+     * Appends a match to the end of the store and notifies the listeners
+     */
+    public synchronized void append(MatchData match) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(MatchDataCodec.encode(match));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        poll();
+    }
+    
+    /**
+     * Hands the listeners every complete match appended since the last poll
+     * @return Number of matches delivered
+     */
+    public synchronized int poll() {
+        int count = 0;
+        try {
+            if (listeners.isEmpty() || !Files.exists(file) || Files.size(file) <= delivered) {
+                return 0;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, delivered, channel.size() - delivered);
+                MatchDataView view = new MatchDataView();
+                int position = 0;
+                int length;
+                // A partial record may still be being written; it is picked up by a later poll
+                while ((length = recordLength(buffer, position, view)) > 0) {
+                    MatchData match = view.toMatchData();
+                    for (Consumer<MatchData> listener : listeners) {
+                        listener.accept(match);
+                    }
+                    position += length;
+                    count++;
+                }
+                delivered += position;
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Could not read new matches from " + file, e);
+        }
+        return count;
+    }
+    
+    /**
+     * Polls for matches appended by other processes in the background
+     */
+    public synchronized void watch(long intervalSeconds) {
+        if (watcher != null) {
+            return;
+        }
+        watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "match-store-watch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watcher.scheduleWithFixedDelay(this::poll, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Stops watching for appends from other processes
+     */
+    @Override
+    public synchronized void close() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+            watcher = null;
+        }
+    }
+    
+    /**
+     * Returns every stored match
+     */
+    public List<MatchData> readAll() {
+        return find(view -> true);
+    }
+    
+    /**
+     * Scans the store in place and materializes only the matches accepted by the filter
+     * @param filter Predicate evaluated against a flyweight view of each record
+     * @return Matching records in file order
+     */
+    public List<MatchData> find(Predicate<MatchDataView> filter) {
+        return find(filter, Deadline.none());
+    }
+    
+    /**
+     * Scans the store until the deadline and returns the matches found so far
+     * @param filter Predicate evaluated against a flyweight view of each record
+     * @param deadline Time at which the scan stops
+     * @return Matching records in file order
+     */
+    public List<MatchData> find(Predicate<MatchDataView> filter, Deadline deadline) {
+        List<MatchData> matches = new ArrayList<>();
+        if (!Files.exists(file)) {
+            return matches;
+        }
+        
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            MatchDataView view = new MatchDataView();
+            int position = 0;
+            while (position < buffer.limit()) {
+                if (deadline.isExpired()) {
+                    LOGGER.warning("Match store scan stopped at deadline after " + matches.size() + " matches");
+                    break;
+                }
+                int length = recordLength(buffer, position, view);
+                if (length < 0) {
+                    LOGGER.warning("Match store " + file + " has a damaged record at byte " + position
+                            + ", ignoring the remaining " + (buffer.limit() - position) + " bytes");
+                    break;
+                }
+                if (filter.test(view)) {
+                    matches.add(view.toMatchData());
+                }
+                position += length;
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Error reading match store: " + file, e);
+        }
+        return matches;
+    }
+    
+    /**
+     * Points the view at the record at a position and returns its length
+     * @return The length, or -1 if the header or the whole record doesn't fit in the buffer
+     */
+    private static int recordLength(ByteBuffer buffer, int position, MatchDataView view) {
+        int remaining = buffer.limit() - position;
+        if (remaining < MatchDataCodec.HEADER_SIZE) {
+            return -1;
+        }
+        int length = view.wrap(buffer, position).length();
+        return length >= MatchDataCodec.HEADER_SIZE && length <= remaining ? length : -1;
+    }
+}
@@ -0,0 +1,45 @@
+package com.lolcoach.service;
+
+import com.lolcoach.model.Scenario;
+
+/**
+ * Answers objective questions (dragon, herald, baron) from game time and lane state
+ */
+public class ObjectiveAdviceHandler implements IntentHandler {
+    private static final int FIRST_DRAGON_MINUTE = 5;
+    private static final int HERALD_MINUTE = 8;
+    private static final int HERALD_DESPAWN_MINUTE = 20;
+    private static final int BARON_MINUTE = 20;
+    
+    @Override
+    public String handle(Scenario scenario) {
+        int time = scenario.getTime();
+        StringBuilder advice = new StringBuilder();
+        
+        if (time < FIRST_DRAGON_MINUTE) {
+            advice.append("First dragon spawns at 5:00, push your lane and ward the river a minute before. ");
+        } else if (time < HERALD_MINUTE) {
+            advice.append("Dragon is up; herald arrives at 8:00. Move to the objective with lane priority. ");
+        } else if (time < BARON_MINUTE) {
+            advice.append("Dragon respawns every 5 minutes and herald is available until 20:00; trade one for the other if you can't contest both. ");
+        } else {
+            advice.append("Baron is up from 20:00; only start it with vision control and the enemy jungler located. ");
+        }
+        
+        switch (scenario.getSituation().toLowerCase()) {
+            case "ahead":
+            case "winning":
+            case "dominating":
+                advice.append("You're ahead, force the objective and punish them for contesting.");
+                break;
+            case "behind":
+            case "losing":
+            case "struggling":
+                advice.append("You're behind, don't face-check; take a cross-map objective instead.");
+                break;
+            default:
+                advice.append("Get priority in the nearby lanes before starting it.");
+        }
+        return advice.toString();
+    }
+}
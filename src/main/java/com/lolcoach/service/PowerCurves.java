@@ -0,0 +1,538 @@
+package com.lolcoach.service;
+
+import com.lolcoach.model.ChampionData;
+import com.lolcoach.model.ItemData;
+import com.lolcoach.model.Scenario;
+import com.lolcoach.staticdata.StaticDataCache;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Relative lane strength of two champions at every level and item tier.
+ * Each champion gets a duel profile (stat growth, ability ranks, how much it
+ * gains from gold); each champion pair seen gets a dense float table of the
+ * player's advantage, indexed by both levels and both item tiers, built once
+ * when the pair is first registered, or ahead of time by {@link #warmUp()}. Lookups are then a single array read, and
+ * team-wide evaluation is one pass over primitive arrays.
+ * <p>
+ * The advantage is the log of how much faster the player kills the enemy than
+ * the enemy kills the player: 0 is even, {@link #EDGE} and above is a trade
+ * worth taking.
+ */
+public class PowerCurves {
+    private static final Logger LOGGER = Logger.getLogger(PowerCurves.class.getName());
+    
+    public static final int MAX_LEVEL = 18;
+    public static final int ITEM_TIERS = 5;
+    public static final int MAX_CHAMPIONS = 256;
+    public static final int MAX_PAIRS = 1024;
+    // Advantage at which one side clearly wins trades
+    public static final float EDGE = 0.15f;
+    
+    // Lower bound of gold spent on items for each tier: starter, components, first item, two items, three items
+    private static final int[] TIER_GOLD = {0, 1000, 2500, 5500, 9000};
+    // Gold assumed for each tier when building the curves
+    private static final int[] TIER_STRENGTH_GOLD = {500, 1600, 3300, 6500, 10000};
+    private static final String[] TIER_NAMES = {"starter items", "components", "your first item", "two items", "three items"};
+    // Items with unknown cost count as a component
+    private static final int UNKNOWN_ITEM_GOLD = 800;
+    
+    // Ability damage per second added by each rank point
+    private static final double BASIC_RANK_DPS = 7;
+    private static final double ULTIMATE_RANK_DPS = 25;
+    // Poke advantage of the longer range at level 1, fading out by level 18
+    private static final double RANGE_EDGE = 0.12;
+    private static final double RANGE_SPAN = 375;
+    // Levels looked ahead for who out-scales whom; further out the lane is usually over
+    private static final int SCALING_LOOKAHEAD = 4;
+    
+    private static final int TIER_STRIDE = ITEM_TIERS * ITEM_TIERS;
+    private static final int PAIR_STRIDE = MAX_LEVEL * MAX_LEVEL * TIER_STRIDE;
+    private static final int INITIAL_PAIRS = 32;
+    
+    // Profile fields, stored flat per champion id
+    private static final int HP = 0, HP_GROWTH = 1, ARMOR = 2, ARMOR_GROWTH = 3, MR = 4, MR_GROWTH = 5;
+    private static final int AD = 6, AD_GROWTH = 7, ATTACK_SPEED = 8, ATTACK_SPEED_GROWTH = 9, RANGE = 10;
+    private static final int ABILITY_WEIGHT = 11, MAGIC_SHARE = 12, OFFENSE_PER_K = 13, DEFENSE_PER_K = 14;
+    private static final int PROFILE_FIELDS = 15;
+    
+    // Data Dragon stat names for the first eleven profile fields
+    private static final String[] STAT_NAMES = {"hp", "hpperlevel", "armor", "armorperlevel", "spellblock",
+            "spellblockperlevel", "attackdamage", "attackdamageperlevel", "attackspeed", "attackspeedperlevel",
+            "attackrange"};
+    
+    // Base stats of the champions the advice database talks about, used without static data
+    private static final Map<String, double[]> BUILT_IN_STATS = new HashMap<>();
+    private static final Map<String, String> BUILT_IN_CLASSES = new HashMap<>();
+    
+    static {
+        builtIn("garen", "Fighter", 690, 98, 38, 4.2, 32, 1.55, 69, 4.5, 0.625, 3.65, 175);
+        builtIn("darius", "Fighter", 652, 114, 39, 5.2, 32, 2.05, 64, 5, 0.625, 1, 175);
+        builtIn("teemo", "Mage", 615, 104, 24, 4.95, 30, 1.3, 54, 3, 0.69, 3.38, 500);
+        builtIn("fiora", "Fighter", 620, 99, 33, 4.7, 32, 2.05, 66, 3.3, 0.69, 3.2, 150);
+        builtIn("zed", "Assassin", 654, 99, 32, 4.7, 32, 2.05, 63, 3.4, 0.651, 3.3, 125);
+        builtIn("yasuo", "Fighter", 590, 110, 30, 4.6, 32, 2.05, 60, 3, 0.697, 3.5, 175);
+        builtIn("jinx", "Marksman", 630, 105, 26, 4.7, 30, 1.3, 59, 3.15, 0.625, 1.4, 525);
+        builtIn("ahri", "Mage", 590, 104, 21, 4.2, 30, 1.3, 53, 3, 0.668, 2.2, 550);
+        builtIn("syndra", "Mage", 563, 104, 25, 4.6, 30, 1.3, 54, 2.9, 0.625, 2, 550);
+        builtIn("annie", "Mage", 594, 102, 19, 4.7, 30, 1.3, 50, 2.65, 0.579, 1.36, 625);
+    }
+    
+    // Champions without a profile of their own fight as a typical melee bruiser
+    private static final String GENERIC = "unknown";
+    private static final double[] GENERIC_STATS = {620, 100, 32, 4.5, 32, 1.8, 62, 3.5, 0.65, 2.5, 175};
+    
+    private final ItemCatalog catalog;
+    private StaticDataCache staticData;
+    private String staticVersion;
+    
+    private final Map<String, Integer> championIds = new HashMap<>();
+    private final Map<Integer, Integer> pairIds = new HashMap<>();
+    private final float[] profiles = new float[MAX_CHAMPIONS * PROFILE_FIELDS];
+    private volatile float[] tables = new float[INITIAL_PAIRS * PAIR_STRIDE];
+    private int pairCount;
+    
+    public PowerCurves() {
+        this(new ItemCatalog(BuildRecommender.MAX_ITEMS));
+    }
+    
+    /**
+     * @param catalog Item costs used to place an inventory in an item tier
+     */
+    public PowerCurves(ItemCatalog catalog) {
+        this.catalog = catalog;
+    }
+    
+    /**
+     * Builds the tables of every matchup between champions with built-in stats. Each table
+     * takes about half a millisecond, so this runs in the background rather than before
+     * the first question.
+     */
+    public void warmUp() {
+        long start = System.nanoTime();
+        for (String player : BUILT_IN_STATS.keySet()) {
+            for (String enemy : BUILT_IN_STATS.keySet()) {
+                pairId(player, enemy);
+            }
+        }
+        LOGGER.info("Power curves built for " + getPairCount() + " matchups in " +
+                   (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+    
+    /**
+     * Sets the Data Dragon cache that supplies stats for every other champion.
+     * Tables are rebuilt when the active patch changes.
+     */
+    public synchronized void setStaticData(StaticDataCache staticData) {
+        this.staticData = staticData;
+        reset();
+    }
+    
+    /**
+     * Returns the id of a champion pair, building its table the first time the pair is seen
+     * @return The pair id, or -1 if the table capacity is exhausted
+     */
+    public synchronized int pairId(String playerChampion, String enemyChampion) {
+        if (staticData != null && !staticData.getVersion().equals(staticVersion)) {
+            reset();
+        }
+        int player = championId(playerChampion);
+        int enemy = championId(enemyChampion);
+        if (player < 0 || enemy < 0) {
+            return -1;
+        }
+        Integer key = player * MAX_CHAMPIONS + enemy;
+        Integer id = pairIds.get(key);
+        if (id == null) {
+            if (pairCount >= MAX_PAIRS) {
+                return -1;
+            }
+            id = pairCount;
+            float[] current = tables;
+            if ((id + 1) * PAIR_STRIDE > current.length) {
+                current = Arrays.copyOf(current, Math.min(MAX_PAIRS, pairCount * 2) * PAIR_STRIDE);
+            }
+            fillTable(current, id * PAIR_STRIDE, player, enemy);
+            tables = current;
+            pairIds.put(key, id);
+            pairCount++;
+        }
+        return id;
+    }
+    
+    /**
+     * The player's advantage in a registered pair
+     * @param pair Id from {@link #pairId}
+     * @param playerLevel Level from 1 to 18, clamped
+     * @param enemyLevel Level from 1 to 18, clamped
+     * @param playerTier Item tier from 0 to 4, see {@link #itemTier(int)}
+     * @param enemyTier Item tier from 0 to 4
+     */
+    public float advantage(int pair, int playerLevel, int enemyLevel, int playerTier, int enemyTier) {
+        return tables[index(pair, playerLevel, enemyLevel, playerTier, enemyTier)];
+    }
+    
+    /**
+     * The player's advantage in a scenario. Both sides are assumed to have the player's
+     * item tier, since the enemy's items aren't known.
+     */
+    public float advantage(Scenario scenario) {
+        int pair = pairId(scenario.getPlayerChampion(), scenario.getEnemyChampion());
+        if (pair < 0) {
+            return 0f;
+        }
+        int tier = itemTier(scenario.getAdditionalData());
+        return advantage(pair, playerLevel(scenario), enemyLevel(scenario), tier, tier);
+    }
+    
+    /**
+     * Player level to compare a scenario at: the stated one if both sides gave theirs,
+     * otherwise even levels at whichever level is known
+     */
+    static int playerLevel(Scenario scenario) {
+        return scenario.hasLevels() ? scenario.getPlayerLevel() : evenLevel(scenario);
+    }
+    
+    /**
+     * Enemy level to compare a scenario at; see {@link #playerLevel(Scenario)}
+     */
+    static int enemyLevel(Scenario scenario) {
+        return scenario.hasLevels() ? scenario.getEnemyLevel() : evenLevel(scenario);
+    }
+    
+    private static int evenLevel(Scenario scenario) {
+        if (scenario.hasPlayerLevel()) {
+            return clampLevel(scenario.getPlayerLevel());
+        }
+        return scenario.hasEnemyLevel() ? clampLevel(scenario.getEnemyLevel()) : 1;
+    }
+    
+    /**
+     * Evaluates many matchups in one pass, e.g. every lane of a team
+     * @param pairs Pair ids from {@link #pairId}; -1 gives 0
+     * @param out Receives one advantage per entry
+     * @param count Number of entries to evaluate
+     */
+    public void evaluate(int[] pairs, int[] playerLevels, int[] enemyLevels, int[] playerTiers, int[] enemyTiers,
+                         float[] out, int count) {
+        float[] current = tables;
+        for (int i = 0; i < count; i++) {
+            out[i] = pairs[i] < 0 ? 0f
+                    : current[index(pairs[i], playerLevels[i], enemyLevels[i], playerTiers[i], enemyTiers[i])];
+        }
+    }
+    
+    /**
+     * Describes who wins trades now, and the next level-up or back that changes it. Levels are
+     * only compared when both sides stated theirs; with items alone the sides are compared at even levels.
+     * @return Advice, or null if the scenario has neither both levels nor items to go on
+     */
+    public String describe(Scenario scenario) {
+        boolean levels = scenario.hasLevels();
+        int playerLevel = clampLevel(playerLevel(scenario));
+        int enemyLevel = clampLevel(enemyLevel(scenario));
+        Map<String, Object> data = scenario.getAdditionalData();
+        boolean hasItems = data != null && (data.get("items") != null || data.get("gold") instanceof Number);
+        if (!levels && !hasItems) {
+            return null;
+        }
+        int pair = pairId(scenario.getPlayerChampion(), scenario.getEnemyChampion());
+        if (pair < 0) {
+            return null;
+        }
+        
+        int spent = spentGold(data != null ? data.get("items") : null);
+        int tier = itemTier(spent);
+        float now = advantage(pair, playerLevel, enemyLevel, tier, tier);
+        
+        StringBuilder advice = new StringBuilder();
+        if (!levels) {
+            if (now >= EDGE) {
+                advice.append("You win trades at even levels, take the fights you can. ");
+            } else if (now <= -EDGE) {
+                advice.append("They win trades at even levels, avoid extended trades. ");
+            }
+        } else if (now >= EDGE) {
+            // A lead that only comes from the level difference lasts until they level up
+            if (playerLevel > enemyLevel && advantage(pair, playerLevel, playerLevel, tier, tier) < EDGE) {
+                advice.append(String.format("You out-scale them at %d vs %d, trade now before they hit %d. ",
+                                            playerLevel, enemyLevel, playerLevel));
+            } else {
+                advice.append(String.format("You're stronger at %d vs %d, take every trade you can. ",
+                                            playerLevel, enemyLevel));
+            }
+        } else if (now <= -EDGE) {
+            if (playerLevel < enemyLevel && advantage(pair, enemyLevel, enemyLevel, tier, tier) > -EDGE) {
+                advice.append(String.format("They're stronger until you hit %d, play safe and trade after. ",
+                                            enemyLevel));
+            } else {
+                advice.append(String.format("They're stronger at %d vs %d, avoid extended trades. ",
+                                            playerLevel, enemyLevel));
+            }
+        }
+        if (now > -EDGE && now < EDGE) {
+            // Who gets stronger as both sides level together
+            int spike = scalingLevel(pair, Math.max(playerLevel, enemyLevel), tier);
+            if (spike > 0) {
+                advice.append(String.format("Power is even now, but you out-scale them from level %d, "
+                                            + "so don't force fights before then. ", spike));
+            } else if (spike < 0) {
+                advice.append(String.format("Power is even now, but they out-scale you from level %d, "
+                                            + "so win the lane before then. ", -spike));
+            } else if (levels) {
+                advice.append(String.format("Power is even at %d vs %d, trade around cooldowns. ",
+                                            playerLevel, enemyLevel));
+            } else {
+                advice.append("Power is even, trade around cooldowns. ");
+            }
+        }
+        
+        // Gold in the pocket is strength waiting for a back
+        Object gold = data != null ? data.get("gold") : null;
+        if (gold instanceof Number && tier < ITEM_TIERS - 1) {
+            int afterBack = itemTier(spent + ((Number) gold).intValue());
+            if (afterBack > tier && advantage(pair, playerLevel, enemyLevel, afterBack, tier) - now >= EDGE / 2) {
+                advice.append(String.format("Back to spend your %d gold, reaching %s swings the lane your way. ",
+                                            ((Number) gold).intValue(), TIER_NAMES[afterBack]));
+            }
+        }
+        return advice.toString();
+    }
+    
+    /**
+     * First of the next few levels at which the matchup, at even levels, tips clearly to one side
+     * @return The level if it tips to the player, minus the level if it tips to the enemy, 0 if it never does
+     */
+    private int scalingLevel(int pair, int level, int tier) {
+        for (int next = level + 1; next <= Math.min(MAX_LEVEL, level + SCALING_LOOKAHEAD); next++) {
+            float advantage = advantage(pair, next, next, tier, tier);
+            if (advantage >= EDGE) {
+                return next;
+            }
+            if (advantage <= -EDGE) {
+                return -next;
+            }
+        }
+        return 0;
+    }
+    
+    /**
+     * Item tier of an inventory, from the total cost of its items
+     */
+    public int itemTier(Map<String, Object> liveData) {
+        return itemTier(liveData != null ? spentGold(liveData.get("items")) : 0);
+    }
+    
+    /**
+     * Item tier for gold spent on items: 0 starter, 1 components, 2 first item, 3 two items, 4 three or more
+     */
+    public static int itemTier(int spentGold) {
+        int tier = 0;
+        while (tier + 1 < ITEM_TIERS && spentGold >= TIER_GOLD[tier + 1]) {
+            tier++;
+        }
+        return tier;
+    }
+    
+    public synchronized int getPairCount() {
+        return pairCount;
+    }
+    
+    private static int index(int pair, int playerLevel, int enemyLevel, int playerTier, int enemyTier) {
+        return pair * PAIR_STRIDE
+                + ((clampLevel(playerLevel) - 1) * MAX_LEVEL + clampLevel(enemyLevel) - 1) * TIER_STRIDE
+                + clampTier(playerTier) * ITEM_TIERS + clampTier(enemyTier);
+    }
+    
+    private static int clampLevel(int level) {
+        return Math.max(1, Math.min(MAX_LEVEL, level));
+    }
+    
+    private static int clampTier(int tier) {
+        return Math.max(0, Math.min(ITEM_TIERS - 1, tier));
+    }
+    
+    private int spentGold(Object items) {
+        int total = 0;
+        if (items instanceof String[]) {
+            for (String item : (String[]) items) {
+                total += itemCost(item);
+            }
+        } else if (items instanceof List) {
+            for (Object item : (List<?>) items) {
+                total += itemCost(item != null ? item.toString() : null);
+            }
+        }
+        return total;
+    }
+    
+    private int itemCost(String item) {
+        if (item == null) {
+            return 0;
+        }
+        int id = catalog.find(item);
+        int cost = id >= 0 ? catalog.costOf(id) : ItemCatalog.UNKNOWN_COST;
+        if (cost == ItemCatalog.UNKNOWN_COST && staticData != null) {
+            ItemData data = staticData.getItem(item);
+            cost = data != null ? data.getTotalGold() : ItemCatalog.UNKNOWN_COST;
+        }
+        return cost != ItemCatalog.UNKNOWN_COST ? cost : UNKNOWN_ITEM_GOLD;
+    }
+    
+    private void reset() {
+        championIds.clear();
+        pairIds.clear();
+        pairCount = 0;
+        staticVersion = staticData != null ? staticData.getVersion() : null;
+    }
+    
+    /**
+     * Returns the profile id of a champion, building its profile if new.
+     * Champions nobody has stats for share the generic profile.
+     */
+    private int championId(String champion) {
+        String key = champion != null ? champion.toLowerCase() : GENERIC;
+        Integer id = championIds.get(key);
+        if (id != null) {
+            return id;
+        }
+        
+        double[] stats = null;
+        String championClass = null;
+        ChampionData data = staticData != null && !GENERIC.equals(key) ? staticData.getChampion(key) : null;
+        if (data != null) {
+            stats = new double[STAT_NAMES.length];
+            for (int i = 0; i < stats.length; i++) {
+                stats[i] = data.getStat(STAT_NAMES[i]);
+            }
+            championClass = !data.getTags().isEmpty() ? data.getTags().get(0) : null;
+        } else if (BUILT_IN_STATS.containsKey(key)) {
+            stats = BUILT_IN_STATS.get(key);
+            championClass = BUILT_IN_CLASSES.get(key);
+        }
+        if (stats == null) {
+            if (!GENERIC.equals(key)) {
+                id = championId(GENERIC);
+                if (id >= 0) {
+                    championIds.put(key, id);
+                }
+                return id;
+            }
+            stats = GENERIC_STATS;
+        }
+        
+        if (championIds.size() >= MAX_CHAMPIONS) {
+            return -1;
+        }
+        id = championIds.size();
+        int base = id * PROFILE_FIELDS;
+        for (int i = 0; i < STAT_NAMES.length; i++) {
+            profiles[base + i] = (float) stats[i];
+        }
+        fillClass(base, championClass);
+        championIds.put(key, id);
+        return id;
+    }
+    
+    /**
+     * How much a class leans on abilities, which damage type they deal and what it gets from gold
+     */
+    private void fillClass(int base, String championClass) {
+        float abilityWeight = 1.0f, magicShare = 0f, offensePerK = 0.14f, defensePerK = 0.08f;
+        if ("Mage".equals(championClass)) {
+            abilityWeight = 1.6f; magicShare = 1f; offensePerK = 0.20f; defensePerK = 0.04f;
+        } else if ("Marksman".equals(championClass)) {
+            abilityWeight = 0.6f; offensePerK = 0.22f; defensePerK = 0.03f;
+        } else if ("Assassin".equals(championClass)) {
+            abilityWeight = 1.3f; offensePerK = 0.22f; defensePerK = 0.04f;
+        } else if ("Fighter".equals(championClass)) {
+            offensePerK = 0.14f; defensePerK = 0.09f;
+        } else if ("Tank".equals(championClass)) {
+            abilityWeight = 0.8f; magicShare = 0.5f; offensePerK = 0.07f; defensePerK = 0.15f;
+        } else if ("Support".equals(championClass)) {
+            abilityWeight = 1.2f; magicShare = 1f; offensePerK = 0.08f; defensePerK = 0.06f;
+        }
+        profiles[base + ABILITY_WEIGHT] = abilityWeight;
+        profiles[base + MAGIC_SHARE] = magicShare;
+        profiles[base + OFFENSE_PER_K] = offensePerK;
+        profiles[base + DEFENSE_PER_K] = defensePerK;
+    }
+    
+    private void fillTable(float[] table, int offset, int player, int enemy) {
+        int p = player * PROFILE_FIELDS;
+        int e = enemy * PROFILE_FIELDS;
+        double[] playerItems = itemTerms(p);
+        double[] enemyItems = itemTerms(e);
+        double rangeDifference = Math.max(-1, Math.min(1, (profiles[p + RANGE] - profiles[e + RANGE]) / RANGE_SPAN));
+        for (int playerLevel = 1; playerLevel <= MAX_LEVEL; playerLevel++) {
+            double poke = RANGE_EDGE * rangeDifference * (MAX_LEVEL - playerLevel) / (MAX_LEVEL - 1);
+            for (int enemyLevel = 1; enemyLevel <= MAX_LEVEL; enemyLevel++) {
+                // Time for the enemy to kill the player over time for the player to kill the enemy
+                double dealt = damage(p, playerLevel, e, enemyLevel);
+                double taken = damage(e, enemyLevel, p, playerLevel);
+                double levels = Math.log((dealt * health(p, playerLevel)) / (taken * health(e, enemyLevel))) + poke;
+                
+                // Items scale damage and health, so in log space they add a per-tier term
+                int row = offset + ((playerLevel - 1) * MAX_LEVEL + enemyLevel - 1) * TIER_STRIDE;
+                for (int playerTier = 0; playerTier < ITEM_TIERS; playerTier++) {
+                    for (int enemyTier = 0; enemyTier < ITEM_TIERS; enemyTier++) {
+                        table[row + playerTier * ITEM_TIERS + enemyTier] =
+                                (float) (levels + playerItems[playerTier] - enemyItems[enemyTier]);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Log of the damage and health multipliers items give at each tier; champions are given by profile offset
+     */
+    private double[] itemTerms(int champion) {
+        double[] terms = new double[ITEM_TIERS];
+        for (int tier = 0; tier < ITEM_TIERS; tier++) {
+            double gold = TIER_STRENGTH_GOLD[tier] / 1000.0;
+            terms[tier] = Math.log((1 + gold * profiles[champion + OFFENSE_PER_K])
+                                   * (1 + gold * profiles[champion + DEFENSE_PER_K]));
+        }
+        return terms;
+    }
+    
+    /**
+     * Damage per second before items, after the target's resistances
+     */
+    private double damage(int attacker, int level, int target, int targetLevel) {
+        double attackSpeed = profiles[attacker + ATTACK_SPEED]
+                * (1 + grown(0, profiles[attacker + ATTACK_SPEED_GROWTH], level) / 100);
+        double autos = grown(profiles[attacker + AD], profiles[attacker + AD_GROWTH], level) * attackSpeed;
+        int ultimateRanks = level >= 16 ? 3 : level >= 11 ? 2 : level >= 6 ? 1 : 0;
+        int basicRanks = Math.min(15, level - ultimateRanks);
+        double abilities = profiles[attacker + ABILITY_WEIGHT]
+                * (basicRanks * BASIC_RANK_DPS + ultimateRanks * ULTIMATE_RANK_DPS);
+        
+        double armor = grown(profiles[target + ARMOR], profiles[target + ARMOR_GROWTH], targetLevel);
+        double mr = grown(profiles[target + MR], profiles[target + MR_GROWTH], targetLevel);
+        double magicShare = profiles[attacker + MAGIC_SHARE];
+        double physical = autos + abilities * (1 - magicShare);
+        double magic = abilities * magicShare;
+        return physical * 100 / (100 + armor) + magic * 100 / (100 + mr);
+    }
+    
+    private double health(int champion, int level) {
+        return grown(profiles[champion + HP], profiles[champion + HP_GROWTH], level);
+    }
+    
+    /**
+     * A stat at a level, with Riot's per-level growth curve
+     */
+    private static double grown(double base, double growth, int level) {
+        return base + growth * (level - 1) * (0.7025 + 0.0175 * (level - 1));
+    }
+    
+    private static void builtIn(String champion, String championClass, double... stats) {
+        BUILT_IN_STATS.put(champion, stats);
+        BUILT_IN_CLASSES.put(champion, championClass);
+    }
+}
@@ -0,0 +1,34 @@
+package com.lolcoach.service;
+
+import com.lolcoach.model.Scenario;
+
+/**
+ * Answers "should I back" from game time and lane state
+ */
+public class RecallAdviceHandler implements IntentHandler {
+    
+    @Override
+    public String handle(Scenario scenario) {
+        StringBuilder advice = new StringBuilder("Shove the wave into their tower first so you lose as little as possible. ");
+        
+        switch (scenario.getSituation().toLowerCase()) {
+            case "ahead":
+            case "winning":
+            case "dominating":
+                advice.append("You're ahead, back on a big gold lead to turn it into items.");
+                break;
+            case "behind":
+            case "losing":
+            case "struggling":
+                advice.append("You're behind, back as soon as you can afford a component; staying low only gives them kills.");
+                break;
+            default:
+                advice.append("Back when you can afford a completed component or are below half health.");
+        }
+        
+        if (scenario.getTime() >= 14) {
+            advice.append(" Time it so you're back before the next objective spawns.");
+        }
+        return advice.toString();
+    }
+}
@@ -1,11 +1,31 @@
 package com.lolcoach.service;
 
+import com.lolcoach.api.RiotApiService;
+import com.lolcoach.jfr.AdviceEvent;
+import com.lolcoach.jfr.CoachEvents;
+import com.lolcoach.model.AdviceResult;
+import com.lolcoach.model.AdviceTier;
+import com.lolcoach.model.ChampionData;
+import com.lolcoach.model.Intent;
 import com.lolcoach.model.Scenario;
 import com.lolcoach.model.MatchData;
+import com.lolcoach.profile.ProfileStore;
+import com.lolcoach.ranking.AdviceRanker;
+import com.lolcoach.sketch.UsageSketches;
+import com.lolcoach.staticdata.StaticDataCache;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -15,9 +35,64 @@ public class TacticsService {
     // Champion-specific advice database
     private final Map<String, Map<String, String>> championAdvice;
     
+    // Dedicated handlers for questions that are not general lane advice
+    private final Map<Intent, IntentHandler> intentHandlers = new EnumMap<>(Intent.class);
+    
+    // Optional local store of recorded matches
+    private MatchStore matchStore;
+    private UsageSketches usageSketches;
+    
+    // Optional Data Dragon abilities and stats for champions without hand-written advice
+    private StaticDataCache staticData;
+    
+    // Optional level and item advantage tables
+    private PowerCurves powerCurves;
+    
+    // Optional learned ordering of advice fragments, with each model fragment's enum value
+    private volatile AdviceRanker adviceRanker;
+    private AdviceFragments.Fragment[] rankedFragments;
+    private List<AdviceFragments.Fragment> unrankedFragments;
+    private final ThreadLocal<int[]> rankOrder =
+            ThreadLocal.withInitial(() -> new int[AdviceFragments.Fragment.values().length]);
+    
+    // Optional record of the player's past games
+    private ProfileStore profileStore;
+    private String player;
+    
+    private static final String GENERIC_ADVICE = "Focus on farming safely and avoid unnecessary risks.";
+    private static final int FULL_ADVICE_CACHE_SIZE = 256;
+    
+    // Optional source of historical match statistics
+    private RiotApiService historySource;
+    
+    // Last full answers per advice key, served when lookups miss the deadline
+    private final Map<String, String> fullAdviceCache = new LinkedHashMap<String, String>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > FULL_ADVICE_CACHE_SIZE;
+        }
+    };
+    
+    // Number of requests served by each tier
+    private final Map<AdviceTier, AtomicLong> tierCounts = new EnumMap<>(AdviceTier.class);
+    
+    // Runs pro match and history lookups so callers can stop waiting at their deadline
+    private final ExecutorService lookupExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "advice-lookup");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
     public TacticsService() {
         LOGGER.info("TacticsService initialized - ready for tactical analysis");
         this.championAdvice = initializeChampionAdvice();
+        intentHandlers.put(Intent.BUILD, new BuildAdviceHandler());
+        intentHandlers.put(Intent.OBJECTIVE, new ObjectiveAdviceHandler());
+        intentHandlers.put(Intent.TRADE, new TradeAdviceHandler(championAdvice));
+        intentHandlers.put(Intent.RECALL, new RecallAdviceHandler());
+        for (AdviceTier tier : AdviceTier.values()) {
+            tierCounts.put(tier, new AtomicLong());
+        }
     }
     
     /**
@@ -27,55 +102,423 @@ public class TacticsService {
      */
     public String generateAdvice(Scenario scenario) {
         LOGGER.info("Generating advice for scenario: " + scenario);
+        AdviceEvent event = CoachEvents.ENABLED ? new AdviceEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
         
         try {
-            StringBuilder advice = new StringBuilder();
-            
-            // Generate lane-specific advice
-            advice.append(generateLaneAdvice(scenario));
-            advice.append(" ");
-            
-            // Generate champion matchup advice
-            advice.append(generateChampionAdvice(scenario));
-            advice.append(" ");
-            
-            // Generate situation-specific advice
-            advice.append(generateSituationAdvice(scenario));
-            advice.append(" ");
-            
-            // Generate timing advice
-            advice.append(generateTimingAdvice(scenario));
-            
-            String finalAdvice = advice.toString().trim();
+            String key = adviceKey(scenario);
+            if (usageSketches != null) {
+                usageSketches.recordAdvice(key);
+            }
+            String finalAdvice = buildRuleAdvice(scenario, null);
             LOGGER.info("Generated advice: " + finalAdvice);
             
+            commit(event, key, scenario, finalAdvice, AdviceTier.RULE_ONLY);
             return finalAdvice;
             
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Error generating advice", e);
-            return "Focus on farming safely and avoid unnecessary risks.";
+            return GENERIC_ADVICE;
+        }
+    }
+    
+    /**
+     * Generates advice within a latency budget, degrading to cheaper tiers when time runs out:
+     * full advice with pro match and history lookups, then a cached full answer,
+     * then rule-only advice, then a generic tip.
+     * @param scenario The parsed game scenario
+     * @param deadline Time by which the advice must be ready
+     * @return Advice and the tier that served it
+     */
+    public AdviceResult generateAdvice(Scenario scenario, Deadline deadline) {
+        return generateAdvice(scenario, deadline, null);
+    }
+    
+    /**
+     * Generates advice within a latency budget, reusing a session's advice fragments whose inputs are unchanged
+     * @param scenario The parsed game scenario
+     * @param deadline Time by which the advice must be ready
+     * @param fragments The session's fragments, or null to generate everything
+     * @return Advice and the tier that served it
+     */
+    public AdviceResult generateAdvice(Scenario scenario, Deadline deadline, AdviceFragments fragments) {
+        AdviceEvent event = CoachEvents.ENABLED ? new AdviceEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        String key = adviceKey(scenario);
+        AdviceResult result = generateTiered(key, scenario, deadline, fragments);
+        commit(event, key, scenario, result.getAdvice(), result.getTier());
+        return result;
+    }
+    
+    private static void commit(AdviceEvent event, String key, Scenario scenario, String advice, AdviceTier tier) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.scenarioKey = key;
+            event.tier = tier.name();
+            event.intent = String.valueOf(scenario.getIntent());
+            event.adviceBytes = CoachEvents.bytes(advice);
+            event.commit();
+        }
+    }
+    
+    private AdviceResult generateTiered(String key, Scenario scenario, Deadline deadline, AdviceFragments fragments) {
+        long start = System.nanoTime();
+        if (usageSketches != null) {
+            usageSketches.recordAdvice(key);
+        }
+        
+        if (deadline.isExpired()) {
+            return serve(cachedOrGeneric(key), start);
+        }
+        
+        String ruleAdvice;
+        try {
+            ruleAdvice = buildRuleAdvice(scenario, fragments);
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Error generating advice", e);
+            return serve(cachedOrGeneric(key), start);
+        }
+        
+        Future<String> lookup = lookupExecutor.submit(() -> buildFullAdvice(scenario, ruleAdvice, deadline));
+        try {
+            String fullAdvice = lookup.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+            if (fullAdvice != null) {
+                synchronized (fullAdviceCache) {
+                    fullAdviceCache.put(key, fullAdvice);
+                }
+                return serve(new AdviceResult(fullAdvice, AdviceTier.FULL, 0), start);
+            }
+        } catch (TimeoutException e) {
+            lookup.cancel(true);
+        } catch (InterruptedException e) {
+            lookup.cancel(true);
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Advice lookup failed", e);
+        }
+        
+        String cached = getCachedAdvice(key);
+        if (cached != null) {
+            return serve(new AdviceResult(cached, AdviceTier.CACHED, 0), start);
+        }
+        return serve(new AdviceResult(ruleAdvice, AdviceTier.RULE_ONLY, 0), start);
+    }
+    
+    /**
+     * Number of requests served by each tier since startup
+     */
+    public Map<AdviceTier, Long> getTierCounts() {
+        Map<AdviceTier, Long> counts = new EnumMap<>(AdviceTier.class);
+        for (Map.Entry<AdviceTier, AtomicLong> entry : tierCounts.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().get());
         }
+        return counts;
+    }
+    
+    /**
+     * Sets the service used for historical lookups in full-tier advice
+     */
+    public void setHistorySource(RiotApiService historySource) {
+        this.historySource = historySource;
+    }
+    
+    private AdviceResult serve(AdviceResult result, long start) {
+        long elapsed = System.nanoTime() - start;
+        tierCounts.get(result.getTier()).incrementAndGet();
+        LOGGER.info("Advice served by tier " + result.getTier() + " in " + elapsed / 1000 + " us");
+        return new AdviceResult(result.getAdvice(), result.getTier(), elapsed);
+    }
+    
+    private AdviceResult cachedOrGeneric(String key) {
+        String cached = getCachedAdvice(key);
+        if (cached != null) {
+            return new AdviceResult(cached, AdviceTier.CACHED, 0);
+        }
+        return new AdviceResult(GENERIC_ADVICE, AdviceTier.GENERIC, 0);
+    }
+    
+    private String getCachedAdvice(String key) {
+        String cached;
+        synchronized (fullAdviceCache) {
+            cached = fullAdviceCache.get(key);
+        }
+        CoachEvents.cacheLookup(CoachEvents.CACHE_ADVICE, key, cached != null);
+        return cached;
+    }
+    
+    private String buildRuleAdvice(Scenario scenario, AdviceFragments fragments) {
+        if (fragments == null) {
+            fragments = new AdviceFragments();
+        }
+        fragments.beginRound();
+        
+        // Specific questions go to their handler; lane descriptions get the general advice
+        IntentHandler handler = scenario.getIntent() != null ? intentHandlers.get(scenario.getIntent()) : null;
+        if (handler != null) {
+            return handler.handle(scenario);
+        }
+        
+        StringBuilder advice = new StringBuilder();
+        AdviceRanker ranker = adviceRanker;
+        if (ranker == null) {
+            for (AdviceFragments.Fragment fragment : AdviceFragments.Fragment.values()) {
+                appendFragment(advice, fragment, scenario, fragments);
+            }
+            return advice.toString().trim();
+        }
+        
+        // Say the fragments that matter most here first and leave out the ones that don't;
+        // fragments the model wasn't trained on keep their place at the end
+        int[] order = rankOrder.get();
+        if (order.length < ranker.getFragmentCount()) {
+            order = new int[ranker.getFragmentCount()];
+            rankOrder.set(order);
+        }
+        int kept = ranker.rank(scenario, order);
+        for (int i = 0; i < kept; i++) {
+            AdviceFragments.Fragment fragment = rankedFragments[order[i]];
+            if (fragment != null) {
+                appendFragment(advice, fragment, scenario, fragments);
+            }
+        }
+        for (AdviceFragments.Fragment fragment : unrankedFragments) {
+            appendFragment(advice, fragment, scenario, fragments);
+        }
+        return advice.toString().trim();
+    }
+    
+    /**
+     * Appends one fragment, reusing the session's text when its inputs are unchanged
+     */
+    private void appendFragment(StringBuilder advice, AdviceFragments.Fragment fragment, Scenario scenario,
+                                AdviceFragments fragments) {
+        String playerChamp = String.valueOf(scenario.getPlayerChampion()).toLowerCase();
+        String enemyChamp = String.valueOf(scenario.getEnemyChampion()).toLowerCase();
+        Object firstInput;
+        Object secondInput = null;
+        switch (fragment) {
+            case LANE:
+                firstInput = String.valueOf(scenario.getLane()).toLowerCase();
+                break;
+            case MATCHUP:
+                firstInput = playerChamp;
+                secondInput = enemyChamp;
+                break;
+            case POWER:
+                if (powerCurves == null) {
+                    return;
+                }
+                firstInput = playerChamp + '|' + enemyChamp;
+                secondInput = powerInputs(scenario);
+                break;
+            case SITUATION:
+                firstInput = String.valueOf(scenario.getSituation()).toLowerCase();
+                break;
+            case PROFILE:
+                if (profileStore == null) {
+                    return;
+                }
+                // A new profile instance is published after every recorded game
+                firstInput = playerChamp + '|' + enemyChamp + '|' + String.valueOf(scenario.getLane()).toLowerCase();
+                secondInput = profileStore.get(player);
+                break;
+            default:
+                firstInput = gamePhase(scenario.getTime());
+        }
+        
+        String text = fragments.get(fragment, firstInput, secondInput);
+        if (text == null) {
+            text = generateFragment(fragment, scenario);
+            fragments.put(fragment, firstInput, secondInput, text);
+        }
+        if (text != null) {
+            advice.append(text);
+            if (!text.endsWith(" ")) {
+                advice.append(' ');
+            }
+        }
+    }
+    
+    private String generateFragment(AdviceFragments.Fragment fragment, Scenario scenario) {
+        switch (fragment) {
+            case LANE:
+                return generateLaneAdvice(scenario);
+            case MATCHUP:
+                return generateChampionAdvice(scenario);
+            case POWER:
+                return powerCurves.describe(scenario);
+            case SITUATION:
+                return generateSituationAdvice(scenario);
+            case PROFILE:
+                return profileStore.get(player).describe(scenario);
+            default:
+                return generateTimingAdvice(scenario);
+        }
+    }
+    
+    /**
+     * Extends rule advice with pro match and history lookups
+     * @return Full advice, or null if the lookups did not complete before the deadline
+     */
+    private String buildFullAdvice(Scenario scenario, String ruleAdvice, Deadline deadline) {
+        StringBuilder advice = new StringBuilder(ruleAdvice);
+        
+        // Only matches recorded in the match store for this lane and matchup; there is nothing to cite without one
+        List<MatchData> proMatches = fetchProMatchData(scenario, deadline);
+        if (!proMatches.isEmpty() && proMatches.get(0).getAdvice() != null && !proMatches.get(0).getAdvice().isEmpty()) {
+            advice.append(" In similar pro games: ").append(proMatches.get(0).getAdvice()).append(".");
+        }
+        
+        if (historySource != null && historySource.isConnected()) {
+            Map<String, Object> criteria = new HashMap<>();
+            criteria.put("lane", scenario.getLane());
+            criteria.put("playerChampion", scenario.getPlayerChampion());
+            criteria.put("enemyChampion", scenario.getEnemyChampion());
+            Object winRate = historySource.fetchHistoricalData(criteria, deadline).get("winRate");
+            if (winRate instanceof Number) {
+                advice.append(String.format(" Historical win rate here: %.0f%%.", ((Number) winRate).doubleValue() * 100));
+            }
+        }
+        
+        return deadline.isExpired() ? null : advice.toString();
+    }
+    
+    /**
+     * Key identifying a scenario in events and sketches: lane, champions, situation, 5-minute time bucket,
+     * intent and both levels
+     */
+    public static String scenarioKey(Scenario scenario) {
+        return String.valueOf(scenario.getLane()).toLowerCase() + '|'
+                + String.valueOf(scenario.getPlayerChampion()).toLowerCase() + '|'
+                + String.valueOf(scenario.getEnemyChampion()).toLowerCase() + '|'
+                + String.valueOf(scenario.getSituation()).toLowerCase() + '|'
+                + scenario.getTime() / 5 + '|'
+                + scenario.getIntent() + '|'
+                + scenario.getPlayerLevel() + '|'
+                + scenario.getEnemyLevel();
+    }
+    
+    /**
+     * Key under which advice is cached and counted: the scenario key plus the player's item tier,
+     * since the power curve text changes with both levels and items
+     */
+    String adviceKey(Scenario scenario) {
+        int itemTier = powerCurves != null ? powerCurves.itemTier(scenario.getAdditionalData()) : 0;
+        return scenarioKey(scenario) + '|' + itemTier;
     }
     
     /**
      * Optional function to retrieve similar professional match situations.
      * @param criteria The scenario to match against
-     * @return List of relevant match data
+     * @return List of relevant match data, empty without a match store
      */
     public List<MatchData> fetchProMatchData(Scenario criteria) {
+        return fetchProMatchData(criteria, Deadline.none());
+    }
+    
+    /**
+     * Retrieves similar professional match situations, stopping at the deadline.
+     * @param criteria The scenario to match against
+     * @param deadline Time by which the lookup must finish; results found so far are returned
+     * @return Stored matches with the same lane and champions, empty without a match store
+     */
+    public List<MatchData> fetchProMatchData(Scenario criteria, Deadline deadline) {
         LOGGER.info("Fetching pro match data for criteria: " + criteria);
         
-        // In a real implementation, this would query a database or API
-        // For now, return sample data
-        List<MatchData> matches = new ArrayList<>();
-        
-        // Add sample professional match data
-        matches.add(new MatchData("PRO001", java.time.LocalDateTime.now(), 
-                                 criteria.getLane(), criteria.getPlayerChampion(), 
-                                 criteria.getEnemyChampion(), criteria.getSituation(), 
-                                 "victory", "Play defensively and scale into late game"));
-        
-        return matches;
+        if (matchStore != null) {
+            List<MatchData> stored = matchStore.find(view ->
+                    view.laneEquals(criteria.getLane())
+                    && view.playerChampionEquals(criteria.getPlayerChampion())
+                    && view.enemyChampionEquals(criteria.getEnemyChampion()), deadline);
+            return stored;
+        }
+        return new ArrayList<>();
+    }
+    
+    /**
+     * Sets the local match store fetchProMatchData searches
+     */
+    public void setMatchStore(MatchStore matchStore) {
+        this.matchStore = matchStore;
+    }
+    
+    /**
+     * Sets the sketches that count which advice scenarios are requested
+     */
+    public void setUsageSketches(UsageSketches usageSketches) {
+        this.usageSketches = usageSketches;
+    }
+    
+    /**
+     * Sets the item recommender consulted when the player asks what to build
+     */
+    public void setBuildRecommender(BuildRecommender recommender) {
+        intentHandlers.put(Intent.BUILD, new BuildAdviceHandler(recommender));
+    }
+    
+    /**
+     * Sets the Data Dragon cache used to describe champions the advice database doesn't cover
+     */
+    public void setStaticData(StaticDataCache staticData) {
+        this.staticData = staticData;
+    }
+    
+    /**
+     * Sets the power curves used to call level and item spikes in lane advice and trade answers
+     */
+    public void setPowerCurves(PowerCurves powerCurves) {
+        this.powerCurves = powerCurves;
+        intentHandlers.put(Intent.TRADE, new TradeAdviceHandler(championAdvice, powerCurves));
+    }
+    
+    public PowerCurves getPowerCurves() {
+        return powerCurves;
+    }
+    
+    /**
+     * Sets the model that orders lane advice fragments by how much they matter in a scenario,
+     * or null for the fixed order
+     */
+    public void setAdviceRanker(AdviceRanker ranker) {
+        if (ranker != null) {
+            AdviceFragments.Fragment[] ranked = new AdviceFragments.Fragment[ranker.getFragmentCount()];
+            List<AdviceFragments.Fragment> unranked = new ArrayList<>();
+            for (AdviceFragments.Fragment fragment : AdviceFragments.Fragment.values()) {
+                int index = ranker.indexOf(fragment.name());
+                if (index >= 0) {
+                    ranked[index] = fragment;
+                } else {
+                    unranked.add(fragment);
+                }
+            }
+            rankedFragments = ranked;
+            unrankedFragments = unranked;
+        }
+        this.adviceRanker = ranker;
+    }
+    
+    /**
+     * Sets where the player's past games are read from, so advice can point out their habits
+     * @param player Name the player's profile is kept under
+     */
+    public void setProfileStore(ProfileStore profileStore, String player) {
+        this.profileStore = profileStore;
+        this.player = player;
+    }
+    
+    public ProfileStore getProfileStore() {
+        return profileStore;
+    }
+    
+    public String getPlayer() {
+        return player;
     }
     
     private String generateLaneAdvice(Scenario scenario) {
@@ -128,17 +571,38 @@ public class TacticsService {
     }
     
     private String generateTimingAdvice(Scenario scenario) {
-        int time = scenario.getTime();
-        
+        switch (gamePhase(scenario.getTime())) {
+            case 0:
+                return "Early game: Focus on last hitting and avoiding early trades.";
+            case 1:
+                return "Mid game: Look for roaming opportunities and objective control.";
+            case 2:
+                return "Late game: Group with your team and focus on team fights.";
+            default:
+                return "End game: Secure objectives and push for victory.";
+        }
+    }
+    
+    /**
+     * Everything the power fragment depends on besides the champions
+     */
+    private static Object powerInputs(Scenario scenario) {
+        Map<String, Object> data = scenario.getAdditionalData();
+        Object items = data != null ? data.get("items") : null;
+        return scenario.getPlayerLevel() + "|" + scenario.getEnemyLevel() + "|"
+                + (items instanceof Object[] ? Arrays.toString((Object[]) items) : items) + "|"
+                + (data != null ? data.get("gold") : null);
+    }
+    
+    private static int gamePhase(int time) {
         if (time < 5) {
-            return "Early game: Focus on last hitting and avoiding early trades.";
+            return 0;
         } else if (time < 15) {
-            return "Mid game: Look for roaming opportunities and objective control.";
+            return 1;
         } else if (time < 25) {
-            return "Late game: Group with your team and focus on team fights.";
-        } else {
-            return "End game: Secure objectives and push for victory.";
+            return 2;
         }
+        return 3;
     }
     
     private String getChampionSpecificAdvice(String champion) {
@@ -146,6 +610,12 @@ public class TacticsService {
         if (advice != null) {
             return advice.get("general") != null ? advice.get("general") : "";
         }
+        ChampionData data = staticData != null ? staticData.getChampion(champion) : null;
+        ChampionData.Spell ultimate = data != null ? data.getSpell(ChampionData.R) : null;
+        if (ultimate != null) {
+            return "Play around " + data.getPassiveName() + " and your ultimate, " + ultimate.getName() +
+                   ", which is up every " + seconds(ultimate.getCooldown(1)) + "s at rank 1.";
+        }
         return "Focus on your champion's strengths and playstyle. ";
     }
     
@@ -154,9 +624,51 @@ public class TacticsService {
         if (playerAdvice != null && playerAdvice.containsKey(enemyChamp)) {
             return playerAdvice.get(enemyChamp);
         }
+        ChampionData enemy = staticData != null ? staticData.getChampion(enemyChamp) : null;
+        if (enemy != null) {
+            return describeMatchup(staticData.getChampion(playerChamp), enemy);
+        }
         return "Study this matchup and adapt your playstyle accordingly. ";
     }
     
+    private static String describeMatchup(ChampionData player, ChampionData enemy) {
+        StringBuilder advice = new StringBuilder();
+        
+        // The basic ability with the longest cooldown is usually the engage or escape
+        ChampionData.Spell key = null;
+        int keySlot = -1;
+        for (int slot = ChampionData.Q; slot < ChampionData.R; slot++) {
+            ChampionData.Spell spell = enemy.getSpell(slot);
+            if (spell != null && (key == null || spell.getCooldown(1) > key.getCooldown(1))) {
+                key = spell;
+                keySlot = slot;
+            }
+        }
+        if (key != null) {
+            advice.append(enemy.getName()).append("'s ").append(key.getName())
+                  .append(" (").append("QWE".charAt(keySlot)).append(") has a ")
+                  .append(seconds(key.getCooldown(1))).append("s cooldown early; trade right after it's used. ");
+        }
+        
+        if (player != null) {
+            int playerRange = (int) player.getStat("attackrange");
+            int enemyRange = (int) enemy.getStat("attackrange");
+            if (enemyRange - playerRange >= 150) {
+                advice.append(enemy.getName()).append(" outranges you (").append(enemyRange).append(" vs ")
+                      .append(playerRange).append("), so don't stand in poke range without a reason to. ");
+            } else if (playerRange - enemyRange >= 150) {
+                advice.append("You outrange ").append(enemy.getName()).append(" (").append(playerRange).append(" vs ")
+                      .append(enemyRange).append("), so poke from the edge of your range. ");
+            }
+        }
+        return advice.length() > 0 ? advice.toString() : "Study this matchup and adapt your playstyle accordingly. ";
+    }
+    
+    private static String seconds(double value) {
+        double rounded = Math.round(value * 10) / 10.0;
+        return rounded == Math.rint(rounded) ? String.valueOf((long) rounded) : String.valueOf(rounded);
+    }
+    
     private Map<String, Map<String, String>> initializeChampionAdvice() {
         Map<String, Map<String, String>> advice = new HashMap<>();
         
@@ -0,0 +1,308 @@
+package com.lolcoach.service;
+
+import com.lolcoach.model.Scenario;
+import com.lolcoach.model.TeamAdvice;
+import com.lolcoach.model.TeamAdvice.LaneAssessment;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.logging.Level;
+
+/**
+ * Builds a scenario for every lane from live game data, evaluates them in
+ * parallel and merges the results into prioritized team-wide calls.
+ * Lanes that miss the latency budget are dropped and the result is marked partial.
+ */
+public class TeamAnalysisService {
+    private static final Logger LOGGER = Logger.getLogger(TeamAnalysisService.class.getName());
+    
+    private static final String[] LANES = {"top", "jungle", "mid", "bottom", "support"};
+    private static final long DEFAULT_BUDGET_MILLIS = 50;
+    
+    // Objectives further away than this are not worth calling yet
+    private static final int OBJECTIVE_WINDOW_SECONDS = 180;
+    private static final List<String> DRAGON_LANES = Arrays.asList("bottom", "support", "mid", "jungle");
+    private static final List<String> BARON_LANES = Arrays.asList("top", "mid", "jungle");
+    
+    private final TacticsService tacticsService;
+    private final ExecutorService executor;
+    
+    // Optional level and item advantage tables; lanes with a clear power edge score one step higher or lower
+    private volatile PowerCurves powerCurves;
+    
+    public TeamAnalysisService(TacticsService tacticsService) {
+        this.tacticsService = tacticsService;
+        this.executor = Executors.newFixedThreadPool(LANES.length, runnable -> {
+            Thread thread = new Thread(runnable, "team-analysis");
+            thread.setDaemon(true);
+            return thread;
+        });
+        LOGGER.info("TeamAnalysisService initialized");
+    }
+    
+    /**
+     * Analyzes all lanes within the default latency budget
+     */
+    public TeamAdvice analyzeTeam(Scenario playerScenario, Map<String, Object> liveData) {
+        return analyzeTeam(playerScenario, liveData, DEFAULT_BUDGET_MILLIS);
+    }
+    
+    /**
+     * Analyzes all lanes concurrently and merges them into team-wide calls
+     * @param playerScenario The speaker's own scenario
+     * @param liveData Live game snapshot with teammateStates, enemyStates and objectiveTimers
+     * @param budgetMillis Hard deadline; lanes not finished by then are left out
+     * @return Prioritized calls, partial if the deadline hit
+     */
+    public TeamAdvice analyzeTeam(Scenario playerScenario, Map<String, Object> liveData, long budgetMillis) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        
+        List<Scenario> scenarios = buildLaneScenarios(playerScenario, liveData);
+        int[] powerScores = powerScores(scenarios);
+        CompletionService<LaneAssessment> completion = new ExecutorCompletionService<>(executor);
+        List<Future<LaneAssessment>> futures = new ArrayList<>();
+        for (int i = 0; i < scenarios.size(); i++) {
+            Scenario scenario = scenarios.get(i);
+            int powerScore = powerScores[i];
+            futures.add(completion.submit(() -> assessLane(scenario, powerScore)));
+        }
+        
+        List<LaneAssessment> assessments = new ArrayList<>();
+        try {
+            while (assessments.size() < futures.size()) {
+                long remaining = deadline - System.nanoTime();
+                Future<LaneAssessment> done = remaining > 0 ? completion.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                if (done == null) {
+                    break;
+                }
+                try {
+                    assessments.add(done.get());
+                } catch (ExecutionException e) {
+                    LOGGER.log(Level.WARNING, "Lane assessment failed", e.getCause());
+                    futures.remove(done);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        
+        boolean partial = assessments.size() < futures.size();
+        if (partial) {
+            LOGGER.warning("Team analysis deadline hit, " + assessments.size() + "/" + futures.size() + " lanes evaluated");
+            for (Future<LaneAssessment> future : futures) {
+                future.cancel(true);
+            }
+        }
+        
+        assessments.sort(Comparator.comparingInt(LaneAssessment::getScore).reversed());
+        List<String> calls = mergeCalls(assessments, liveData);
+        return new TeamAdvice(assessments, calls, partial, System.nanoTime() - start);
+    }
+    
+    /**
+     * Builds one scenario per lane. The player's lane keeps the parsed scenario;
+     * other lanes take their state from teammateStates, or the inverse of enemyStates.
+     */
+    public List<Scenario> buildLaneScenarios(Scenario playerScenario, Map<String, Object> liveData) {
+        Map<?, ?> teammateStates = asMap(liveData.get("teammateStates"));
+        Map<?, ?> enemyStates = asMap(liveData.get("enemyStates"));
+        
+        List<Scenario> scenarios = new ArrayList<>();
+        for (String lane : LANES) {
+            if (lane.equalsIgnoreCase(playerScenario.getLane()) && !"neutral".equals(playerScenario.getSituation())) {
+                scenarios.add(playerScenario);
+                continue;
+            }
+            String situation = "even";
+            if (teammateStates.containsKey(lane)) {
+                situation = String.valueOf(teammateStates.get(lane));
+            } else if (enemyStates.containsKey(lane)) {
+                situation = invertSituation(String.valueOf(enemyStates.get(lane)));
+            }
+            scenarios.add(new Scenario(lane, playerScenario.getTime(), "unknown", Scenario.UNKNOWN_LEVEL, "unknown",
+                                       Scenario.UNKNOWN_LEVEL, situation));
+        }
+        return scenarios;
+    }
+    
+    /**
+     * Sets the power curves used to weigh each lane's level and item advantage
+     */
+    public void setPowerCurves(PowerCurves powerCurves) {
+        this.powerCurves = powerCurves;
+    }
+    
+    /**
+     * Stops the worker threads
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+    
+    private LaneAssessment assessLane(Scenario scenario, int powerScore) {
+        return new LaneAssessment(scenario, situationScore(scenario.getSituation()) + powerScore,
+                                  tacticsService.generateAdvice(scenario));
+    }
+    
+    /**
+     * Evaluates every lane's matchup in one batch: +1 for a clear power edge, -1 for a clear deficit
+     */
+    private int[] powerScores(List<Scenario> scenarios) {
+        int count = scenarios.size();
+        int[] scores = new int[count];
+        PowerCurves curves = powerCurves;
+        if (curves == null) {
+            return scores;
+        }
+        int[] pairs = new int[count];
+        int[] playerLevels = new int[count];
+        int[] enemyLevels = new int[count];
+        int[] tiers = new int[count];
+        for (int i = 0; i < count; i++) {
+            Scenario scenario = scenarios.get(i);
+            pairs[i] = curves.pairId(scenario.getPlayerChampion(), scenario.getEnemyChampion());
+            playerLevels[i] = PowerCurves.playerLevel(scenario);
+            enemyLevels[i] = PowerCurves.enemyLevel(scenario);
+            tiers[i] = curves.itemTier(scenario.getAdditionalData());
+        }
+        float[] advantages = new float[count];
+        curves.evaluate(pairs, playerLevels, enemyLevels, tiers, tiers, advantages, count);
+        for (int i = 0; i < count; i++) {
+            scores[i] = advantages[i] >= PowerCurves.EDGE ? 1 : advantages[i] <= -PowerCurves.EDGE ? -1 : 0;
+        }
+        return scores;
+    }
+    
+    private List<String> mergeCalls(List<LaneAssessment> assessments, Map<String, Object> liveData) {
+        List<String> calls = new ArrayList<>();
+        
+        // Find the closest objective within the call window
+        String objective = null;
+        int objectiveSeconds = Integer.MAX_VALUE;
+        for (Map.Entry<?, ?> timer : asMap(liveData.get("objectiveTimers")).entrySet()) {
+            int seconds = parseTimer(String.valueOf(timer.getValue()));
+            if (seconds >= 0 && seconds <= OBJECTIVE_WINDOW_SECONDS && seconds < objectiveSeconds) {
+                objective = String.valueOf(timer.getKey());
+                objectiveSeconds = seconds;
+            }
+        }
+        
+        // Play around the strongest lane, preferring one close to the next objective
+        LaneAssessment strongest = null;
+        for (LaneAssessment assessment : assessments) {
+            if (assessment.getScore() <= 0) {
+                break;
+            }
+            if (strongest == null) {
+                strongest = assessment;
+            }
+            if (objective != null && isNearObjective(assessment.getLane(), objective)) {
+                strongest = assessment;
+                break;
+            }
+        }
+        
+        if (strongest != null && objective != null && isNearObjective(strongest.getLane(), objective)) {
+            calls.add(String.format("%s is ahead, play around %s for %s.",
+                                    strongest.getLane(), strongest.getLane(), objective.toLowerCase()));
+        } else {
+            if (strongest != null) {
+                calls.add(String.format("%s is ahead, play around %s.", strongest.getLane(), strongest.getLane()));
+            }
+            if (objective != null) {
+                calls.add(String.format("%s spawns in %d:%02d, start setting up vision.",
+                                        objective, objectiveSeconds / 60, objectiveSeconds % 60));
+            }
+        }
+        
+        // Warn about the weakest lane
+        if (!assessments.isEmpty()) {
+            LaneAssessment weakest = assessments.get(assessments.size() - 1);
+            if (weakest.getScore() < 0) {
+                calls.add(String.format("%s is behind, avoid fights on the %s side.", weakest.getLane(), weakest.getLane()));
+            }
+        }
+        
+        if (calls.isEmpty()) {
+            calls.add("All lanes are even, group for the next objective.");
+        }
+        return calls;
+    }
+    
+    private static boolean isNearObjective(String lane, String objective) {
+        String name = objective.toLowerCase();
+        if (name.contains("dragon")) {
+            return DRAGON_LANES.contains(lane);
+        }
+        if (name.contains("baron") || name.contains("herald")) {
+            return BARON_LANES.contains(lane);
+        }
+        return false;
+    }
+    
+    private static int situationScore(String situation) {
+        switch (situation.toLowerCase()) {
+            case "dominating":
+                return 2;
+            case "ahead":
+            case "winning":
+                return 1;
+            case "behind":
+            case "losing":
+                return -1;
+            case "struggling":
+                return -2;
+            default:
+                return 0;
+        }
+    }
+    
+    private static String invertSituation(String enemySituation) {
+        switch (enemySituation.toLowerCase()) {
+            case "dominating":
+                return "struggling";
+            case "ahead":
+                return "behind";
+            case "winning":
+                return "losing";
+            case "behind":
+                return "ahead";
+            case "losing":
+                return "winning";
+            case "struggling":
+                return "dominating";
+            default:
+                return "even";
+        }
+    }
+    
+    /**
+     * Parses an "m:ss" timer into seconds, or -1 if malformed
+     */
+    private static int parseTimer(String timer) {
+        try {
+            String[] parts = timer.split(":");
+            if (parts.length == 2) {
+                return Integer.parseInt(parts[0].trim()) * 60 + Integer.parseInt(parts[1].trim());
+            }
+            return Integer.parseInt(timer.trim()) * 60;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    private static Map<?, ?> asMap(Object value) {
+        return value instanceof Map ? (Map<?, ?>) value : Map.of();
+    }
+}
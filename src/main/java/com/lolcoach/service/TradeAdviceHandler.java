@@ -0,0 +1,69 @@
+package com.lolcoach.service;
+
+import com.lolcoach.model.Scenario;
+import java.util.Map;
+
+/**
+ * Answers "should I fight" from the level difference, the lane state and known matchups,
+ * using the matchup's power curve when one is available
+ */
+public class TradeAdviceHandler implements IntentHandler {
+    private final Map<String, Map<String, String>> championAdvice;
+    private final PowerCurves powerCurves;
+    
+    /**
+     * @param championAdvice Matchup advice keyed by player champion, then enemy champion
+     */
+    public TradeAdviceHandler(Map<String, Map<String, String>> championAdvice) {
+        this(championAdvice, null);
+    }
+    
+    /**
+     * @param championAdvice Matchup advice keyed by player champion, then enemy champion
+     * @param powerCurves Level and item advantage tables, may be null
+     */
+    public TradeAdviceHandler(Map<String, Map<String, String>> championAdvice, PowerCurves powerCurves) {
+        this.championAdvice = championAdvice;
+        this.powerCurves = powerCurves;
+    }
+    
+    @Override
+    public String handle(Scenario scenario) {
+        StringBuilder advice = new StringBuilder();
+        // Only compare levels both sides stated
+        int levelDifference = scenario.hasLevels() ? scenario.getPlayerLevel() - scenario.getEnemyLevel() : 0;
+        String power = powerCurves != null ? powerCurves.describe(scenario) : null;
+        
+        if (power != null) {
+            advice.append(power);
+        } else if (scenario.hasLevels() && scenario.getPlayerLevel() >= 6 && scenario.getEnemyLevel() < 6) {
+            advice.append("You have your ultimate and they don't, this is your window to all in. ");
+        } else if (levelDifference > 0) {
+            advice.append("You're a level up, trade now before they catch up. ");
+        } else if (levelDifference < 0) {
+            advice.append("They're a level up, avoid trading until you hit the next level. ");
+        }
+        
+        switch (scenario.getSituation().toLowerCase()) {
+            case "ahead":
+            case "winning":
+            case "dominating":
+                advice.append("You're ahead, take the fight but track the enemy jungler first. ");
+                break;
+            case "behind":
+            case "losing":
+            case "struggling":
+                advice.append("You're behind, only take short trades when their key cooldown is down. ");
+                break;
+            default:
+                advice.append("Trade when they use a key ability or walk up to last hit. ");
+        }
+        
+        Map<String, String> playerAdvice = championAdvice.get(scenario.getPlayerChampion().toLowerCase());
+        String enemy = scenario.getEnemyChampion().toLowerCase();
+        if (playerAdvice != null && playerAdvice.containsKey(enemy)) {
+            advice.append(playerAdvice.get(enemy));
+        }
+        return advice.toString().trim();
+    }
+}
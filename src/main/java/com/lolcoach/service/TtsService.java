@@ -1,5 +1,8 @@
 package com.lolcoach.service;
 
+import com.lolcoach.audio.AudioOutput;
+import com.lolcoach.jfr.CoachEvents;
+import com.lolcoach.jfr.TtsEvent;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
@@ -7,6 +10,11 @@ public class TtsService {
     private static final Logger LOGGER = Logger.getLogger(TtsService.class.getName());
     private boolean isSpeaking = false;
     
+    // Optional playback path; synthesized speech will be handed to it as PCM
+    private AudioOutput audioOutput;
+    private short[] promptTone;
+    private static final float PROMPT_TONE_RATE = 16000f;
+    
     // Note: In a real implementation, you would include FreeTTS dependencies
     // and implement actual text-to-speech functionality
     
@@ -26,6 +34,10 @@ public class TtsService {
             stopSpeaking();
         }
         
+        TtsEvent event = CoachEvents.ENABLED ? new TtsEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
         try {
             isSpeaking = true;
             
@@ -38,6 +50,13 @@ public class TtsService {
             LOGGER.log(Level.SEVERE, "Error during text-to-speech", e);
         } finally {
             isSpeaking = false;
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.textBytes = CoachEvents.bytes(advice);
+                    event.commit();
+                }
+            }
         }
     }
     
@@ -46,6 +65,11 @@ public class TtsService {
      * Replace this with actual FreeTTS implementation
      */
     private void simulateTextToSpeech(String text) {
+        // Until a speech engine is integrated, a short chime exercises the real output path
+        if (audioOutput != null) {
+            audioOutput.play(promptTone, promptTone.length, PROMPT_TONE_RATE);
+        }
+        
         // Simulate processing time
         try {
             Thread.sleep(2000);
@@ -58,6 +82,15 @@ public class TtsService {
         System.out.println("🔊 Audio output would play here in production");
     }
     
+    /**
+     * Loads the text-to-speech voice ahead of first use.
+     * Called from a background thread during startup; a no-op until a real engine is integrated.
+     */
+    public void warmUp() {
+        // In production, this would load the text-to-speech voice from disk
+        LOGGER.info("TtsService warm-up complete");
+    }
+    
     /**
      * Checks if the system is currently speaking
      */
@@ -70,9 +103,40 @@ public class TtsService {
      */
     public void stopSpeaking() {
         isSpeaking = false;
+        if (audioOutput != null) {
+            audioOutput.stop();
+        }
         LOGGER.info("Speech output stopped");
     }
     
+    /**
+     * Sets the output that plays speech, e.g. a speaker line or a WAV file for testing
+     */
+    public void setAudioOutput(AudioOutput audioOutput) {
+        this.audioOutput = audioOutput;
+        if (promptTone == null) {
+            promptTone = createPromptTone();
+        }
+    }
+    
+    public AudioOutput getAudioOutput() {
+        return audioOutput;
+    }
+    
+    /**
+     * Two rising notes, 120 ms each
+     */
+    private static short[] createPromptTone() {
+        int noteSamples = (int) (PROMPT_TONE_RATE * 0.12);
+        short[] tone = new short[2 * noteSamples];
+        double[] frequencies = {660, 880};
+        for (int i = 0; i < tone.length; i++) {
+            double envelope = Math.sin(Math.PI * (i % noteSamples) / noteSamples);
+            tone[i] = (short) (6000 * envelope * Math.sin(2 * Math.PI * frequencies[i / noteSamples] * i / PROMPT_TONE_RATE));
+        }
+        return tone;
+    }
+    
     /**
      * Sets the speech rate (words per minute)
      * @param rate The speech rate (default is usually 150-200)
@@ -0,0 +1,108 @@
+package com.lolcoach.sketch;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch: approximate counts for any number of keys in fixed memory.
+ * Estimates never undercount, and overcount by at most total/width with high probability.
+ * Updates are one atomic add per row and never block.
+ */
+public class CountMinSketch {
+    private final int depth;
+    private final int width;
+    private final AtomicLongArray counts;
+    
+    /**
+     * @param depth Number of hash rows
+     * @param width Counters per row, must be a power of two
+     */
+    public CountMinSketch(int depth, int width) {
+        if (Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Width must be a power of two: " + width);
+        }
+        this.depth = depth;
+        this.width = width;
+        this.counts = new AtomicLongArray(depth * width);
+    }
+    
+    /**
+     * Adds to a key's count. Every row's counter is raised by the full amount: the
+     * conservative update, which raises only the lowest counters, needs the estimate
+     * and the update to happen as one step and loses counts between concurrent writers.
+     * @return The key's estimated count after the update
+     */
+    public long add(int namespace, CharSequence key, long amount) {
+        long hash = SketchHash.hash(namespace, key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts.addAndGet(index(hash, row), amount));
+        }
+        return estimate;
+    }
+    
+    /**
+     * Returns the estimated count of a key
+     */
+    public long estimate(int namespace, CharSequence key) {
+        return estimate(SketchHash.hash(namespace, key));
+    }
+    
+    private long estimate(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counts.get(index(hash, row)));
+        }
+        return estimate;
+    }
+    
+    /**
+     * Adds another sketch's counts to this one; both must have the same shape
+     */
+    public void merge(CountMinSketch other) {
+        if (other.depth != depth || other.width != width) {
+            throw new IllegalArgumentException("Cannot merge " + other.depth + "x" + other.width +
+                                               " sketch into " + depth + "x" + width);
+        }
+        for (int i = 0; i < counts.length(); i++) {
+            counts.addAndGet(i, other.counts.get(i));
+        }
+    }
+    
+    public int getDepth() {
+        return depth;
+    }
+    
+    public int getWidth() {
+        return width;
+    }
+    
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeShort(depth);
+        out.writeInt(width);
+        for (int i = 0; i < counts.length(); i++) {
+            out.writeLong(counts.get(i));
+        }
+    }
+    
+    public static CountMinSketch readFrom(DataInputStream in) throws IOException {
+        int depth = in.readUnsignedShort();
+        int width = in.readInt();
+        CountMinSketch sketch = new CountMinSketch(depth, width);
+        for (int i = 0; i < sketch.counts.length(); i++) {
+            sketch.counts.set(i, in.readLong());
+        }
+        return sketch;
+    }
+    
+    /**
+     * Picks one counter per row from an independently remixed hash, so two keys
+     * colliding in one row are unlikely to collide in the others
+     */
+    private int index(long hash, int row) {
+        long rowHash = SketchHash.mix(hash + row * 0x9E3779B97F4A7C15L);
+        return row * width + (int) (rowHash & (width - 1));
+    }
+}
@@ -0,0 +1,108 @@
+package com.lolcoach.sketch;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * HyperLogLog distinct counter. Registers are bytes packed four to an int and
+ * raised with compare-and-set, so concurrent updates never block.
+ * With 2^10 registers the standard error is about 3%.
+ */
+public class HyperLogLog {
+    private final int precision;
+    private final int registerCount;
+    private final AtomicIntegerArray registers;
+    
+    /**
+     * @param precision Log2 of the register count, 4 to 16
+     */
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 16) {
+            throw new IllegalArgumentException("Precision must be between 4 and 16: " + precision);
+        }
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+        this.registers = new AtomicIntegerArray(registerCount / 4);
+    }
+    
+    public void add(int namespace, CharSequence key) {
+        addHash(SketchHash.hash(namespace, key));
+    }
+    
+    public void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        raise(index, rank);
+    }
+    
+    /**
+     * Returns the estimated number of distinct keys added
+     */
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < registerCount; i++) {
+            int value = get(i);
+            sum += 1.0 / (1L << value);
+            if (value == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / registerCount);
+        double estimate = alpha * registerCount * registerCount / sum;
+        
+        // Linear counting is more accurate while many registers are still empty
+        if (estimate <= 2.5 * registerCount && zeros > 0) {
+            estimate = registerCount * Math.log((double) registerCount / zeros);
+        }
+        return Math.round(estimate);
+    }
+    
+    /**
+     * Folds another counter into this one; both must have the same precision
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge precision " + other.precision + " into " + precision);
+        }
+        for (int i = 0; i < registerCount; i++) {
+            raise(i, other.get(i));
+        }
+    }
+    
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeByte(precision);
+        for (int i = 0; i < registerCount; i++) {
+            out.writeByte(get(i));
+        }
+    }
+    
+    public static HyperLogLog readFrom(DataInputStream in) throws IOException {
+        HyperLogLog hll = new HyperLogLog(in.readUnsignedByte());
+        for (int i = 0; i < hll.registerCount; i++) {
+            hll.raise(i, in.readUnsignedByte());
+        }
+        return hll;
+    }
+    
+    private int get(int index) {
+        return (registers.get(index >> 2) >>> ((index & 3) * 8)) & 0xFF;
+    }
+    
+    private void raise(int index, int rank) {
+        int slot = index >> 2;
+        int shift = (index & 3) * 8;
+        while (true) {
+            int word = registers.get(slot);
+            if (((word >>> shift) & 0xFF) >= rank) {
+                return;
+            }
+            int updated = (word & ~(0xFF << shift)) | (rank << shift);
+            if (registers.compareAndSet(slot, word, updated)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.lolcoach.sketch;
+
+/**
+ * 64-bit string hashing shared by the sketches. Keys are hashed by character,
+ * ignoring case, so callers never need to normalize or copy them first.
+ */
+final class SketchHash {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    
+    private SketchHash() {}
+    
+    /**
+     * Hashes a key within a namespace, so one sketch can count several kinds of keys
+     */
+    static long hash(int namespace, CharSequence key) {
+        long hash = FNV_OFFSET ^ namespace;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= Character.toLowerCase(key.charAt(i));
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+    
+    /**
+     * MurmurHash3 finalizer, spreads FNV output over all 64 bits
+     */
+    static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
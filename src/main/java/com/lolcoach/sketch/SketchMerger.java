@@ -0,0 +1,42 @@
+package com.lolcoach.sketch;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Merges usage sketch files from several coach instances and prints the fleet-wide report.
+ * Usage: SketchMerger [--out merged.bin] file...
+ */
+public class SketchMerger {
+    
+    public static void main(String[] args) throws Exception {
+        Path output = null;
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--out".equals(args[i]) && i + 1 < args.length) {
+                output = Paths.get(args[++i]);
+            } else {
+                inputs.add(Paths.get(args[i]));
+            }
+        }
+        if (inputs.isEmpty()) {
+            System.err.println("Usage: SketchMerger [--out merged.bin] file...");
+            System.exit(2);
+        }
+        
+        UsageSketches merged = new UsageSketches();
+        for (Path input : inputs) {
+            merged.merge(UsageSketches.load(input));
+        }
+        
+        System.out.println("Merged " + inputs.size() + " sketch files (" + merged.toBytes().length + " bytes)");
+        merged.report(System.out);
+        
+        if (output != null) {
+            merged.save(output);
+            System.out.println("Wrote " + output);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.lolcoach.sketch;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Heavy-hitter tracker: keeps the k keys with the highest count-min estimates.
+ * Slots hold immutable entries swapped in with compare-and-set; a lost race only
+ * delays a key until its next occurrence, which is fine for approximate rankings.
+ */
+public class TopK {
+    private final int namespace;
+    private final CountMinSketch counts;
+    private final AtomicReferenceArray<Entry> slots;
+    
+    /**
+     * @param namespace Keeps this tracker's keys apart from others sharing the same sketch
+     * @param counts Count-min sketch holding the frequencies
+     * @param k Number of keys kept
+     */
+    public TopK(int namespace, CountMinSketch counts, int k) {
+        this.namespace = namespace;
+        this.counts = counts;
+        this.slots = new AtomicReferenceArray<>(k);
+    }
+    
+    /**
+     * Counts one occurrence of a key and promotes it if it is now among the heaviest
+     */
+    public void add(String key) {
+        offer(key, counts.add(namespace, key, 1));
+    }
+    
+    /**
+     * Returns the tracked keys, heaviest first
+     */
+    public List<Entry> entries() {
+        Map<String, Entry> unique = new HashMap<>();
+        for (int i = 0; i < slots.length(); i++) {
+            Entry entry = slots.get(i);
+            if (entry != null) {
+                unique.merge(entry.key.toLowerCase(), entry, (a, b) -> a.count >= b.count ? a : b);
+            }
+        }
+        List<Entry> result = new ArrayList<>(unique.values());
+        result.sort(Comparator.comparingLong(Entry::getCount).reversed());
+        return result;
+    }
+    
+    /**
+     * Re-ranks the union of both trackers' keys against this tracker's sketch.
+     * Merge the underlying count-min sketches first so the estimates cover both sides.
+     */
+    public void merge(TopK other) {
+        List<Entry> candidates = entries();
+        candidates.addAll(other.entries());
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+        for (Entry candidate : candidates) {
+            offer(candidate.key, counts.estimate(namespace, candidate.key));
+        }
+    }
+    
+    public void writeTo(DataOutputStream out) throws IOException {
+        List<Entry> entries = entries();
+        out.writeShort(slots.length());
+        out.writeShort(entries.size());
+        for (Entry entry : entries) {
+            out.writeUTF(entry.key);
+            out.writeLong(entry.count);
+        }
+    }
+    
+    /**
+     * Reads a tracker written by writeTo, attached to an already read sketch
+     */
+    public static TopK readFrom(DataInputStream in, int namespace, CountMinSketch counts) throws IOException {
+        TopK topK = new TopK(namespace, counts, in.readUnsignedShort());
+        int size = in.readUnsignedShort();
+        for (int i = 0; i < size; i++) {
+            topK.offer(in.readUTF(), in.readLong());
+        }
+        return topK;
+    }
+    
+    private void offer(String key, long estimate) {
+        int weakest = -1;
+        long weakestCount = Long.MAX_VALUE;
+        for (int i = 0; i < slots.length(); i++) {
+            Entry entry = slots.get(i);
+            if (entry == null) {
+                if (slots.compareAndSet(i, null, new Entry(key, estimate))) {
+                    return;
+                }
+                entry = slots.get(i);
+            }
+            if (entry.key.equalsIgnoreCase(key)) {
+                if (estimate > entry.count) {
+                    slots.compareAndSet(i, entry, new Entry(entry.key, estimate));
+                }
+                return;
+            }
+            if (entry.count < weakestCount) {
+                weakest = i;
+                weakestCount = entry.count;
+            }
+        }
+        if (weakest >= 0 && estimate > weakestCount) {
+            Entry evicted = slots.get(weakest);
+            if (evicted != null && evicted.count == weakestCount) {
+                slots.compareAndSet(weakest, evicted, new Entry(key, estimate));
+            }
+        }
+    }
+    
+    /**
+     * A tracked key and its estimated count
+     */
+    public static class Entry {
+        private final String key;
+        private final long count;
+        
+        public Entry(String key, long count) {
+            this.key = key;
+            this.count = count;
+        }
+        
+        public String getKey() { return key; }
+        public long getCount() { return count; }
+        
+        @Override
+        public String toString() {
+            return key + "=" + count;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.lolcoach.sketch;
+
+import com.lolcoach.model.Scenario;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Fleet-wide usage statistics in a fixed ~12 KB: which champions, matchups, questions
+ * and advice scenarios are hot, and how many distinct ones are seen. All heavy-hitter
+ * trackers share one count-min sketch. Files written by different coach instances
+ * merge offline with {@link SketchMerger}.
+ */
+public class UsageSketches {
+    static final int MAGIC = 0x4C43534B; // "LCSK"
+    static final int VERSION = 1;
+    
+    public static final int DEPTH = 4;
+    public static final int WIDTH = 256;
+    public static final int TOP_K = 10;
+    public static final int PRECISION = 10;
+    
+    // Namespaces inside the shared count-min sketch and hash space
+    private static final int CHAMPIONS = 1;
+    private static final int MATCHUPS = 2;
+    private static final int QUESTIONS = 3;
+    private static final int SCENARIOS = 4;
+    private static final int UTTERANCES = 5;
+    
+    private final CountMinSketch counts;
+    private final TopK champions;
+    private final TopK matchups;
+    private final TopK questions;
+    private final TopK scenarios;
+    private final HyperLogLog distinctMatchups;
+    private final HyperLogLog distinctUtterances;
+    private final HyperLogLog distinctScenarios;
+    
+    public UsageSketches() {
+        this(new CountMinSketch(DEPTH, WIDTH), null, new HyperLogLog(PRECISION),
+             new HyperLogLog(PRECISION), new HyperLogLog(PRECISION));
+    }
+    
+    private UsageSketches(CountMinSketch counts, TopK[] trackers, HyperLogLog distinctMatchups,
+                          HyperLogLog distinctUtterances, HyperLogLog distinctScenarios) {
+        this.counts = counts;
+        this.champions = trackers != null ? trackers[0] : new TopK(CHAMPIONS, counts, TOP_K);
+        this.matchups = trackers != null ? trackers[1] : new TopK(MATCHUPS, counts, TOP_K);
+        this.questions = trackers != null ? trackers[2] : new TopK(QUESTIONS, counts, TOP_K);
+        this.scenarios = trackers != null ? trackers[3] : new TopK(SCENARIOS, counts, TOP_K);
+        this.distinctMatchups = distinctMatchups;
+        this.distinctUtterances = distinctUtterances;
+        this.distinctScenarios = distinctScenarios;
+    }
+    
+    /**
+     * Records a parsed utterance
+     * @param text The recognized speech text
+     * @param scenario The scenario parsed from it
+     */
+    public void recordParse(String text, Scenario scenario) {
+        distinctUtterances.add(UTTERANCES, text);
+        
+        boolean knownPlayer = isKnown(scenario.getPlayerChampion());
+        boolean knownEnemy = isKnown(scenario.getEnemyChampion());
+        if (knownPlayer) {
+            champions.add(scenario.getPlayerChampion());
+        }
+        if (knownEnemy) {
+            champions.add(scenario.getEnemyChampion());
+        }
+        if (knownPlayer && knownEnemy) {
+            String matchup = scenario.getPlayerChampion() + " vs " + scenario.getEnemyChampion();
+            matchups.add(matchup);
+            distinctMatchups.add(MATCHUPS, matchup);
+        }
+        if (scenario.getIntent() != null) {
+            questions.add(scenario.getIntent() + " " + scenario.getLane());
+        }
+    }
+    
+    /**
+     * Records an advice request
+     * @param scenarioKey The advice cache key of the scenario
+     */
+    public void recordAdvice(String scenarioKey) {
+        scenarios.add(scenarioKey);
+        distinctScenarios.add(SCENARIOS, scenarioKey);
+    }
+    
+    /**
+     * Folds another instance's statistics into these
+     */
+    public void merge(UsageSketches other) {
+        counts.merge(other.counts);
+        champions.merge(other.champions);
+        matchups.merge(other.matchups);
+        questions.merge(other.questions);
+        scenarios.merge(other.scenarios);
+        distinctMatchups.merge(other.distinctMatchups);
+        distinctUtterances.merge(other.distinctUtterances);
+        distinctScenarios.merge(other.distinctScenarios);
+    }
+    
+    public TopK getChampions() { return champions; }
+    public TopK getMatchups() { return matchups; }
+    public TopK getQuestions() { return questions; }
+    public TopK getScenarios() { return scenarios; }
+    public HyperLogLog getDistinctMatchups() { return distinctMatchups; }
+    public HyperLogLog getDistinctUtterances() { return distinctUtterances; }
+    public HyperLogLog getDistinctScenarios() { return distinctScenarios; }
+    
+    /**
+     * Prints the hot keys and distinct counts
+     */
+    public void report(PrintStream out) {
+        out.println("Distinct utterances: ~" + distinctUtterances.estimate());
+        out.println("Distinct matchups:   ~" + distinctMatchups.estimate());
+        out.println("Distinct scenarios:  ~" + distinctScenarios.estimate());
+        out.println("Top champions: " + champions.entries());
+        out.println("Top matchups:  " + matchups.entries());
+        out.println("Top questions: " + questions.entries());
+        out.println("Top scenarios: " + scenarios.entries());
+    }
+    
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            save(bytes);
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory write failed", e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    public void save(OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        counts.writeTo(out);
+        champions.writeTo(out);
+        matchups.writeTo(out);
+        questions.writeTo(out);
+        scenarios.writeTo(out);
+        distinctMatchups.writeTo(out);
+        distinctUtterances.writeTo(out);
+        distinctScenarios.writeTo(out);
+        out.flush();
+    }
+    
+    /**
+     * Writes the sketches to a file, replacing it atomically so readers never see a partial file.
+     * Saves from several threads, such as a periodic save and one on exit, are serialized.
+     */
+    public synchronized void save(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+            save(out);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    public static UsageSketches load(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a usage sketch file");
+        }
+        int version = in.readUnsignedByte();
+        if (version > VERSION) {
+            throw new IOException("Unsupported usage sketch version: " + version);
+        }
+        CountMinSketch counts = CountMinSketch.readFrom(in);
+        TopK[] trackers = {
+            TopK.readFrom(in, CHAMPIONS, counts),
+            TopK.readFrom(in, MATCHUPS, counts),
+            TopK.readFrom(in, QUESTIONS, counts),
+            TopK.readFrom(in, SCENARIOS, counts)
+        };
+        return new UsageSketches(counts, trackers, HyperLogLog.readFrom(in),
+                                 HyperLogLog.readFrom(in), HyperLogLog.readFrom(in));
+    }
+    
+    public static UsageSketches load(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return load(in);
+        }
+    }
+    
+    /**
+     * Loads the sketches saved by an earlier run, so counts keep accumulating across runs
+     * @return The saved sketches, or empty ones if the file doesn't exist yet
+     */
+    public static UsageSketches loadOrCreate(Path file) throws IOException {
+        return Files.exists(file) ? load(file) : new UsageSketches();
+    }
+    
+    private static boolean isKnown(String value) {
+        return value != null && !value.isEmpty() && !"unknown".equalsIgnoreCase(value);
+    }
+}
@@ -0,0 +1,195 @@
+package com.lolcoach.staticdata;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lolcoach.model.ChampionData;
+import com.lolcoach.model.ItemData;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Converts a local Data Dragon bundle into a versioned patch file for {@link StaticDataCache}.
+ * The bundle directory is a Data Dragon {@code data/<language>} folder: either
+ * {@code championFull.json} or a {@code champion/} folder of per-champion files, plus {@code item.json}.
+ * <p>
+ * Usage: {@code DataDragonImporter <bundleDir> <cacheDir> [--activate]}
+ */
+public class DataDragonImporter {
+    private static final Logger LOGGER = Logger.getLogger(DataDragonImporter.class.getName());
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: DataDragonImporter <bundleDir> <cacheDir> [--activate]");
+            System.exit(2);
+        }
+        Path cacheDir = Paths.get(args[1]);
+        long start = System.nanoTime();
+        String version = new DataDragonImporter().importBundle(Paths.get(args[0]), cacheDir);
+        System.out.printf("Imported patch %s into %s in %d ms%n",
+                version, cacheDir, (System.nanoTime() - start) / 1_000_000);
+        
+        if (args.length > 2 && args[2].equals("--activate")) {
+            StaticDataCache.activate(cacheDir, version);
+            System.out.println("Patch " + version + " is now current");
+        }
+    }
+    
+    /**
+     * Writes {@code <version>.ddc} into the cache directory. The file appears atomically,
+     * so a running cache never sees a partial patch.
+     * @return The patch version read from the bundle
+     */
+    public String importBundle(Path bundleDir, Path cacheDir) throws IOException {
+        List<JsonNode> championFiles = new ArrayList<>();
+        Path championFull = bundleDir.resolve("championFull.json");
+        if (Files.exists(championFull)) {
+            championFiles.add(objectMapper.readTree(championFull.toFile()));
+        } else {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(bundleDir.resolve("champion"), "*.json")) {
+                for (Path file : files) {
+                    championFiles.add(objectMapper.readTree(file.toFile()));
+                }
+            }
+        }
+        if (championFiles.isEmpty()) {
+            throw new IOException("No champion data in " + bundleDir);
+        }
+        String version = championFiles.get(0).path("version").asText(null);
+        if (version == null || version.isEmpty()) {
+            throw new IOException("Bundle has no version field: " + bundleDir);
+        }
+        
+        List<ChampionData> champions = new ArrayList<>();
+        for (JsonNode file : championFiles) {
+            Iterator<JsonNode> entries = file.path("data").elements();
+            while (entries.hasNext()) {
+                champions.add(parseChampion(entries.next()));
+            }
+        }
+        champions.sort((a, b) -> a.getId().compareTo(b.getId()));
+        
+        List<ItemData> items = new ArrayList<>();
+        Path itemFile = bundleDir.resolve("item.json");
+        if (Files.exists(itemFile)) {
+            Iterator<Map.Entry<String, JsonNode>> entries = objectMapper.readTree(itemFile.toFile()).path("data").fields();
+            while (entries.hasNext()) {
+                Map.Entry<String, JsonNode> entry = entries.next();
+                items.add(parseItem(entry.getKey(), entry.getValue()));
+            }
+        } else {
+            LOGGER.warning("No item.json in " + bundleDir + ", importing champions only");
+        }
+        
+        Files.createDirectories(cacheDir);
+        Path target = cacheDir.resolve(version + StaticDataFormat.FILE_SUFFIX);
+        Path temp = cacheDir.resolve(version + StaticDataFormat.FILE_SUFFIX + ".tmp");
+        Files.write(temp, encode(version, champions, items));
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        
+        LOGGER.info("Imported " + champions.size() + " champions and " + items.size() + " items for patch " + version);
+        return version;
+    }
+    
+    private static byte[] encode(String version, List<ChampionData> champions, List<ItemData> items) throws IOException {
+        // Encode the blocks first; their sizes determine the offsets written in the index
+        List<byte[]> blocks = new ArrayList<>(champions.size());
+        for (ChampionData champion : champions) {
+            ByteArrayOutputStream block = new ByteArrayOutputStream(512);
+            StaticDataFormat.writeChampion(new DataOutputStream(block), champion);
+            blocks.add(block.toByteArray());
+        }
+        ByteArrayOutputStream itemBlock = new ByteArrayOutputStream(64 * 1024);
+        StaticDataFormat.writeItems(new DataOutputStream(itemBlock), items);
+        
+        Map<String, Integer> keys = new LinkedHashMap<>();
+        for (int i = 0; i < champions.size(); i++) {
+            keys.putIfAbsent(StaticDataFormat.key(champions.get(i).getId()), i);
+            keys.putIfAbsent(StaticDataFormat.key(champions.get(i).getName()), i);
+        }
+        
+        ByteArrayOutputStream file = new ByteArrayOutputStream(256 * 1024);
+        DataOutputStream out = new DataOutputStream(file);
+        out.write(StaticDataFormat.MAGIC);
+        out.writeByte(StaticDataFormat.FORMAT_VERSION);
+        StaticDataFormat.writeString(out, version);
+        out.writeInt(keys.size());
+        int headerSize = file.size() + 8;
+        for (String key : keys.keySet()) {
+            headerSize += 2 + key.getBytes(StandardCharsets.UTF_8).length + 8;
+        }
+        
+        int[] offsets = new int[blocks.size()];
+        int offset = headerSize;
+        for (int i = 0; i < blocks.size(); i++) {
+            offsets[i] = offset;
+            offset += blocks.get(i).length;
+        }
+        out.writeInt(offset);
+        out.writeInt(itemBlock.size());
+        for (Map.Entry<String, Integer> key : keys.entrySet()) {
+            StaticDataFormat.writeString(out, key.getKey());
+            out.writeInt(offsets[key.getValue()]);
+            out.writeInt(blocks.get(key.getValue()).length);
+        }
+        for (byte[] block : blocks) {
+            out.write(block);
+        }
+        itemBlock.writeTo(out);
+        out.flush();
+        return file.toByteArray();
+    }
+    
+    private static ChampionData parseChampion(JsonNode node) {
+        List<String> tags = new ArrayList<>();
+        node.path("tags").forEach(tag -> tags.add(tag.asText()));
+        
+        List<ChampionData.Spell> spells = new ArrayList<>();
+        for (JsonNode spell : node.path("spells")) {
+            JsonNode cooldownNode = spell.path("cooldown");
+            double[] cooldowns = new double[cooldownNode.size()];
+            for (int i = 0; i < cooldowns.length; i++) {
+                cooldowns[i] = cooldownNode.get(i).asDouble();
+            }
+            spells.add(new ChampionData.Spell(spell.path("id").asText(), spell.path("name").asText(), cooldowns));
+        }
+        
+        return new ChampionData(node.path("id").asText(), node.path("name").asText(), node.path("title").asText(),
+                tags, numericFields(node.path("stats")), node.path("passive").path("name").asText(), spells);
+    }
+    
+    private static ItemData parseItem(String id, JsonNode node) {
+        List<String> tags = new ArrayList<>();
+        node.path("tags").forEach(tag -> tags.add(tag.asText()));
+        JsonNode gold = node.path("gold");
+        return new ItemData(id, node.path("name").asText(), gold.path("total").asInt(),
+                gold.path("purchasable").asBoolean(true), numericFields(node.path("stats")), tags);
+    }
+    
+    private static Map<String, Double> numericFields(JsonNode node) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getValue().isNumber()) {
+                values.put(field.getKey(), field.getValue().asDouble());
+            }
+        }
+        return values.isEmpty() ? Collections.emptyMap() : values;
+    }
+}
@@ -0,0 +1,297 @@
+package com.lolcoach.staticdata;
+
+import com.lolcoach.jfr.CoachEvents;
+import com.lolcoach.model.ChampionData;
+import com.lolcoach.model.ItemData;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.logging.Level;
+
+/**
+ * Read side of the versioned Data Dragon cache. Opening a patch maps its file and
+ * reads only the small name index; each champion block is decoded on first access
+ * and kept, and the items block is decoded on the first item lookup.
+ * <p>
+ * The current patch is named by the {@code CURRENT} file in the cache directory.
+ * Switching patches builds the new patch completely before swapping one reference,
+ * so a lookup sees either the old patch or the new one, never a mix. A background
+ * thread watches the pointer, so lookups never touch the disk for it.
+ */
+public class StaticDataCache implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(StaticDataCache.class.getName());
+    
+    // How often the refresh thread checks whether CURRENT was repointed
+    private static final long REFRESH_INTERVAL_SECONDS = 5;
+    
+    private final Path directory;
+    private volatile Patch patch;
+    
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "static-data-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private StaticDataCache(Path directory, Patch patch) {
+        this.directory = directory;
+        this.patch = patch;
+    }
+    
+    /**
+     * Opens the patch named by {@code CURRENT}, or the newest patch file if there is no pointer
+     * @return The cache, or null if the directory holds no usable patch
+     */
+    public static StaticDataCache open(Path directory) {
+        try {
+            Path current = directory.resolve(StaticDataFormat.CURRENT_FILE);
+            String version = Files.exists(current)
+                    ? new String(Files.readAllBytes(current), StandardCharsets.UTF_8).trim()
+                    : newestVersion(directory);
+            if (version == null) {
+                LOGGER.warning("No static data patches in " + directory);
+                return null;
+            }
+            StaticDataCache cache = new StaticDataCache(directory, Patch.map(directory, version));
+            cache.refresher.scheduleWithFixedDelay(cache::refresh, REFRESH_INTERVAL_SECONDS,
+                    REFRESH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+            return cache;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Could not open static data cache: " + directory, e);
+            return null;
+        }
+    }
+    
+    /**
+     * Points {@code CURRENT} at a patch that has already been imported. The pointer
+     * is replaced atomically; running caches pick it up within a few seconds.
+     */
+    public static void activate(Path directory, String version) throws IOException {
+        if (!Files.exists(directory.resolve(version + StaticDataFormat.FILE_SUFFIX))) {
+            throw new IOException("Patch " + version + " has not been imported into " + directory);
+        }
+        Path temp = directory.resolve(StaticDataFormat.CURRENT_FILE + ".tmp");
+        Files.write(temp, version.getBytes(StandardCharsets.UTF_8));
+        Files.move(temp, directory.resolve(StaticDataFormat.CURRENT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * Switches this cache to another imported patch without touching {@code CURRENT}
+     */
+    public synchronized void switchTo(String version) throws IOException {
+        Patch next = Patch.map(directory, version);
+        Patch previous = patch;
+        patch = next;
+        LOGGER.info("Static data switched from patch " + previous.version + " to " + version);
+    }
+    
+    /**
+     * Patch version of the data lookups currently return
+     */
+    public String getVersion() {
+        return current().version;
+    }
+    
+    /**
+     * Versions that have been imported into the cache directory
+     */
+    public List<String> getAvailableVersions() {
+        List<String> versions = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + StaticDataFormat.FILE_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                versions.add(name.substring(0, name.length() - StaticDataFormat.FILE_SUFFIX.length()));
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not list static data patches", e);
+        }
+        Collections.sort(versions);
+        return versions;
+    }
+    
+    /**
+     * Looks up a champion by id or display name, ignoring case, spaces and punctuation
+     * @return The champion, or null if the patch doesn't have it
+     */
+    public ChampionData getChampion(String name) {
+        return name != null ? current().champion(StaticDataFormat.key(name)) : null;
+    }
+    
+    /**
+     * Looks up an item by display name, ignoring case, spaces and punctuation
+     * @return The item, or null if the patch doesn't have it
+     */
+    public ItemData getItem(String name) {
+        return name != null ? current().items().get(StaticDataFormat.key(name)) : null;
+    }
+    
+    /**
+     * Number of champion blocks decoded so far in the current patch
+     */
+    public int getDecodedChampionCount() {
+        return current().decoded.size();
+    }
+    
+    /**
+     * Stops watching {@code CURRENT}; lookups keep answering from the patch in use
+     */
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+    }
+    
+    private Patch current() {
+        return patch;
+    }
+    
+    /**
+     * Switches to the patch named by {@code CURRENT} if it changed; run by the refresh thread
+     */
+    synchronized void refresh() {
+        Path current = directory.resolve(StaticDataFormat.CURRENT_FILE);
+        try {
+            if (!Files.exists(current)) {
+                return;
+            }
+            String version = new String(Files.readAllBytes(current), StandardCharsets.UTF_8).trim();
+            if (!version.equals(patch.version)) {
+                switchTo(version);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Keep serving the patch we have
+            LOGGER.log(Level.WARNING, "Could not switch to the current static data patch", e);
+        }
+    }
+    
+    private static String newestVersion(Path directory) throws IOException {
+        String newest = null;
+        FileTime newestTime = null;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + StaticDataFormat.FILE_SUFFIX)) {
+            for (Path file : files) {
+                FileTime time = Files.getLastModifiedTime(file);
+                if (newestTime == null || time.compareTo(newestTime) > 0) {
+                    String name = file.getFileName().toString();
+                    newest = name.substring(0, name.length() - StaticDataFormat.FILE_SUFFIX.length());
+                    newestTime = time;
+                }
+            }
+        }
+        return newest;
+    }
+    
+    /**
+     * One mapped patch file with its index and whatever has been decoded so far
+     */
+    private static final class Patch {
+        final String version;
+        final ByteBuffer buffer;
+        final Map<String, int[]> index;
+        final Map<Integer, ChampionData> decoded = new ConcurrentHashMap<>();
+        final int itemsOffset;
+        final int itemsLength;
+        private volatile Map<String, ItemData> items;
+        
+        private Patch(String version, ByteBuffer buffer, Map<String, int[]> index, int itemsOffset, int itemsLength) {
+            this.version = version;
+            this.buffer = buffer;
+            this.index = index;
+            this.itemsOffset = itemsOffset;
+            this.itemsLength = itemsLength;
+        }
+        
+        static Patch map(Path directory, String version) throws IOException {
+            Path file = directory.resolve(version + StaticDataFormat.FILE_SUFFIX);
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                // The mapping stays valid after the channel is closed
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            
+            ByteBuffer header = buffer.duplicate();
+            for (byte expected : StaticDataFormat.MAGIC) {
+                if (header.get() != expected) {
+                    throw new IOException("Not a static data patch: " + file);
+                }
+            }
+            int format = header.get() & 0xFF;
+            if (format > StaticDataFormat.FORMAT_VERSION) {
+                throw new IOException("Unsupported static data format " + format + " in " + file);
+            }
+            String fileVersion = StaticDataFormat.readString(header);
+            if (!fileVersion.equals(version)) {
+                throw new IOException("Patch file " + file + " contains version " + fileVersion);
+            }
+            int indexCount = header.getInt();
+            int itemsOffset = header.getInt();
+            int itemsLength = header.getInt();
+            Map<String, int[]> index = new HashMap<>(indexCount * 2);
+            for (int i = 0; i < indexCount; i++) {
+                String key = StaticDataFormat.readString(header);
+                index.put(key, new int[] {header.getInt(), header.getInt()});
+            }
+            
+            LOGGER.info("Mapped static data patch " + version + " (" + indexCount + " names, "
+                    + buffer.capacity() / 1024 + " KB)");
+            return new Patch(version, buffer, index, itemsOffset, itemsLength);
+        }
+        
+        ChampionData champion(String key) {
+            int[] block = index.get(key);
+            if (block == null) {
+                return null;
+            }
+            ChampionData champion = decoded.get(block[0]);
+            CoachEvents.cacheLookup(CoachEvents.CACHE_CHAMPION, key, champion != null);
+            if (champion != null) {
+                return champion;
+            }
+            return decoded.computeIfAbsent(block[0], offset -> {
+                ByteBuffer slice = buffer.duplicate();
+                slice.limit(offset + block[1]).position(offset);
+                return StaticDataFormat.readChampion(slice);
+            });
+        }
+        
+        Map<String, ItemData> items() {
+            Map<String, ItemData> result = items;
+            if (result == null) {
+                synchronized (this) {
+                    result = items;
+                    if (result == null) {
+                        result = new HashMap<>();
+                        if (itemsLength > 0) {
+                            ByteBuffer slice = buffer.duplicate();
+                            slice.limit(itemsOffset + itemsLength).position(itemsOffset);
+                            for (ItemData item : StaticDataFormat.readItems(slice)) {
+                                // Data Dragon lists map-specific variants under the same name; keep the first
+                                result.putIfAbsent(StaticDataFormat.key(item.getName()), item);
+                            }
+                        }
+                        items = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
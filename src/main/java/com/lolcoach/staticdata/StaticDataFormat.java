@@ -0,0 +1,163 @@
+package com.lolcoach.staticdata;
+
+import com.lolcoach.model.ChampionData;
+import com.lolcoach.model.ItemData;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Layout of a patch file ({@code <version>.ddc}):
+ * <pre>
+ * header   "LCDD" | u8 format | string patchVersion | i32 indexCount | i32 itemsOffset | i32 itemsLength
+ * index    indexCount x (string key | i32 blockOffset | i32 blockLength)
+ * blocks   one champion block per champion, then the items block
+ * </pre>
+ * Strings are a u16 byte length followed by UTF-8. Offsets are absolute, so a
+ * champion block can be decoded from the mapped file without reading any other block.
+ * A champion is indexed under both its Data Dragon id and its display name.
+ */
+final class StaticDataFormat {
+    static final byte[] MAGIC = {'L', 'C', 'D', 'D'};
+    static final int FORMAT_VERSION = 1;
+    static final String FILE_SUFFIX = ".ddc";
+    static final String CURRENT_FILE = "CURRENT";
+    
+    private StaticDataFormat() {}
+    
+    /**
+     * Lookup key for a champion or item name: lower case letters and digits only,
+     * so "Kai'Sa", "kaisa" and "Kai Sa" all match
+     */
+    static String key(String name) {
+        StringBuilder key = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                key.append(Character.toLowerCase(c));
+            }
+        }
+        return key.toString();
+    }
+    
+    static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = (s != null ? s : "").getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IOException("String too long for static data: " + bytes.length + " bytes");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+    
+    static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    static void writeChampion(DataOutputStream out, ChampionData champion) throws IOException {
+        writeString(out, champion.getId());
+        writeString(out, champion.getName());
+        writeString(out, champion.getTitle());
+        writeStrings(out, champion.getTags());
+        writeStats(out, champion.getStats());
+        writeString(out, champion.getPassiveName());
+        out.writeByte(champion.getSpells().size());
+        for (ChampionData.Spell spell : champion.getSpells()) {
+            writeString(out, spell.getId());
+            writeString(out, spell.getName());
+            out.writeByte(spell.getMaxRank());
+            for (int rank = 1; rank <= spell.getMaxRank(); rank++) {
+                out.writeFloat((float) spell.getCooldown(rank));
+            }
+        }
+    }
+    
+    static ChampionData readChampion(ByteBuffer buffer) {
+        String id = readString(buffer);
+        String name = readString(buffer);
+        String title = readString(buffer);
+        List<String> tags = readStrings(buffer);
+        Map<String, Double> stats = readStats(buffer);
+        String passiveName = readString(buffer);
+        int spellCount = buffer.get() & 0xFF;
+        List<ChampionData.Spell> spells = new ArrayList<>(spellCount);
+        for (int i = 0; i < spellCount; i++) {
+            String spellId = readString(buffer);
+            String spellName = readString(buffer);
+            double[] cooldowns = new double[buffer.get() & 0xFF];
+            for (int rank = 0; rank < cooldowns.length; rank++) {
+                cooldowns[rank] = buffer.getFloat();
+            }
+            spells.add(new ChampionData.Spell(spellId, spellName, cooldowns));
+        }
+        return new ChampionData(id, name, title, tags, stats, passiveName, Collections.unmodifiableList(spells));
+    }
+    
+    static void writeItems(DataOutputStream out, List<ItemData> items) throws IOException {
+        out.writeInt(items.size());
+        for (ItemData item : items) {
+            writeString(out, item.getId());
+            writeString(out, item.getName());
+            out.writeInt(item.getTotalGold());
+            out.writeBoolean(item.isPurchasable());
+            writeStats(out, item.getStats());
+            writeStrings(out, item.getTags());
+        }
+    }
+    
+    static List<ItemData> readItems(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        List<ItemData> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String id = readString(buffer);
+            String name = readString(buffer);
+            int totalGold = buffer.getInt();
+            boolean purchasable = buffer.get() != 0;
+            Map<String, Double> stats = readStats(buffer);
+            List<String> tags = readStrings(buffer);
+            items.add(new ItemData(id, name, totalGold, purchasable, stats, tags));
+        }
+        return items;
+    }
+    
+    private static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+        out.writeByte(strings.size());
+        for (String s : strings) {
+            writeString(out, s);
+        }
+    }
+    
+    private static List<String> readStrings(ByteBuffer buffer) {
+        int count = buffer.get() & 0xFF;
+        List<String> strings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            strings.add(readString(buffer));
+        }
+        return Collections.unmodifiableList(strings);
+    }
+    
+    private static void writeStats(DataOutputStream out, Map<String, Double> stats) throws IOException {
+        out.writeByte(stats.size());
+        for (Map.Entry<String, Double> stat : stats.entrySet()) {
+            writeString(out, stat.getKey());
+            out.writeDouble(stat.getValue());
+        }
+    }
+    
+    private static Map<String, Double> readStats(ByteBuffer buffer) {
+        int count = buffer.get() & 0xFF;
+        Map<String, Double> stats = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String stat = readString(buffer);
+            stats.put(stat, buffer.getDouble());
+        }
+        return Collections.unmodifiableMap(stats);
+    }
+}
@@ -0,0 +1,72 @@
+package com.lolcoach;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import com.lolcoach.audio.AudioCapture;
+import com.lolcoach.audio.AudioSource;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sound.sampled.AudioFormat;
+import org.junit.Test;
+
+public class VoiceInputTest {
+    
+    @Test
+    public void restartClosesTheStoppedCapturesSource() throws Exception {
+        List<EndedSource> opened = new ArrayList<>();
+        VoiceInput input = new VoiceInput() {
+            @Override
+            protected AudioSource openSource() {
+                EndedSource source = new EndedSource();
+                opened.add(source);
+                return source;
+            }
+        };
+        
+        AudioCapture first = input.startCapture();
+        // The source ends at once, so the capture thread stops on its own
+        waitUntilStopped(first);
+        assertFalse(opened.get(0).closed);
+        
+        AudioCapture second = input.startCapture();
+        assertNotSame(first, second);
+        assertEquals(2, opened.size());
+        assertTrue(opened.get(0).closed);
+        
+        input.stopListening();
+        assertTrue(opened.get(1).closed);
+    }
+    
+    private static void waitUntilStopped(AudioCapture capture) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (capture.isRunning() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertFalse(capture.isRunning());
+    }
+    
+    /**
+     * A microphone line that has already ended
+     */
+    private static final class EndedSource implements AudioSource {
+        volatile boolean closed;
+        
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            return -1;
+        }
+        
+        @Override
+        public AudioFormat getFormat() {
+            return AudioCapture.FORMAT;
+        }
+        
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
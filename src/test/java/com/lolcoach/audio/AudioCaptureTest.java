@@ -0,0 +1,145 @@
+package com.lolcoach.audio;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+/**
+ * Runs a checked-in recording through the capture front-end. two-utterances.wav
+ * is 85 frames of 16 kHz mono: 15 frames of low noise, 20 of voiced sound, 20 of
+ * noise, 10 of voiced sound and 20 of noise.
+ */
+public class AudioCaptureTest {
+    private static final int FRAME = AudioCapture.DEFAULT_FRAME_SAMPLES;
+    
+    @Test
+    public void wavSourceDeliversCaptureFormat() throws Exception {
+        try (WavAudioSource source = new WavAudioSource(fixture())) {
+            assertTrue(source.getFormat().matches(AudioCapture.FORMAT));
+            assertEquals(85 * FRAME * 2, readAll(source).length);
+        }
+    }
+    
+    @Test
+    public void segmentBoundariesIncludePreRollAndHangover() throws Exception {
+        List<long[]> segments = new ArrayList<>();
+        try (AudioCapture capture = new AudioCapture(new WavAudioSource(fixture()))) {
+            capture.setListener(new Recorder(segments, null));
+            capture.runToEnd();
+            
+            assertEquals(85, capture.getFramesProcessed());
+            // 2-frame onset: the first voiced frame is still silence to the detector, so it lands in the
+            // 10-frame pre-roll; the segment then runs until the 15th silent frame of the hangover
+            assertEquals(2, segments.size());
+            assertArrayEquals(new long[] {6 * FRAME, 49 * FRAME}, segments.get(0));
+            // Only the 6 frames since the first segment ended are there to pre-roll
+            assertArrayEquals(new long[] {50 * FRAME, 79 * FRAME}, segments.get(1));
+            assertEquals(33 + 23, capture.getSpeechFrames());
+            assertEquals((10 + 33 + 6 + 23) * FRAME, capture.getSpeechBuffer().available());
+        }
+    }
+    
+    @Test
+    public void speechBufferHoldsSegmentsAcrossTheWrap() throws Exception {
+        short[] recording = samples();
+        List<long[]> segments = new ArrayList<>();
+        List<short[]> drained = new ArrayList<>();
+        // 16384 samples: the second segment starts 13760 samples in and wraps around the end
+        VoiceActivityDetector detector = new VoiceActivityDetector();
+        try (AudioCapture capture = new AudioCapture(new WavAudioSource(fixture()), detector, FRAME, 16384, 10)) {
+            capture.setListener(new Recorder(segments, capture.getSpeechBuffer(), drained));
+            capture.runToEnd();
+            assertEquals(0, capture.getSpeechBuffer().getDroppedSamples());
+        }
+        
+        assertEquals(2, drained.size());
+        // The speech buffer gets whole frames from the segment start to the frame before the end
+        assertArrayEquals(Arrays.copyOfRange(recording, 6 * FRAME, 49 * FRAME), drained.get(0));
+        assertArrayEquals(Arrays.copyOfRange(recording, 50 * FRAME, 79 * FRAME), drained.get(1));
+    }
+    
+    @Test
+    public void overrunKeepsTheOldestSpeechAndCountsTheRest() throws Exception {
+        short[] recording = samples();
+        VoiceActivityDetector detector = new VoiceActivityDetector();
+        try (AudioCapture capture = new AudioCapture(new WavAudioSource(fixture()), detector, FRAME, 4096, 10)) {
+            capture.runToEnd();
+            
+            PcmRingBuffer buffer = capture.getSpeechBuffer();
+            assertEquals(4096, buffer.available());
+            assertEquals((10 + 33 + 6 + 23) * FRAME - 4096, buffer.getDroppedSamples());
+            short[] kept = new short[4096];
+            assertEquals(4096, buffer.read(kept, 0, kept.length));
+            assertArrayEquals(Arrays.copyOfRange(recording, 6 * FRAME, 6 * FRAME + 4096), kept);
+        }
+    }
+    
+    /**
+     * Records segment boundaries and, if given a buffer, drains each segment's samples when it ends
+     */
+    private static final class Recorder implements SpeechSegmentListener {
+        private final List<long[]> segments;
+        private final PcmRingBuffer buffer;
+        private final List<short[]> drained;
+        private long start;
+        
+        Recorder(List<long[]> segments, PcmRingBuffer buffer) {
+            this(segments, buffer, new ArrayList<>());
+        }
+        
+        Recorder(List<long[]> segments, PcmRingBuffer buffer, List<short[]> drained) {
+            this.segments = segments;
+            this.buffer = buffer;
+            this.drained = drained;
+        }
+        
+        @Override
+        public void onSpeechStart(long sampleIndex) {
+            start = sampleIndex;
+        }
+        
+        @Override
+        public void onSpeechEnd(long sampleIndex) {
+            segments.add(new long[] {start, sampleIndex});
+            if (buffer != null) {
+                short[] segment = new short[buffer.available()];
+                buffer.read(segment, 0, segment.length);
+                drained.add(segment);
+            }
+        }
+    }
+    
+    private static File fixture() throws URISyntaxException {
+        return new File(AudioCaptureTest.class.getResource("/audio/two-utterances.wav").toURI());
+    }
+    
+    private static short[] samples() throws Exception {
+        try (WavAudioSource source = new WavAudioSource(fixture())) {
+            byte[] bytes = readAll(source);
+            short[] samples = new short[bytes.length / 2];
+            for (int i = 0; i < samples.length; i++) {
+                samples[i] = (short) ((bytes[2 * i] & 0xFF) | (bytes[2 * i + 1] << 8));
+            }
+            return samples;
+        }
+    }
+    
+    private static byte[] readAll(AudioSource source) throws IOException {
+        byte[] buffer = new byte[4096];
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int read;
+        while ((read = source.read(buffer, 0, buffer.length)) >= 0) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,190 @@
+package com.lolcoach.audio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Plays clips into a WAV file sink and checks what reached it
+ */
+public class AudioOutputTest {
+    private static final int LATENCY_MILLIS = 40;
+    // 20 ms periods and 5 ms fades at 48 kHz
+    private static final int PERIOD = 960;
+    private static final int FADE = 240;
+    private static final short LEVEL = 10000;
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void clipIsResampledToTheOutputRate() throws Exception {
+        File file = folder.newFile("resampled.wav");
+        Events events = new Events(1);
+        FileAudioSink sink = new FileAudioSink(file, AudioOutput.bufferBytes(LATENCY_MILLIS), false);
+        try (AudioOutput output = new AudioOutput(sink, LATENCY_MILLIS, 1)) {
+            output.setListener(events);
+            output.start();
+            // 1200 samples at 24 kHz interpolate to 2 * 1200 - 1 at 48 kHz
+            output.play(constant(1200, LEVEL), 1200, 24000f);
+            events.await();
+            assertEquals(3, output.getPeriodsWritten());
+            assertEquals(3 * PERIOD * 2, sink.getWrittenBytes());
+            assertEquals(0, output.getUnderruns());
+        }
+        
+        short[] written = read(file);
+        assertEquals(3 * PERIOD, written.length);
+        // Faded in from silence and out to it, with the padding after the clip silent
+        assertEquals(0, written[0]);
+        assertEquals(LEVEL, written[FADE]);
+        assertEquals(LEVEL, written[2399 - 1 - FADE]);
+        assertEquals(0, written[2399 - 1]);
+        assertTrue(written[2399 - 2] != 0);
+        for (int i = 2399; i < written.length; i++) {
+            assertEquals(0, written[i]);
+        }
+    }
+    
+    @Test
+    public void stalledWriterCountsUnderrunsInRealTime() throws Exception {
+        File file = folder.newFile("stalled.wav");
+        // After the second period the writer stalls for longer than the 40 ms buffer lasts
+        FileAudioSink sink = new FileAudioSink(file, AudioOutput.bufferBytes(LATENCY_MILLIS), true) {
+            private int writes;
+            
+            @Override
+            public void write(byte[] buffer, int offset, int length) {
+                super.write(buffer, offset, length);
+                if (++writes == 2) {
+                    // Not parkNanos: play() may have left the writer thread an unpark permit
+                    try {
+                        Thread.sleep(120);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        };
+        Events events = new Events(1);
+        try (AudioOutput output = new AudioOutput(sink, LATENCY_MILLIS, 1)) {
+            output.setListener(events);
+            output.start();
+            output.play(constant(48000 / 5, LEVEL), 48000 / 5, 48000f);
+            events.await();
+            assertEquals(10, output.getPeriodsWritten());
+            assertTrue("underruns: " + output.getUnderruns(), output.getUnderruns() >= 1);
+        }
+    }
+    
+    @Test
+    public void writerThatKeepsUpHasNoUnderrunsInRealTime() throws Exception {
+        File file = folder.newFile("steady.wav");
+        // Longer periods leave a single-CPU machine plenty of slack
+        int latencyMillis = 200;
+        FileAudioSink sink = new FileAudioSink(file, AudioOutput.bufferBytes(latencyMillis), true);
+        Events events = new Events(1);
+        try (AudioOutput output = new AudioOutput(sink, latencyMillis, 1)) {
+            output.setListener(events);
+            output.start();
+            output.play(constant(48000 / 2, LEVEL), 48000 / 2, 48000f);
+            events.await();
+            assertEquals(0, output.getUnderruns());
+        }
+    }
+    
+    @Test
+    public void newClipReplacesThePlayingOneThroughAFade() throws Exception {
+        File file = folder.newFile("replaced.wav");
+        Events events = new Events(2);
+        FileAudioSink sink = new FileAudioSink(file, AudioOutput.bufferBytes(LATENCY_MILLIS), true);
+        try (AudioOutput output = new AudioOutput(sink, LATENCY_MILLIS, 2)) {
+            output.setListener(events);
+            output.start();
+            output.play(constant(48000, LEVEL), 48000, 48000f);
+            assertTrue(events.started.await(5, TimeUnit.SECONDS));
+            Thread.sleep(100);
+            output.play(constant(4800, (short) -LEVEL), 4800, 48000f);
+            events.await();
+            assertEquals(2, output.getClipsPlayed());
+            assertEquals(Arrays.asList(true, false), events.ended);
+        }
+        
+        short[] written = read(file);
+        // The first clip was cut short, and the second one played in full after it
+        assertTrue(written.length < 48000);
+        int firstOfSecond = -1;
+        for (int i = 0; i < written.length && firstOfSecond < 0; i++) {
+            if (written[i] < 0) {
+                firstOfSecond = i;
+            }
+        }
+        assertTrue(firstOfSecond > FADE);
+        assertEquals(-LEVEL, written[firstOfSecond + FADE]);
+        // Both the cut and the new clip's start are ramps, not steps
+        for (int i = 1; i < written.length; i++) {
+            assertTrue("step of " + (written[i] - written[i - 1]) + " at sample " + i,
+                       Math.abs(written[i] - written[i - 1]) <= 2 * LEVEL / FADE);
+        }
+        // The fade-out ran from the first clip's level down to silence
+        assertEquals(0, written[firstOfSecond - 1]);
+        assertTrue(written[firstOfSecond - FADE] > LEVEL / 2);
+    }
+    
+    private static short[] constant(int length, short level) {
+        short[] samples = new short[length];
+        Arrays.fill(samples, level);
+        return samples;
+    }
+    
+    private static short[] read(File file) throws Exception {
+        try (AudioInputStream stream = AudioSystem.getAudioInputStream(file)) {
+            assertTrue(stream.getFormat().matches(AudioOutput.FORMAT));
+            byte[] bytes = stream.readAllBytes();
+            short[] samples = new short[bytes.length / 2];
+            for (int i = 0; i < samples.length; i++) {
+                samples[i] = (short) ((bytes[2 * i] & 0xFF) | (bytes[2 * i + 1] << 8));
+            }
+            return samples;
+        }
+    }
+    
+    /**
+     * Records playback ends and waits for a number of them
+     */
+    private static final class Events implements PlaybackListener {
+        final CountDownLatch started = new CountDownLatch(1);
+        final List<Boolean> ended = new CopyOnWriteArrayList<>();
+        private final CountDownLatch done;
+        
+        Events(int clips) {
+            done = new CountDownLatch(clips);
+        }
+        
+        @Override
+        public void onPlaybackStart(long startLatencyNanos) {
+            started.countDown();
+        }
+        
+        @Override
+        public void onPlaybackEnd(boolean interrupted) {
+            ended.add(interrupted);
+            done.countDown();
+        }
+        
+        void await() throws InterruptedException {
+            assertTrue("playback did not finish", done.await(5, TimeUnit.SECONDS));
+        }
+    }
+}
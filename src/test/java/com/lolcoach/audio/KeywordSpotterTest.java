@@ -0,0 +1,44 @@
+package com.lolcoach.audio;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+public class KeywordSpotterTest {
+    private static final int FRAME = AudioCapture.DEFAULT_FRAME_SAMPLES;
+    private final MfccExtractor extractor = new MfccExtractor(FRAME, AudioCapture.FORMAT.getSampleRate());
+    
+    @Test
+    public void emptyRecordingIsRejected() {
+        try {
+            KeywordSpotter.buildTemplate(extractor, Collections.emptyList());
+            fail("A template without frames must be rejected");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            new KeywordSpotter(extractor, new double[0][], 1.0);
+            fail("A spotter without template frames must be rejected");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+    
+    @Test
+    public void quietFramesAroundTheKeywordAreTrimmed() {
+        short[] quiet = tone(10);
+        short[] loud = tone(8000);
+        double[][] template = KeywordSpotter.buildTemplate(extractor, Arrays.asList(quiet, quiet, loud, loud, quiet));
+        assertEquals(2, template.length);
+        assertEquals(extractor.getCoefficients(), template[0].length);
+    }
+    
+    private static short[] tone(int amplitude) {
+        short[] frame = new short[FRAME];
+        for (int i = 0; i < FRAME; i++) {
+            frame[i] = (short) (amplitude * Math.sin(2 * Math.PI * 440 * i / 16000.0));
+        }
+        return frame;
+    }
+}
@@ -0,0 +1,61 @@
+package com.lolcoach.audio;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class PcmRingBufferTest {
+    
+    @Test
+    public void roundsCapacityUpToPowerOfTwo() {
+        assertEquals(8, new PcmRingBuffer(5).capacity());
+        assertEquals(8, new PcmRingBuffer(8).capacity());
+        assertEquals(2, new PcmRingBuffer(1).capacity());
+    }
+    
+    @Test
+    public void readsInOrderAcrossTheWrap() {
+        PcmRingBuffer buffer = new PcmRingBuffer(8);
+        assertEquals(6, buffer.write(new short[] {1, 2, 3, 4, 5, 6}, 0, 6));
+        short[] out = new short[8];
+        assertEquals(4, buffer.read(out, 0, 4));
+        
+        // Positions 6..11 wrap past the end of the array
+        assertEquals(6, buffer.write(new short[] {7, 8, 9, 10, 11, 12}, 0, 6));
+        assertEquals(8, buffer.available());
+        assertEquals(8, buffer.read(out, 0, 8));
+        assertArrayEquals(new short[] {5, 6, 7, 8, 9, 10, 11, 12}, out);
+        assertEquals(0, buffer.available());
+        assertEquals(0, buffer.getDroppedSamples());
+    }
+    
+    @Test
+    public void overrunDropsNewSamplesAndKeepsUnreadOnes() {
+        PcmRingBuffer buffer = new PcmRingBuffer(4);
+        assertEquals(3, buffer.write(new short[] {1, 2, 3}, 0, 3));
+        assertEquals(1, buffer.write(new short[] {4, 5, 6}, 0, 3));
+        assertEquals(0, buffer.write(new short[] {7}, 0, 1));
+        assertEquals(3, buffer.getDroppedSamples());
+        
+        short[] out = new short[4];
+        assertEquals(4, buffer.read(out, 0, 4));
+        assertArrayEquals(new short[] {1, 2, 3, 4}, out);
+        
+        // Space freed by the read is usable again
+        assertEquals(2, buffer.write(new short[] {8, 9}, 0, 2));
+        assertEquals(2, buffer.read(out, 0, 4));
+        assertEquals(8, out[0]);
+        assertEquals(9, out[1]);
+    }
+    
+    @Test
+    public void readReturnsOnlyWhatIsAvailable() {
+        PcmRingBuffer buffer = new PcmRingBuffer(16);
+        short[] out = new short[4];
+        assertEquals(0, buffer.read(out, 0, 4));
+        buffer.write(new short[] {42}, 0, 1);
+        assertEquals(1, buffer.read(out, 1, 3));
+        assertEquals(42, out[1]);
+    }
+}
@@ -0,0 +1,69 @@
+package com.lolcoach.codec;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class CodecSupportTest {
+    
+    @Test
+    public void equalsIgnoreCaseMatchesTheStringLibrary() {
+        String[] stored = {"", "Ahri", "ahri", "Kai'Sa", "Nunu & Willump", "Café", "CAFÉ", "ſ", "K", "😀x", null};
+        String[] candidates = {"", "AHRI", "Ahr", "kai'sa", "nunu & willump", "café", "cafe", "S", "k", "😀X", "x", null};
+        for (String s : stored) {
+            ByteBuffer buffer = ByteBuffer.allocate(CodecSupport.stringSize(s));
+            CodecSupport.putString(buffer, s);
+            for (String candidate : candidates) {
+                boolean expected = s == null ? candidate == null : s.equalsIgnoreCase(candidate);
+                assertEquals(s + " vs " + candidate, expected, CodecSupport.stringEqualsIgnoreCase(buffer, 0, candidate));
+            }
+        }
+    }
+    
+    @Test
+    public void oversizedCountsAreRejected() {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+        String[] array = new String[CodecSupport.NULL_LENGTH];
+        Arrays.fill(array, "");
+        try {
+            CodecSupport.putValue(buffer, array);
+            fail("An array as long as the null marker must not be written");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            CodecSupport.putValue(buffer.clear(), Collections.nCopies(70_000, 1));
+            fail("A list over 65535 elements must not be written");
+        } catch (IllegalArgumentException expected) {
+        }
+        Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < CodecSupport.NULL_LENGTH; i++) {
+            map.put(Integer.toString(i), null);
+        }
+        try {
+            CodecSupport.putMap(buffer.clear(), map);
+            fail("A map as large as the null marker must not decode as null");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+    
+    @Test
+    public void largestCountRoundTrips() {
+        String[] array = new String[CodecSupport.MAX_COUNT];
+        Arrays.fill(array, "a");
+        ByteBuffer buffer = ByteBuffer.allocate(CodecSupport.valueSize(array));
+        CodecSupport.putValue(buffer, array);
+        buffer.flip();
+        String[] decoded = (String[]) CodecSupport.getValue(buffer);
+        assertEquals(CodecSupport.MAX_COUNT, decoded.length);
+        assertTrue(Arrays.equals(array, decoded));
+        assertFalse(buffer.hasRemaining());
+    }
+}
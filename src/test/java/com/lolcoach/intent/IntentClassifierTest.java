@@ -0,0 +1,38 @@
+package com.lolcoach.intent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import com.lolcoach.model.Intent;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.Test;
+
+public class IntentClassifierTest {
+    private final IntentClassifier classifier = IntentClassifier.loadDefault();
+    
+    @Test
+    public void bundledModelFitsItsCorpus() throws Exception {
+        assertNotNull(classifier);
+        List<IntentTrainer.Example> examples = IntentTrainer.readCorpus(new InputStreamReader(
+                IntentClassifier.class.getResourceAsStream(IntentClassifier.CORPUS_RESOURCE), StandardCharsets.UTF_8));
+        int correct = 0;
+        for (IntentTrainer.Example example : examples) {
+            if (classifier.classify(example.getText()) == example.getIntent()) {
+                correct++;
+            }
+        }
+        assertTrue(correct + " of " + examples.size(), correct >= examples.size() * 0.95);
+    }
+    
+    @Test
+    public void questionsOutsideTheCorpusAreRouted() {
+        assertEquals(Intent.LANE_STATE, classifier.classify("top lane 12 minutes, I'm Riven against Renekton and I'm ahead"));
+        assertEquals(Intent.BUILD, classifier.classify("which item should I build next"));
+        assertEquals(Intent.OBJECTIVE, classifier.classify("when does baron spawn"));
+        assertEquals(Intent.TRADE, classifier.classify("can I win a fight against him now"));
+        assertEquals(Intent.RECALL, classifier.classify("should I go back to base"));
+    }
+}
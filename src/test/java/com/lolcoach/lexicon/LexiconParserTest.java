@@ -0,0 +1,61 @@
+package com.lolcoach.lexicon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.lolcoach.model.ScenarioDelta;
+import org.junit.Test;
+
+/**
+ * Level attribution on utterances that are not in the eval files under src/main/lexicon/eval
+ */
+public class LexiconParserTest {
+    private final LexiconParser english = new LexiconParser(Lexicon.forLocale("en"));
+    
+    @Test
+    public void levelBeforeTheMarkerStaysWithThePlayersChampion() {
+        ScenarioDelta delta = english.parse("level 3 Darius vs level 2 Garen top");
+        assertEquals("Darius", delta.getPlayerChampion());
+        assertEquals(Integer.valueOf(3), delta.getPlayerLevel());
+        assertEquals("Garen", delta.getEnemyChampion());
+        assertEquals(Integer.valueOf(2), delta.getEnemyLevel());
+        assertEquals("top", delta.getLane());
+    }
+    
+    @Test
+    public void levelBeforeTheMarkerWithoutChampionsStaysWithThePlayer() {
+        ScenarioDelta delta = english.parse("I'm level 6 vs level 4");
+        assertEquals(Integer.valueOf(6), delta.getPlayerLevel());
+        assertEquals(Integer.valueOf(4), delta.getEnemyLevel());
+    }
+    
+    @Test
+    public void markerRightAfterTheLevelTakesIt() {
+        ScenarioDelta delta = english.parse("I'm Garen, level 6 enemy Darius");
+        assertEquals("Garen", delta.getPlayerChampion());
+        assertNull(delta.getPlayerLevel());
+        assertEquals("Darius", delta.getEnemyChampion());
+        assertEquals(Integer.valueOf(6), delta.getEnemyLevel());
+    }
+    
+    @Test
+    public void pronounRefersToTheEnemy() {
+        ScenarioDelta delta = english.parse("he is level seven");
+        assertNull(delta.getPlayerLevel());
+        assertEquals(Integer.valueOf(7), delta.getEnemyLevel());
+        
+        delta = english.parse("I'm Riven level 5, she's level seven");
+        assertEquals("Riven", delta.getPlayerChampion());
+        assertEquals(Integer.valueOf(5), delta.getPlayerLevel());
+        assertEquals(Integer.valueOf(7), delta.getEnemyLevel());
+    }
+    
+    @Test
+    public void levelAfterTheMatchupClauseIsThePlayers() {
+        ScenarioDelta delta = english.parse("playing Ahri against Zed mid, I'm level nine");
+        assertEquals("Ahri", delta.getPlayerChampion());
+        assertEquals("Zed", delta.getEnemyChampion());
+        assertEquals(Integer.valueOf(9), delta.getPlayerLevel());
+        assertNull(delta.getEnemyLevel());
+    }
+}
@@ -0,0 +1,89 @@
+package com.lolcoach.lexicon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.lolcoach.model.ScenarioDelta;
+import org.junit.Test;
+
+/**
+ * Number words, lanes and champion aliases in each non-English lexicon
+ */
+public class LocaleLexiconTest {
+    
+    @Test
+    public void german() {
+        LexiconParser parser = parser("de");
+        ScenarioDelta delta = parser.parse("Dschungel, zweiundzwanzig Minuten, ich spiele Lee gegen Mundo, gegner ist Stufe elf");
+        assertEquals("jungle", delta.getLane());
+        assertEquals(Integer.valueOf(22), delta.getTime());
+        assertEquals("Lee Sin", delta.getPlayerChampion());
+        assertEquals("Dr. Mundo", delta.getEnemyChampion());
+        assertEquals(Integer.valueOf(11), delta.getEnemyLevel());
+        
+        delta = parser.parse("unten, siebzehn Minuten, TF gegen Kaisa, ich bin im Nachteil");
+        assertEquals("bottom", delta.getLane());
+        assertEquals(Integer.valueOf(17), delta.getTime());
+        assertEquals("Twisted Fate", delta.getPlayerChampion());
+        assertEquals("Kai'Sa", delta.getEnemyChampion());
+        assertEquals("behind", delta.getSituation());
+    }
+    
+    @Test
+    public void french() {
+        LexiconParser parser = parser("fr");
+        ScenarioDelta delta = parser.parse("Milieu, vingt et un minutes, je joue Ahri contre Zed, il est niveau dix huit");
+        assertEquals("mid", delta.getLane());
+        assertEquals(Integer.valueOf(21), delta.getTime());
+        assertEquals("Ahri", delta.getPlayerChampion());
+        assertEquals("Zed", delta.getEnemyChampion());
+        assertNull(delta.getPlayerLevel());
+        assertEquals(Integer.valueOf(18), delta.getEnemyLevel());
+        
+        delta = parser.parse("bas, dix-sept minutes, MF contre Jarvan");
+        assertEquals("bottom", delta.getLane());
+        assertEquals(Integer.valueOf(17), delta.getTime());
+        assertEquals("Miss Fortune", delta.getPlayerChampion());
+        assertEquals("Jarvan IV", delta.getEnemyChampion());
+    }
+    
+    @Test
+    public void spanish() {
+        LexiconParser parser = parser("es");
+        ScenarioDelta delta = parser.parse("Jungla, dieciséis minutos, juego Xin contra Khazix, el enemigo es nivel catorce");
+        assertEquals("jungle", delta.getLane());
+        assertEquals(Integer.valueOf(16), delta.getTime());
+        assertEquals("Xin Zhao", delta.getPlayerChampion());
+        assertEquals("Kha'Zix", delta.getEnemyChampion());
+        assertEquals(Integer.valueOf(14), delta.getEnemyLevel());
+        
+        delta = parser.parse("superior, doce minutos, Cho contra Garen, voy por delante");
+        assertEquals("top", delta.getLane());
+        assertEquals(Integer.valueOf(12), delta.getTime());
+        assertEquals("Cho'Gath", delta.getPlayerChampion());
+        assertEquals("Garen", delta.getEnemyChampion());
+        assertEquals("ahead", delta.getSituation());
+    }
+    
+    @Test
+    public void korean() {
+        LexiconParser parser = parser("ko");
+        // Particles follow words without a space
+        ScenarioDelta delta = parser.parse("정글이고 이십삼분이야, 나는 리신이고 상대 카이사는 레벨 십일이야");
+        assertEquals("jungle", delta.getLane());
+        assertEquals(Integer.valueOf(23), delta.getTime());
+        assertEquals("Lee Sin", delta.getPlayerChampion());
+        assertEquals("Kai'Sa", delta.getEnemyChampion());
+        assertEquals(Integer.valueOf(11), delta.getEnemyLevel());
+        
+        delta = parser.parse("원딜 십칠분, 미포 대 상대 아리");
+        assertEquals("bottom", delta.getLane());
+        assertEquals(Integer.valueOf(17), delta.getTime());
+        assertEquals("Miss Fortune", delta.getPlayerChampion());
+        assertEquals("Ahri", delta.getEnemyChampion());
+    }
+    
+    private static LexiconParser parser(String locale) {
+        return new LexiconParser(Lexicon.forLocale(locale));
+    }
+}
@@ -0,0 +1,127 @@
+package com.lolcoach.profile;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LogStoreTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void tornTailIsCutOffOnOpen() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        try (LogStore store = LogStore.open(directory)) {
+            store.put("a", bytes("first"));
+            store.put("b", bytes("second"));
+        }
+        Path segment = segments(directory).get(0);
+        long size = Files.size(segment);
+        // A crash half way through appending a third record
+        byte[] record = Files.readAllBytes(segment);
+        Files.write(segment, Arrays.copyOf(record, LogStore.RECORD_HEADER_SIZE + 3), StandardOpenOption.APPEND);
+        
+        try (LogStore store = LogStore.open(directory)) {
+            assertEquals(size, Files.size(segment));
+            assertEquals(2, store.getKeyCount());
+            assertArrayEquals(bytes("second"), store.get("b"));
+            store.put("c", bytes("third"));
+        }
+        try (LogStore store = LogStore.open(directory)) {
+            assertArrayEquals(bytes("first"), store.get("a"));
+            assertArrayEquals(bytes("third"), store.get("c"));
+        }
+    }
+    
+    @Test
+    public void damagedOlderSegmentIsNotCut() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        try (LogStore store = LogStore.open(directory, 64, 100)) {
+            for (int i = 0; i < 6; i++) {
+                store.put("key" + i, new byte[40]);
+            }
+        }
+        Path oldest = segments(directory).get(0);
+        long size = Files.size(oldest);
+        Files.write(oldest, new byte[] {1, 2, 3}, StandardOpenOption.APPEND);
+        
+        try {
+            LogStore.open(directory, 64, 100).close();
+            fail("Opened a store with a damaged sealed segment");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains(oldest.getFileName().toString()));
+        }
+        assertEquals(size + 3, Files.size(oldest));
+    }
+    
+    @Test
+    public void compactionKeepsLatestValuesAndDeletions() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        // Compaction is only run by hand here
+        try (LogStore store = LogStore.open(directory, 64, 100)) {
+            for (int round = 0; round < 4; round++) {
+                for (int key = 0; key < 5; key++) {
+                    store.put("key" + key, bytes("round" + round));
+                }
+            }
+            store.delete("key4");
+            store.put("last", bytes("unsealed"));
+            int before = store.getSegmentCount();
+            assertTrue(before > 3);
+            
+            store.compact();
+            assertEquals(2, store.getSegmentCount());
+            assertEquals(2, segments(directory).size());
+            assertEquals(5, store.getKeyCount());
+            assertArrayEquals(bytes("round3"), store.get("key0"));
+            assertNull(store.get("key4"));
+            assertArrayEquals(bytes("unsealed"), store.get("last"));
+        }
+        try (LogStore store = LogStore.open(directory, 64, 100)) {
+            assertEquals(5, store.getKeyCount());
+            assertArrayEquals(bytes("round3"), store.get("key3"));
+            assertFalse(store.contains("key4"));
+        }
+    }
+    
+    @Test
+    public void unfinishedCompactionIsDiscardedOnOpen() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        try (LogStore store = LogStore.open(directory)) {
+            store.put("a", bytes("kept"));
+        }
+        Path leftover = directory.resolve("segment-00000001.compacting");
+        Files.write(leftover, new byte[] {9, 9, 9});
+        
+        try (LogStore store = LogStore.open(directory)) {
+            assertFalse(Files.exists(leftover));
+            assertArrayEquals(bytes("kept"), store.get("a"));
+        }
+    }
+    
+    private static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".log")).sorted().collect(Collectors.toList());
+        }
+    }
+    
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,169 @@
+package com.lolcoach.push;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.After;
+import org.junit.Test;
+
+public class PushServerTest {
+    private PushServer server;
+    
+    @After
+    public void close() {
+        if (server != null) {
+            server.close();
+        }
+    }
+    
+    @Test
+    public void serverSentEventsSubscriberGetsEvents() throws Exception {
+        start(PushServer.DEFAULT_CLIENT_BUFFER_BYTES);
+        try (Socket socket = connect()) {
+            send(socket, "GET /events HTTP/1.1\r\nHost: localhost\r\nAccept: text/event-stream\r\n\r\n");
+            String headers = readHeaders(socket.getInputStream());
+            assertTrue(headers, headers.startsWith("HTTP/1.1 200 OK\r\n"));
+            assertTrue(headers, headers.contains("Content-Type: text/event-stream\r\n"));
+            awaitTrue(() -> server.getSubscriberCount() == 1);
+            
+            server.publish(PushServer.EVENT_ADVICE, Collections.singletonMap("advice", "Ward the river."));
+            String event = readUntil(socket.getInputStream(), "\n\n");
+            assertTrue(event, event.startsWith("id: 1\nevent: advice\ndata: {"));
+            assertTrue(event, event.contains("\"type\":\"advice\""));
+            assertTrue(event, event.contains("\"advice\":\"Ward the river.\""));
+        }
+    }
+    
+    @Test
+    public void webSocketSubscriberGetsTextFrames() throws Exception {
+        start(PushServer.DEFAULT_CLIENT_BUFFER_BYTES);
+        try (Socket socket = connect()) {
+            // Key and accept value from the example in RFC 6455
+            send(socket, "GET /events HTTP/1.1\r\nHost: localhost\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n"
+                    + "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\nSec-WebSocket-Version: 13\r\n\r\n");
+            String headers = readHeaders(socket.getInputStream());
+            assertTrue(headers, headers.startsWith("HTTP/1.1 101 Switching Protocols\r\n"));
+            assertTrue(headers, headers.contains("Sec-WebSocket-Accept: s3pPLMBiTxaQ9kYGzzhZRbK+xOo=\r\n"));
+            awaitTrue(() -> server.getSubscriberCount() == 1);
+            
+            server.publish(PushServer.EVENT_SCENARIO, Collections.singletonMap("lane", "top"));
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            assertEquals(0x80 | PushServer.OPCODE_TEXT, in.readUnsignedByte());
+            int length = in.readUnsignedByte();
+            assertTrue("unmasked and short", length < 126);
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            String json = new String(payload, StandardCharsets.UTF_8);
+            assertTrue(json, json.contains("\"type\":\"scenario\""));
+            assertTrue(json, json.contains("\"lane\":\"top\""));
+        }
+    }
+    
+    @Test
+    public void otherPathsAreNotFound() throws Exception {
+        start(PushServer.DEFAULT_CLIENT_BUFFER_BYTES);
+        try (Socket socket = connect()) {
+            send(socket, "GET /advice HTTP/1.1\r\nHost: localhost\r\n\r\n");
+            assertTrue(readHeaders(socket.getInputStream()).startsWith("HTTP/1.1 404 Not Found\r\n"));
+            assertEquals(0, server.getSubscriberCount());
+        }
+    }
+    
+    @Test
+    public void slowClientIsDroppedWhileOthersKeepUp() throws Exception {
+        start(16 * 1024);
+        try (Socket slow = new Socket(); Socket fast = connect()) {
+            slow.setReceiveBufferSize(4096);
+            slow.connect(fast.getRemoteSocketAddress());
+            send(slow, "GET /events HTTP/1.1\r\n\r\n");
+            send(fast, "GET /events HTTP/1.1\r\n\r\n");
+            readHeaders(fast.getInputStream());
+            awaitTrue(() -> server.getSubscriberCount() == 2);
+            
+            // The fast client reads everything; the slow one never reads past its headers
+            Thread reader = new Thread(() -> drain(fast), "fast-client");
+            reader.setDaemon(true);
+            reader.start();
+            char[] text = new char[1024];
+            Arrays.fill(text, 'x');
+            String advice = new String(text);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (server.getDroppedCount() == 0 && System.nanoTime() < deadline) {
+                server.publish(PushServer.EVENT_ADVICE, Collections.singletonMap("advice", advice));
+                Thread.sleep(1);
+            }
+            
+            assertEquals(1, server.getDroppedCount());
+            awaitTrue(() -> server.getSubscriberCount() == 1);
+            assertTrue(reader.isAlive());
+        }
+    }
+    
+    private void start(int clientBufferBytes) throws IOException {
+        server = new PushServer(0, clientBufferBytes);
+        server.start();
+    }
+    
+    private Socket connect() throws IOException {
+        Socket socket = new Socket("localhost", server.getPort());
+        socket.setSoTimeout(5000);
+        return socket;
+    }
+    
+    private static void send(Socket socket, String request) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(request.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+    
+    private static String readHeaders(InputStream in) throws IOException {
+        return readUntil(in, "\r\n\r\n");
+    }
+    
+    /**
+     * Reads byte by byte so nothing after the terminator is consumed
+     */
+    private static String readUntil(InputStream in, String terminator) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        while (!bytes.toString(StandardCharsets.UTF_8).endsWith(terminator)) {
+            int b = in.read();
+            if (b < 0) {
+                throw new IOException("Connection closed after: " + bytes.toString(StandardCharsets.UTF_8));
+            }
+            bytes.write(b);
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+    
+    private static void drain(Socket socket) {
+        byte[] buffer = new byte[8192];
+        try {
+            socket.setSoTimeout(0);
+            InputStream in = socket.getInputStream();
+            while (in.read(buffer) >= 0) {
+                // Keep up with the server
+            }
+        } catch (IOException e) {
+            // Closed at the end of the test
+        }
+    }
+    
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue("condition not met within 5 s", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.lolcoach.ranking;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import com.lolcoach.model.Scenario;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import org.junit.Test;
+
+public class AdviceRankerTest {
+    private static final String[] FRAGMENTS = {"LANE", "MATCHUP", "POWER", "SITUATION", "TIMING"};
+    private static final Scenario AHEAD = new Scenario("top", 10, "Garen", 6, "Darius", 5, "ahead");
+    private static final Scenario BEHIND = new Scenario("top", 10, "Garen", 5, "Darius", 6, "behind");
+    
+    @Test
+    public void fragmentsWithinTheMarginOfTheBestAreKept() {
+        AdviceRanker ranker = ranker(0.1f, 1.0f, 0.8f, 0.2f, 0.55f);
+        int[] order = new int[FRAGMENTS.length];
+        // 0.55 is within 0.5 of the best, 0.2 and 0.1 are not
+        assertEquals(3, ranker.rank(AHEAD, order));
+        assertArrayEquals(new int[] {1, 2, 4, 3, 0}, order);
+    }
+    
+    @Test
+    public void theBestTwoAreAlwaysKept() {
+        AdviceRanker ranker = ranker(5f, -3f, 0f, -1f, -2f);
+        int[] order = new int[FRAGMENTS.length];
+        assertEquals(AdviceRanker.MIN_KEPT, ranker.rank(AHEAD, order));
+        assertEquals(0, order[0]);
+        assertEquals(2, order[1]);
+        
+        // With all scores equal everything is kept, in model order
+        assertEquals(FRAGMENTS.length, ranker(0f, 0f, 0f, 0f, 0f).rank(AHEAD, order));
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4}, order);
+        
+        AdviceRanker single = new AdviceRanker(new String[] {"LANE"}, new float[ScenarioFeatures.COUNT], new float[1]);
+        assertEquals(1, single.rank(AHEAD, new int[1]));
+    }
+    
+    @Test
+    public void scenarioFeaturesChangeTheOrder() {
+        AdviceRanker ranker = ranker(0.5f, 0.4f, 0.3f, 0f, 0.1f);
+        // Being behind makes the situation fragment the most useful one
+        int behind = Arrays.asList(ScenarioFeatures.names()).indexOf("situation=behind");
+        ranker.getWeights()[3 * ScenarioFeatures.COUNT + behind] = 2f;
+        
+        int[] order = new int[FRAGMENTS.length];
+        ranker.rank(AHEAD, order);
+        assertEquals(0, order[0]);
+        assertEquals(AdviceRanker.MIN_KEPT, ranker.rank(BEHIND, order));
+        assertEquals(3, order[0]);
+        assertEquals("SITUATION", ranker.getFragments()[order[0]]);
+    }
+    
+    @Test
+    public void savedModelRanksTheSame() throws Exception {
+        AdviceRanker ranker = ranker(0.1f, 1.0f, 0.8f, 0.2f, 0.55f);
+        ranker.getWeights()[ScenarioFeatures.COUNT + 3] = -0.7f;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ranker.save(bytes);
+        AdviceRanker loaded = AdviceRanker.load(new ByteArrayInputStream(bytes.toByteArray()));
+        
+        assertArrayEquals(FRAGMENTS, loaded.getFragments());
+        assertEquals(1, loaded.indexOf("MATCHUP"));
+        assertEquals(-1, loaded.indexOf("PROFILE"));
+        for (Scenario scenario : new Scenario[] {AHEAD, BEHIND}) {
+            int[] expected = new int[FRAGMENTS.length];
+            int[] actual = new int[FRAGMENTS.length];
+            assertEquals(ranker.rank(scenario, expected), loaded.rank(scenario, actual));
+            assertArrayEquals(expected, actual);
+        }
+    }
+    
+    /**
+     * A model that scores fragments by bias alone until weights are set
+     */
+    private static AdviceRanker ranker(float... bias) {
+        return new AdviceRanker(FRAGMENTS.clone(), new float[FRAGMENTS.length * ScenarioFeatures.COUNT], bias);
+    }
+}
@@ -0,0 +1,146 @@
+package com.lolcoach.replay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.lolcoach.CoachPipeline;
+import com.lolcoach.Parser;
+import com.lolcoach.api.RiotApiService;
+import com.lolcoach.model.Scenario;
+import com.lolcoach.service.TacticsService;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SessionLogTest {
+    private static final String MATCHUP = "I'm playing Garen top against Darius at 10 minutes";
+    private static final String FOLLOW_UP = "mid lane Ahri vs Zed, I'm behind";
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void entriesRoundTrip() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("session.log");
+        Scenario scenario = new Scenario("top", 10, "Garen", 6, "Darius", 7, "behind");
+        Map<String, Object> liveData = Collections.singletonMap("gold", 1200);
+        long before = System.currentTimeMillis();
+        try (SessionRecorder recorder = new SessionRecorder(file)) {
+            recorder.recordInput(MATCHUP);
+            recorder.recordParsed(scenario, 1_000);
+            recorder.recordLiveData(liveData);
+            recorder.recordEnriched(scenario, 2_000);
+            recorder.recordAdvice("Trade when Darius misses his Q.", 3_000);
+        }
+        
+        SessionLog log = SessionLog.read(file);
+        assertTrue(log.getStartEpochMillis() >= before);
+        List<SessionLog.Entry> entries = log.getEntries();
+        assertEquals(5, entries.size());
+        byte[] kinds = {SessionLog.INPUT, SessionLog.PARSED, SessionLog.LIVE_DATA, SessionLog.ENRICHED, SessionLog.ADVICE};
+        long offset = 0;
+        for (int i = 0; i < kinds.length; i++) {
+            assertEquals(kinds[i], entries.get(i).getKind());
+            assertTrue(entries.get(i).getOffsetNanos() >= offset);
+            offset = entries.get(i).getOffsetNanos();
+        }
+        assertEquals(MATCHUP, entries.get(0).getText());
+        Scenario parsed = entries.get(1).getScenario();
+        assertEquals("Garen", parsed.getPlayerChampion());
+        assertEquals(7, parsed.getEnemyLevel());
+        assertEquals("behind", parsed.getSituation());
+        assertEquals(1_000, entries.get(1).getLatencyNanos());
+        assertEquals(1200, ((Number) entries.get(2).getLiveData().get("gold")).intValue());
+        assertEquals("Trade when Darius misses his Q.", entries.get(4).getText());
+        assertEquals(3_000, entries.get(4).getLatencyNanos());
+    }
+    
+    @Test
+    public void truncatedTrailingEntryIsIgnored() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("session.log");
+        try (SessionRecorder recorder = new SessionRecorder(file)) {
+            recorder.recordInput(MATCHUP);
+            recorder.recordAdvice("Play safe.", 1_000);
+        }
+        // A crash part way through the next entry's payload
+        byte[] partial = new byte[SessionLog.ENTRY_HEADER_SIZE + 4];
+        partial[0] = SessionLog.INPUT;
+        partial[SessionLog.ENTRY_HEADER_SIZE - 1] = 100;
+        Files.write(file, partial, StandardOpenOption.APPEND);
+        
+        assertEquals(2, SessionLog.read(file).getEntries().size());
+    }
+    
+    @Test
+    public void replayMatchesItsOwnRecording() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("session.log");
+        try (SessionRecorder recorder = new SessionRecorder(file)) {
+            CoachPipeline pipeline = newPipeline();
+            pipeline.setRecorder(recorder);
+            pipeline.process(MATCHUP, null);
+            pipeline.process(FOLLOW_UP, null);
+        }
+        
+        ReplayReport report = replay(SessionLog.read(file));
+        assertEquals(2, report.getTurns().size());
+        assertEquals(0, report.getAdviceMismatches());
+        assertTrue(report.passed());
+    }
+    
+    @Test
+    public void changedAdviceIsReported() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("session.log");
+        String expected = newPipeline().process(MATCHUP, null).getAdvice();
+        try (SessionRecorder recorder = new SessionRecorder(file)) {
+            recorder.recordInput(MATCHUP);
+            recorder.recordAdvice(expected, 1_000);
+            recorder.recordInput(FOLLOW_UP);
+            recorder.recordAdvice("Advice from an older build.", 1_000);
+            // Never answered, so not a turn
+            recorder.recordInput("what now");
+        }
+        
+        ReplayReport report = replay(SessionLog.read(file));
+        assertEquals(2, report.getTurns().size());
+        assertEquals(1, report.getAdviceMismatches());
+        assertTrue(report.getTurns().get(0).adviceMatches());
+        ReplayReport.Turn changed = report.getTurns().get(1);
+        assertFalse(changed.adviceMatches());
+        assertEquals(FOLLOW_UP, changed.getInput());
+        assertEquals("Advice from an older build.", changed.getRecordedAdvice());
+        assertFalse(report.passed());
+        assertTrue(report.format().contains("1 advice mismatches"));
+    }
+    
+    @Test
+    public void onlyLargeSlowdownsAreRegressions() {
+        ReplayReport report = new ReplayReport(1.5, TimeUnit.MICROSECONDS.toNanos(200));
+        // Doubled, but by less than the noise floor
+        assertFalse(report.isRegression(new ReplayReport.Turn(0, "a", "x", "x", 50_000, 100_000)));
+        // Above the floor, but within the factor
+        assertFalse(report.isRegression(new ReplayReport.Turn(1, "b", "x", "x", 1_000_000, 1_400_000)));
+        assertTrue(report.isRegression(new ReplayReport.Turn(2, "c", "x", "x", 1_000_000, 2_000_000)));
+    }
+    
+    private static CoachPipeline newPipeline() {
+        return new CoachPipeline(new Parser(), new RiotApiService(), new TacticsService());
+    }
+    
+    private static ReplayReport replay(SessionLog log) {
+        // Latency on a loaded test machine says nothing; only advice is compared
+        ReplayReport report = new ReplayReport(Double.MAX_VALUE, Long.MAX_VALUE);
+        ReplayClock clock = new ReplayClock(Instant.ofEpochMilli(log.getStartEpochMillis()), ZoneId.systemDefault());
+        new SessionReplayer(newPipeline(), clock).replay(log, 0, report);
+        return report;
+    }
+}
@@ -0,0 +1,100 @@
+package com.lolcoach.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.lolcoach.model.MatchData;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class BuildRecommenderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private int matchNumber;
+    
+    @Test
+    public void ownedItemsAreNotRecommended() {
+        BuildRecommender recommender = new BuildRecommender();
+        ingest(recommender, 3, "victory", "Trinity Force", "Sheen");
+        ingest(recommender, 2, "defeat", "Sheen", "Phage");
+        
+        assertEquals("Trinity Force", recommender.recommendNext(new String[0], -1, null).getItem());
+        BuildRecommender.Recommendation next = recommender.recommendNext(new String[] {"Trinity Force"}, -1, null);
+        assertNotNull(next);
+        assertEquals("Sheen", next.getItem());
+    }
+    
+    @Test
+    public void unaffordableItemsAreSkipped() {
+        BuildRecommender recommender = new BuildRecommender();
+        ingest(recommender, 3, "victory", "Trinity Force");
+        ingest(recommender, 2, "victory", "Sheen");
+        ingest(recommender, 1, "defeat", "Sheen");
+        
+        assertEquals("Trinity Force", recommender.recommendNext(null, 4000, null).getItem());
+        assertEquals("Sheen", recommender.recommendNext(null, 800, null).getItem());
+    }
+    
+    @Test
+    public void nothingAffordableInTheTopRowsGivesNull() {
+        BuildRecommender recommender = new BuildRecommender();
+        ingest(recommender, 2, "victory", "Trinity Force", "Black Cleaver");
+        ingest(recommender, 2, "defeat", "Infinity Edge");
+        
+        assertNull(recommender.recommendNext(null, 100, "Darius"));
+        assertNull(recommender.recommendNext(new String[] {"Trinity Force"}, 100, null));
+    }
+    
+    @Test
+    public void matchesAppendedByAnotherProcessArePickedUp() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("matches.bin");
+        try (MatchStore store = new MatchStore(file)) {
+            store.append(match("victory", "Sheen"));
+            BuildRecommender recommender = BuildRecommender.attach(store);
+            assertEquals(1, recommender.getMatchCount());
+            
+            store.append(match("victory", "Sheen"));
+            assertEquals(2, recommender.getMatchCount());
+            
+            // The importer writes through its own store instance, as another process would
+            Path source = folder.newFile("matches.jsonl").toPath();
+            Files.write(source, Arrays.asList(
+                    "{\"matchId\": \"import-1\", \"timestamp\": \"2024-05-01T20:00:00\", \"outcome\": \"victory\","
+                            + " \"additionalData\": {\"items\": [\"Phage\"]}}",
+                    "not json",
+                    "{\"matchId\": \"import-2\", \"outcome\": \"defeat\", \"additionalData\": {\"items\": [\"Phage\"]}}"),
+                    StandardCharsets.UTF_8);
+            MatchImporter importer = new MatchImporter();
+            assertEquals(2, importer.importFile(source, new MatchStore(file)));
+            // Importing the same file again adds nothing
+            assertEquals(0, importer.importFile(source, new MatchStore(file)));
+            assertEquals(2, recommender.getMatchCount());
+            
+            assertEquals(2, store.poll());
+            assertEquals(4, recommender.getMatchCount());
+            assertEquals(0, store.poll());
+        }
+    }
+    
+    private void ingest(BuildRecommender recommender, int times, String outcome, String... items) {
+        for (int i = 0; i < times; i++) {
+            recommender.ingest(match(outcome, items));
+        }
+    }
+    
+    private MatchData match(String outcome, String... items) {
+        MatchData match = new MatchData("m" + ++matchNumber, LocalDateTime.of(2024, 5, 1, 20, 0), "top",
+                "Garen", "Darius", "even", outcome, "");
+        match.setAdditionalData(Collections.singletonMap("items", items));
+        return match;
+    }
+}
@@ -0,0 +1,80 @@
+package com.lolcoach.service;
+
+import static org.junit.Assert.assertEquals;
+
+import com.lolcoach.model.MatchData;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MatchStoreTest {
+    // Byte offset of a record's length field, see MatchDataCodec
+    private static final int LENGTH_OFFSET = 4;
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void tornTailIsIgnored() throws Exception {
+        MatchStore store = storeWithTwoMatches();
+        long size = Files.size(store.getFile());
+        // A crash half way through appending a third match
+        byte[] third = new byte[80];
+        System.arraycopy(Files.readAllBytes(store.getFile()), 0, third, 0, third.length);
+        Files.write(store.getFile(), third, StandardOpenOption.APPEND);
+        
+        List<MatchData> matches = store.readAll();
+        assertEquals(2, matches.size());
+        assertEquals("m2", matches.get(1).getMatchId());
+        assertEquals(size + 80, Files.size(store.getFile()));
+    }
+    
+    @Test
+    public void zeroLengthRecordStopsTheScan() throws Exception {
+        MatchStore store = storeWithTwoMatches();
+        setSecondLength(store, 0);
+        assertEquals(1, store.readAll().size());
+    }
+    
+    @Test
+    public void negativeLengthStopsTheScan() throws Exception {
+        MatchStore store = storeWithTwoMatches();
+        setSecondLength(store, -100);
+        assertEquals(1, store.readAll().size());
+    }
+    
+    @Test
+    public void lengthPastTheEndStopsTheScan() throws Exception {
+        MatchStore store = storeWithTwoMatches();
+        setSecondLength(store, Integer.MAX_VALUE);
+        List<MatchData> matches = store.readAll();
+        assertEquals(1, matches.size());
+        assertEquals("m1", matches.get(0).getMatchId());
+    }
+    
+    private MatchStore storeWithTwoMatches() throws IOException {
+        MatchStore store = new MatchStore(folder.getRoot().toPath().resolve("matches.bin"));
+        store.append(new MatchData("m1", LocalDateTime.of(2024, 5, 1, 20, 0), "top", "Garen", "Darius", "even", "victory", ""));
+        store.append(new MatchData("m2", LocalDateTime.of(2024, 5, 2, 20, 0), "mid", "Ahri", "Zed", "behind", "defeat", ""));
+        return store;
+    }
+    
+    private static void setSecondLength(MatchStore store, int length) throws IOException {
+        Path file = store.getFile();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer first = ByteBuffer.allocate(4);
+            channel.read(first, LENGTH_OFFSET);
+            int second = first.flip().getInt();
+            ByteBuffer value = ByteBuffer.allocate(4).putInt(length);
+            channel.write(value.flip(), second + LENGTH_OFFSET);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.lolcoach.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.lolcoach.model.Scenario;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class PowerCurvesTest {
+    private final PowerCurves curves = new PowerCurves();
+    
+    @Test
+    public void nothingToSayWithoutLevelsOrItems() {
+        assertNull(curves.describe(new Scenario("top", 10, "Garen", 6, "Darius", Scenario.UNKNOWN_LEVEL, "even")));
+        assertNull(curves.describe(Scenario.unknown()));
+    }
+    
+    @Test
+    public void levelLeadInAMirrorLastsUntilTheyLevelUp() {
+        assertEquals("You out-scale them at 6 vs 3, trade now before they hit 6. ",
+                     curves.describe(mirror(6, 3)));
+        assertEquals("They're stronger until you hit 6, play safe and trade after. ",
+                     curves.describe(mirror(3, 6)));
+        assertEquals("Power is even at 6 vs 6, trade around cooldowns. ", curves.describe(mirror(6, 6)));
+    }
+    
+    @Test
+    public void describedEdgeAgreesWithTheTable() {
+        Scenario scenario = new Scenario("top", 10, "Garen", 6, "Teemo", 6, "even");
+        float advantage = curves.advantage(scenario);
+        String advice = curves.describe(scenario);
+        if (advantage >= PowerCurves.EDGE) {
+            assertTrue(advice, advice.startsWith("You're stronger at 6 vs 6") || advice.startsWith("You out-scale"));
+        } else if (advantage <= -PowerCurves.EDGE) {
+            assertTrue(advice, advice.startsWith("They're stronger"));
+        } else {
+            assertTrue(advice, advice.startsWith("Power is even"));
+        }
+        // Swapping sides flips the edge
+        float swapped = curves.advantage(new Scenario("top", 10, "Teemo", 6, "Garen", 6, "even"));
+        assertEquals(-advantage, swapped, 1e-4);
+    }
+    
+    @Test
+    public void unspentGoldThatCompletesAnItemSuggestsABack() {
+        Scenario scenario = mirror(6, 6);
+        Map<String, Object> data = new HashMap<>();
+        data.put("items", new String[] {"Phage"});
+        data.put("gold", 2000);
+        scenario.setAdditionalData(data);
+        String advice = curves.describe(scenario);
+        assertTrue(advice, advice.endsWith("Back to spend your 2000 gold, reaching your first item swings the lane your way. "));
+        
+        // Not enough for the next tier
+        data.put("gold", 100);
+        assertTrue(curves.describe(scenario).indexOf("Back to spend") < 0);
+    }
+    
+    private static Scenario mirror(int playerLevel, int enemyLevel) {
+        return new Scenario("top", 10, "Garen", playerLevel, "Garen", enemyLevel, "even");
+    }
+}
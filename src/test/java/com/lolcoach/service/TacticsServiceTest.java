@@ -0,0 +1,106 @@
+package com.lolcoach.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.lolcoach.api.RiotApiService;
+import com.lolcoach.model.AdviceResult;
+import com.lolcoach.model.AdviceTier;
+import com.lolcoach.model.Intent;
+import com.lolcoach.model.Scenario;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.Test;
+
+public class TacticsServiceTest {
+    
+    @Test
+    public void tiersDegradeAsTheDeadlineTightens() {
+        SlowHistory history = new SlowHistory();
+        TacticsService service = new TacticsService();
+        service.setHistorySource(history);
+        Scenario scenario = new Scenario("top", 10, "Garen", 6, "Darius", 6, "even");
+        
+        // Lookups finish in time: the full answer, which is also cached
+        AdviceResult full = service.generateAdvice(scenario, Deadline.after(5000));
+        assertEquals(AdviceTier.FULL, full.getTier());
+        assertTrue(full.getAdvice().endsWith("Historical win rate here: 52%."));
+        
+        // Lookups miss the deadline: the cached full answer
+        history.slow = true;
+        AdviceResult cached = service.generateAdvice(scenario, Deadline.after(100));
+        assertEquals(AdviceTier.CACHED, cached.getTier());
+        assertEquals(full.getAdvice(), cached.getAdvice());
+        
+        // Nothing cached for another matchup: advice from the rules alone
+        Scenario other = new Scenario("mid", 10, "Ahri", 6, "Zed", 6, "behind");
+        AdviceResult ruleOnly = service.generateAdvice(other, Deadline.after(100));
+        assertEquals(AdviceTier.RULE_ONLY, ruleOnly.getTier());
+        assertFalse(ruleOnly.getAdvice().isEmpty());
+        
+        // No time at all and nothing cached: the generic tip
+        Scenario third = new Scenario("bottom", 10, "Jinx", 6, "Caitlyn", 6, "ahead");
+        AdviceResult generic = service.generateAdvice(third, Deadline.after(0));
+        assertEquals(AdviceTier.GENERIC, generic.getTier());
+        // The cached answer survives an expired deadline too
+        assertEquals(AdviceTier.CACHED, service.generateAdvice(scenario, Deadline.after(0)).getTier());
+        
+        Map<AdviceTier, Long> counts = service.getTierCounts();
+        assertEquals(Long.valueOf(1), counts.get(AdviceTier.FULL));
+        assertEquals(Long.valueOf(2), counts.get(AdviceTier.CACHED));
+        assertEquals(Long.valueOf(1), counts.get(AdviceTier.RULE_ONLY));
+        assertEquals(Long.valueOf(1), counts.get(AdviceTier.GENERIC));
+    }
+    
+    @Test
+    public void questionsGoToTheirIntentHandler() {
+        TacticsService service = new TacticsService();
+        Scenario scenario = new Scenario("top", 10, "Garen", 6, "Darius", 6, "even");
+        scenario.setIntent(Intent.RECALL);
+        assertTrue(service.generateAdvice(scenario).startsWith("Shove the wave into their tower first"));
+        scenario.setIntent(Intent.OBJECTIVE);
+        assertTrue(service.generateAdvice(scenario).contains("herald"));
+    }
+    
+    @Test
+    public void cachedAdviceIsKeptPerIntentAndLevels() {
+        TacticsService service = new TacticsService();
+        Scenario laneState = new Scenario("top", 10, "Garen", 6, "Darius", 6, "even");
+        laneState.setIntent(Intent.LANE_STATE);
+        assertEquals(AdviceTier.FULL, service.generateAdvice(laneState, Deadline.after(5000)).getTier());
+        assertEquals(AdviceTier.CACHED, service.generateAdvice(laneState, Deadline.after(0)).getTier());
+        
+        // The same matchup asked about recalling, or at other levels, must not get the lane answer
+        Scenario recall = new Scenario(laneState);
+        recall.setIntent(Intent.RECALL);
+        assertEquals(AdviceTier.GENERIC, service.generateAdvice(recall, Deadline.after(0)).getTier());
+        Scenario later = new Scenario(laneState);
+        later.setEnemyLevel(9);
+        assertEquals(AdviceTier.GENERIC, service.generateAdvice(later, Deadline.after(0)).getTier());
+    }
+    
+    /**
+     * Connected history source whose lookups can be made to take a second
+     */
+    private static final class SlowHistory extends RiotApiService {
+        volatile boolean slow;
+        
+        @Override
+        public boolean isConnected() {
+            return true;
+        }
+        
+        @Override
+        public Map<String, Object> fetchHistoricalData(Map<String, Object> criteria, Deadline deadline) {
+            if (slow) {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return Collections.singletonMap("winRate", 0.52);
+        }
+    }
+}
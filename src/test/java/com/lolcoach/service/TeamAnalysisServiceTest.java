@@ -0,0 +1,110 @@
+package com.lolcoach.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.lolcoach.model.Scenario;
+import com.lolcoach.model.TeamAdvice;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+
+public class TeamAnalysisServiceTest {
+    private final SlowLaneTactics tactics = new SlowLaneTactics("mid");
+    private final TeamAnalysisService service = new TeamAnalysisService(tactics);
+    
+    @After
+    public void shutdown() {
+        service.shutdown();
+    }
+    
+    @Test
+    public void lanesMissingTheDeadlineAreLeftOut() {
+        long start = System.nanoTime();
+        TeamAdvice advice = service.analyzeTeam(playerScenario(), liveData(), 500);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        
+        assertTrue(advice.isPartial());
+        assertTrue("took " + elapsedMillis + " ms", elapsedMillis < 2500);
+        assertEquals(new HashSet<>(Arrays.asList("top", "jungle", "bottom", "support")), new HashSet<>(lanes(advice)));
+        assertEquals("top", advice.getLanes().get(0).getLane());
+        assertFalse(advice.getCalls().isEmpty());
+        // The slow lane was cancelled rather than left running
+        assertTrue(await(tactics.interrupted));
+    }
+    
+    @Test
+    public void allLanesWithinTheDeadlineAreComplete() {
+        tactics.slowLane = null;
+        TeamAdvice advice = service.analyzeTeam(playerScenario(), liveData(), 5000);
+        
+        assertFalse(advice.isPartial());
+        assertEquals(5, advice.getLanes().size());
+        // Sorted by score: the player's lead first, the struggling lane last
+        assertEquals("top", advice.getLanes().get(0).getLane());
+        assertEquals("mid", advice.getLanes().get(4).getLane());
+    }
+    
+    private static Scenario playerScenario() {
+        return new Scenario("top", 15, "Garen", 9, "Darius", 8, "dominating");
+    }
+    
+    private static Map<String, Object> liveData() {
+        Map<String, Object> teammates = new HashMap<>();
+        teammates.put("bottom", "ahead");
+        teammates.put("mid", "struggling");
+        Map<String, Object> liveData = new HashMap<>();
+        liveData.put("teammateStates", teammates);
+        liveData.put("enemyStates", Map.of("support", "behind"));
+        liveData.put("objectiveTimers", Map.of("dragon", "1:30"));
+        return liveData;
+    }
+    
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new AssertionError(e);
+        }
+    }
+    
+    private static List<String> lanes(TeamAdvice advice) {
+        List<String> lanes = new ArrayList<>();
+        for (TeamAdvice.LaneAssessment lane : advice.getLanes()) {
+            lanes.add(lane.getLane());
+        }
+        return lanes;
+    }
+    
+    /**
+     * Takes ten seconds to advise one lane unless interrupted
+     */
+    private static final class SlowLaneTactics extends TacticsService {
+        volatile String slowLane;
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        
+        SlowLaneTactics(String slowLane) {
+            this.slowLane = slowLane;
+        }
+        
+        @Override
+        public String generateAdvice(Scenario scenario) {
+            if (scenario.getLane().equals(slowLane)) {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+            return super.generateAdvice(scenario);
+        }
+    }
+}
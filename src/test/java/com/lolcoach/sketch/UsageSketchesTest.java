@@ -0,0 +1,44 @@
+package com.lolcoach.sketch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class UsageSketchesTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    @Test
+    public void countsAccumulateAcrossRuns() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("usage.bin");
+        
+        UsageSketches first = UsageSketches.loadOrCreate(file);
+        assertTrue(first.getScenarios().entries().isEmpty());
+        record(first, "top|Garen|Darius", 3);
+        record(first, "mid|Ahri|Zed", 1);
+        first.save(file);
+        
+        UsageSketches second = UsageSketches.loadOrCreate(file);
+        record(second, "top|Garen|Darius", 2);
+        record(second, "bot|Jinx|Caitlyn", 1);
+        second.save(file);
+        
+        UsageSketches third = UsageSketches.load(file);
+        TopK.Entry hottest = third.getScenarios().entries().get(0);
+        assertEquals("top|Garen|Darius", hottest.getKey());
+        assertEquals(5, hottest.getCount());
+        assertEquals(3, third.getDistinctScenarios().estimate());
+        assertTrue(Files.notExists(file.resolveSibling("usage.bin.tmp")));
+    }
+    
+    private static void record(UsageSketches sketches, String scenarioKey, int times) {
+        for (int i = 0; i < times; i++) {
+            sketches.recordAdvice(scenarioKey);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.lolcoach.staticdata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.lolcoach.model.ChampionData;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class StaticDataCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private Path cacheDir;
+    
+    @Before
+    public void importPatches() throws IOException {
+        cacheDir = folder.newFolder("cache").toPath();
+        importPatch("14.1.1", 500);
+        importPatch("14.2.1", 600);
+    }
+    
+    @Test
+    public void runningCacheFollowsCurrent() throws IOException {
+        StaticDataCache.activate(cacheDir, "14.1.1");
+        try (StaticDataCache cache = StaticDataCache.open(cacheDir)) {
+            assertEquals("14.1.1", cache.getVersion());
+            assertEquals(500, cache.getChampion("ahri").getStat("hp"), 0);
+            
+            StaticDataCache.activate(cacheDir, "14.2.1");
+            cache.refresh();
+            assertEquals("14.2.1", cache.getVersion());
+            assertEquals(600, cache.getChampion("Ahri").getStat("hp"), 0);
+            assertEquals(Arrays.asList("14.1.1", "14.2.1"), cache.getAvailableVersions());
+        }
+    }
+    
+    @Test
+    public void readersNeverSeeAPartialSwitch() throws Exception {
+        StaticDataCache.activate(cacheDir, "14.1.1");
+        Path current = cacheDir.resolve(StaticDataFormat.CURRENT_FILE);
+        List<String> errors = new CopyOnWriteArrayList<>();
+        try (StaticDataCache cache = StaticDataCache.open(cacheDir)) {
+            Thread reader = new Thread(() -> {
+                while (!Thread.currentThread().isInterrupted()) {
+                    try {
+                        String pointer = new String(Files.readAllBytes(current), StandardCharsets.UTF_8);
+                        if (!pointer.equals("14.1.1") && !pointer.equals("14.2.1")) {
+                            errors.add("CURRENT read as \"" + pointer + "\"");
+                        }
+                    } catch (IOException e) {
+                        errors.add("CURRENT unreadable: " + e);
+                    }
+                    ChampionData ahri = cache.getChampion("ahri");
+                    double hp = ahri != null ? ahri.getStat("hp") : -1;
+                    if (hp != 500 && hp != 600) {
+                        errors.add("Ahri read with hp " + hp);
+                    }
+                }
+            }, "static-data-reader");
+            reader.start();
+            for (int i = 0; i < 200; i++) {
+                StaticDataCache.activate(cacheDir, i % 2 == 0 ? "14.2.1" : "14.1.1");
+                cache.refresh();
+            }
+            reader.interrupt();
+            reader.join(5000);
+            assertEquals("14.1.1", cache.getVersion());
+        }
+        assertTrue(errors.toString(), errors.isEmpty());
+    }
+    
+    @Test
+    public void onlyImportedPatchesCanBeActivated() throws IOException {
+        try {
+            StaticDataCache.activate(cacheDir, "15.1.1");
+            fail("A patch that was never imported must not become current");
+        } catch (IOException expected) {
+        }
+        assertTrue(Files.notExists(cacheDir.resolve(StaticDataFormat.CURRENT_FILE)));
+        // Without a pointer the newest import is opened
+        Files.setLastModifiedTime(cacheDir.resolve("14.1.1" + StaticDataFormat.FILE_SUFFIX),
+                FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        try (StaticDataCache cache = StaticDataCache.open(cacheDir)) {
+            assertNotNull(cache);
+            assertEquals("14.2.1", cache.getVersion());
+        }
+    }
+    
+    private void importPatch(String version, int hp) throws IOException {
+        Path bundle = folder.newFolder("dragontail-" + version).toPath();
+        String json = "{\"version\":\"" + version + "\",\"data\":{\"Ahri\":{\"id\":\"Ahri\",\"name\":\"Ahri\","
+                + "\"title\":\"the Nine-Tailed Fox\",\"stats\":{\"hp\":" + hp + "}}}}";
+        Files.write(bundle.resolve("championFull.json"), json.getBytes(StandardCharsets.UTF_8));
+        assertEquals(version, new DataDragonImporter().importBundle(bundle, cacheDir));
+    }
+}